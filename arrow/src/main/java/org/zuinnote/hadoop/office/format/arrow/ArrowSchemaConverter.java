@@ -0,0 +1,115 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.arrow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.poi.ss.util.CellReference;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericBigDecimalDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericBooleanDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericByteDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDateDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDoubleDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericFloatDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericIntegerDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericLongDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericShortDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericTimestampDataType;
+
+/**
+ * Maps the simple datatypes of a spreadsheet (see {@link org.zuinnote.hadoop.office.format.common.converter.ExcelConverterSimpleSpreadSheetCellDAO}) to an Arrow schema. All fields are nullable, because any cell can be empty.
+ *
+ * <ul>
+ * <li>GenericStringDataType or no datatype: Utf8</li>
+ * <li>GenericBooleanDataType: Bool</li>
+ * <li>GenericByteDataType, GenericShortDataType, GenericIntegerDataType, GenericLongDataType: signed Int with 8, 16, 32, 64 bit</li>
+ * <li>GenericFloatDataType, GenericDoubleDataType: FloatingPoint with single or double precision</li>
+ * <li>GenericBigDecimalDataType: Decimal with the precision and scale of the datatype</li>
+ * <li>GenericDateDataType: Date in days since the epoch</li>
+ * <li>GenericTimestampDataType: Timestamp in milliseconds without timezone</li>
+ * </ul>
+ *
+ */
+public class ArrowSchemaConverter {
+
+	private ArrowSchemaConverter() {
+	}
+
+	/**
+	 * Creates the Arrow schema of a spreadsheet
+	 *
+	 * @param schemaRow datatypes of the columns, e.g. inferred by ExcelConverterSimpleSpreadSheetCellDAO
+	 * @param header    names of the columns (e.g. the header read by the parser) or null. Columns without a name are named after their column in Excel (A, B, ...)
+	 * @return schema with one nullable field per column
+	 */
+	public static Schema getSchema(GenericDataType[] schemaRow, String[] header) {
+		List<Field> fields = new ArrayList<>(schemaRow.length);
+		for (int i = 0; i < schemaRow.length; i++) {
+			String name = null;
+			if ((header != null) && (i < header.length)) {
+				name = header[i];
+			}
+			if ((name == null) || ("".equals(name))) {
+				name = CellReference.convertNumToColString(i);
+			}
+			fields.add(new Field(name, new FieldType(true, getArrowType(schemaRow[i]), null), null));
+		}
+		return new Schema(fields);
+	}
+
+	/**
+	 * Returns the Arrow type of a simple datatype
+	 *
+	 * @param dataType datatype of a column. Null is treated as a string
+	 * @return Arrow type
+	 */
+	public static ArrowType getArrowType(GenericDataType dataType) {
+		if (dataType instanceof GenericBooleanDataType) {
+			return ArrowType.Bool.INSTANCE;
+		} else if (dataType instanceof GenericByteDataType) {
+			return new ArrowType.Int(8, true);
+		} else if (dataType instanceof GenericShortDataType) {
+			return new ArrowType.Int(16, true);
+		} else if (dataType instanceof GenericIntegerDataType) {
+			return new ArrowType.Int(32, true);
+		} else if (dataType instanceof GenericLongDataType) {
+			return new ArrowType.Int(64, true);
+		} else if (dataType instanceof GenericFloatDataType) {
+			return new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+		} else if (dataType instanceof GenericDoubleDataType) {
+			return new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+		} else if (dataType instanceof GenericBigDecimalDataType) {
+			GenericBigDecimalDataType decimalType = (GenericBigDecimalDataType) dataType;
+			// the precision includes the digits of the scale, which is not always the case for inferred schemas
+			return new ArrowType.Decimal(Math.max(decimalType.getPrecision(), decimalType.getScale()), decimalType.getScale());
+		} else if (dataType instanceof GenericDateDataType) {
+			return new ArrowType.Date(DateUnit.DAY);
+		} else if (dataType instanceof GenericTimestampDataType) {
+			return new ArrowType.Timestamp(TimeUnit.MILLISECOND, null);
+		}
+		return ArrowType.Utf8.INSTANCE;
+	}
+
+}
@@ -0,0 +1,430 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.arrow;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.zuinnote.hadoop.office.format.common.OfficeReader;
+import org.zuinnote.hadoop.office.format.common.converter.ExcelConverterSimpleSpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericBigDecimalDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericBooleanDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericByteDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDateDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDoubleDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericFloatDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericIntegerDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericLongDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericShortDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericTimestampDataType;
+import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
+
+/**
+ * Reads the rows of an OfficeReader into batches of Arrow vectors (one VectorSchemaRoot, which is reloaded by {@link #loadNextBatch()}), e.g. for vectorized engines or Arrow IPC files (see {@link #writeArrowFile(WritableByteChannel)}).
+ *
+ * The cells are converted according to the schema of an ExcelConverterSimpleSpreadSheetCellDAO, which is either inferred (see {@link #inferSchema(OfficeReader, ExcelConverterSimpleSpreadSheetCellDAO, long)}) or set by the caller. The values are the same as the ones returned by getDataAccordingToSchema, but they are written directly into the vectors instead of creating an object per cell. Raw numeric values (see HadoopOfficeReadConfiguration.setReadRawValues) do not need to be formatted and parsed at all.
+ * Empty cells, cells that cannot be converted to the datatype of their column and cells of columns outside the schema are null. In contrast to getDataAccordingToSchema, values that do not fit into the precision of a decimal column are null, because the precision is part of the Arrow type.
+ *
+ * Rows of the OfficeReader may be reused (see HadoopOfficeReadConfiguration.setReuseRows), because they are not kept after they have been converted.
+ *
+ */
+public class OfficeArrowReader implements AutoCloseable {
+	private static final Log LOG = LogFactory.getLog(OfficeArrowReader.class.getName());
+	public static final int DEFAULT_BATCHSIZE = 4096;
+
+	private static final long MILLIS_PER_DAY = 24L * 60L * 60L * 1000L;
+	private static final byte TYPE_STRING = 0;
+	private static final byte TYPE_BOOLEAN = 1;
+	private static final byte TYPE_BYTE = 2;
+	private static final byte TYPE_SHORT = 3;
+	private static final byte TYPE_INTEGER = 4;
+	private static final byte TYPE_LONG = 5;
+	private static final byte TYPE_FLOAT = 6;
+	private static final byte TYPE_DOUBLE = 7;
+	private static final byte TYPE_DECIMAL = 8;
+	private static final byte TYPE_DATE = 9;
+	private static final byte TYPE_TIMESTAMP = 10;
+
+	private final OfficeReader officeReader;
+	private final ExcelConverterSimpleSpreadSheetCellDAO converter;
+	private final int batchSize;
+	private final VectorSchemaRoot root;
+	private final FieldVector[] vectors;
+	private final byte[] types;
+	private final int[] scales;
+	private final TimeZone timeZone;
+	private boolean warnedOutsideSchema = false;
+	private boolean finished = false;
+
+	/**
+	 * Creates a reader with the default batch size
+	 *
+	 * @param officeReader OfficeReader, which has already parsed the document
+	 * @param converter    converter with the schema of the document (see {@link #inferSchema(OfficeReader, ExcelConverterSimpleSpreadSheetCellDAO, long)} or setSchemaRow). It also defines the formats of formatted dates and decimals
+	 * @param header       names of the columns or null (see {@link ArrowSchemaConverter#getSchema(GenericDataType[], String[])})
+	 * @param allocator    allocator of the vectors
+	 */
+	public OfficeArrowReader(OfficeReader officeReader, ExcelConverterSimpleSpreadSheetCellDAO converter, String[] header, BufferAllocator allocator) {
+		this(officeReader, converter, header, allocator, DEFAULT_BATCHSIZE);
+	}
+
+	/**
+	 *
+	 * @param officeReader OfficeReader, which has already parsed the document
+	 * @param converter    converter with the schema of the document (see {@link #inferSchema(OfficeReader, ExcelConverterSimpleSpreadSheetCellDAO, long)} or setSchemaRow). It also defines the formats of formatted dates and decimals
+	 * @param header       names of the columns or null (see {@link ArrowSchemaConverter#getSchema(GenericDataType[], String[])})
+	 * @param allocator    allocator of the vectors
+	 * @param batchSize    maximum number of rows of a batch
+	 */
+	public OfficeArrowReader(OfficeReader officeReader, ExcelConverterSimpleSpreadSheetCellDAO converter, String[] header, BufferAllocator allocator, int batchSize) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Batch size must be greater than 0: " + batchSize);
+		}
+		GenericDataType[] schemaRow = converter.getSchemaRow();
+		if (schemaRow.length == 0) {
+			throw new IllegalArgumentException("Converter does not have a schema. Please infer or set the schema first");
+		}
+		this.officeReader = officeReader;
+		this.converter = converter;
+		this.batchSize = batchSize;
+		this.timeZone = TimeZone.getDefault();
+		this.root = VectorSchemaRoot.create(ArrowSchemaConverter.getSchema(schemaRow, header), allocator);
+		List<FieldVector> fieldVectors = this.root.getFieldVectors();
+		this.vectors = fieldVectors.toArray(new FieldVector[fieldVectors.size()]);
+		this.types = new byte[schemaRow.length];
+		this.scales = new int[schemaRow.length];
+		for (int i = 0; i < schemaRow.length; i++) {
+			this.types[i] = getType(schemaRow[i]);
+			if (schemaRow[i] instanceof GenericBigDecimalDataType) {
+				this.scales[i] = ((GenericBigDecimalDataType) schemaRow[i]).getScale();
+			}
+			this.vectors[i].setInitialCapacity(batchSize);
+		}
+	}
+
+	/**
+	 * Infers the schema of a document from its first rows. Note: The rows are consumed, so the document needs to be opened again to read the data (as for the Hadoop and Flink formats inferring schemas)
+	 *
+	 * @param officeReader  OfficeReader, which has already parsed the document
+	 * @param converter     converter, which is updated with the inferred schema
+	 * @param maxInferRows  maximum number of rows used to infer the schema. If it is not greater than 0 then all rows are used
+	 * @return inferred schema
+	 */
+	public static GenericDataType[] inferSchema(OfficeReader officeReader, ExcelConverterSimpleSpreadSheetCellDAO converter, long maxInferRows) {
+		long inferredRows = 0;
+		Object[] currentRow = officeReader.getNext();
+		while (currentRow != null) {
+			converter.updateSpreadSheetCellRowToInferSchemaInformation((SpreadSheetCellDAO[]) currentRow);
+			inferredRows++;
+			if ((maxInferRows > 0) && (inferredRows >= maxInferRows)) {
+				break;
+			}
+			currentRow = officeReader.getNext();
+		}
+		return converter.getSchemaRow();
+	}
+
+	/**
+	 *
+	 * @return vectors of the current batch. The same VectorSchemaRoot is reloaded for each batch
+	 */
+	public VectorSchemaRoot getVectorSchemaRoot() {
+		return this.root;
+	}
+
+	/**
+	 * Reads the next batch of rows into the VectorSchemaRoot
+	 *
+	 * @return true, if the batch contains rows, false if the document has been read completely (the VectorSchemaRoot has 0 rows then)
+	 */
+	public boolean loadNextBatch() {
+		for (FieldVector currentVector : this.vectors) {
+			currentVector.allocateNew(); // releases the previous batch, all values are null
+		}
+		int rowCount = 0;
+		// the parser must not be called again after the last row has been read
+		while ((!this.finished) && (rowCount < this.batchSize)) {
+			SpreadSheetCellDAO[] currentRow = (SpreadSheetCellDAO[]) this.officeReader.getNext();
+			if (currentRow == null) {
+				this.finished = true;
+				break;
+			}
+			this.setRow(rowCount, currentRow);
+			rowCount++;
+		}
+		this.root.setRowCount(rowCount);
+		return rowCount > 0;
+	}
+
+	/**
+	 * Writes all remaining rows of the document as an Arrow IPC file with one record batch per loaded batch
+	 *
+	 * @param out channel of the Arrow file. It is closed afterwards
+	 * @return number of rows written
+	 * @throws IOException in case the Arrow file cannot be written
+	 */
+	public long writeArrowFile(WritableByteChannel out) throws IOException {
+		long rows = 0;
+		try (ArrowFileWriter writer = new ArrowFileWriter(this.root, null, out)) {
+			writer.start();
+			while (this.loadNextBatch()) {
+				writer.writeBatch();
+				rows += this.root.getRowCount();
+			}
+			writer.end();
+		}
+		return rows;
+	}
+
+	/**
+	 * Releases the vectors. The OfficeReader is not closed
+	 */
+	@Override
+	public void close() {
+		this.root.close();
+	}
+
+	/**
+	 * Sets the values of a row in the vectors
+	 *
+	 * @param index position of the row in the batch
+	 * @param row   cells of the row
+	 */
+	private void setRow(int index, SpreadSheetCellDAO[] row) {
+		for (SpreadSheetCellDAO currentCell : row) {
+			if ((currentCell == null) || (ExcelConverterSimpleSpreadSheetCellDAO.isEmptyCell(currentCell))) {
+				continue;
+			}
+			int column = getColumn(currentCell.getAddress());
+			if ((column < 0) || (column >= this.vectors.length)) {
+				if (!this.warnedOutsideSchema) {
+					LOG.warn("No schema defined for column of cell " + currentCell.getAddress() + ". Cells outside the schema are ignored.");
+					this.warnedOutsideSchema = true;
+				}
+				continue;
+			}
+			this.setValue(index, column, currentCell);
+		}
+	}
+
+	/**
+	 * Converts a cell to the datatype of its column and sets it in the vector. The vector stays null if it cannot be converted
+	 *
+	 * @param index  position of the row in the batch
+	 * @param column column of the cell
+	 * @param cell   non-empty cell
+	 */
+	private void setValue(int index, int column, SpreadSheetCellDAO cell) {
+		FieldVector vector = this.vectors[column];
+		switch (this.types[column]) {
+		case TYPE_BOOLEAN:
+			if (cell.getRawType() == SpreadSheetCellDAO.RAWTYPE_BOOLEAN) {
+				((BitVector) vector).setSafe(index, cell.getRawBooleanValue() ? 1 : 0);
+			} else if ("true".equalsIgnoreCase(cell.getFormattedValue())) {
+				((BitVector) vector).setSafe(index, 1);
+			} else if ("false".equalsIgnoreCase(cell.getFormattedValue())) {
+				((BitVector) vector).setSafe(index, 0);
+			}
+			break;
+		case TYPE_BYTE:
+		case TYPE_SHORT:
+		case TYPE_INTEGER:
+		case TYPE_LONG:
+			this.setIntegralValue(index, column, cell);
+			break;
+		case TYPE_FLOAT:
+		case TYPE_DOUBLE:
+			this.setFloatingPointValue(index, column, cell);
+			break;
+		case TYPE_DECIMAL:
+			BigDecimal decimal = this.converter.getDecimalValue(cell);
+			if (decimal != null) {
+				try {
+					((DecimalVector) vector).setSafe(index, decimal.setScale(this.scales[column], RoundingMode.HALF_UP));
+				} catch (UnsupportedOperationException e) {
+					LOG.warn("Decimal in cell " + cell.getAddress() + " does not fit into the precision of the schema: " + e.getMessage());
+				}
+			}
+			break;
+		case TYPE_DATE:
+			Date date = this.converter.getDateValue(cell);
+			if (date != null) {
+				// dates are local dates (e.g. as parsed by the date format), the vector contains days since the epoch
+				long time = date.getTime();
+				((DateDayVector) vector).setSafe(index, (int) Math.floorDiv(time + this.timeZone.getOffset(time), MILLIS_PER_DAY));
+			}
+			break;
+		case TYPE_TIMESTAMP:
+			Date timestamp = this.converter.getDateValue(cell);
+			if (timestamp != null) {
+				((TimeStampMilliVector) vector).setSafe(index, timestamp.getTime());
+			}
+			break;
+		default:
+			((VarCharVector) vector).setSafe(index, cell.getFormattedValue().getBytes(StandardCharsets.UTF_8));
+			break;
+		}
+	}
+
+	/**
+	 * Sets a byte, short, int or long value. A raw numeric value is used directly, if it is a whole number
+	 *
+	 * @param index  position of the row in the batch
+	 * @param column column of the cell
+	 * @param cell   non-empty cell
+	 */
+	private void setIntegralValue(int index, int column, SpreadSheetCellDAO cell) {
+		long value;
+		if (cell.getRawType() == SpreadSheetCellDAO.RAWTYPE_NUMERIC) {
+			double rawValue = cell.getRawNumericValue();
+			if ((rawValue != Math.rint(rawValue)) || (rawValue < Long.MIN_VALUE) || (rawValue > Long.MAX_VALUE)) {
+				LOG.warn("Cell " + cell.getAddress() + " does not contain a whole number");
+				return;
+			}
+			value = (long) rawValue;
+		} else {
+			BigDecimal decimal = this.converter.getDecimalValue(cell);
+			if (decimal == null) {
+				return;
+			}
+			try {
+				value = decimal.longValueExact();
+			} catch (ArithmeticException e) {
+				LOG.warn("Cell " + cell.getAddress() + " does not contain a whole number");
+				return;
+			}
+		}
+		FieldVector vector = this.vectors[column];
+		switch (this.types[column]) {
+		case TYPE_BYTE:
+			if ((value >= Byte.MIN_VALUE) && (value <= Byte.MAX_VALUE)) {
+				((TinyIntVector) vector).setSafe(index, (byte) value);
+				return;
+			}
+			break;
+		case TYPE_SHORT:
+			if ((value >= Short.MIN_VALUE) && (value <= Short.MAX_VALUE)) {
+				((SmallIntVector) vector).setSafe(index, (short) value);
+				return;
+			}
+			break;
+		case TYPE_INTEGER:
+			if ((value >= Integer.MIN_VALUE) && (value <= Integer.MAX_VALUE)) {
+				((IntVector) vector).setSafe(index, (int) value);
+				return;
+			}
+			break;
+		default:
+			((BigIntVector) vector).setSafe(index, value);
+			return;
+		}
+		LOG.warn("Number in cell " + cell.getAddress() + " is out of the range of the schema");
+	}
+
+	/**
+	 * Sets a float or double value. A raw numeric value is used directly
+	 *
+	 * @param index  position of the row in the batch
+	 * @param column column of the cell
+	 * @param cell   non-empty cell
+	 */
+	private void setFloatingPointValue(int index, int column, SpreadSheetCellDAO cell) {
+		double value;
+		if (cell.getRawType() == SpreadSheetCellDAO.RAWTYPE_NUMERIC) {
+			value = cell.getRawNumericValue();
+		} else {
+			BigDecimal decimal = this.converter.getDecimalValue(cell);
+			if (decimal == null) {
+				return;
+			}
+			value = decimal.doubleValue();
+		}
+		if (this.types[column] == TYPE_FLOAT) {
+			((Float4Vector) this.vectors[column]).setSafe(index, (float) value);
+		} else {
+			((Float8Vector) this.vectors[column]).setSafe(index, value);
+		}
+	}
+
+	/**
+	 * Determines the column of a cell address (e.g. 2 for C7) without creating objects
+	 *
+	 * @param address address in A1 format
+	 * @return column starting with 0 or -1 if the address does not contain a column
+	 */
+	private static int getColumn(String address) {
+		int column = 0;
+		for (int i = 0; i < address.length(); i++) {
+			char currentChar = address.charAt(i);
+			if ((currentChar >= 'A') && (currentChar <= 'Z')) {
+				column = column * 26 + (currentChar - 'A' + 1);
+			} else if (currentChar != '$') {
+				break;
+			}
+		}
+		return column - 1;
+	}
+
+	private static byte getType(GenericDataType dataType) {
+		if (dataType instanceof GenericBooleanDataType) {
+			return TYPE_BOOLEAN;
+		} else if (dataType instanceof GenericByteDataType) {
+			return TYPE_BYTE;
+		} else if (dataType instanceof GenericShortDataType) {
+			return TYPE_SHORT;
+		} else if (dataType instanceof GenericIntegerDataType) {
+			return TYPE_INTEGER;
+		} else if (dataType instanceof GenericLongDataType) {
+			return TYPE_LONG;
+		} else if (dataType instanceof GenericFloatDataType) {
+			return TYPE_FLOAT;
+		} else if (dataType instanceof GenericDoubleDataType) {
+			return TYPE_DOUBLE;
+		} else if (dataType instanceof GenericBigDecimalDataType) {
+			return TYPE_DECIMAL;
+		} else if (dataType instanceof GenericDateDataType) {
+			return TYPE_DATE;
+		} else if (dataType instanceof GenericTimestampDataType) {
+			return TYPE_TIMESTAMP;
+		}
+		return TYPE_STRING;
+	}
+
+}
@@ -0,0 +1,130 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.arrow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.HashMap;
+import java.util.Locale;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.junit.jupiter.api.Test;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeWriteConfiguration;
+import org.zuinnote.hadoop.office.format.common.OfficeReader;
+import org.zuinnote.hadoop.office.format.common.OfficeWriter;
+import org.zuinnote.hadoop.office.format.common.converter.ExcelConverterSimpleSpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+import org.zuinnote.hadoop.office.format.common.writer.InvalidWriterConfigurationException;
+import org.zuinnote.hadoop.office.format.common.writer.OfficeWriterException;
+
+public class OfficeArrowReaderTest {
+	private static final String MIMETYPE_EXCEL2013 = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+	@Test
+	public void readBatchesExcel2013WithHeader() throws IOException, FormatNotUnderstoodException, InvalidWriterConfigurationException, OfficeWriterException {
+		byte[] document = createDocument();
+		ExcelConverterSimpleSpreadSheetCellDAO converter = new ExcelConverterSimpleSpreadSheetCellDAO(
+				(SimpleDateFormat) DateFormat.getDateInstance(DateFormat.SHORT, Locale.US),
+				(DecimalFormat) NumberFormat.getInstance(Locale.US));
+		// infer schema
+		OfficeReader inferReader = new OfficeReader(new ByteArrayInputStream(document), createReadConfiguration());
+		inferReader.parse();
+		OfficeArrowReader.inferSchema(inferReader, converter, 0);
+		inferReader.close();
+		// read batches
+		OfficeReader reader = new OfficeReader(new ByteArrayInputStream(document), createReadConfiguration());
+		reader.parse();
+		try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+				OfficeArrowReader arrowReader = new OfficeArrowReader(reader, converter, reader.getCurrentParser().getHeader(), allocator, 2)) {
+			VectorSchemaRoot root = arrowReader.getVectorSchemaRoot();
+			assertEquals("name", root.getSchema().getFields().get(0).getName(), "First column is named after the header");
+			assertEquals(ArrowType.Utf8.INSTANCE, root.getSchema().getFields().get(0).getType(), "First column is a string");
+			assertEquals(new ArrowType.Decimal(3, 2), root.getSchema().getFields().get(1).getType(), "Second column is a decimal");
+			assertEquals(ArrowType.Bool.INSTANCE, root.getSchema().getFields().get(2).getType(), "Third column is a boolean");
+			assertTrue(arrowReader.loadNextBatch(), "First batch contains rows");
+			assertEquals(2, root.getRowCount(), "First batch is full");
+			VarCharVector names = (VarCharVector) root.getVector("name");
+			DecimalVector amounts = (DecimalVector) root.getVector("amount");
+			BitVector flags = (BitVector) root.getVector("flag");
+			assertEquals("a", names.getObject(0).toString(), "Name of row 1");
+			assertEquals(new BigDecimal("1.50"), amounts.getObject(0), "Amount of row 1");
+			assertEquals(Boolean.TRUE, flags.getObject(0), "Flag of row 1");
+			assertEquals("b", names.getObject(1).toString(), "Name of row 2");
+			assertEquals(new BigDecimal("2.25"), amounts.getObject(1), "Amount of row 2");
+			assertEquals(Boolean.FALSE, flags.getObject(1), "Flag of row 2");
+			assertTrue(arrowReader.loadNextBatch(), "Second batch contains rows");
+			assertEquals(1, root.getRowCount(), "Second batch contains the remaining row");
+			assertEquals("c", names.getObject(0).toString(), "Name of row 3");
+			assertEquals(new BigDecimal("3.00"), amounts.getObject(0), "Amount of row 3");
+			assertNull(flags.getObject(0), "Empty flag of row 3 is null");
+			assertFalse(arrowReader.loadNextBatch(), "No further batch");
+			assertEquals(0, root.getRowCount(), "Last batch is empty");
+		} finally {
+			reader.close();
+		}
+	}
+
+	private static HadoopOfficeReadConfiguration createReadConfiguration() {
+		HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration();
+		hocr.setMimeType("ms-excel");
+		hocr.setFileName("arrowtest.xlsx");
+		hocr.setLocale(Locale.US);
+		hocr.setReadHeader(true);
+		return hocr;
+	}
+
+	private static byte[] createDocument() throws IOException, InvalidWriterConfigurationException, OfficeWriterException {
+		HadoopOfficeWriteConfiguration howc = new HadoopOfficeWriteConfiguration("arrowtest.xlsx");
+		howc.setMimeType(MIMETYPE_EXCEL2013);
+		howc.setLocale(Locale.US);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		OfficeWriter writer = new OfficeWriter(howc);
+		writer.create(out, new HashMap<>(), new HashMap<>(), null);
+		writer.write(new SpreadSheetCellDAO("name", "", "", "A1", "Sheet1"));
+		writer.write(new SpreadSheetCellDAO("amount", "", "", "B1", "Sheet1"));
+		writer.write(new SpreadSheetCellDAO("flag", "", "", "C1", "Sheet1"));
+		writer.write(new SpreadSheetCellDAO("a", "", "", "A2", "Sheet1"));
+		writer.write(new SpreadSheetCellDAO("", "", "1.5", "B2", "Sheet1"));
+		writer.write(new SpreadSheetCellDAO("TRUE", "", "", "C2", "Sheet1"));
+		writer.write(new SpreadSheetCellDAO("b", "", "", "A3", "Sheet1"));
+		writer.write(new SpreadSheetCellDAO("", "", "2.25", "B3", "Sheet1"));
+		writer.write(new SpreadSheetCellDAO("FALSE", "", "", "C3", "Sheet1"));
+		writer.write(new SpreadSheetCellDAO("c", "", "", "A4", "Sheet1"));
+		writer.write(new SpreadSheetCellDAO("", "", "3", "B4", "Sheet1"));
+		writer.close();
+		return out.toByteArray();
+	}
+
+}
@@ -0,0 +1,136 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Locale;
+
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeWriteConfiguration;
+import org.zuinnote.hadoop.office.format.common.OfficeWriter;
+import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.common.writer.InvalidWriterConfigurationException;
+import org.zuinnote.hadoop.office.format.common.writer.OfficeWriterException;
+
+/**
+ * Generates the workbooks and cells of the benchmarks with the SyntheticWorkbookGenerator. Half of the cells contain text and half of them numeric formulas
+ *
+ */
+public class BenchmarkWorkbooks {
+	public static final String FORMAT_XLSX = "xlsx";
+	public static final String FORMAT_XLS = "xls";
+	public static final String MIMETYPE_XLSX = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+	public static final String MIMETYPE_XLS = "application/vnd.ms-excel";
+	public static final String SHEETNAME = "Sheet1";
+	private static final long SEED = 1L;
+
+	private BenchmarkWorkbooks() {
+	}
+
+	/**
+	 * Returns the mime type of a format
+	 *
+	 * @param format xlsx or xls
+	 * @return mime type
+	 */
+	public static String getMimeType(String format) {
+		if (FORMAT_XLS.equals(format)) {
+			return MIMETYPE_XLS;
+		}
+		if (FORMAT_XLSX.equals(format)) {
+			return MIMETYPE_XLSX;
+		}
+		throw new IllegalArgumentException("Unknown format: " + format);
+	}
+
+	/**
+	 * Creates a workbook in memory
+	 *
+	 * @param format  xlsx or xls
+	 * @param rows    number of rows
+	 * @param columns number of columns
+	 * @return content of the workbook
+	 * @throws IOException in case the workbook cannot be written
+	 */
+	public static byte[] create(String format, int rows, int columns) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			createGenerator(format, false, rows, columns).generate(out);
+		} catch (InvalidWriterConfigurationException | OfficeWriterException e) {
+			throw new IOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Writes cells to a stream
+	 *
+	 * @param out          stream
+	 * @param format       xlsx or xls
+	 * @param lowFootprint true, if the low footprint writer should be used
+	 * @param rows         cells per row
+	 * @throws IOException in case the workbook cannot be written
+	 */
+	public static void write(OutputStream out, String format, boolean lowFootprint, SpreadSheetCellDAO[][] rows) throws IOException {
+		try {
+			OfficeWriter writer = new OfficeWriter(createWriteConfiguration(format, lowFootprint));
+			writer.create(out, new HashMap<>(), new HashMap<>(), null);
+			for (SpreadSheetCellDAO[] row : rows) {
+				for (SpreadSheetCellDAO cell : row) {
+					writer.write(cell);
+				}
+			}
+			writer.close();
+		} catch (InvalidWriterConfigurationException | OfficeWriterException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Creates the cells of the first sheet of a workbook
+	 *
+	 * @param rows    number of rows
+	 * @param columns number of columns
+	 * @return cells per row
+	 */
+	public static SpreadSheetCellDAO[][] createRows(int rows, int columns) {
+		SyntheticWorkbookGenerator generator = createGenerator(FORMAT_XLSX, false, rows, columns);
+		SpreadSheetCellDAO[][] result = new SpreadSheetCellDAO[rows][];
+		for (int i = 0; i < rows; i++) {
+			result[i] = generator.getRow(0, i);
+		}
+		return result;
+	}
+
+	private static SyntheticWorkbookGenerator createGenerator(String format, boolean lowFootprint, int rows, int columns) {
+		SyntheticWorkbookGenerator generator = new SyntheticWorkbookGenerator(createWriteConfiguration(format, lowFootprint));
+		generator.setRows(rows);
+		generator.setColumns(columns);
+		generator.setSeed(SEED);
+		return generator;
+	}
+
+	private static HadoopOfficeWriteConfiguration createWriteConfiguration(String format, boolean lowFootprint) {
+		HadoopOfficeWriteConfiguration howc = new HadoopOfficeWriteConfiguration("benchmark");
+		howc.setMimeType(getMimeType(format));
+		howc.setLocale(Locale.US);
+		howc.setLowFootprint(lowFootprint);
+		return howc;
+	}
+
+}
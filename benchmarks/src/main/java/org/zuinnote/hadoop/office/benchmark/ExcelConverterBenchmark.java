@@ -0,0 +1,120 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.benchmark;
+
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.ss.util.CellAddress;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.zuinnote.hadoop.office.format.common.converter.ExcelConverterSimpleSpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.common.util.CachingDataFormatter;
+
+/**
+ * Infers the schema of rows and converts them according to the schema with ExcelConverterSimpleSpreadSheetCellDAO. The rows contain booleans, dates, integers, decimals and text either as formatted values (standard parser) or as raw values (low footprint parser)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ExcelConverterBenchmark {
+	private static final int COLUMNS = 5;
+	@Param({ "10000" })
+	private int rows;
+	@Param({ "false", "true" })
+	private boolean rawValues;
+
+	private SpreadSheetCellDAO[][] cells;
+	private ExcelConverterSimpleSpreadSheetCellDAO inferredConverter;
+
+	@Setup
+	public void setup() {
+		CachingDataFormatter formatter = new CachingDataFormatter(Locale.US);
+		this.cells = new SpreadSheetCellDAO[this.rows][COLUMNS];
+		for (int i = 0; i < this.rows; i++) {
+			for (int j = 0; j < COLUMNS; j++) {
+				SpreadSheetCellDAO cell = new SpreadSheetCellDAO(null, "", "", new CellAddress(i, j).formatAsString(), BenchmarkWorkbooks.SHEETNAME);
+				switch (j) {
+				case 0:
+					cell.setRawBooleanValue(i % 2 == 0);
+					break;
+				case 1: // date
+					cell.setRawNumericValue(43000.0 + i % 1000, 14, "m/d/yy", false, formatter);
+					break;
+				case 2: // integer
+					cell.setRawNumericValue(i, 0, "General", false, formatter);
+					break;
+				case 3: // decimal
+					cell.setRawNumericValue(i / 8.0, 2, "0.00", false, formatter);
+					break;
+				default:
+					cell = new SpreadSheetCellDAO("text " + i, "", "", cell.getAddress(), BenchmarkWorkbooks.SHEETNAME);
+					break;
+				}
+				if (!this.rawValues) {
+					// only the formatted value as provided by the standard parser
+					String formattedValue = j == 0 ? String.valueOf(cell.getRawBooleanValue()).toUpperCase(Locale.US) : cell.getFormattedValue();
+					cell = new SpreadSheetCellDAO(formattedValue, "", "", cell.getAddress(), BenchmarkWorkbooks.SHEETNAME);
+				}
+				this.cells[i][j] = cell;
+			}
+		}
+		this.inferredConverter = this.inferSchema();
+	}
+
+	@Benchmark
+	public ExcelConverterSimpleSpreadSheetCellDAO inferSchema() {
+		ExcelConverterSimpleSpreadSheetCellDAO converter = createConverter();
+		for (SpreadSheetCellDAO[] row : this.cells) {
+			converter.updateSpreadSheetCellRowToInferSchemaInformation(row);
+		}
+		converter.getSchemaRow();
+		return converter;
+	}
+
+	@Benchmark
+	public void convert(Blackhole blackhole) {
+		for (SpreadSheetCellDAO[] row : this.cells) {
+			blackhole.consume(this.inferredConverter.getDataAccordingToSchema(row));
+		}
+	}
+
+	private static ExcelConverterSimpleSpreadSheetCellDAO createConverter() {
+		SimpleDateFormat dateFormat = (SimpleDateFormat) DateFormat.getDateInstance(DateFormat.SHORT, Locale.US);
+		DecimalFormat decimalFormat = (DecimalFormat) NumberFormat.getInstance(Locale.US);
+		return new ExcelConverterSimpleSpreadSheetCellDAO(dateFormat, decimalFormat);
+	}
+
+}
@@ -0,0 +1,88 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.OfficeReader;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+
+/**
+ * Reads workbooks of different shapes with the standard parser (MSExcelParser) and the low footprint parser (MSExcelLowFootprintParser).
+ * Note: The standard parser evaluates the formulas of the numeric cells, the low footprint parser only reads their stored results
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ExcelParserBenchmark {
+	@Param({ BenchmarkWorkbooks.FORMAT_XLSX, BenchmarkWorkbooks.FORMAT_XLS })
+	private String format;
+	@Param({ "1000", "10000" })
+	private int rows;
+	@Param({ "10", "50" })
+	private int columns;
+	@Param({ "false", "true" })
+	private boolean lowFootprint;
+
+	private byte[] workbook;
+
+	@Setup
+	public void setup() throws IOException {
+		this.workbook = BenchmarkWorkbooks.create(this.format, this.rows, this.columns);
+	}
+
+	@Benchmark
+	public long readAllRows(Blackhole blackhole) throws IOException, FormatNotUnderstoodException {
+		HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration();
+		hocr.setMimeType("ms-excel");
+		hocr.setLocale(Locale.US);
+		hocr.setLowFootprint(this.lowFootprint);
+		OfficeReader reader = new OfficeReader(new ByteArrayInputStream(this.workbook), hocr);
+		long readRows = 0;
+		try {
+			reader.parse();
+			Object[] row;
+			while ((row = reader.getNext()) != null) {
+				blackhole.consume(row);
+				readRows++;
+			}
+		} finally {
+			reader.close();
+		}
+		return readRows;
+	}
+
+}
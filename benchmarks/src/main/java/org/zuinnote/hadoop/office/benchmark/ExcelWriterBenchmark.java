@@ -0,0 +1,82 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
+
+/**
+ * Writes workbooks of different shapes with the standard writer (MSExcelWriter) and the low footprint writer (MSExcelLowFootprintWriter). The cells are created before the benchmark and the output is only counted, so that only the writer is measured.
+ * Note: Only .xlsx is benchmarked, because the low footprint writer does not support .xls
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ExcelWriterBenchmark {
+	@Param({ "1000", "10000" })
+	private int rows;
+	@Param({ "10", "50" })
+	private int columns;
+	@Param({ "false", "true" })
+	private boolean lowFootprint;
+
+	private SpreadSheetCellDAO[][] cells;
+
+	@Setup
+	public void setup() {
+		this.cells = BenchmarkWorkbooks.createRows(this.rows, this.columns);
+	}
+
+	@Benchmark
+	public long writeAllRows() throws IOException {
+		CountingOutputStream out = new CountingOutputStream();
+		BenchmarkWorkbooks.write(out, BenchmarkWorkbooks.FORMAT_XLSX, this.lowFootprint, this.cells);
+		return out.count;
+	}
+
+	private static class CountingOutputStream extends OutputStream {
+		private long count;
+
+		@Override
+		public void write(int b) {
+			this.count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			this.count += len;
+		}
+	}
+
+}
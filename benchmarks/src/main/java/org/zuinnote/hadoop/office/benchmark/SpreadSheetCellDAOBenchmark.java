@@ -0,0 +1,89 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.benchmark;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.common.util.CachingDataFormatter;
+
+/**
+ * Serializes and deserializes rows of SpreadSheetCellDAO as Hadoop Writables, e.g. when they are shuffled between mappers and reducers
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SpreadSheetCellDAOBenchmark {
+	@Param({ "10", "100" })
+	private int columns;
+	@Param({ "false", "true" })
+	private boolean rawValues;
+
+	private SpreadSheetCellDAO[] row;
+	private SpreadSheetCellDAO[] readRow;
+	private final DataOutputBuffer outputBuffer = new DataOutputBuffer();
+	private final DataInputBuffer inputBuffer = new DataInputBuffer();
+
+	@Setup
+	public void setup() {
+		this.row = BenchmarkWorkbooks.createRows(1, this.columns)[0];
+		if (this.rawValues) {
+			// numbers as provided by the low footprint parser
+			CachingDataFormatter formatter = new CachingDataFormatter(Locale.US);
+			for (int i = 0; i < this.columns; i++) {
+				this.row[i] = new SpreadSheetCellDAO(null, "", "", this.row[i].getAddress(), BenchmarkWorkbooks.SHEETNAME);
+				this.row[i].setRawNumericValue(i / 4.0, 0, "General", false, formatter);
+			}
+		}
+		this.readRow = new SpreadSheetCellDAO[this.columns];
+		for (int i = 0; i < this.columns; i++) {
+			this.readRow[i] = new SpreadSheetCellDAO();
+		}
+	}
+
+	@Benchmark
+	public SpreadSheetCellDAO[] roundTrip() throws IOException {
+		this.outputBuffer.reset();
+		for (SpreadSheetCellDAO cell : this.row) {
+			cell.write(this.outputBuffer);
+		}
+		this.inputBuffer.reset(this.outputBuffer.getData(), this.outputBuffer.getLength());
+		for (SpreadSheetCellDAO cell : this.readRow) {
+			cell.readFields(this.inputBuffer);
+		}
+		return this.readRow;
+	}
+
+}
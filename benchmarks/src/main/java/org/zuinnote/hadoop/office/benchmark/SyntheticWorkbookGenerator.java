@@ -0,0 +1,264 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeWriteConfiguration;
+import org.zuinnote.hadoop.office.format.common.OfficeWriter;
+import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.common.writer.InvalidWriterConfigurationException;
+import org.zuinnote.hadoop.office.format.common.writer.OfficeWriterException;
+
+/**
+ * Generates synthetic workbooks of arbitrary size with the OfficeWriter, e.g. to reproduce the behaviour of production-scale files (millions of rows, hundreds of columns) in benchmarks without storing them.
+ *
+ * The format, encryption, low footprint mode etc. are defined by the HadoopOfficeWriteConfiguration. The shape of the workbook is defined by the setters of this class:
+ * <ul>
+ * <li>rows, columns and sheets: number of rows and columns of each sheet and number of sheets (named Sheet1, Sheet2 ...)</li>
+ * <li>stringCardinality: number of distinct text values</li>
+ * <li>formulaDensity: share of cells (0.0 to 1.0) containing numeric formulas instead of text. A formula either is a number or refers to the previous cell in the row if this is a formula, too</li>
+ * <li>commentDensity: share of cells (0.0 to 1.0) having a comment</li>
+ * <li>mergedRegionDensity: share of rows (0.0 to 1.0) containing two merged cells. The merged regions are defined in a template, which is created in-memory</li>
+ * <li>seed: the content of each row is derived only from the seed, the sheet and the row number. Hence, the same seed always generates the same content and single rows can be generated without the rest of the workbook (see {@link #getRow(int, int)})</li>
+ * </ul>
+ *
+ */
+public class SyntheticWorkbookGenerator {
+	private static final Log LOG = LogFactory.getLog(SyntheticWorkbookGenerator.class.getName());
+	private static final String SHEETNAME_PREFIX = "Sheet";
+	private static final long ROWSEED_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	private HadoopOfficeWriteConfiguration howc;
+	private int rows;
+	private int columns;
+	private int sheets;
+	private int stringCardinality;
+	private double formulaDensity;
+	private double commentDensity;
+	private double mergedRegionDensity;
+	private long seed;
+
+	/**
+	 * Creates a generator for one sheet with 1000 rows of 10 columns, 100 distinct text values, 50% formulas and no comments or merged cells
+	 *
+	 * @param howc configuration of the writer (e.g. mime type, password)
+	 */
+	public SyntheticWorkbookGenerator(HadoopOfficeWriteConfiguration howc) {
+		this.howc = howc;
+		this.rows = 1000;
+		this.columns = 10;
+		this.sheets = 1;
+		this.stringCardinality = 100;
+		this.formulaDensity = 0.5;
+		this.commentDensity = 0.0;
+		this.mergedRegionDensity = 0.0;
+		this.seed = 0L;
+	}
+
+	/**
+	 * Writes the workbook to a stream. The stream is closed afterwards
+	 *
+	 * @param out stream
+	 * @throws InvalidWriterConfigurationException in case the format is not supported by the writer
+	 * @throws OfficeWriterException               in case the workbook cannot be created
+	 * @throws IOException                         in case the workbook cannot be written
+	 */
+	public void generate(OutputStream out) throws InvalidWriterConfigurationException, OfficeWriterException, IOException {
+		LOG.info("Generating workbook with " + this.sheets + " sheets of " + this.rows + " rows and " + this.columns + " columns");
+		OfficeWriter writer = new OfficeWriter(this.howc);
+		if (this.mergedRegionDensity > 0.0) {
+			writer.create(out, new HashMap<>(), new HashMap<>(), new ByteArrayInputStream(this.createTemplate()));
+		} else {
+			writer.create(out, new HashMap<>(), new HashMap<>(), null);
+		}
+		try {
+			for (int i = 0; i < this.sheets; i++) {
+				for (int j = 0; j < this.rows; j++) {
+					for (SpreadSheetCellDAO currentCell : this.getRow(i, j)) {
+						if (currentCell != null) {
+							writer.write(currentCell);
+						}
+					}
+				}
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Generates the cells of a row
+	 *
+	 * @param sheet number of the sheet starting with 0
+	 * @param row   number of the row starting with 0
+	 * @return cells of the row. The cell following the first cell of a merged region is null
+	 */
+	public SpreadSheetCellDAO[] getRow(int sheet, int row) {
+		SplittableRandom random = this.createRowRandom(sheet, row);
+		int mergedColumn = this.nextMergedColumn(random);
+		String sheetName = SHEETNAME_PREFIX + (sheet + 1);
+		SpreadSheetCellDAO[] result = new SpreadSheetCellDAO[this.columns];
+		boolean previousFormula = false;
+		for (int i = 0; i < this.columns; i++) {
+			if ((mergedColumn >= 0) && (i == mergedColumn + 1)) { // covered by merged region
+				previousFormula = false;
+				continue;
+			}
+			String address = new CellAddress(row, i).formatAsString();
+			String comment = "";
+			if ((this.commentDensity > 0.0) && (random.nextDouble() < this.commentDensity)) {
+				comment = "Comment " + sheetName + "!" + address;
+			}
+			if ((this.formulaDensity > 0.0) && (random.nextDouble() < this.formulaDensity)) {
+				String formula;
+				if ((previousFormula) && (random.nextBoolean())) {
+					formula = new CellAddress(row, i - 1).formatAsString() + "*2";
+				} else {
+					formula = String.valueOf(random.nextInt(1000000) / 100.0);
+				}
+				result[i] = new SpreadSheetCellDAO("", comment, formula, address, sheetName);
+				previousFormula = true;
+			} else {
+				result[i] = new SpreadSheetCellDAO("Text " + random.nextInt(this.stringCardinality), comment, "", address, sheetName);
+				previousFormula = false;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Creates a template defining the sheets and their merged regions
+	 *
+	 * @return content of the template
+	 * @throws IOException in case the template cannot be written
+	 */
+	private byte[] createTemplate() throws IOException {
+		// the mime type has already been validated by the OfficeWriter
+		try (Workbook template = this.howc.getMimeType().contains("ms-excel") ? new HSSFWorkbook() : new XSSFWorkbook()) {
+			for (int i = 0; i < this.sheets; i++) {
+				Sheet currentSheet = template.createSheet(SHEETNAME_PREFIX + (i + 1));
+				for (int j = 0; j < this.rows; j++) {
+					int mergedColumn = this.nextMergedColumn(this.createRowRandom(i, j));
+					if (mergedColumn >= 0) {
+						currentSheet.addMergedRegionUnsafe(new CellRangeAddress(j, j, mergedColumn, mergedColumn + 1));
+					}
+				}
+			}
+			ByteArrayOutputStream templateOut = new ByteArrayOutputStream();
+			template.write(templateOut);
+			return templateOut.toByteArray();
+		}
+	}
+
+	private SplittableRandom createRowRandom(int sheet, int row) {
+		return new SplittableRandom(this.seed + ((long) sheet * Integer.MAX_VALUE + row) * ROWSEED_MULTIPLIER);
+	}
+
+	/**
+	 * Determines the merged region of a row. It must be the first random value of a row, because it is determined independently of the cells for the template
+	 *
+	 * @param random random values of the row
+	 * @return first column of the merged region or -1 if the row does not contain a merged region
+	 */
+	private int nextMergedColumn(SplittableRandom random) {
+		if ((this.mergedRegionDensity <= 0.0) || (this.columns < 2)) {
+			return -1;
+		}
+		if (random.nextDouble() >= this.mergedRegionDensity) {
+			return -1;
+		}
+		return random.nextInt(this.columns - 1);
+	}
+
+	public int getRows() {
+		return this.rows;
+	}
+
+	public void setRows(int rows) {
+		this.rows = rows;
+	}
+
+	public int getColumns() {
+		return this.columns;
+	}
+
+	public void setColumns(int columns) {
+		this.columns = columns;
+	}
+
+	public int getSheets() {
+		return this.sheets;
+	}
+
+	public void setSheets(int sheets) {
+		this.sheets = sheets;
+	}
+
+	public int getStringCardinality() {
+		return this.stringCardinality;
+	}
+
+	public void setStringCardinality(int stringCardinality) {
+		this.stringCardinality = stringCardinality;
+	}
+
+	public double getFormulaDensity() {
+		return this.formulaDensity;
+	}
+
+	public void setFormulaDensity(double formulaDensity) {
+		this.formulaDensity = formulaDensity;
+	}
+
+	public double getCommentDensity() {
+		return this.commentDensity;
+	}
+
+	public void setCommentDensity(double commentDensity) {
+		this.commentDensity = commentDensity;
+	}
+
+	public double getMergedRegionDensity() {
+		return this.mergedRegionDensity;
+	}
+
+	public void setMergedRegionDensity(double mergedRegionDensity) {
+		this.mergedRegionDensity = mergedRegionDensity;
+	}
+
+	public long getSeed() {
+		return this.seed;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+}
@@ -0,0 +1,180 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.junit.jupiter.api.Test;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeWriteConfiguration;
+import org.zuinnote.hadoop.office.format.common.OfficeReader;
+import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+import org.zuinnote.hadoop.office.format.common.writer.InvalidWriterConfigurationException;
+import org.zuinnote.hadoop.office.format.common.writer.OfficeWriterException;
+
+public class SyntheticWorkbookGeneratorTest {
+	private static final String MIMETYPE_XLSX = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+	private static final String MIMETYPE_XLS = "application/vnd.ms-excel";
+
+	@Test
+	public void sameSeedSameRows() {
+		SyntheticWorkbookGenerator generator = createGenerator(MIMETYPE_XLSX, false, null);
+		SyntheticWorkbookGenerator sameSeedGenerator = createGenerator(MIMETYPE_XLSX, false, null);
+		SyntheticWorkbookGenerator otherSeedGenerator = createGenerator(MIMETYPE_XLSX, false, null);
+		otherSeedGenerator.setSeed(43L);
+		for (int i = 0; i < generator.getRows(); i++) {
+			assertEquals(toString(generator.getRow(1, i)), toString(sameSeedGenerator.getRow(1, i)), "Same seed generates the same row " + i);
+		}
+		assertNotEquals(toString(generator.getRow(0, 0)), toString(otherSeedGenerator.getRow(0, 0)), "Other seed generates other rows");
+		assertNotEquals(toString(generator.getRow(0, 0)), toString(generator.getRow(1, 0)), "Other sheets contain other rows");
+	}
+
+	@Test
+	public void generateExcel2013MergedRegionsComments() throws IOException, InvalidWriterConfigurationException, OfficeWriterException, InvalidFormatException {
+		assertGeneratedWorkbook(MIMETYPE_XLSX, false, null);
+	}
+
+	@Test
+	public void generateExcel2013MergedRegionsCommentsLowFootprint() throws IOException, InvalidWriterConfigurationException, OfficeWriterException, InvalidFormatException {
+		assertGeneratedWorkbook(MIMETYPE_XLSX, true, null);
+	}
+
+	@Test
+	public void generateExcel2013MergedRegionsCommentsEncrypted() throws IOException, InvalidWriterConfigurationException, OfficeWriterException, InvalidFormatException {
+		assertGeneratedWorkbook(MIMETYPE_XLSX, false, "test");
+	}
+
+	@Test
+	public void generateExcel2003MergedRegionsCommentsEncrypted() throws IOException, InvalidWriterConfigurationException, OfficeWriterException, InvalidFormatException {
+		assertGeneratedWorkbook(MIMETYPE_XLS, false, "test");
+	}
+
+	@Test
+	public void readGeneratedExcel2003() throws IOException, InvalidWriterConfigurationException, OfficeWriterException, FormatNotUnderstoodException {
+		SyntheticWorkbookGenerator generator = createGenerator(MIMETYPE_XLS, false, null);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		generator.generate(out);
+		HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration();
+		hocr.setMimeType(MIMETYPE_XLS);
+		hocr.setLocale(Locale.US);
+		OfficeReader reader = new OfficeReader(new ByteArrayInputStream(out.toByteArray()), hocr);
+		try {
+			reader.parse();
+			for (int i = 0; i < generator.getSheets(); i++) {
+				for (int j = 0; j < generator.getRows(); j++) {
+					Object[] row = reader.getNext();
+					assertNotNull(row, "Row " + j + " of sheet " + i + " is read");
+					SpreadSheetCellDAO[] expectedRow = generator.getRow(i, j);
+					for (int k = 0; k < expectedRow.length; k++) {
+						SpreadSheetCellDAO expectedCell = expectedRow[k];
+						SpreadSheetCellDAO cell = k < row.length ? (SpreadSheetCellDAO) row[k] : null;
+						if (expectedCell == null) {
+							assertNull(cell, "Cell " + k + " of row " + j + " covered by merged region is empty");
+						} else if ("".equals(expectedCell.getFormula())) {
+							assertEquals(expectedCell.getFormattedValue(), cell.getFormattedValue(), "Text of cell " + expectedCell.getAddress());
+							assertEquals(expectedCell.getComment(), cell.getComment(), "Comment of cell " + expectedCell.getAddress());
+						} else {
+							assertEquals(expectedCell.getFormula(), cell.getFormula(), "Formula of cell " + expectedCell.getAddress());
+						}
+					}
+				}
+			}
+			assertNull(reader.getNext(), "All rows are read");
+		} finally {
+			reader.close();
+		}
+	}
+
+	private static void assertGeneratedWorkbook(String mimeType, boolean lowFootprint, String password) throws IOException, InvalidWriterConfigurationException, OfficeWriterException, InvalidFormatException {
+		SyntheticWorkbookGenerator generator = createGenerator(mimeType, lowFootprint, password);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		generator.generate(out);
+		try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()), password)) {
+			assertEquals(generator.getSheets(), workbook.getNumberOfSheets(), "Number of sheets");
+			for (int i = 0; i < generator.getSheets(); i++) {
+				Sheet sheet = workbook.getSheetAt(i);
+				assertEquals("Sheet" + (i + 1), sheet.getSheetName(), "Name of sheet " + i);
+				int expectedMergedRegions = 0;
+				int expectedComments = 0;
+				for (int j = 0; j < generator.getRows(); j++) {
+					for (SpreadSheetCellDAO expectedCell : generator.getRow(i, j)) {
+						if (expectedCell == null) {
+							expectedMergedRegions++;
+						} else if (!("".equals(expectedCell.getComment()))) {
+							expectedComments++;
+							assertNotNull(sheet.getCellComment(new CellAddress(expectedCell.getAddress())), "Comment of cell " + expectedCell.getAddress());
+						}
+					}
+				}
+				assertNotEquals(0, expectedMergedRegions, "Sheet " + i + " contains merged regions");
+				assertNotEquals(0, expectedComments, "Sheet " + i + " contains comments");
+				assertEquals(expectedMergedRegions, sheet.getNumMergedRegions(), "Number of merged regions of sheet " + i);
+				for (CellRangeAddress mergedRegion : sheet.getMergedRegions()) {
+					assertNull(generator.getRow(i, mergedRegion.getFirstRow())[mergedRegion.getLastColumn()], "Merged region " + mergedRegion.formatAsString() + " covers empty cell");
+				}
+			}
+		}
+	}
+
+	private static SyntheticWorkbookGenerator createGenerator(String mimeType, boolean lowFootprint, String password) {
+		HadoopOfficeWriteConfiguration howc = new HadoopOfficeWriteConfiguration("generated");
+		howc.setMimeType(mimeType);
+		howc.setLocale(Locale.US);
+		howc.setLowFootprint(lowFootprint);
+		howc.setPassword(password);
+		howc.setEncryptMode("agile");
+		howc.setEncryptAlgorithm("aes256");
+		howc.setChainMode("cbc");
+		howc.setHashAlgorithm("sha512");
+		SyntheticWorkbookGenerator generator = new SyntheticWorkbookGenerator(howc);
+		generator.setRows(50);
+		generator.setColumns(8);
+		generator.setSheets(2);
+		generator.setStringCardinality(10);
+		generator.setFormulaDensity(0.4);
+		generator.setCommentDensity(0.1);
+		generator.setMergedRegionDensity(0.2);
+		generator.setSeed(42L);
+		return generator;
+	}
+
+	private static String toString(SpreadSheetCellDAO[] row) {
+		StringBuilder result = new StringBuilder();
+		for (SpreadSheetCellDAO cell : row) {
+			if (cell != null) {
+				result.append(cell.getAddress()).append('|').append(cell.getFormattedValue()).append('|').append(cell.getFormula()).append('|').append(cell.getComment());
+			}
+			result.append(';');
+		}
+		return result.toString();
+	}
+
+}
@@ -0,0 +1,314 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.converter;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.apache.orc.TypeDescription;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+import org.apache.poi.ss.util.CellReference;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericBigDecimalDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericBooleanDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericByteDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDateDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDoubleDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericFloatDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericIntegerDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericLongDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericShortDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericStringDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericTimestampDataType;
+
+/**
+ * Names and datatypes of the columns of the converted Excel rows. The schema is passed to the mappers as a string of comma-separated columns in the form name:type, e.g. "product:string,amount:decimal(10,2),delivered:date". The types are named as in Hive: string, boolean, tinyint, smallint, int, bigint, float, double, decimal(precision,scale), date and timestamp.
+ *
+ * All columns are optional (nullable) in Parquet and ORC, because any cell can be empty.
+ *
+ */
+public class ColumnarSchema {
+	/** maximum precision of decimals in ORC **/
+	private static final int MAX_ORC_PRECISION = 38;
+	private static final long MILLIS_PER_DAY = 24L * 60L * 60L * 1000L;
+
+	private final String[] names;
+	private final GenericDataType[] types;
+
+	/**
+	 *
+	 * @param names names of the columns
+	 * @param types datatypes of the columns
+	 */
+	public ColumnarSchema(String[] names, GenericDataType[] types) {
+		if (names.length != types.length) {
+			throw new IllegalArgumentException("Number of column names (" + names.length + ") differs from number of datatypes (" + types.length + ")");
+		}
+		this.names = names;
+		this.types = types;
+	}
+
+	/**
+	 * Creates a schema from the datatypes inferred by ExcelConverterSimpleSpreadSheetCellDAO
+	 *
+	 * @param types  datatypes of the columns. Columns without datatype (e.g. only empty cells) are strings
+	 * @param header names of the columns read by the parser or null. Characters other than letters, digits and underscores are replaced by underscores. Columns without a name are named after their column in Excel (A, B, ...)
+	 * @return schema
+	 */
+	public static ColumnarSchema create(GenericDataType[] types, String[] header) {
+		String[] names = new String[types.length];
+		GenericDataType[] columnTypes = new GenericDataType[types.length];
+		for (int i = 0; i < types.length; i++) {
+			String name = null;
+			if ((header != null) && (i < header.length) && (header[i] != null)) {
+				name = header[i].trim().replaceAll("[^A-Za-z0-9_]", "_");
+			}
+			if ((name == null) || ("".equals(name))) {
+				name = CellReference.convertNumToColString(i);
+			}
+			names[i] = name;
+			columnTypes[i] = types[i] == null ? new GenericStringDataType() : types[i];
+		}
+		return new ColumnarSchema(names, columnTypes);
+	}
+
+	/**
+	 * Parses a schema
+	 *
+	 * @param schema comma-separated columns in the form name:type (see {@link #toString()})
+	 * @return schema
+	 * @throws IllegalArgumentException in case the schema is invalid
+	 */
+	public static ColumnarSchema parse(String schema) {
+		List<String> columns = new ArrayList<>();
+		int depth = 0;
+		int start = 0;
+		for (int i = 0; i < schema.length(); i++) { // commas within the parentheses of a decimal do not separate columns
+			char currentChar = schema.charAt(i);
+			if (currentChar == '(') {
+				depth++;
+			} else if (currentChar == ')') {
+				depth--;
+			} else if ((currentChar == ',') && (depth == 0)) {
+				columns.add(schema.substring(start, i));
+				start = i + 1;
+			}
+		}
+		columns.add(schema.substring(start));
+		String[] names = new String[columns.size()];
+		GenericDataType[] types = new GenericDataType[columns.size()];
+		for (int i = 0; i < columns.size(); i++) {
+			String currentColumn = columns.get(i).trim();
+			int separator = currentColumn.lastIndexOf(':');
+			if (separator <= 0) {
+				throw new IllegalArgumentException("Column \"" + currentColumn + "\" is not in the form name:type");
+			}
+			names[i] = currentColumn.substring(0, separator).trim();
+			types[i] = parseType(currentColumn.substring(separator + 1).trim().toLowerCase());
+		}
+		return new ColumnarSchema(names, types);
+	}
+
+	private static GenericDataType parseType(String type) {
+		switch (type) {
+		case "string":
+			return new GenericStringDataType();
+		case "boolean":
+			return new GenericBooleanDataType();
+		case "tinyint":
+			return new GenericByteDataType();
+		case "smallint":
+			return new GenericShortDataType();
+		case "int":
+			return new GenericIntegerDataType();
+		case "bigint":
+			return new GenericLongDataType();
+		case "float":
+			return new GenericFloatDataType();
+		case "double":
+			return new GenericDoubleDataType();
+		case "date":
+			return new GenericDateDataType();
+		case "timestamp":
+			return new GenericTimestampDataType();
+		default:
+			if (type.startsWith("decimal(") && type.endsWith(")")) {
+				String[] precisionScale = type.substring("decimal(".length(), type.length() - 1).split(",");
+				if (precisionScale.length == 2) {
+					try {
+						return new GenericBigDecimalDataType(Integer.parseInt(precisionScale[0].trim()), Integer.parseInt(precisionScale[1].trim()));
+					} catch (NumberFormatException e) {
+						throw new IllegalArgumentException("Invalid precision or scale of type \"" + type + "\"", e);
+					}
+				}
+			}
+			throw new IllegalArgumentException("Unknown type \"" + type + "\"");
+		}
+	}
+
+	public String[] getNames() {
+		return this.names;
+	}
+
+	public GenericDataType[] getTypes() {
+		return this.types;
+	}
+
+	/**
+	 * Returns the precision of a decimal column. It includes the digits of the scale, which is not always the case for inferred schemas
+	 *
+	 * @param type decimal datatype
+	 * @return precision
+	 */
+	public static int getPrecision(GenericBigDecimalDataType type) {
+		return Math.max(type.getPrecision(), type.getScale());
+	}
+
+	/**
+	 * Returns the day of a date (as returned by the converter in the local timezone) as number of days since the epoch
+	 *
+	 * @param date date
+	 * @return days since 1970-01-01
+	 */
+	public static int toEpochDay(Date date) {
+		long time = date.getTime();
+		return (int) Math.floorDiv(time + TimeZone.getDefault().getOffset(time), MILLIS_PER_DAY);
+	}
+
+	/**
+	 *
+	 * @return Parquet schema with one optional field per column
+	 */
+	public MessageType toParquetSchema() {
+		Types.MessageTypeBuilder builder = Types.buildMessage();
+		for (int i = 0; i < this.types.length; i++) {
+			GenericDataType currentType = this.types[i];
+			if (currentType instanceof GenericBooleanDataType) {
+				builder.optional(PrimitiveTypeName.BOOLEAN).named(this.names[i]);
+			} else if (currentType instanceof GenericByteDataType) {
+				builder.optional(PrimitiveTypeName.INT32).as(OriginalType.INT_8).named(this.names[i]);
+			} else if (currentType instanceof GenericShortDataType) {
+				builder.optional(PrimitiveTypeName.INT32).as(OriginalType.INT_16).named(this.names[i]);
+			} else if (currentType instanceof GenericIntegerDataType) {
+				builder.optional(PrimitiveTypeName.INT32).named(this.names[i]);
+			} else if (currentType instanceof GenericLongDataType) {
+				builder.optional(PrimitiveTypeName.INT64).named(this.names[i]);
+			} else if (currentType instanceof GenericFloatDataType) {
+				builder.optional(PrimitiveTypeName.FLOAT).named(this.names[i]);
+			} else if (currentType instanceof GenericDoubleDataType) {
+				builder.optional(PrimitiveTypeName.DOUBLE).named(this.names[i]);
+			} else if (currentType instanceof GenericBigDecimalDataType) {
+				GenericBigDecimalDataType decimalType = (GenericBigDecimalDataType) currentType;
+				builder.optional(PrimitiveTypeName.BINARY).as(OriginalType.DECIMAL).precision(getPrecision(decimalType)).scale(decimalType.getScale()).named(this.names[i]);
+			} else if (currentType instanceof GenericDateDataType) {
+				builder.optional(PrimitiveTypeName.INT32).as(OriginalType.DATE).named(this.names[i]);
+			} else if (currentType instanceof GenericTimestampDataType) {
+				builder.optional(PrimitiveTypeName.INT64).as(OriginalType.TIMESTAMP_MILLIS).named(this.names[i]);
+			} else {
+				builder.optional(PrimitiveTypeName.BINARY).as(OriginalType.UTF8).named(this.names[i]);
+			}
+		}
+		return builder.named("excel");
+	}
+
+	/**
+	 *
+	 * @return ORC struct with one field per column. The precision of decimals is limited to 38 digits
+	 */
+	public TypeDescription toOrcSchema() {
+		TypeDescription result = TypeDescription.createStruct();
+		for (int i = 0; i < this.types.length; i++) {
+			GenericDataType currentType = this.types[i];
+			TypeDescription fieldType;
+			if (currentType instanceof GenericBooleanDataType) {
+				fieldType = TypeDescription.createBoolean();
+			} else if (currentType instanceof GenericByteDataType) {
+				fieldType = TypeDescription.createByte();
+			} else if (currentType instanceof GenericShortDataType) {
+				fieldType = TypeDescription.createShort();
+			} else if (currentType instanceof GenericIntegerDataType) {
+				fieldType = TypeDescription.createInt();
+			} else if (currentType instanceof GenericLongDataType) {
+				fieldType = TypeDescription.createLong();
+			} else if (currentType instanceof GenericFloatDataType) {
+				fieldType = TypeDescription.createFloat();
+			} else if (currentType instanceof GenericDoubleDataType) {
+				fieldType = TypeDescription.createDouble();
+			} else if (currentType instanceof GenericBigDecimalDataType) {
+				GenericBigDecimalDataType decimalType = (GenericBigDecimalDataType) currentType;
+				int scale = Math.min(decimalType.getScale(), MAX_ORC_PRECISION);
+				// the scale is set first, because the precision must not be less than the current scale
+				fieldType = TypeDescription.createDecimal().withScale(scale).withPrecision(Math.min(getPrecision(decimalType), MAX_ORC_PRECISION));
+			} else if (currentType instanceof GenericDateDataType) {
+				fieldType = TypeDescription.createDate();
+			} else if (currentType instanceof GenericTimestampDataType) {
+				fieldType = TypeDescription.createTimestamp();
+			} else {
+				fieldType = TypeDescription.createString();
+			}
+			result.addField(this.names[i], fieldType);
+		}
+		return result;
+	}
+
+	/**
+	 *
+	 * @return comma-separated columns in the form name:type, which can be parsed by {@link #parse(String)}
+	 */
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < this.types.length; i++) {
+			if (i > 0) {
+				result.append(',');
+			}
+			result.append(this.names[i]).append(':').append(getTypeName(this.types[i]));
+		}
+		return result.toString();
+	}
+
+	private static String getTypeName(GenericDataType type) {
+		if (type instanceof GenericBooleanDataType) {
+			return "boolean";
+		} else if (type instanceof GenericByteDataType) {
+			return "tinyint";
+		} else if (type instanceof GenericShortDataType) {
+			return "smallint";
+		} else if (type instanceof GenericIntegerDataType) {
+			return "int";
+		} else if (type instanceof GenericLongDataType) {
+			return "bigint";
+		} else if (type instanceof GenericFloatDataType) {
+			return "float";
+		} else if (type instanceof GenericDoubleDataType) {
+			return "double";
+		} else if (type instanceof GenericBigDecimalDataType) {
+			GenericBigDecimalDataType decimalType = (GenericBigDecimalDataType) type;
+			return "decimal(" + getPrecision(decimalType) + "," + decimalType.getScale() + ")";
+		} else if (type instanceof GenericDateDataType) {
+			return "date";
+		} else if (type instanceof GenericTimestampDataType) {
+			return "timestamp";
+		}
+		return "string";
+	}
+
+}
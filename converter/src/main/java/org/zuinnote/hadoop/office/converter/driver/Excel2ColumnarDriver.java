@@ -0,0 +1,175 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.converter.driver;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+import org.apache.orc.OrcConf;
+import org.apache.orc.mapred.OrcStruct;
+import org.apache.orc.mapreduce.OrcOutputFormat;
+import org.apache.parquet.hadoop.ParquetOutputFormat;
+import org.zuinnote.hadoop.office.converter.ColumnarSchema;
+import org.zuinnote.hadoop.office.converter.tasks.AbstractExcelColumnarMapper;
+import org.zuinnote.hadoop.office.converter.tasks.ExcelOrcMapper;
+import org.zuinnote.hadoop.office.converter.tasks.ExcelParquetMapper;
+import org.zuinnote.hadoop.office.converter.tasks.ExcelRowWriteSupport;
+import org.zuinnote.hadoop.office.format.common.converter.ExcelConverterSimpleSpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.mapreduce.ExcelFileInputFormat;
+import org.zuinnote.hadoop.office.format.mapreduce.ExcelRecordReader;
+import org.zuinnote.hadoop.office.format.mapreduce.ExcelSheetFileInputFormat;
+
+/**
+ * Map-only job converting Excel files directly into Parquet or ORC files: hadoop jar hadoopoffice-converter.jar [options] &lt;input&gt; &lt;output&gt; parquet|orc
+ *
+ * The rows are converted into typed values (see ExcelConverterSimpleSpreadSheetCellDAO) and written by the mappers without a reducer. Each sheet of a file is converted by its own mapper (see ExcelSheetFileInputFormat). The schema is either defined by the option hadoopoffice.converter.schema (see {@link ColumnarSchema}) or inferred by the driver from the first rows of the first files. The column names are taken from the header, if it is read (hadoopoffice.read.header.read).
+ *
+ * Options (additionally to the options of the mapper, the HadoopOffice read options and the options of Parquet/ORC, e.g. parquet.block.size or orc.stripe.size to limit the rows buffered in memory):
+ * <ul>
+ * <li>hadoopoffice.converter.infer.rows: number of rows of each file to infer the schema. Default: 1000</li>
+ * <li>hadoopoffice.converter.infer.files: number of files to infer the schema. Default: 1</li>
+ * <li>hadoopoffice.converter.sheetsplits: true, if each sheet of a file is converted by its own mapper, false if each file is converted by one mapper. Default: true</li>
+ * </ul>
+ *
+ */
+public class Excel2ColumnarDriver extends Configured implements Tool {
+	public static final String CONF_INFERROWS = "hadoopoffice.converter.infer.rows";
+	public static final String CONF_INFERFILES = "hadoopoffice.converter.infer.files";
+	public static final String CONF_SHEETSPLITS = "hadoopoffice.converter.sheetsplits";
+	public static final long DEFAULT_INFERROWS = 1000L;
+	public static final int DEFAULT_INFERFILES = 1;
+	public static final boolean DEFAULT_SHEETSPLITS = true;
+	public static final String FORMAT_PARQUET = "parquet";
+	public static final String FORMAT_ORC = "orc";
+
+	private static final Log LOG = LogFactory.getLog(Excel2ColumnarDriver.class.getName());
+
+	public Excel2ColumnarDriver() {
+		// nothing needed here
+	}
+
+	@Override
+	public int run(String[] args) throws Exception {
+		if (args.length != 3) {
+			System.err.println("Usage: " + Excel2ColumnarDriver.class.getSimpleName() + " [options] <input> <output> " + FORMAT_PARQUET + "|" + FORMAT_ORC);
+			ToolRunner.printGenericCommandUsage(System.err);
+			return -1;
+		}
+		Job job = Job.getInstance(getConf(), "hadoopoffice-Excel2Columnar-job");
+		job.setJarByClass(Excel2ColumnarDriver.class);
+		Configuration conf = job.getConfiguration();
+		if (conf.getBoolean(CONF_SHEETSPLITS, DEFAULT_SHEETSPLITS)) {
+			job.setInputFormatClass(ExcelSheetFileInputFormat.class);
+		} else {
+			job.setInputFormatClass(ExcelFileInputFormat.class);
+		}
+		FileInputFormat.addInputPath(job, new Path(args[0]));
+		FileOutputFormat.setOutputPath(job, new Path(args[1]));
+		job.setNumReduceTasks(0); // rows are written by the mappers
+		String schemaString = conf.get(AbstractExcelColumnarMapper.CONF_SCHEMA);
+		ColumnarSchema schema;
+		if ((schemaString == null) || ("".equals(schemaString))) {
+			schema = inferSchema(job);
+			conf.set(AbstractExcelColumnarMapper.CONF_SCHEMA, schema.toString());
+		} else {
+			schema = ColumnarSchema.parse(schemaString);
+		}
+		LOG.info("Converting Excel files with schema " + schema);
+		if (FORMAT_PARQUET.equalsIgnoreCase(args[2])) {
+			job.setMapperClass(ExcelParquetMapper.class);
+			job.setOutputFormatClass(ParquetOutputFormat.class);
+			ParquetOutputFormat.setWriteSupportClass(job, ExcelRowWriteSupport.class);
+		} else if (FORMAT_ORC.equalsIgnoreCase(args[2])) {
+			job.setMapperClass(ExcelOrcMapper.class);
+			job.setOutputFormatClass(OrcOutputFormat.class);
+			job.setOutputKeyClass(NullWritable.class);
+			job.setOutputValueClass(OrcStruct.class);
+			OrcConf.MAPRED_OUTPUT_SCHEMA.setString(conf, schema.toOrcSchema().toString());
+		} else {
+			System.err.println("Unknown output format \"" + args[2] + "\". Supported formats: " + FORMAT_PARQUET + ", " + FORMAT_ORC);
+			return -1;
+		}
+		return job.waitForCompletion(true) ? 0 : 1;
+	}
+
+	/**
+	 * Infers the schema from the first rows of the first input files
+	 *
+	 * @param job job with the input files and the configuration of the reader
+	 * @return inferred schema
+	 * @throws IOException          in case the files cannot be read or do not contain rows
+	 * @throws InterruptedException in case of thread interruption
+	 */
+	private static ColumnarSchema inferSchema(Job job) throws IOException, InterruptedException {
+		Configuration conf = job.getConfiguration();
+		long maxRows = conf.getLong(CONF_INFERROWS, DEFAULT_INFERROWS);
+		int maxFiles = conf.getInt(CONF_INFERFILES, DEFAULT_INFERFILES);
+		ExcelConverterSimpleSpreadSheetCellDAO converter = AbstractExcelColumnarMapper.createConverter(conf);
+		ExcelFileInputFormat inputFormat = new ExcelFileInputFormat(); // complete files including the header
+		List<InputSplit> splits = inputFormat.getSplits(job);
+		String[] header = null;
+		for (int i = 0; (i < splits.size()) && (i < maxFiles); i++) {
+			LOG.info("Inferring schema from " + splits.get(i));
+			TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+			RecordReader<?, ?> reader = inputFormat.createRecordReader(splits.get(i), context);
+			if (reader == null) {
+				throw new IOException("Cannot read " + splits.get(i) + " to infer the schema");
+			}
+			try {
+				reader.initialize(splits.get(i), context);
+				ExcelRecordReader excelReader = (ExcelRecordReader) reader;
+				if (header == null) {
+					header = excelReader.getOfficeReader().getCurrentParser().getHeader();
+				}
+				long rows = 0;
+				while ((rows < maxRows) && (excelReader.nextKeyValue())) {
+					converter.updateSpreadSheetCellRowToInferSchemaInformation((SpreadSheetCellDAO[]) excelReader.getCurrentValue().get());
+					rows++;
+				}
+			} finally {
+				reader.close();
+			}
+		}
+		if (converter.getSchemaRow().length == 0) {
+			throw new IOException("Cannot infer schema, because the input files do not contain any rows. Please define the schema in " + AbstractExcelColumnarMapper.CONF_SCHEMA);
+		}
+		return ColumnarSchema.create(converter.getSchemaRow(), header);
+	}
+
+	public static void main(String[] args) throws Exception {
+		Configuration conf = new Configuration();
+		int res = ToolRunner.run(conf, new Excel2ColumnarDriver(), args);
+		System.exit(res);
+	}
+
+}
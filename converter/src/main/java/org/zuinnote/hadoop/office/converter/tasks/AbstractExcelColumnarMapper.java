@@ -0,0 +1,161 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.converter.tasks;
+
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.ArrayWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.zuinnote.hadoop.office.converter.ColumnarSchema;
+import org.zuinnote.hadoop.office.format.common.converter.ExcelConverterSimpleSpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.mapreduce.ExcelSheetFileSplit;
+
+/**
+ * Converts the rows of an Excel file (or sheet) into typed rows according to the schema of the job (see {@link ColumnarSchema}) and writes them with the output format of the subclass. Rows are converted and written one by one, so only the output format buffers rows (e.g. a row group of Parquet or a stripe of ORC).
+ *
+ * The following options can be configured:
+ * <ul>
+ * <li>hadoopoffice.converter.schema: schema of the converted rows, set by the driver</li>
+ * <li>hadoopoffice.converter.dateformat: format of dates in BCP47 notation. Default: US</li>
+ * <li>hadoopoffice.converter.decimalformat: format of decimals in BCP47 notation. Default: empty, ie the locale of the system</li>
+ * </ul>
+ * The throughput of each file (or sheet) is logged when it has been converted. Furthermore, the counters of the group {@link #COUNTER_GROUP} contain the number of converted and invalid rows and the conversion time of all files.
+ *
+ */
+public abstract class AbstractExcelColumnarMapper<KEYOUT, VALUEOUT> extends Mapper<Text, ArrayWritable, KEYOUT, VALUEOUT> {
+	public static final String CONF_SCHEMA = "hadoopoffice.converter.schema";
+	public static final String CONF_DATEFORMAT = "hadoopoffice.converter.dateformat";
+	public static final String CONF_DECIMALFORMAT = "hadoopoffice.converter.decimalformat";
+	public static final String DEFAULT_DATEFORMAT = "US";
+	public static final String DEFAULT_DECIMALFORMAT = "";
+
+	public static final String COUNTER_GROUP = "HadoopOfficeConverter";
+	public static final String COUNTER_ROWS = "Rows";
+	public static final String COUNTER_INVALIDROWS = "InvalidRows";
+	public static final String COUNTER_CONVERSIONTIME = "ConversionTimeMillis";
+
+	private static final Log LOG = LogFactory.getLog(AbstractExcelColumnarMapper.class.getName());
+
+	private ExcelConverterSimpleSpreadSheetCellDAO converter;
+	private ColumnarSchema schema;
+	private String source;
+	private long sourceBytes;
+	private long startTime;
+	private long rows;
+	private long invalidRows;
+
+	@Override
+	public void setup(Context context) throws IOException, InterruptedException {
+		Configuration conf = context.getConfiguration();
+		String schemaString = conf.get(AbstractExcelColumnarMapper.CONF_SCHEMA);
+		if ((schemaString == null) || ("".equals(schemaString))) {
+			throw new IOException("No schema defined in " + AbstractExcelColumnarMapper.CONF_SCHEMA);
+		}
+		this.schema = ColumnarSchema.parse(schemaString);
+		this.converter = createConverter(conf);
+		this.converter.setSchemaRow(this.schema.getTypes());
+		InputSplit split = context.getInputSplit();
+		this.source = split.toString();
+		if (split instanceof ExcelSheetFileSplit) {
+			this.source = ((FileSplit) split).getPath() + "!" + ((ExcelSheetFileSplit) split).getSheetName();
+		} else if (split instanceof FileSplit) {
+			this.source = ((FileSplit) split).getPath().toString();
+		}
+		this.sourceBytes = split.getLength();
+		this.rows = 0;
+		this.invalidRows = 0;
+		this.startTime = System.currentTimeMillis();
+	}
+
+	@Override
+	public void map(Text key, ArrayWritable value, Context context) throws IOException, InterruptedException {
+		Object[] row;
+		try {
+			row = this.converter.getDataAccordingToSchema((SpreadSheetCellDAO[]) value.get());
+		} catch (ArithmeticException e) { // e.g. a number that does not fit into the type of the schema
+			LOG.warn("Skipping row " + key + ", because it does not match the schema: " + e.getMessage());
+			this.invalidRows++;
+			return;
+		}
+		this.write(row, context);
+		this.rows++;
+	}
+
+	@Override
+	public void cleanup(Context context) throws IOException, InterruptedException {
+		long conversionTime = System.currentTimeMillis() - this.startTime;
+		double seconds = Math.max(conversionTime, 1L) / 1000.0;
+		String throughput = String.format(Locale.US, "Converted %s: %d rows (%d invalid) in %d ms, %.1f rows/s, %.2f MB/s", this.source, this.rows,
+				this.invalidRows, conversionTime, this.rows / seconds, this.sourceBytes / seconds / (1024 * 1024));
+		LOG.info(throughput);
+		context.setStatus(throughput);
+		context.getCounter(COUNTER_GROUP, COUNTER_ROWS).increment(this.rows);
+		context.getCounter(COUNTER_GROUP, COUNTER_INVALIDROWS).increment(this.invalidRows);
+		context.getCounter(COUNTER_GROUP, COUNTER_CONVERSIONTIME).increment(conversionTime);
+	}
+
+	/**
+	 * Writes a converted row
+	 *
+	 * @param row     values of the row according to the schema (see ExcelConverterSimpleSpreadSheetCellDAO.getDataAccordingToSchema). The array may be shorter or longer than the schema
+	 * @param context context of the task
+	 * @throws IOException          in case the row cannot be written
+	 * @throws InterruptedException in case of thread interruption
+	 */
+	protected abstract void write(Object[] row, Context context) throws IOException, InterruptedException;
+
+	/**
+	 *
+	 * @return schema of the converted rows
+	 */
+	protected ColumnarSchema getSchema() {
+		return this.schema;
+	}
+
+	/**
+	 * Creates a converter with the date and decimal formats of the configuration
+	 *
+	 * @param conf configuration
+	 * @return converter without schema
+	 */
+	public static ExcelConverterSimpleSpreadSheetCellDAO createConverter(Configuration conf) {
+		String dateFormatString = conf.get(AbstractExcelColumnarMapper.CONF_DATEFORMAT, AbstractExcelColumnarMapper.DEFAULT_DATEFORMAT);
+		Locale dateLocale = Locale.getDefault();
+		if (!"".equals(dateFormatString)) {
+			dateLocale = new Locale.Builder().setLanguageTag(dateFormatString).build();
+		}
+		String decimalFormatString = conf.get(AbstractExcelColumnarMapper.CONF_DECIMALFORMAT, AbstractExcelColumnarMapper.DEFAULT_DECIMALFORMAT);
+		Locale decimalLocale = Locale.getDefault();
+		if (!"".equals(decimalFormatString)) {
+			decimalLocale = new Locale.Builder().setLanguageTag(decimalFormatString).build();
+		}
+		return new ExcelConverterSimpleSpreadSheetCellDAO((SimpleDateFormat) DateFormat.getDateInstance(DateFormat.SHORT, dateLocale),
+				(DecimalFormat) NumberFormat.getInstance(decimalLocale));
+	}
+
+}
@@ -0,0 +1,109 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.converter.tasks;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.apache.hadoop.hive.common.type.HiveDecimal;
+import org.apache.hadoop.hive.serde2.io.DateWritable;
+import org.apache.hadoop.hive.serde2.io.HiveDecimalWritable;
+import org.apache.hadoop.io.BooleanWritable;
+import org.apache.hadoop.io.ByteWritable;
+import org.apache.hadoop.io.DoubleWritable;
+import org.apache.hadoop.io.FloatWritable;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.ShortWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.orc.mapred.OrcStruct;
+import org.apache.orc.mapred.OrcTimestamp;
+import org.zuinnote.hadoop.office.converter.ColumnarSchema;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericBigDecimalDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericBooleanDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericByteDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDateDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDoubleDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericFloatDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericIntegerDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericLongDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericShortDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericTimestampDataType;
+
+/**
+ * Writes the converted rows of Excel files with the OrcOutputFormat. One OrcStruct and the writables of its fields are reused for all rows
+ *
+ */
+public class ExcelOrcMapper extends AbstractExcelColumnarMapper<NullWritable, OrcStruct> {
+	private OrcStruct struct;
+	private WritableComparable<?>[] fieldValues;
+
+	@Override
+	public void setup(Context context) throws IOException, InterruptedException {
+		super.setup(context);
+		this.struct = (OrcStruct) OrcStruct.createValue(this.getSchema().toOrcSchema());
+		this.fieldValues = new WritableComparable<?>[this.struct.getNumFields()];
+		for (int i = 0; i < this.fieldValues.length; i++) {
+			this.fieldValues[i] = this.struct.getFieldValue(i);
+		}
+	}
+
+	@Override
+	protected void write(Object[] row, Context context) throws IOException, InterruptedException {
+		GenericDataType[] types = this.getSchema().getTypes();
+		for (int i = 0; i < types.length; i++) {
+			if ((i < row.length) && (row[i] != null)) {
+				this.setValue(i, types[i], row[i]);
+				this.struct.setFieldValue(i, this.fieldValues[i]);
+			} else {
+				this.struct.setFieldValue(i, null);
+			}
+		}
+		context.write(NullWritable.get(), this.struct);
+	}
+
+	private void setValue(int field, GenericDataType type, Object value) {
+		WritableComparable<?> fieldValue = this.fieldValues[field];
+		if (type instanceof GenericBooleanDataType) {
+			((BooleanWritable) fieldValue).set((Boolean) value);
+		} else if (type instanceof GenericByteDataType) {
+			((ByteWritable) fieldValue).set(((Number) value).byteValue());
+		} else if (type instanceof GenericShortDataType) {
+			((ShortWritable) fieldValue).set(((Number) value).shortValue());
+		} else if (type instanceof GenericIntegerDataType) {
+			((IntWritable) fieldValue).set(((Number) value).intValue());
+		} else if (type instanceof GenericLongDataType) {
+			((LongWritable) fieldValue).set(((Number) value).longValue());
+		} else if (type instanceof GenericFloatDataType) {
+			((FloatWritable) fieldValue).set(((Number) value).floatValue());
+		} else if (type instanceof GenericDoubleDataType) {
+			((DoubleWritable) fieldValue).set(((Number) value).doubleValue());
+		} else if (type instanceof GenericBigDecimalDataType) {
+			((HiveDecimalWritable) fieldValue).set(HiveDecimal.create((BigDecimal) value));
+		} else if (type instanceof GenericDateDataType) {
+			((DateWritable) fieldValue).set(ColumnarSchema.toEpochDay((Date) value));
+		} else if (type instanceof GenericTimestampDataType) {
+			((OrcTimestamp) fieldValue).setTime(((Date) value).getTime());
+		} else {
+			((Text) fieldValue).set(value.toString());
+		}
+	}
+
+}
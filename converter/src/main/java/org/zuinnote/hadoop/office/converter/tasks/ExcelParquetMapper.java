@@ -0,0 +1,31 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.converter.tasks;
+
+import java.io.IOException;
+
+/**
+ * Writes the converted rows of Excel files with the ParquetOutputFormat and {@link ExcelRowWriteSupport}
+ *
+ */
+public class ExcelParquetMapper extends AbstractExcelColumnarMapper<Void, Object[]> {
+
+	@Override
+	protected void write(Object[] row, Context context) throws IOException, InterruptedException {
+		context.write(null, row);
+	}
+
+}
@@ -0,0 +1,97 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.converter.tasks;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Date;
+import java.util.HashMap;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.zuinnote.hadoop.office.converter.ColumnarSchema;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericBigDecimalDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericBooleanDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericByteDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDateDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDoubleDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericFloatDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericIntegerDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericLongDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericShortDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericTimestampDataType;
+
+/**
+ * Writes rows converted by ExcelConverterSimpleSpreadSheetCellDAO to Parquet according to the schema of the job (see {@link ColumnarSchema#toParquetSchema()}). The values are passed directly to Parquet without intermediate record objects. Null values and values of columns outside the schema are not written.
+ *
+ */
+public class ExcelRowWriteSupport extends WriteSupport<Object[]> {
+	private ColumnarSchema schema;
+	private RecordConsumer recordConsumer;
+
+	@Override
+	public WriteContext init(Configuration configuration) {
+		this.schema = ColumnarSchema.parse(configuration.get(AbstractExcelColumnarMapper.CONF_SCHEMA));
+		return new WriteContext(this.schema.toParquetSchema(), new HashMap<String, String>());
+	}
+
+	@Override
+	public void prepareForWrite(RecordConsumer recordConsumer) {
+		this.recordConsumer = recordConsumer;
+	}
+
+	@Override
+	public void write(Object[] row) {
+		String[] names = this.schema.getNames();
+		GenericDataType[] types = this.schema.getTypes();
+		this.recordConsumer.startMessage();
+		for (int i = 0; (i < types.length) && (i < row.length); i++) {
+			if (row[i] != null) {
+				this.recordConsumer.startField(names[i], i);
+				this.writeValue(types[i], row[i]);
+				this.recordConsumer.endField(names[i], i);
+			}
+		}
+		this.recordConsumer.endMessage();
+	}
+
+	private void writeValue(GenericDataType type, Object value) {
+		if (type instanceof GenericBooleanDataType) {
+			this.recordConsumer.addBoolean((Boolean) value);
+		} else if ((type instanceof GenericByteDataType) || (type instanceof GenericShortDataType) || (type instanceof GenericIntegerDataType)) {
+			this.recordConsumer.addInteger(((Number) value).intValue());
+		} else if (type instanceof GenericLongDataType) {
+			this.recordConsumer.addLong(((Number) value).longValue());
+		} else if (type instanceof GenericFloatDataType) {
+			this.recordConsumer.addFloat(((Number) value).floatValue());
+		} else if (type instanceof GenericDoubleDataType) {
+			this.recordConsumer.addDouble(((Number) value).doubleValue());
+		} else if (type instanceof GenericBigDecimalDataType) {
+			BigDecimal decimal = ((BigDecimal) value).setScale(((GenericBigDecimalDataType) type).getScale(), RoundingMode.HALF_UP);
+			this.recordConsumer.addBinary(Binary.fromConstantByteArray(decimal.unscaledValue().toByteArray()));
+		} else if (type instanceof GenericDateDataType) {
+			this.recordConsumer.addInteger(ColumnarSchema.toEpochDay((Date) value));
+		} else if (type instanceof GenericTimestampDataType) {
+			this.recordConsumer.addLong(((Date) value).getTime());
+		} else {
+			this.recordConsumer.addBinary(Binary.fromString(value.toString()));
+		}
+	}
+
+}
@@ -0,0 +1,56 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericBigDecimalDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDateDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericStringDataType;
+
+public class ColumnarSchemaTest {
+
+	@Test
+	public void createFromHeader() {
+		GenericDataType[] types = new GenericDataType[] { new GenericStringDataType(), new GenericBigDecimalDataType(3, 2), null };
+		ColumnarSchema schema = ColumnarSchema.create(types, new String[] { "customer name", "amount" });
+		assertEquals("customer_name", schema.getNames()[0], "Name of the first column is sanitized");
+		assertEquals("amount", schema.getNames()[1], "Name of the second column is taken from the header");
+		assertEquals("C", schema.getNames()[2], "Column without header is named after the column");
+		assertTrue(schema.getTypes()[2] instanceof GenericStringDataType, "Column without type is a string");
+	}
+
+	@Test
+	public void parseToStringRoundTrip() {
+		String schemaString = "name:string,amount:decimal(10,2),day:date";
+		ColumnarSchema schema = ColumnarSchema.parse(schemaString);
+		assertEquals(3, schema.getTypes().length, "Schema has three columns");
+		assertTrue(schema.getTypes()[1] instanceof GenericBigDecimalDataType, "Second column is a decimal");
+		assertEquals(2, ((GenericBigDecimalDataType) schema.getTypes()[1]).getScale(), "Scale of the decimal");
+		assertTrue(schema.getTypes()[2] instanceof GenericDateDataType, "Third column is a date");
+		assertEquals(schemaString, schema.toString(), "Parsed schema is written unchanged");
+	}
+
+	@Test
+	public void parseUnknownType() {
+		assertThrows(IllegalArgumentException.class, () -> ColumnarSchema.parse("name:varchar"), "Unknown type is rejected");
+	}
+
+}
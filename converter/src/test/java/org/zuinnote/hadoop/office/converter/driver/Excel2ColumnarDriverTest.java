@@ -0,0 +1,160 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.converter.driver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.util.ToolRunner;
+import org.apache.orc.OrcFile;
+import org.apache.orc.Reader;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.zuinnote.hadoop.office.converter.tasks.AbstractExcelColumnarMapper;
+
+public class Excel2ColumnarDriverTest {
+	private static java.nio.file.Path tmpPath;
+	private static Path inputFile;
+
+	@BeforeAll
+	public static void oneTimeSetUp() throws IOException {
+		tmpPath = Files.createTempDirectory("hocolumnartest");
+		// one file with a header in the first sheet and a second sheet without header
+		inputFile = new Path(tmpPath.resolve("input").resolve("testconverter.xlsx").toUri());
+		Files.createDirectories(tmpPath.resolve("input"));
+		try (Workbook wb = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(tmpPath.resolve("input").resolve("testconverter.xlsx"))) {
+			Sheet firstSheet = wb.createSheet("first");
+			createRow(firstSheet, 0, "name", "amount", "flag");
+			createRow(firstSheet, 1, "a", 1.5, Boolean.TRUE);
+			createRow(firstSheet, 2, "b", 2.25, Boolean.FALSE);
+			Sheet secondSheet = wb.createSheet("second");
+			createRow(secondSheet, 0, "c", 3.0, Boolean.TRUE);
+			wb.write(out);
+		}
+	}
+
+	@AfterAll
+	public static void oneTimeTearDown() throws IOException {
+		Files.walkFileTree(tmpPath, new SimpleFileVisitor<java.nio.file.Path>() {
+
+			@Override
+			public FileVisitResult visitFile(java.nio.file.Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(java.nio.file.Path dir, IOException e) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	@Test
+	public void convertExcel2013ToParquet() throws Exception {
+		Configuration conf = createConfiguration();
+		Path outputPath = new Path(tmpPath.resolve("parquet").toUri());
+		assertEquals(0, ToolRunner.run(conf, new Excel2ColumnarDriver(), new String[] { inputFile.toString(), outputPath.toString(), Excel2ColumnarDriver.FORMAT_PARQUET }), "Job is successful");
+		List<Group> rows = new ArrayList<>();
+		for (Path currentFile : getPartFiles(conf, outputPath)) {
+			try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), currentFile).withConf(conf).build()) {
+				Group currentRow = reader.read();
+				while (currentRow != null) {
+					rows.add(currentRow);
+					currentRow = reader.read();
+				}
+			}
+		}
+		assertEquals(3, rows.size(), "Rows of both sheets without the header are converted");
+		rows.sort((first, second) -> first.getString("name", 0).compareTo(second.getString("name", 0)));
+		assertEquals("a", rows.get(0).getString("name", 0), "Name of the first row");
+		assertEquals(new BigDecimal("1.50"), new BigDecimal(new java.math.BigInteger(rows.get(0).getBinary("amount", 0).getBytes()), 2), "Amount of the first row");
+		assertEquals(true, rows.get(0).getBoolean("flag", 0), "Flag of the first row");
+		assertEquals("c", rows.get(2).getString("name", 0), "First row of the second sheet is not skipped as header");
+	}
+
+	@Test
+	public void convertExcel2013ToOrc() throws Exception {
+		Configuration conf = createConfiguration();
+		Path outputPath = new Path(tmpPath.resolve("orc").toUri());
+		assertEquals(0, ToolRunner.run(conf, new Excel2ColumnarDriver(), new String[] { inputFile.toString(), outputPath.toString(), Excel2ColumnarDriver.FORMAT_ORC }), "Job is successful");
+		long rows = 0;
+		for (Path currentFile : getPartFiles(conf, outputPath)) {
+			Reader reader = OrcFile.createReader(currentFile, OrcFile.readerOptions(conf));
+			assertEquals("struct<name:string,amount:decimal(3,2),flag:boolean>", reader.getSchema().toString(), "Schema is inferred from the header and the rows");
+			rows += reader.getNumberOfRows();
+		}
+		assertEquals(3, rows, "Rows of both sheets without the header are converted");
+	}
+
+	private static Configuration createConfiguration() {
+		Configuration conf = new Configuration();
+		conf.set("fs.defaultFS", "file:///");
+		conf.set("mapreduce.framework.name", "local");
+		conf.set("hadoopoffice.read.locale.bcp47", "us");
+		conf.set("hadoopoffice.read.header.read", "true");
+		conf.set(AbstractExcelColumnarMapper.CONF_DECIMALFORMAT, "us");
+		return conf;
+	}
+
+	private static List<Path> getPartFiles(Configuration conf, Path outputPath) throws IOException {
+		List<Path> result = new ArrayList<>();
+		for (FileStatus currentStatus : FileSystem.getLocal(conf).listStatus(outputPath)) {
+			if (currentStatus.getPath().getName().startsWith("part-")) {
+				result.add(currentStatus.getPath());
+			}
+		}
+		return result;
+	}
+
+	private static void createRow(Sheet sheet, int rowNum, String name, Object amount, Object flag) {
+		Row row = sheet.createRow(rowNum);
+		row.createCell(0).setCellValue(name);
+		if (amount instanceof Double) {
+			row.createCell(1).setCellValue((Double) amount);
+		} else {
+			row.createCell(1).setCellValue((String) amount);
+		}
+		if (flag instanceof Boolean) {
+			row.createCell(2).setCellValue((Boolean) flag);
+		} else {
+			row.createCell(2).setCellValue((String) flag);
+		}
+	}
+
+}
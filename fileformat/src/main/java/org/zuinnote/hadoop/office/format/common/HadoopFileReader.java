@@ -23,6 +23,7 @@ import java.util.HashMap;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.io.compress.CodecPool;
@@ -34,6 +35,8 @@ import org.apache.hadoop.io.compress.Decompressor;
 
 import org.apache.commons.logging.LogFactory;
 import org.apache.commons.logging.Log;
+import org.zuinnote.hadoop.office.format.common.util.FileVersion;
+import org.zuinnote.hadoop.office.format.common.util.TemplateCache;
 
 /** This class servers as a reader for a file from any file system supported by Hadoop. It is suppposed to be used only for loading related files to a main file (e.g. linked workbook), but not the main file itself (this is done via the normal file format mechanism).
  **/
@@ -43,7 +46,6 @@ private static final Log LOG = LogFactory.getLog(HadoopFileReader.class.getName(
 private CompressionCodecFactory compressionCodecs = null;
 private Configuration conf;
 private ArrayList<Decompressor> openDecompressors;
-private FileSystem fs;
 
 private HadoopFileReader() {
 }
@@ -59,7 +61,6 @@ public HadoopFileReader(Configuration conf) throws IOException {
 	this.conf=conf;
 	this.compressionCodecs=  new CompressionCodecFactory(conf);
 	this.openDecompressors = new ArrayList<>();
-	this.fs = FileSystem.get(this.conf);
 	
 }
 
@@ -77,6 +78,8 @@ public HadoopFileReader(Configuration conf) throws IOException {
 
 public InputStream openFile(Path path) throws IOException {
         CompressionCodec codec=compressionCodecs.getCodec(path);
+	// the filesystem is determined by the path, so that files outside of the default filesystem can be read as well
+	FileSystem fs=path.getFileSystem(this.conf);
  	FSDataInputStream fileIn=fs.open(path);
 	// check if compressed
 	if (codec==null) { // uncompressed
@@ -133,6 +136,45 @@ public Map<String,InputStream> loadLinkedWorkbooks(String[] fileNames) throws IO
 	return result;
 }
 
+/*
+* Determines the versions of linked workbooks, so that parsed linked workbooks can be reused from the cache of parsed linked workbooks
+* 
+* @param fileNames List of filenames (full URI/path) of linked workbooks
+*
+* @return a Map of filenames (without path!) with associated versions
+*
+* @throws java.io.IOException in case of issues accessing a file
+*
+*/
+
+public Map<String,FileVersion> getLinkedWorkbookVersions(String[] fileNames) throws IOException {
+	HashMap<String,FileVersion> result = new HashMap<>();
+	if (fileNames==null) {
+		return result;
+	}
+	for (String currentFile: fileNames) {
+		Path currentPath=new Path(currentFile);
+		result.put(currentPath.getName(), getFileVersion(currentPath));
+	}
+	return result;
+}
+
+/*
+* Determines the version of a file
+* 
+* @param path path to the file
+*
+* @return location, length and modification time of the file
+*
+* @throws java.io.IOException in case of issues accessing the file
+*
+*/
+
+public FileVersion getFileVersion(Path path) throws IOException {
+	FileStatus status=path.getFileSystem(this.conf).getFileStatus(path);
+	return new FileVersion(status.getPath().toString(),status.getLen(),status.getModificationTime());
+}
+
 /*
 * Loads template as InputStreams
 * 
@@ -148,4 +190,28 @@ public InputStream loadTemplate(String fileName) throws IOException {
 	return openFile(currentPath);
 }
 
+/*
+* Loads template as InputStreams. The content of the template is cached by the JVM, so that other writers do not need to read it again
+* 
+* @param fileName filename of template (full URI/path) to load
+* @param cacheMaxSize maximum total size in bytes of cached templates, 0 to disable caching
+*
+* @return InputStream of the template
+*
+* @throws java.io.IOException in case of issues loading a file
+*
+*/
+public InputStream loadTemplate(String fileName, long cacheMaxSize) throws IOException {
+	final Path currentPath=new Path(fileName);
+	if (cacheMaxSize<=0) {
+		return openFile(currentPath);
+	}
+	return TemplateCache.get(getFileVersion(currentPath), new TemplateCache.TemplateOpener() {
+		@Override
+		public InputStream open() throws IOException {
+			return openFile(currentPath);
+		}
+	}, cacheMaxSize);
+}
+
 }
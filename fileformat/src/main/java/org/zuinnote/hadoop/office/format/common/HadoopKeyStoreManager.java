@@ -26,6 +26,7 @@ import java.security.NoSuchAlgorithmException;
 import java.security.UnrecoverableEntryException;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
 import java.security.cert.PKIXParameters;
 import java.security.cert.X509Certificate;
@@ -41,18 +42,30 @@ import javax.crypto.spec.PBEKeySpec;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.zuinnote.hadoop.office.format.common.util.CertificateChainVerificationUtil;
+import org.zuinnote.hadoop.office.format.common.util.KeyStoreCache;
 
 /**
  * Load/Store passwords/keys/certificates from/to keystore files accessible through Hadoop APIs
+ * 
+ * Keystores loaded from files are cached JVM-wide (see {@link org.zuinnote.hadoop.office.format.common.util.KeyStoreCache}), so that readers/writers of many files do not load the same keystore and derive the same passwords again. The time to live of cached keystores can be configured with hadoopoffice.security.keystore.cache.ttl (in milliseconds, 0 disables caching).
  *
  */
 public class HadoopKeyStoreManager {
+	public static final String CONF_CACHE_TTL = "hadoopoffice.security.keystore.cache.ttl";
 	private static final Log LOG = LogFactory.getLog(HadoopKeyStoreManager.class.getName());
 	private KeyStore keystore;
+	private KeyStoreCache.Entry cacheEntry;
 	private HadoopFileReader hfr;
 	private FileSystem fs;
+	private Configuration conf;
+	private long cacheTTL;
+	private Path keyStorePath;
+	private String keyStoreType;
+	private String keyStorePassword;
 	
 	private HadoopKeyStoreManager() {
 		// empty constructor
@@ -67,6 +80,8 @@ public class HadoopKeyStoreManager {
 	public HadoopKeyStoreManager(Configuration conf) throws IOException {
 		this.hfr = new HadoopFileReader(conf);
 		this.fs = FileSystem.get(conf);
+		this.conf = conf;
+		this.cacheTTL = conf.getLong(HadoopKeyStoreManager.CONF_CACHE_TTL, KeyStoreCache.DEFAULT_TTL);
 	}
 	
 	/****
@@ -81,13 +96,46 @@ public class HadoopKeyStoreManager {
 	 * @throws KeyStoreException
 	 */
 	public void openKeyStore(Path path, String keyStoreType, String keyStorePassword) throws IOException, NoSuchAlgorithmException, CertificateException, KeyStoreException {
-		this.keystore = KeyStore.getInstance(keyStoreType);
-		if (path!=null) {
-			InputStream keyStoreInputStream = hfr.openFile(path);
-			this.keystore.load(keyStoreInputStream, keyStorePassword.toCharArray());
-		} else {
+		this.keyStorePath = path;
+		this.keyStoreType = keyStoreType;
+		this.keyStorePassword = keyStorePassword;
+		if (path==null) {
+			this.cacheEntry = null;
+			this.keystore = KeyStore.getInstance(keyStoreType);
 			this.keystore.load(null, keyStorePassword.toCharArray());
+		} else if (this.cacheTTL<=0) {
+			this.cacheEntry = null;
+			this.keystore = this.loadKeyStore(path, keyStoreType, keyStorePassword);
+		} else {
+			FileStatus status = path.getFileSystem(this.conf).getFileStatus(path);
+			String location = status.getPath().toString();
+			this.cacheEntry = KeyStoreCache.get(location, keyStoreType, status.getLen(), status.getModificationTime(), keyStorePassword);
+			if (this.cacheEntry==null) {
+				LOG.debug("Loading keystore \""+location+"\"");
+				this.cacheEntry = KeyStoreCache.put(location, keyStoreType, status.getLen(), status.getModificationTime(), keyStorePassword, this.loadKeyStore(path, keyStoreType, keyStorePassword), this.cacheTTL);
+			}
+			this.keystore = this.cacheEntry.getKeyStore();
+		}
+	}
+	
+	/**
+	 * Loads a keystore from a file
+	 * 
+	 * @param path
+	 * @param keyStoreType
+	 * @param keyStorePassword
+	 * @return loaded keystore
+	 * @throws IOException
+	 * @throws NoSuchAlgorithmException
+	 * @throws CertificateException
+	 * @throws KeyStoreException
+	 */
+	private KeyStore loadKeyStore(Path path, String keyStoreType, String keyStorePassword) throws IOException, NoSuchAlgorithmException, CertificateException, KeyStoreException {
+		KeyStore result = KeyStore.getInstance(keyStoreType);
+		try (InputStream keyStoreInputStream = hfr.openFile(path)) {
+			result.load(keyStoreInputStream, keyStorePassword.toCharArray());
 		}
+		return result;
 	}
 	
 	/**
@@ -129,6 +177,9 @@ public class HadoopKeyStoreManager {
 	 * @throws InvalidKeySpecException
 	 */
 	public String getPassword(String alias, String passwordPassword) throws NoSuchAlgorithmException, UnrecoverableEntryException, KeyStoreException, InvalidKeySpecException {
+		if (this.cacheEntry!=null) {
+			return this.cacheEntry.getPassword(alias, passwordPassword);
+		}
 		SecretKey sk =  (SecretKey) this.keystore.getKey(alias,passwordPassword.toCharArray());
 		return new String(sk.getEncoded());
 	}
@@ -145,6 +196,7 @@ public class HadoopKeyStoreManager {
 	 */
 	
 	public void setPassword(String alias, String password, String passwordPassword) throws NoSuchAlgorithmException, InvalidKeySpecException, KeyStoreException {
+		this.detachFromCache();
 		SecretKeyFactory skf = SecretKeyFactory.getInstance("PBE");
         SecretKey pSecret = skf.generateSecret(new PBEKeySpec(password.toCharArray()));
         KeyStore.PasswordProtection kspp = new KeyStore.PasswordProtection(passwordPassword.toCharArray());
@@ -168,6 +220,24 @@ public class HadoopKeyStoreManager {
 		if (os!=null) {
 			os.close();
 		}
+		KeyStoreCache.invalidate(this.fs.getFileStatus(path).getPath().toString());
+	}
+	
+	/**
+	 * A cached keystore is shared and must not be modified. Hence, before modifying it a private copy is loaded
+	 * 
+	 * @throws KeyStoreException
+	 */
+	private void detachFromCache() throws KeyStoreException {
+		if (this.cacheEntry!=null) {
+			try {
+				this.keystore = this.loadKeyStore(this.keyStorePath, this.keyStoreType, this.keyStorePassword);
+			} catch (IOException | NoSuchAlgorithmException | CertificateException e) {
+				LOG.error("Cannot reload keystore for modification. Exception: ",e);
+				throw new KeyStoreException(e);
+			}
+			this.cacheEntry = null;
+		}
 	}
 	
 
@@ -181,6 +251,9 @@ public class HadoopKeyStoreManager {
 	 */
 	
 	public Set<X509Certificate> getAllX509Certificates() throws KeyStoreException {
+		if (this.cacheEntry!=null) {
+			return new HashSet<>(this.cacheEntry.getAllX509Certificates());
+		}
 		HashSet<X509Certificate> result = new HashSet<>();
 		Enumeration<String> enumAlias = this.keystore.aliases();
 		while (enumAlias.hasMoreElements()) {
@@ -192,5 +265,21 @@ public class HadoopKeyStoreManager {
 		}
 		return result;
 	}
+	
+	/**
+	 * 
+	 * Calculates the fingerprint of all X509Certificates in the keystore, e.g. to verify several certificates with the same truststore (see {@link CertificateChainVerificationUtil#verifyCertificateChain(X509Certificate, Set, String)})
+	 * 
+	 * @return fingerprint of the X509 Certificates in the keystore
+	 * @throws KeyStoreException
+	 * @throws CertificateEncodingException
+	 * @throws NoSuchAlgorithmException
+	 */
+	public String getAllX509CertificatesFingerprint() throws KeyStoreException, CertificateEncodingException, NoSuchAlgorithmException {
+		if (this.cacheEntry!=null) {
+			return this.cacheEntry.getAllX509CertificatesFingerprint();
+		}
+		return CertificateChainVerificationUtil.getFingerprint(this.getAllX509Certificates());
+	}
 
 }
@@ -19,13 +19,18 @@ import java.io.Serializable;
 import java.security.cert.PKIXParameters;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.zuinnote.hadoop.office.format.common.util.CachingDataFormatter;
+import org.zuinnote.hadoop.office.format.common.util.FileVersion;
 
 /**
  * read the configuration for reading office files from a Hadoop configuration
@@ -43,6 +48,9 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 	public static final String CONF_LOCALE = "hadoopoffice.read.locale.bcp47";
 	public static final String CONF_LINKEDWB = "hadoopoffice.read.linkedworkbooks";
 	public static final String CONF_IGNOREMISSINGWB = "hadoopoffice.read.ignoremissinglinkedworkbooks";
+	public static final String CONF_LINKEDWBTHREADS = "hadoopoffice.read.linkedworkbooks.threads";
+	public static final String CONF_LINKEDWBCACHEMAXCOUNT = "hadoopoffice.read.linkedworkbooks.cache.maxcount";
+	public static final String CONF_LINKEDWBCACHEMAXSIZE = "hadoopoffice.read.linkedworkbooks.cache.maxsize";
 	public static final String CONF_DECRYPT = "hadoopoffice.read.security.crypt.password";
 	public static final String CONF_DECRYPTLINKEDWBBASE = "hadoopoffice.read.security.crypt.linkedworkbooks.";
 	public static final String CONF_FILTERMETADATA = "hadoopoffice.read.filter.metadata."; // base: all these properties
@@ -52,11 +60,20 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 																							// the corresponding reader
 																							// which does the filtering!
 	public static final String CONF_LOWFOOTPRINT = "hadoopoffice.read.lowFootprint";
+	public static final String CONF_LOWFOOTPRINT_DECRYPTSPILL = "hadoopoffice.read.lowFootprint.decrypt.spill";
+	public static final String CONF_STAGELOCAL = "hadoopoffice.read.stage.local";
+	public static final String CONF_LOWFOOTPRINT_PARSERTHREADS = "hadoopoffice.read.lowFootprint.parser.threads";
+	public static final String CONF_READRAWVALUES = "hadoopoffice.read.rawvalues";
+	public static final String CONF_REUSEROWS = "hadoopoffice.read.reuserows";
+	public static final String CONF_FORMULAEVALUATION = "hadoopoffice.read.formula.evaluation";
+	public static final String CONF_FORMULAEVALUATIONMAXCOUNT = "hadoopoffice.read.formula.evaluation.maxcount";
+	public static final String CONF_FORMULAEVALUATIONMAXTIME = "hadoopoffice.read.formula.evaluation.maxtime";
 	public static final String CONF_CRYKEYSTOREFILE = "hadoopoffice.read.security.crypt.credential.keystore.file";
 	public static final String CONF_CRYKEYSTORETYPE = "hadoopoffice.read.security.crypt.credential.keystore.type";
 	public static final String CONF_CRYKEYSTOREPW = "hadoopoffice.read.security.crypt.credential.keystore.password";
 	public static final String CONF_CRYKEYSTOREALIAS = "hadoopoffice.read.security.crypt.credential.keystore.alias";
 	public static final String CONF_VERIFYSIGNATURE = "hadoopoffice.read.security.sign.verifysignature";
+	public static final String CONF_VERIFYSIGNATURETHREADS = "hadoopoffice.read.security.sign.verifysignature.threads";
 	public static final String CONF_SIGTRUSTFILE = "hadoopoffice.read.security.sign.truststore.file";
 	public static final String CONF_SIGTRUSTTYPE = "hadoopoffice.read.security.sign.truststore.type";
 	public static final String CONF_SIGTRUSTPW = "hadoopoffice.read.security.sign.truststore.password";
@@ -71,14 +88,32 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 	public static final String DEFAULT_SHEETS = "";
 	public static final boolean DEFAULT_LINKEDWB = false;
 	public static final boolean DEFAULT_IGNOREMISSINGLINKEDWB = false;
+	public static final int DEFAULT_LINKEDWBTHREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+	public static final int DEFAULT_LINKEDWBCACHEMAXCOUNT = 0;
+	public static final long DEFAULT_LINKEDWBCACHEMAXSIZE = 64L * 1024L * 1024L;
 
 	public static final boolean DEFAULT_LOWFOOTPRINT = false;
+	public static final String LOWFOOTPRINT_DECRYPTSPILL_MEMORY = "memory";
+	public static final String LOWFOOTPRINT_DECRYPTSPILL_TEMPFILE = "tempfile";
+	public static final String LOWFOOTPRINT_DECRYPTSPILL_ENCRYPTEDTEMPFILE = "encryptedtempfile";
+	public static final String DEFAULT_LOWFOOTPRINT_DECRYPTSPILL = HadoopOfficeReadConfiguration.LOWFOOTPRINT_DECRYPTSPILL_MEMORY;
+	public static final boolean DEFAULT_STAGELOCAL = false;
+	public static final int DEFAULT_LOWFOOTPRINT_PARSERTHREADS = 1;
+	public static final boolean DEFAULT_READRAWVALUES = false;
+	public static final boolean DEFAULT_REUSEROWS = false;
+	public static final String FORMULAEVALUATION_ALWAYS = "always";
+	public static final String FORMULAEVALUATION_MISSING = "missing";
+	public static final String FORMULAEVALUATION_CACHED = "cached";
+	public static final String DEFAULT_FORMULAEVALUATION = HadoopOfficeReadConfiguration.FORMULAEVALUATION_ALWAYS;
+	public static final long DEFAULT_FORMULAEVALUATIONMAXCOUNT = 0L;
+	public static final long DEFAULT_FORMULAEVALUATIONMAXTIME = 0L;
 	public static final String DEFAULT_CRYKEYSTOREFILE = "";
 	public static final String DEFAULT_CRYKEYSTORETYPE = "JCEKS";
 	public static final String DEFAULT_CRYKEYSTOREPW = "";
 	public static final String DEFAULT_CRYKEYSTOREALIAS = "";
 
 	public static final boolean DEFAULT_VERIFYSIGNATURE = false;
+	public static final int DEFAULT_VERIFYSIGNATURETHREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
 
 	public static final String DEFAULT_SIGTRUSTFILE = "";
 	public static final String DEFAULT_SIGTRUSTTYPE = "JKS";
@@ -98,10 +133,24 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 	private Locale locale = null;
 	private boolean readLinkedWorkbooks = false;
 	private boolean ignoreMissingLinkedWorkbooks = false;
+	private int linkedWorkbookThreads;
+	private int linkedWorkbookCacheMaxCount;
+	private long linkedWorkbookCacheMaxSize;
+	private Map<String, FileVersion> linkedWorkbookVersions;
 	private String password = null;
 	private Map<String, String> metadataFilter;
+	private transient Map<String, Pattern> metadataFilterPatterns;
+	private transient DataFormatter dataFormatter;
 	private Map<String, String> linkedWBCredentialMap;
 	private boolean lowFootprint;
+	private String lowFootprintDecryptSpill;
+	private boolean stageLocal;
+	private int lowFootprintParserThreads;
+	private boolean readRawValues;
+	private boolean reuseRows;
+	private String formulaEvaluation;
+	private long formulaEvaluationMaxCount;
+	private long formulaEvaluationMaxTime;
 	private String cryptKeystoreFile;
 	private String cryptKeystoreType;
 	private String cryptKeystorePassword;
@@ -111,10 +160,12 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 	private String sigTruststoreType;
 	private String sigTruststorePassword;
 	private Set<X509Certificate> x509CertificateChain;
+	private String x509CertificateChainFingerprint;
 	private boolean readHeader;
 	private boolean ignoreHeaderInAllSheets;
     private int skipLines;
     private boolean skipLinesAllSheets;
+	private int verifySignatureThreads;
 	
 
 	/*
@@ -130,9 +181,21 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 		}
 		this.readLinkedWorkbooks = HadoopOfficeReadConfiguration.DEFAULT_LINKEDWB;
 		this.ignoreMissingLinkedWorkbooks = HadoopOfficeReadConfiguration.DEFAULT_IGNOREMISSINGLINKEDWB;
+		this.setLinkedWorkbookThreads(HadoopOfficeReadConfiguration.DEFAULT_LINKEDWBTHREADS);
+		this.setLinkedWorkbookCacheMaxCount(HadoopOfficeReadConfiguration.DEFAULT_LINKEDWBCACHEMAXCOUNT);
+		this.setLinkedWorkbookCacheMaxSize(HadoopOfficeReadConfiguration.DEFAULT_LINKEDWBCACHEMAXSIZE);
+		this.linkedWorkbookVersions = new HashMap<>();
 		this.password = null; // null if no password is set
 
 		this.lowFootprint = HadoopOfficeReadConfiguration.DEFAULT_LOWFOOTPRINT;
+		this.setLowFootprintDecryptSpill(HadoopOfficeReadConfiguration.DEFAULT_LOWFOOTPRINT_DECRYPTSPILL);
+		this.setStageLocal(HadoopOfficeReadConfiguration.DEFAULT_STAGELOCAL);
+		this.setLowFootprintParserThreads(HadoopOfficeReadConfiguration.DEFAULT_LOWFOOTPRINT_PARSERTHREADS);
+		this.setReadRawValues(HadoopOfficeReadConfiguration.DEFAULT_READRAWVALUES);
+		this.setReuseRows(HadoopOfficeReadConfiguration.DEFAULT_REUSEROWS);
+		this.setFormulaEvaluation(HadoopOfficeReadConfiguration.DEFAULT_FORMULAEVALUATION);
+		this.setFormulaEvaluationMaxCount(HadoopOfficeReadConfiguration.DEFAULT_FORMULAEVALUATIONMAXCOUNT);
+		this.setFormulaEvaluationMaxTime(HadoopOfficeReadConfiguration.DEFAULT_FORMULAEVALUATIONMAXTIME);
 
 		this.setCryptKeystoreFile(HadoopOfficeReadConfiguration.DEFAULT_CRYKEYSTOREFILE);
 		this.setCryptKeystoreType(HadoopOfficeReadConfiguration.DEFAULT_CRYKEYSTORETYPE);
@@ -140,6 +203,7 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 		this.setCryptKeystoreAlias(HadoopOfficeReadConfiguration.DEFAULT_CRYKEYSTOREALIAS);
 
 		this.setVerifySignature(HadoopOfficeReadConfiguration.DEFAULT_VERIFYSIGNATURE);
+		this.setVerifySignatureThreads(HadoopOfficeReadConfiguration.DEFAULT_VERIFYSIGNATURETHREADS);
 
 		this.setSigTruststoreFile(HadoopOfficeReadConfiguration.DEFAULT_SIGTRUSTFILE);
 		this.setSigTruststoreType(HadoopOfficeReadConfiguration.DEFAULT_SIGTRUSTTYPE);
@@ -171,6 +235,17 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 	 *            directly linked to the main workbook. Default: false
 	 *            hadoopoffice.read.ignoremissinglinkedworkbooks: true if missing
 	 *            linked workbooks should be ignored. Default: false
+	 *            hadoopoffice.read.linkedworkbooks.threads: number of threads
+	 *            loading and parsing the linked workbooks of a workbook
+	 *            concurrently. Default: number of processors, at most 4
+	 *            hadoopoffice.read.linkedworkbooks.cache.maxcount: maximum
+	 *            number of parsed linked workbooks kept in memory by the JVM for
+	 *            reuse by other readers/writers, e.g. if the same linked workbook
+	 *            is referred from many files. Default: 0 (no caching)
+	 *            hadoopoffice.read.linkedworkbooks.cache.maxsize: maximum total
+	 *            length in bytes of the files of the cached linked workbooks.
+	 *            Note that parsed workbooks need a multiple of it in memory.
+	 *            Default: 64 MB
 	 *            hadoopoffice.read.security.crypt.password: if set then
 	 *            hadoopoffice will try to decrypt the file
 	 *            hadoopoffice.read.security.crypt.linkedworkbooks.*: if set then
@@ -189,6 +264,50 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 	 *            hadoopoffice.read.lowfootprint: uses low memory/cpu footprint for
 	 *            reading documents. Note: In this mode certain features are not
 	 *            availanble, such as reading formulas. Default: false
+	 *            hadoopoffice.read.lowFootprint.decrypt.spill: where the
+	 *            decrypted content of an encrypted new Excel file (.xlsx) is kept
+	 *            in low footprint mode. "memory": in the heap, "tempfile": in a
+	 *            local temporary file, "encryptedtempfile": in a local temporary
+	 *            file encrypted with a random key that is only kept in memory.
+	 *            The temporary file is deleted after the document has been
+	 *            parsed. Default: memory
+	 *            hadoopoffice.read.stage.local: true if the document should be
+	 *            made available as a local file, so that the parser can access
+	 *            it randomly instead of loading the full document into memory.
+	 *            Documents on the local file system are used directly, all
+	 *            others (e.g. on HDFS or compressed) are copied to a local
+	 *            temporary file. Default: false
+	 *            hadoopoffice.read.lowFootprint.parser.threads: number of
+	 *            threads decoding the sheets of a new Excel file (.xlsx) in
+	 *            parallel in low footprint mode. Rows are returned in the order
+	 *            of the sheets nevertheless. Default: 1 (one sheet after the
+	 *            other)
+	 *            hadoopoffice.read.rawvalues: true if the cells should contain
+	 *            additionally their type and unformatted value (e.g. the double
+	 *            value and number format of numeric cells). Numeric cells are
+	 *            then only formatted when their formatted value is requested, so
+	 *            that typed consumers do not need to format and parse again.
+	 *            Default: false
+	 *            hadoopoffice.read.reuserows: true if the standard (not low
+	 *            footprint) parser should return the same row array and cell
+	 *            objects for every row with the same number of columns instead
+	 *            of creating new ones. A row is only valid until the next row
+	 *            is read, ie consumers keeping rows need to copy them. Default:
+	 *            false
+	 *            hadoopoffice.read.formula.evaluation: how the value of formula
+	 *            cells is determined by the standard (not low footprint)
+	 *            parser: always (evaluate every formula), missing (use the
+	 *            value cached in the document and evaluate only formulas
+	 *            without cached value), cached (use only the value cached in
+	 *            the document). The low footprint parser always uses the
+	 *            cached values. Default: always
+	 *            hadoopoffice.read.formula.evaluation.maxcount: maximum number
+	 *            of formulas evaluated per workbook. Further formula cells
+	 *            contain their cached value. Default: 0 (unlimited)
+	 *            hadoopoffice.read.formula.evaluation.maxtime: maximum time in
+	 *            milliseconds spent for evaluating formulas per workbook.
+	 *            Further formula cells contain their cached value. Default: 0
+	 *            (unlimited)
 	 *            hadoopoffice.read.security.crypt.credential.keystore.file:
 	 *            keystore file that is used to store credentials, such as
 	 *            passwords, for reading secured office documents. Note that the
@@ -208,6 +327,16 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 	 *            only verify if the signature belongs to the supplied public key.
 	 *            The link between the public key and a real identity (person) is
 	 *            part of other processes.
+	 *            hadoopoffice.read.security.sign.verifysignature.threads: number
+	 *            of threads validating the signature parts of a document in
+	 *            parallel. In low footprint mode the sheets of the document are
+	 *            parsed while the signature is validated (except if the decrypted
+	 *            document is spilled to an encrypted temporary file). Otherwise
+	 *            the workbook is loaded completely before the validation starts,
+	 *            so that only preparing the formula evaluation and reading the
+	 *            header overlap with it. No row is returned before the validation
+	 *            has succeeded. 0 validates the signature before parsing in the
+	 *            reading thread. Default: number of processors, but at most 4
 	 * 
 	 */
 	public HadoopOfficeReadConfiguration(Configuration conf) {
@@ -223,6 +352,13 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 				HadoopOfficeReadConfiguration.DEFAULT_LINKEDWB);
 		this.ignoreMissingLinkedWorkbooks = conf.getBoolean(HadoopOfficeReadConfiguration.CONF_IGNOREMISSINGWB,
 				HadoopOfficeReadConfiguration.DEFAULT_IGNOREMISSINGLINKEDWB);
+		this.setLinkedWorkbookThreads(conf.getInt(HadoopOfficeReadConfiguration.CONF_LINKEDWBTHREADS,
+				HadoopOfficeReadConfiguration.DEFAULT_LINKEDWBTHREADS));
+		this.setLinkedWorkbookCacheMaxCount(conf.getInt(HadoopOfficeReadConfiguration.CONF_LINKEDWBCACHEMAXCOUNT,
+				HadoopOfficeReadConfiguration.DEFAULT_LINKEDWBCACHEMAXCOUNT));
+		this.setLinkedWorkbookCacheMaxSize(conf.getLong(HadoopOfficeReadConfiguration.CONF_LINKEDWBCACHEMAXSIZE,
+				HadoopOfficeReadConfiguration.DEFAULT_LINKEDWBCACHEMAXSIZE));
+		this.linkedWorkbookVersions = new HashMap<>();
 		this.password = conf.get(HadoopOfficeReadConfiguration.CONF_DECRYPT); // null if no password is set
 		this.metadataFilter = HadoopUtil.parsePropertiesFromBase(conf,
 				HadoopOfficeReadConfiguration.CONF_FILTERMETADATA);
@@ -230,6 +366,22 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 				HadoopOfficeReadConfiguration.CONF_DECRYPTLINKEDWBBASE);
 		this.lowFootprint = conf.getBoolean(HadoopOfficeReadConfiguration.CONF_LOWFOOTPRINT,
 				HadoopOfficeReadConfiguration.DEFAULT_LOWFOOTPRINT);
+		this.setLowFootprintDecryptSpill(conf.get(HadoopOfficeReadConfiguration.CONF_LOWFOOTPRINT_DECRYPTSPILL,
+				HadoopOfficeReadConfiguration.DEFAULT_LOWFOOTPRINT_DECRYPTSPILL));
+		this.setStageLocal(conf.getBoolean(HadoopOfficeReadConfiguration.CONF_STAGELOCAL,
+				HadoopOfficeReadConfiguration.DEFAULT_STAGELOCAL));
+		this.setLowFootprintParserThreads(conf.getInt(HadoopOfficeReadConfiguration.CONF_LOWFOOTPRINT_PARSERTHREADS,
+				HadoopOfficeReadConfiguration.DEFAULT_LOWFOOTPRINT_PARSERTHREADS));
+		this.setReadRawValues(conf.getBoolean(HadoopOfficeReadConfiguration.CONF_READRAWVALUES,
+				HadoopOfficeReadConfiguration.DEFAULT_READRAWVALUES));
+		this.setReuseRows(conf.getBoolean(HadoopOfficeReadConfiguration.CONF_REUSEROWS,
+				HadoopOfficeReadConfiguration.DEFAULT_REUSEROWS));
+		this.setFormulaEvaluation(conf.get(HadoopOfficeReadConfiguration.CONF_FORMULAEVALUATION,
+				HadoopOfficeReadConfiguration.DEFAULT_FORMULAEVALUATION));
+		this.setFormulaEvaluationMaxCount(conf.getLong(HadoopOfficeReadConfiguration.CONF_FORMULAEVALUATIONMAXCOUNT,
+				HadoopOfficeReadConfiguration.DEFAULT_FORMULAEVALUATIONMAXCOUNT));
+		this.setFormulaEvaluationMaxTime(conf.getLong(HadoopOfficeReadConfiguration.CONF_FORMULAEVALUATIONMAXTIME,
+				HadoopOfficeReadConfiguration.DEFAULT_FORMULAEVALUATIONMAXTIME));
 
 		this.setCryptKeystoreFile(conf.get(HadoopOfficeReadConfiguration.CONF_CRYKEYSTOREFILE,
 				HadoopOfficeReadConfiguration.DEFAULT_CRYKEYSTOREFILE));
@@ -242,6 +394,8 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 
 		this.setVerifySignature(conf.getBoolean(HadoopOfficeReadConfiguration.CONF_VERIFYSIGNATURE,
 				HadoopOfficeReadConfiguration.DEFAULT_VERIFYSIGNATURE));
+		this.setVerifySignatureThreads(conf.getInt(HadoopOfficeReadConfiguration.CONF_VERIFYSIGNATURETHREADS,
+				HadoopOfficeReadConfiguration.DEFAULT_VERIFYSIGNATURETHREADS));
 
 		this.setSigTruststoreFile(conf.get(HadoopOfficeReadConfiguration.CONF_SIGTRUSTFILE,
 				HadoopOfficeReadConfiguration.DEFAULT_SIGTRUSTFILE));
@@ -313,6 +467,38 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 	 */
 	public void setLocale(Locale locale) {
 		this.locale = locale;
+		this.dataFormatter = null;
+	}
+
+	/**
+	 * Formatter for cell values according to the locale of this configuration. It
+	 * is created once and shared by all documents read with this configuration, so
+	 * that parsed number/date formats are reused across files (e.g. when many small
+	 * files are combined in one split). Note: a DataFormatter is not thread-safe.
+	 * 
+	 * @return DataFormatter for the configured locale (default locale if none is
+	 *         configured)
+	 */
+	public DataFormatter getDataFormatter() {
+		if (this.dataFormatter == null) {
+			this.dataFormatter = this.createDataFormatter();
+		}
+		return this.dataFormatter;
+	}
+
+	/**
+	 * Creates a new DataFormatter, e.g. for formatting cells in another thread. It
+	 * caches the kind of format per format index and formats numbers with the
+	 * builtin formats General, 0 and 0.00 directly (see {@link CachingDataFormatter})
+	 * 
+	 * @return new DataFormatter for the configured locale (default locale if none
+	 *         is configured)
+	 */
+	public DataFormatter createDataFormatter() {
+		if (this.locale == null) {
+			return new CachingDataFormatter(); // use default locale
+		}
+		return new CachingDataFormatter(this.locale);
 	}
 
 	/*
@@ -357,6 +543,62 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 		this.ignoreMissingLinkedWorkbooks = ignoreMissingLinkedWorkbooks;
 	}
 
+	public int getLinkedWorkbookThreads() {
+		return linkedWorkbookThreads;
+	}
+
+	/**
+	 * Number of threads loading and parsing linked workbooks concurrently
+	 * 
+	 * @param linkedWorkbookThreads
+	 *            number of threads, 1 to load one linked workbook after the other
+	 */
+	public void setLinkedWorkbookThreads(int linkedWorkbookThreads) {
+		this.linkedWorkbookThreads = linkedWorkbookThreads;
+	}
+
+	public int getLinkedWorkbookCacheMaxCount() {
+		return linkedWorkbookCacheMaxCount;
+	}
+
+	/**
+	 * Maximum number of parsed linked workbooks cached by the JVM
+	 * 
+	 * @param linkedWorkbookCacheMaxCount
+	 *            number of linked workbooks, 0 to disable caching
+	 */
+	public void setLinkedWorkbookCacheMaxCount(int linkedWorkbookCacheMaxCount) {
+		this.linkedWorkbookCacheMaxCount = linkedWorkbookCacheMaxCount;
+	}
+
+	public long getLinkedWorkbookCacheMaxSize() {
+		return linkedWorkbookCacheMaxSize;
+	}
+
+	/**
+	 * Maximum total length of the files of the parsed linked workbooks cached by the JVM
+	 * 
+	 * @param linkedWorkbookCacheMaxSize
+	 *            length in bytes
+	 */
+	public void setLinkedWorkbookCacheMaxSize(long linkedWorkbookCacheMaxSize) {
+		this.linkedWorkbookCacheMaxSize = linkedWorkbookCacheMaxSize;
+	}
+
+	public Map<String, FileVersion> getLinkedWorkbookVersions() {
+		return linkedWorkbookVersions;
+	}
+
+	/**
+	 * Versions of the linked workbook files. Only linked workbooks with a known version are cached
+	 * 
+	 * @param linkedWorkbookVersions
+	 *            fileName of the linked workbook (as it is added to the parser) and location, length and modification time of its file
+	 */
+	public void setLinkedWorkbookVersions(Map<String, FileVersion> linkedWorkbookVersions) {
+		this.linkedWorkbookVersions = linkedWorkbookVersions;
+	}
+
 	/*
 	 * Password for file, if any
 	 * 
@@ -396,6 +638,30 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 
 	public void setMetaDataFilter(Map<String, String> metadataFilter) {
 		this.metadataFilter = metadataFilter;
+		this.metadataFilterPatterns = null;
+	}
+
+	/**
+	 * Regular expressions of the meta data filter compiled once per configuration,
+	 * so that they are not recompiled for each document and property. The matchAll
+	 * flag is not a regular expression and thus not included.
+	 * 
+	 * @return key/value map with compiled filter values (empty if no filter is
+	 *         defined)
+	 */
+	public Map<String, Pattern> getMetaDataFilterPatterns() {
+		if (this.metadataFilterPatterns == null) {
+			Map<String, Pattern> patterns = new HashMap<>();
+			if (this.metadataFilter != null) {
+				for (Map.Entry<String, String> entry : this.metadataFilter.entrySet()) {
+					if ((entry.getValue() != null) && (!"matchAll".equals(entry.getKey()))) {
+						patterns.put(entry.getKey(), Pattern.compile(entry.getValue()));
+					}
+				}
+			}
+			this.metadataFilterPatterns = patterns;
+		}
+		return this.metadataFilterPatterns;
 	}
 
 	/*
@@ -470,6 +736,126 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 		this.verifySignature = verifySignature;
 	}
 
+	public String getLowFootprintDecryptSpill() {
+		return lowFootprintDecryptSpill;
+	}
+
+	/**
+	 * Where the decrypted content of an encrypted new Excel file (.xlsx) is kept in low footprint mode
+	 * 
+	 * @param lowFootprintDecryptSpill
+	 *            memory, tempfile or encryptedtempfile
+	 */
+	public void setLowFootprintDecryptSpill(String lowFootprintDecryptSpill) {
+		this.lowFootprintDecryptSpill = lowFootprintDecryptSpill;
+	}
+
+	public boolean getStageLocal() {
+		return stageLocal;
+	}
+
+	/**
+	 * Make the document available as a local file, so that the parser can access it randomly instead of loading it into memory
+	 * 
+	 * @param stageLocal
+	 *            true if the document should be staged on the local disk
+	 */
+	public void setStageLocal(boolean stageLocal) {
+		this.stageLocal = stageLocal;
+	}
+
+	public int getLowFootprintParserThreads() {
+		return lowFootprintParserThreads;
+	}
+
+	/**
+	 * Number of threads decoding the sheets of a new Excel file (.xlsx) in parallel in low footprint mode
+	 * 
+	 * @param lowFootprintParserThreads
+	 *            number of threads, 1 to decode one sheet after the other
+	 */
+	public void setLowFootprintParserThreads(int lowFootprintParserThreads) {
+		this.lowFootprintParserThreads = lowFootprintParserThreads;
+	}
+
+	public boolean getReadRawValues() {
+		return readRawValues;
+	}
+
+	/**
+	 * Cells contain additionally their type and unformatted value
+	 * 
+	 * @param readRawValues
+	 *            true if raw values should be read
+	 */
+	public void setReadRawValues(boolean readRawValues) {
+		this.readRawValues = readRawValues;
+	}
+
+	public boolean getReuseRows() {
+		return reuseRows;
+	}
+
+	/**
+	 * The standard parser returns recycled row arrays and cells. A row is only valid until the next row is read
+	 * 
+	 * @param reuseRows
+	 *            true if rows should be reused
+	 */
+	public void setReuseRows(boolean reuseRows) {
+		this.reuseRows = reuseRows;
+	}
+
+	public String getFormulaEvaluation() {
+		return formulaEvaluation;
+	}
+
+	/**
+	 * How the value of formula cells is determined
+	 * 
+	 * @param formulaEvaluation
+	 *            always, missing or cached
+	 */
+	public void setFormulaEvaluation(String formulaEvaluation) {
+		this.formulaEvaluation = formulaEvaluation;
+	}
+
+	public long getFormulaEvaluationMaxCount() {
+		return formulaEvaluationMaxCount;
+	}
+
+	/**
+	 * Maximum number of formulas evaluated per workbook
+	 * 
+	 * @param formulaEvaluationMaxCount
+	 *            number of formulas, 0 for unlimited
+	 */
+	public void setFormulaEvaluationMaxCount(long formulaEvaluationMaxCount) {
+		this.formulaEvaluationMaxCount = formulaEvaluationMaxCount;
+	}
+
+	public long getFormulaEvaluationMaxTime() {
+		return formulaEvaluationMaxTime;
+	}
+
+	/**
+	 * Maximum time spent for evaluating formulas per workbook
+	 * 
+	 * @param formulaEvaluationMaxTime
+	 *            time in milliseconds, 0 for unlimited
+	 */
+	public void setFormulaEvaluationMaxTime(long formulaEvaluationMaxTime) {
+		this.formulaEvaluationMaxTime = formulaEvaluationMaxTime;
+	}
+
+	public int getVerifySignatureThreads() {
+		return verifySignatureThreads;
+	}
+
+	public void setVerifySignatureThreads(int verifySignatureThreads) {
+		this.verifySignatureThreads = verifySignatureThreads;
+	}
+
 	public String getCryptKeystoreFile() {
 		return cryptKeystoreFile;
 	}
@@ -530,8 +916,31 @@ public class HadoopOfficeReadConfiguration implements Serializable {
 		return x509CertificateChain;
 	}
 
+	/**
+	 * Sets the certificates to establish a chain for signature validation. A previously set fingerprint of the certificates is reset
+	 *
+	 * @param x509CertificateChain certificates
+	 */
 	public void setX509CertificateChain(Set<X509Certificate> x509CertificateChain) {
 		this.x509CertificateChain = x509CertificateChain;
+		this.x509CertificateChainFingerprint = null;
+	}
+
+	/**
+	 *
+	 * @return fingerprint of the certificates to establish a chain (see {@link org.zuinnote.hadoop.office.format.common.util.CertificateChainVerificationUtil#getFingerprint(Set)}), null if it has not been calculated yet
+	 */
+	public String getX509CertificateChainFingerprint() {
+		return x509CertificateChainFingerprint;
+	}
+
+	/**
+	 * Sets the fingerprint of the certificates to establish a chain, so that it is not calculated again for each verified certificate. It must be set after the certificates
+	 *
+	 * @param x509CertificateChainFingerprint fingerprint of the certificates set by {@link #setX509CertificateChain(Set)}
+	 */
+	public void setX509CertificateChainFingerprint(String x509CertificateChainFingerprint) {
+		this.x509CertificateChainFingerprint = x509CertificateChainFingerprint;
 	}
 
 	public boolean getReadHeader() {
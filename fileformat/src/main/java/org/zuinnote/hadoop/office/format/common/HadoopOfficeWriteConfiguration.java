@@ -25,6 +25,7 @@ import java.util.Locale;
 import java.util.Map;
 
 import org.apache.hadoop.conf.Configuration;
+import org.zuinnote.hadoop.office.format.common.util.FileVersion;
 
 /**
  * read the configuration for writing office files from a Hadoop configuration
@@ -41,6 +42,8 @@ public class HadoopOfficeWriteConfiguration implements Serializable {
 	public static final String CONF_LOCALE = "hadoopoffice.write.locale.bcp47";
 	public static final String CONF_LINKEDWB = "hadoopoffice.write.linkedworkbooks";
 	public static final String CONF_IGNOREMISSINGWB = "hadoopoffice.write.ignoremissinglinkedworkbooks";
+	public static final String CONF_LINKEDWBCACHEMAXCOUNT = "hadoopoffice.write.linkedworkbooks.cache.maxcount";
+	public static final String CONF_LINKEDWBCACHEMAXSIZE = "hadoopoffice.write.linkedworkbooks.cache.maxsize";
 	public static final String CONF_COMMENTAUTHOR = "hadoopoffice.write.comment.author";
 	public static final String CONF_COMMENTWIDTH = "hadoopoffice.write.comment.width";
 	public static final String CONF_COMMENTHEIGHT = "hadoopoffice.write.comment.height";
@@ -56,6 +59,7 @@ public class HadoopOfficeWriteConfiguration implements Serializable {
 																				// corresponding writer
 	public static final String CONF_TEMPLATE = "hadoopoffice.write.template.file";
 	public static final String CONF_TEMPLATEPW = "hadoopoffice.write.template.password";
+	public static final String CONF_TEMPLATECACHEMAXSIZE = "hadoopoffice.write.template.cache.maxsize";
 
 	public static final String CONF_LOWFOOTPRINT = "hadoopoffice.write.lowFootprint";
 	public static final String CONF_LOWFOOTPRINT_CACHEROWS = "hadoopoffice.write.lowFootprint.cacherows";
@@ -74,6 +78,8 @@ public class HadoopOfficeWriteConfiguration implements Serializable {
 	public static final String DEFAULT_LOCALE = "";
 	public static final String DEFAULT_LINKEDWB = "";
 	public static final boolean DEFAULT_IGNOREMISSINGLINKEDWB = false;
+	public static final int DEFAULT_LINKEDWBCACHEMAXCOUNT = 0;
+	public static final long DEFAULT_LINKEDWBCACHEMAXSIZE = 64L * 1024L * 1024L;
 	public static final String DEFAULT_AUTHOR = "hadoopoffice";
 	public static final int DEFAULT_COMMENTWIDTH = 1;
 	public static final int DEFAULT_COMMENTHEIGHT = 3;
@@ -81,6 +87,7 @@ public class HadoopOfficeWriteConfiguration implements Serializable {
 	public static final String DEFAULT_ALGORITHM = "aes256";
 	public static final String DEFAULT_TEMPLATE = "";
 	public static final String DEFAULT_TEMPLATEPW = "";
+	public static final long DEFAULT_TEMPLATECACHEMAXSIZE = 16L * 1024L * 1024L;
 
 	public static final boolean DEFAULT_LOWFOOTPRINT = false;
 	public static final int DEFAULT_LOWFOOTPRINT_CACHEROWS = 1000;
@@ -100,6 +107,9 @@ public class HadoopOfficeWriteConfiguration implements Serializable {
 	private String mimeType;
 	private Locale locale;
 	private boolean ignoreMissingLinkedWorkbooks;
+	private int linkedWorkbookCacheMaxCount;
+	private long linkedWorkbookCacheMaxSize;
+	private Map<String, FileVersion> linkedWorkbookVersions;
 	private String commentAuthor;
 	private int commentWidth;
 	private int commentHeight;
@@ -110,6 +120,7 @@ public class HadoopOfficeWriteConfiguration implements Serializable {
 	private String chainMode;
 	private String template;
 	private String templatePassword;
+	private long templateCacheMaxSize;
 	private Map<String, String> linkedWBCredentialMap;
 	private Map<String, String> metadata;
 	private boolean lowFootprint;
@@ -145,10 +156,14 @@ public class HadoopOfficeWriteConfiguration implements Serializable {
 		String linkedWorkbooksStr = HadoopOfficeWriteConfiguration.DEFAULT_LINKEDWB;
 		this.setLinkedWorkbooksName(HadoopUtil.parseLinkedWorkbooks(linkedWorkbooksStr));
 		this.setIgnoreMissingLinkedWorkbooks(HadoopOfficeWriteConfiguration.DEFAULT_IGNOREMISSINGLINKEDWB);
+		this.setLinkedWorkbookCacheMaxCount(HadoopOfficeWriteConfiguration.DEFAULT_LINKEDWBCACHEMAXCOUNT);
+		this.setLinkedWorkbookCacheMaxSize(HadoopOfficeWriteConfiguration.DEFAULT_LINKEDWBCACHEMAXSIZE);
+		this.linkedWorkbookVersions = new HashMap<>();
 
 		this.setTemplate(HadoopOfficeWriteConfiguration.DEFAULT_TEMPLATE);
 
 		this.setTemplatePassword(HadoopOfficeWriteConfiguration.DEFAULT_TEMPLATEPW);
+		this.setTemplateCacheMaxSize(HadoopOfficeWriteConfiguration.DEFAULT_TEMPLATECACHEMAXSIZE);
 		this.setLowFootprint(HadoopOfficeWriteConfiguration.DEFAULT_LOWFOOTPRINT);
 		this.setLowFootprintCacheRows(HadoopOfficeWriteConfiguration.DEFAULT_LOWFOOTPRINT_CACHEROWS);
 
@@ -181,6 +196,13 @@ public class HadoopOfficeWriteConfiguration implements Serializable {
 	 * linkedworkbooks then they are not read during writing. This implies also that
 	 * the written document does NOT have a cached value. Value is ignored if you
 	 * did not specify linkedworkbooks. Default: false.
+	 * hadoopoffice.write.linkedworkbooks.cache.maxcount: maximum number of parsed
+	 * linked workbooks kept in memory by the JVM for reuse by other
+	 * writers/readers, e.g. if the same linked workbooks are used by many writers.
+	 * Default: 0 (no caching)
+	 * hadoopoffice.write.linkedworkbooks.cache.maxsize: maximum total length in
+	 * bytes of the files of the cached linked workbooks. Note that parsed
+	 * workbooks need a multiple of it in memory. Default: 64 MB
 	 * hadoopoffice.write.security.crypt.password: use password to encrypt the
 	 * document. Note: There is no security check of strongness of password. This is
 	 * up to the application developer.
@@ -212,7 +234,12 @@ public class HadoopOfficeWriteConfiguration implements Serializable {
 	 * hadoopoffice.write.metadata.author for author) will be handed over to the
 	 * corresponding writer. See writer documentation which properties are supported
 	 * hadoopoffice.write.template.file: Use a template as input to modify selected
-	 * cells of it hadoopoffice.write.lowFootprint: if true then a file is written
+	 * cells of it. In low footprint mode cells can only be added after the
+	 * existing rows of the template
+	 * hadoopoffice.write.template.cache.maxsize: maximum total size in bytes of
+	 * the templates kept in memory by the JVM for reuse by other writers. 0
+	 * disables caching. Default: 16 MB
+	 * hadoopoffice.write.lowFootprint: if true then a file is written
 	 * in low footprint mode to save cpu/memory resources, false if it should be
 	 * written in normal mode. Option is ignored for old Excel files (.xls). Note
 	 * that if it is set to true then certain options are not available, such as
@@ -263,6 +290,11 @@ public class HadoopOfficeWriteConfiguration implements Serializable {
 		this.setLinkedWorkbooksName(HadoopUtil.parseLinkedWorkbooks(linkedWorkbooksStr));
 		this.setIgnoreMissingLinkedWorkbooks(conf.getBoolean(HadoopOfficeWriteConfiguration.CONF_IGNOREMISSINGWB,
 				HadoopOfficeWriteConfiguration.DEFAULT_IGNOREMISSINGLINKEDWB));
+		this.setLinkedWorkbookCacheMaxCount(conf.getInt(HadoopOfficeWriteConfiguration.CONF_LINKEDWBCACHEMAXCOUNT,
+				HadoopOfficeWriteConfiguration.DEFAULT_LINKEDWBCACHEMAXCOUNT));
+		this.setLinkedWorkbookCacheMaxSize(conf.getLong(HadoopOfficeWriteConfiguration.CONF_LINKEDWBCACHEMAXSIZE,
+				HadoopOfficeWriteConfiguration.DEFAULT_LINKEDWBCACHEMAXSIZE));
+		this.linkedWorkbookVersions = new HashMap<>();
 		this.setEncryptAlgorithm(conf.get(HadoopOfficeWriteConfiguration.CONF_SECURITYALGORITHM));
 		this.setPassword(conf.get(HadoopOfficeWriteConfiguration.CONF_SECURITYCRED));
 		this.setHashAlgorithm(conf.get(HadoopOfficeWriteConfiguration.CONF_HASHALGORITHM));
@@ -276,6 +308,8 @@ public class HadoopOfficeWriteConfiguration implements Serializable {
 
 		this.setTemplatePassword(conf.get(HadoopOfficeWriteConfiguration.CONF_TEMPLATEPW,
 				HadoopOfficeWriteConfiguration.DEFAULT_TEMPLATEPW));
+		this.setTemplateCacheMaxSize(conf.getLong(HadoopOfficeWriteConfiguration.CONF_TEMPLATECACHEMAXSIZE,
+				HadoopOfficeWriteConfiguration.DEFAULT_TEMPLATECACHEMAXSIZE));
 		this.setLowFootprint(conf.getBoolean(HadoopOfficeWriteConfiguration.CONF_LOWFOOTPRINT,
 				HadoopOfficeWriteConfiguration.DEFAULT_LOWFOOTPRINT));
 		this.setLowFootprintCacheRows(conf.getInt(HadoopOfficeWriteConfiguration.CONF_LOWFOOTPRINT_CACHEROWS,
@@ -343,6 +377,35 @@ public class HadoopOfficeWriteConfiguration implements Serializable {
 		this.ignoreMissingLinkedWorkbooks = ignoreMissingLinkedWorkbooks;
 	}
 
+	public int getLinkedWorkbookCacheMaxCount() {
+		return linkedWorkbookCacheMaxCount;
+	}
+
+	public void setLinkedWorkbookCacheMaxCount(int linkedWorkbookCacheMaxCount) {
+		this.linkedWorkbookCacheMaxCount = linkedWorkbookCacheMaxCount;
+	}
+
+	public long getLinkedWorkbookCacheMaxSize() {
+		return linkedWorkbookCacheMaxSize;
+	}
+
+	public void setLinkedWorkbookCacheMaxSize(long linkedWorkbookCacheMaxSize) {
+		this.linkedWorkbookCacheMaxSize = linkedWorkbookCacheMaxSize;
+	}
+
+	public Map<String, FileVersion> getLinkedWorkbookVersions() {
+		return linkedWorkbookVersions;
+	}
+
+	/**
+	 * Versions of the linked workbook files. Only linked workbooks with a known version are cached
+	 * 
+	 * @param linkedWorkbookVersions fileName of the linked workbook and location, length and modification time of its file
+	 */
+	public void setLinkedWorkbookVersions(Map<String, FileVersion> linkedWorkbookVersions) {
+		this.linkedWorkbookVersions = linkedWorkbookVersions;
+	}
+
 	public String getCommentAuthor() {
 		return commentAuthor;
 	}
@@ -439,6 +502,14 @@ public class HadoopOfficeWriteConfiguration implements Serializable {
 		this.templatePassword = templatePassword;
 	}
 
+	public long getTemplateCacheMaxSize() {
+		return templateCacheMaxSize;
+	}
+
+	public void setTemplateCacheMaxSize(long templateCacheMaxSize) {
+		this.templateCacheMaxSize = templateCacheMaxSize;
+	}
+
 	public boolean getLowFootprint() {
 		return lowFootprint;
 	}
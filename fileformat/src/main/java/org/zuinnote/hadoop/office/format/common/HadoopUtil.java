@@ -16,21 +16,40 @@
 
 package org.zuinnote.hadoop.office.format.common;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.DataOutputStream;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.UnrecoverableEntryException;
+import java.security.cert.CertificateException;
+import java.security.spec.InvalidKeySpecException;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.RawLocalFileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.util.ReflectionUtils;
 import org.apache.hadoop.util.Progressable;
 
 import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
 
 import java.util.Map;
 import java.util.HashMap;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.IOUtils;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
 
 public class HadoopUtil {
+private static final Log LOG = LogFactory.getLog(HadoopUtil.class.getName());
 
 private HadoopUtil() {
 }
@@ -60,6 +79,50 @@ public static Map<String,String> parsePropertiesFromBase(Configuration conf, Str
 
 
 
+/*
+* Makes a document available as a file on the local disk, so that parsers can access it randomly instead of loading it fully into memory. Files of the local file system are used directly, all other documents (e.g. stored in HDFS or compressed) are copied to a local temporary file that is deleted when the returned stream is closed
+*
+* @param conf Configuration of application
+* @param file path of the document
+* @param in content of the document (decompressed). It is closed after it has been copied or if the local file is used directly
+* @param compressed true, if the file is compressed, ie it cannot be used directly
+*
+* @return stream of the local file
+*
+* @throws java.io.IOException in case the document cannot be copied
+*
+*/
+
+public static StagedFileInputStream stageLocal(Configuration conf, Path file, InputStream in, boolean compressed) throws IOException {
+	FileSystem fs = file.getFileSystem(conf);
+	if (!compressed) {
+		File localFile = null;
+		if (fs instanceof LocalFileSystem) {
+			localFile = ((LocalFileSystem)fs).pathToFile(file);
+		} else if (fs instanceof RawLocalFileSystem) {
+			localFile = ((RawLocalFileSystem)fs).pathToFile(file);
+		}
+		if (localFile!=null) {
+			in.close();
+			return new StagedFileInputStream(localFile,false);
+		}
+	}
+	File tempFile = File.createTempFile("hadoopoffice-staged-", ".tmp");
+	try {
+		try (OutputStream out = new FileOutputStream(tempFile)) {
+			IOUtils.copyBytes(in, out, conf, false);
+		} finally {
+			in.close();
+		}
+		return new StagedFileInputStream(tempFile,true);
+	} catch (IOException e) {
+		if (!tempFile.delete()) {
+			tempFile.deleteOnExit();
+		}
+		throw e;
+	}
+}
+
 /*
 * Creates for the file to be written and outputstream and takes - depending on the configuration - take of compression. Set for compression the following options:
 * mapreduce.output.fileoutputformat.compress true/false
@@ -91,6 +154,71 @@ if (!compressed) { // uncompressed
 }
 
 
+/*
+* Reads the keystore (hadoopoffice.read.security.crypt.credential.keystore.file) to obtain the password of the current document. The password is stored under the configured alias or, if no alias is configured, under the name of the file
+*
+* @param conf Configuration of application
+* @param hocr read configuration of the current document, the password is set in it
+* @param keyStoreManager keystore that has already been opened for a previous document of the same reader or null, if it has not been opened yet
+*
+* @return the opened keystore, so that it can be reused for further documents, or null if no keystore is configured
+*
+* @throws java.io.IOException in case the keystore cannot be read
+* @throws org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException in case the credentials cannot be obtained from the keystore
+*
+*/
+public static HadoopKeyStoreManager readKeyStore(Configuration conf, HadoopOfficeReadConfiguration hocr, HadoopKeyStoreManager keyStoreManager) throws IOException, FormatNotUnderstoodException {
+	if ((hocr.getCryptKeystoreFile()==null) || ("".equals(hocr.getCryptKeystoreFile()))) {
+		return null;
+	}
+	try {
+		HadoopKeyStoreManager hksm = keyStoreManager;
+		if (hksm==null) {
+			LOG.info("Using keystore to obtain credentials instead of passwords");
+			hksm = new HadoopKeyStoreManager(conf);
+			hksm.openKeyStore(new Path(hocr.getCryptKeystoreFile()), hocr.getCryptKeystoreType(), hocr.getCryptKeystorePassword());
+		}
+		String alias=hocr.getFileName();
+		if ((hocr.getCryptKeystoreAlias()!=null) && (!"".equals(hocr.getCryptKeystoreAlias()))) {
+			alias=hocr.getCryptKeystoreAlias();
+		}
+		hocr.setPassword(hksm.getPassword(alias, hocr.getCryptKeystorePassword()));
+		return hksm;
+	} catch (NoSuchAlgorithmException | CertificateException | KeyStoreException | IllegalArgumentException | UnrecoverableEntryException | InvalidKeySpecException e) {
+		LOG.error("Cannot read keystore. Exception: ",e);
+		throw new FormatNotUnderstoodException("Cannot read keystore to obtain credentials to access encrypted documents "+e);
+	}
+}
+
+/*
+* Reads the truststore (hadoopoffice.read.security.sign.truststore.file) to establish the certificate chain for validating signatures. The certificates and their fingerprints are set in the read configuration
+*
+* @param conf Configuration of application
+* @param hocr read configuration of the current document
+*
+* @return true if a truststore has been read, false if no truststore is configured
+*
+* @throws java.io.IOException in case the truststore cannot be read
+* @throws org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException in case the certificates cannot be obtained from the truststore
+*
+*/
+public static boolean readTrustStore(Configuration conf, HadoopOfficeReadConfiguration hocr) throws IOException, FormatNotUnderstoodException {
+	if ((hocr.getSigTruststoreFile()==null) || ("".equals(hocr.getSigTruststoreFile()))) {
+		return false;
+	}
+	LOG.info("Reading truststore to validate certificate chain for signatures");
+	HadoopKeyStoreManager hksm = new HadoopKeyStoreManager(conf);
+	try {
+		hksm.openKeyStore(new Path(hocr.getSigTruststoreFile()), hocr.getSigTruststoreType(), hocr.getSigTruststorePassword());
+		hocr.setX509CertificateChain(hksm.getAllX509Certificates());
+		hocr.setX509CertificateChainFingerprint(hksm.getAllX509CertificatesFingerprint());
+		return true;
+	} catch (NoSuchAlgorithmException | CertificateException | KeyStoreException | IllegalArgumentException e) {
+		LOG.error("Cannot read truststore. Exception: ",e);
+		throw new FormatNotUnderstoodException("Cannot read truststore to establish certificate chain for signature validation "+e);
+	}
+}
+
 /*
 * Parses a string in the format [filename]:[filename2]:[filename3] into a String array of filenames
 *
@@ -118,4 +246,51 @@ public static String[] parseLinkedWorkbooks(String linkedWorkbooksString) {
 	return tempSplit;
 }
 
+/*
+* Reports metrics of the OfficeReader or OfficeWriter as counters of the group "HadoopOffice" (see {@link org.zuinnote.hadoop.office.format.common.OfficeMetrics}). Counters are incremented by the values of the metrics. Peak values are only logged, because Hadoop sums up counters over all tasks of a job, so that they would not be meaningful on job level
+*
+* @param metrics metrics of one document
+* @param context context of the task (mapreduce API)
+*
+*/
+public static void reportMetrics(Map<String,Long> metrics, TaskAttemptContext context) {
+	if (context==null) {
+		return;
+	}
+	for (Map.Entry<String,Long> currentMetric: metrics.entrySet()) {
+		if (OfficeMetrics.isPeak(currentMetric.getKey())) {
+			LOG.info(currentMetric.getKey()+": "+currentMetric.getValue());
+		} else {
+			updateCounter(context.getCounter(OfficeMetrics.GROUP, currentMetric.getKey()), currentMetric.getValue());
+		}
+	}
+}
+
+/*
+* Reports metrics of the OfficeReader or OfficeWriter as counters of the group "HadoopOffice" (see {@link org.zuinnote.hadoop.office.format.common.OfficeMetrics}). Counters are incremented by the values of the metrics. Peak values are only logged, because Hadoop sums up counters over all tasks of a job, so that they would not be meaningful on job level
+*
+* @param metrics metrics of one document
+* @param reporter reporter of the task (mapred API)
+*
+*/
+public static void reportMetrics(Map<String,Long> metrics, Reporter reporter) {
+	if (reporter==null) {
+		return;
+	}
+	for (Map.Entry<String,Long> currentMetric: metrics.entrySet()) {
+		if (OfficeMetrics.isPeak(currentMetric.getKey())) {
+			LOG.info(currentMetric.getKey()+": "+currentMetric.getValue());
+		} else {
+			updateCounter(reporter.getCounter(OfficeMetrics.GROUP, currentMetric.getKey()), currentMetric.getValue());
+		}
+	}
+}
+
+private static void updateCounter(Counter counter, long value) {
+	if (counter==null) { // e.g. no counters available outside of a task
+		return;
+	}
+	counter.increment(value);
+}
+
 }
@@ -0,0 +1,93 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common;
+
+import java.util.Map;
+
+/**
+ * Names of the metrics collected by the OfficeReader, the OfficeWriter and their parsers/writers (see getMetrics()). They are reported by the Hadoop record readers/writers as counters of the group {@link #GROUP} and by the Flink input/output formats as metrics of the group {@link #GROUP}.
+ *
+ * All metrics are summed up over the documents of a task, except the ones starting with "Peak", which are the maximum of all documents. Peak metrics are only valid per task: Hadoop sums up counters over all tasks of a job, so they are logged by the Hadoop record readers/writers instead of being reported as counters.
+ *
+ */
+public class OfficeMetrics {
+	/** group of the Hadoop counters and Flink metrics **/
+	public static final String GROUP = "HadoopOffice";
+
+	/** time to open, decrypt and (for the low footprint parser) decode the document in milliseconds **/
+	public static final String OPEN_TIME = "OpenTimeMillis";
+	/** time to validate the signature parts of the document in milliseconds **/
+	public static final String SIGNATURE_VERIFICATION_TIME = "SignatureVerificationTimeMillis";
+	/** number of unique strings in the shared strings table of the document **/
+	public static final String SHARED_STRINGS = "SharedStrings";
+	/** number of rows returned by the reader **/
+	public static final String ROWS = "Rows";
+	/** number of non-empty cells returned by the reader **/
+	public static final String CELLS = "Cells";
+	/** number of rows returned by the reader without any non-empty cell **/
+	public static final String EMPTY_ROWS = "EmptyRows";
+	/** number of bytes read from the document **/
+	public static final String BYTES_READ = "BytesRead";
+	/** number of evaluated formulas **/
+	public static final String FORMULA_EVALUATIONS = "FormulaEvaluations";
+	/** time to evaluate formulas in milliseconds **/
+	public static final String FORMULA_EVALUATION_TIME = "FormulaEvaluationTimeMillis";
+	/** maximum number of rows kept in memory by the low footprint parser **/
+	public static final String PEAK_CACHED_ROWS = "PeakCachedRows";
+	/** number of cells written by the writer **/
+	public static final String CELLS_WRITTEN = "CellsWritten";
+	/** number of bytes written to the document **/
+	public static final String BYTES_WRITTEN = "BytesWritten";
+	/** time to serialize (and encrypt) the document when closing the writer in milliseconds **/
+	public static final String WRITE_TIME = "WriteTimeMillis";
+	/** time to sign the document in milliseconds **/
+	public static final String SIGNING_TIME = "SigningTimeMillis";
+
+	private static final String PEAK_PREFIX = "Peak";
+
+	private OfficeMetrics() {
+	}
+
+	/**
+	 * Returns if a metric is the maximum of all documents instead of their sum
+	 *
+	 * @param name name of the metric
+	 * @return true, if the metric is a maximum, false if it is a sum
+	 */
+	public static boolean isPeak(String name) {
+		return name.startsWith(PEAK_PREFIX);
+	}
+
+	/**
+	 * Adds metrics to other metrics. Values of the same metric are summed up or the maximum is taken (see {@link #isPeak(String)})
+	 *
+	 * @param target metrics that are updated
+	 * @param source metrics that are added
+	 */
+	public static void merge(Map<String, Long> target, Map<String, Long> source) {
+		for (Map.Entry<String, Long> currentMetric : source.entrySet()) {
+			Long currentValue = target.get(currentMetric.getKey());
+			if (currentValue == null) {
+				target.put(currentMetric.getKey(), currentMetric.getValue());
+			} else if (isPeak(currentMetric.getKey())) {
+				target.put(currentMetric.getKey(), Math.max(currentValue, currentMetric.getValue()));
+			} else {
+				target.put(currentMetric.getKey(), currentValue + currentMetric.getValue());
+			}
+		}
+	}
+
+}
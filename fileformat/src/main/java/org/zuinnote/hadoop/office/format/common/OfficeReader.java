@@ -16,17 +16,23 @@
 
 package org.zuinnote.hadoop.office.format.common;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 
 import java.io.InputStream;
 
 import java.security.GeneralSecurityException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 
 import org.apache.commons.logging.LogFactory;
 import org.apache.commons.logging.Log;
+import org.apache.poi.ss.util.CellRangeAddress;
 
 import org.zuinnote.hadoop.office.format.common.parser.*;
+import org.zuinnote.hadoop.office.format.common.util.MSExcelDimensionUtil;
+import org.zuinnote.hadoop.office.format.common.util.MSExcelMetadataUtil;
 
 /*
 *
@@ -43,6 +49,12 @@ private InputStream in;
 private String[] sheetsArray=null;
 
 private OfficeReaderParserInterface currentParser=null;
+private CountingInputStream countingIn=null;
+private long stagedBytes=0;
+private long openTime=0;
+private long rows=0;
+private long cells=0;
+private long emptyRows=0;
 
 	/*
 	* Creates a new OfficeReaderObject for a given content and Mime Type (cf. https://tika.apache.org/1.13/formats.html#Full_list_of_Supported_Formats)
@@ -54,7 +66,13 @@ private OfficeReaderParserInterface currentParser=null;
 
 	public OfficeReader(InputStream in, HadoopOfficeReadConfiguration hocr) {
 		LOG.debug("Initializing OfficeReader");
-		this.in=in;
+		if (in instanceof StagedFileInputStream) { // the parsers need random access to the staged file
+			this.in=in;
+			this.stagedBytes=((StagedFileInputStream)in).getFile().length();
+		} else if (in!=null) {
+			this.countingIn=new CountingInputStream(in);
+			this.in=this.countingIn;
+		}
 		this.hocr=hocr;
 		if ((hocr.getSheets()!=null) && !("".equals(hocr.getSheets()))){
 			this.sheetsArray=hocr.getSheets().split(":");
@@ -87,7 +105,50 @@ private OfficeReaderParserInterface currentParser=null;
 				throw new FormatNotUnderstoodException("Format not understood");
 			}
 		// parse the inputStream
+		long startTime=System.currentTimeMillis();
 		currentParser.parse(this.in);
+		this.openTime=System.currentTimeMillis()-startTime;
+	}
+
+	/**
+	* Reads only the sheet names and the used range (dimension) of each sheet without parsing the document. This is much faster than parse() and can be used, for example, to plan splits or to estimate statistics. It can be called instead of parse(), but not in addition to it, because both consume the InputStream.
+	*
+	* @return Map with sheet name as key and the used range of the sheet as value in the order of the sheets in the document. The value is null if the document contains no dimension information for a sheet
+	*
+	* @throws org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException in case an invalid format is detected
+	*
+	*/
+	public Map<String,CellRangeAddress> probe() throws FormatNotUnderstoodException {
+		if (!this.hocr.getMimeType().contains(OfficeReader.FORMAT_EXCEL)) {
+			throw new FormatNotUnderstoodException("Format not understood");
+		}
+		long startTime=System.currentTimeMillis();
+		Map<String,CellRangeAddress> result = MSExcelDimensionUtil.getSheetDimensions(this.in, this.hocr.getPassword());
+		LOG.debug("Probed dimensions of "+result.size()+" sheets of file \""+this.hocr.getFileName()+"\" in "+(System.currentTimeMillis()-startTime)+" ms");
+		return result;
+	}
+
+	/**
+	* Reads only the document properties, sheet names and the used range (dimension) of each sheet without parsing the document, e.g. to catalog documents. Like probe() it can be called instead of parse(), but not in addition to it.
+	*
+	* @return Map with the document properties (see {@link org.zuinnote.hadoop.office.format.common.util.MSExcelMetadataUtil}), the ":" separated sheet names in the order of the document (key "sheets") and the used range of each sheet (key "sheet." followed by the sheet name, empty if the document contains no dimension information for the sheet)
+	*
+	* @throws org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException in case an invalid format is detected
+	*
+	*/
+	public Map<String,String> readMetadata() throws FormatNotUnderstoodException {
+		if (!this.hocr.getMimeType().contains(OfficeReader.FORMAT_EXCEL)) {
+			throw new FormatNotUnderstoodException("Format not understood");
+		}
+		long startTime=System.currentTimeMillis();
+		Map<String,String> result = new LinkedHashMap<>();
+		Map<String,CellRangeAddress> sheetDimensions = MSExcelDimensionUtil.getSheetDimensions(this.in, this.hocr.getPassword(), result);
+		result.put(MSExcelMetadataUtil.SHEETS, String.join(":", sheetDimensions.keySet()));
+		for (Map.Entry<String,CellRangeAddress> currentSheet: sheetDimensions.entrySet()) {
+			result.put(MSExcelMetadataUtil.SHEET_PREFIX+currentSheet.getKey(), currentSheet.getValue()==null?"":currentSheet.getValue().formatAsString());
+		}
+		LOG.debug("Read metadata of file \""+this.hocr.getFileName()+"\" in "+(System.currentTimeMillis()-startTime)+" ms");
+		return result;
 	}
 
 	/**
@@ -124,7 +185,53 @@ private OfficeReaderParserInterface currentParser=null;
 		if (currentParser==null) {
 				return new Object[0];
 		}
-		return currentParser.getNext();
+		Object[] result=currentParser.getNext();
+		if (result!=null) {
+			this.rows++;
+			long rowCells=0;
+			for (Object currentCell: result) {
+				if (currentCell!=null) {
+					rowCells++;
+				}
+			}
+			if (rowCells==0) {
+				this.emptyRows++;
+			}
+			this.cells+=rowCells;
+		}
+		return result;
+	}
+
+	/**
+	* Returns metrics of the document read so far, e.g. the number of rows returned, the bytes read and the time to open it, together with the metrics of the parser (see {@link org.zuinnote.hadoop.office.format.common.OfficeMetrics})
+	*
+	* @return Map with the name of the metric as key and its value
+	*
+	*/
+	public Map<String,Long> getMetrics() {
+		Map<String,Long> result = new LinkedHashMap<>();
+		result.put(OfficeMetrics.OPEN_TIME, this.openTime);
+		result.put(OfficeMetrics.BYTES_READ, this.countingIn!=null?this.countingIn.getCount():this.stagedBytes);
+		result.put(OfficeMetrics.ROWS, this.rows);
+		result.put(OfficeMetrics.CELLS, this.cells);
+		result.put(OfficeMetrics.EMPTY_ROWS, this.emptyRows);
+		if (this.currentParser!=null) {
+			result.putAll(this.currentParser.getMetrics());
+		}
+		return result;
+	}
+
+	/**
+	* Returns how much of the document has been read in terms of rows of the selected sheets. Most parsers read the full document when it is parsed, so the bytes read from the InputStream do not reflect the progress
+	*
+	* @return progress between 0.0 and 1.0
+	*
+	*/
+	public float getProgress() {
+		if (currentParser==null) {
+			return 0.0f;
+		}
+		return currentParser.getProgress();
 	}
 
 	/**
@@ -154,15 +261,76 @@ private OfficeReaderParserInterface currentParser=null;
 	}
 
 	/*
-	* Closes the reader
+	* Closes the reader and its parser, which gives back linked workbooks to the cache of parsed linked workbooks
 	*
 	*
 	* @throws java.io.IOException in case of errors
 	*/
 	public void close() throws IOException {
-		
-		if (this.in!=null) {
-			in.close();
+		try {
+			if (this.currentParser!=null) {
+				this.currentParser.close();
+			}
+		} finally {
+			if (this.in!=null) {
+				in.close();
+			}
+		}
+	}
+
+	/**
+	* Counts the bytes read from the document. It does not support mark/reset, so that bytes read again are not counted twice, but buffered by the parser
+	*
+	*/
+	private static class CountingInputStream extends FilterInputStream {
+		private long count=0;
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int result=super.read();
+			if (result!=-1) {
+				this.count++;
+			}
+			return result;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int result=super.read(b, off, len);
+			if (result>0) {
+				this.count+=result;
+			}
+			return result;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long result=super.skip(n);
+			this.count+=result;
+			return result;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		@Override
+		public synchronized void mark(int readlimit) {
+			// not supported
+		}
+
+		@Override
+		public synchronized void reset() throws IOException {
+			throw new IOException("mark/reset not supported");
+		}
+
+		public long getCount() {
+			return this.count;
 		}
 	}
 
@@ -17,11 +17,13 @@
 package org.zuinnote.hadoop.office.format.common;
 
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.apache.commons.logging.LogFactory;
@@ -46,7 +48,7 @@ private static final String EX_NO_WRITER_INSTANTIATED = "No writer instantiated"
 private static final Log LOG = LogFactory.getLog(OfficeWriter.class.getName());
 private OfficeSpreadSheetWriterInterface currentOfficeSpreadSheetWriter=null;
 private HadoopOfficeWriteConfiguration howc;
-private OutputStream oStream;
+private CountingOutputStream oStream;
 
 /**
 *
@@ -93,9 +95,9 @@ public OfficeWriter(HadoopOfficeWriteConfiguration howc) throws InvalidWriterCon
 */
 
 public void create(OutputStream oStream, Map<String,InputStream> linkedWorkbooks,Map<String,String> linkedWorkbooksPasswords, InputStream template) throws OfficeWriterException {
-	this.oStream=oStream;
+	this.oStream=oStream!=null?new CountingOutputStream(oStream):null;
 	if (this.currentOfficeSpreadSheetWriter!=null) {
-		this.currentOfficeSpreadSheetWriter.create(oStream,linkedWorkbooks,linkedWorkbooksPasswords,template);
+		this.currentOfficeSpreadSheetWriter.create(this.oStream,linkedWorkbooks,linkedWorkbooksPasswords,template);
 	} else {
 		throw new OfficeWriterException(EX_NO_WRITER_INSTANTIATED);
 	}
@@ -139,6 +141,21 @@ if (this.currentOfficeSpreadSheetWriter!=null) {
 }
 }
 
+/**
+* Returns metrics of the written document, e.g. the number of cells and bytes written, together with the metrics of the writer (see {@link org.zuinnote.hadoop.office.format.common.OfficeMetrics}). They are complete after the document has been closed
+*
+* @return Map with the name of the metric as key and its value
+*
+*/
+public Map<String,Long> getMetrics() {
+	Map<String,Long> result = new LinkedHashMap<>();
+	if (this.currentOfficeSpreadSheetWriter!=null) {
+		result.putAll(this.currentOfficeSpreadSheetWriter.getMetrics());
+	}
+	result.put(OfficeMetrics.BYTES_WRITTEN, this.oStream!=null?this.oStream.getCount():0L);
+	return result;
+}
+
 
 /***
 *
@@ -166,7 +183,32 @@ if (mimeType.contains("ms-excel")) {
 }
 
 
-}
+/**
+* Counts the bytes written to the document
+*
+*/
+private static class CountingOutputStream extends FilterOutputStream {
+	private long count=0;
+
+	CountingOutputStream(OutputStream out) {
+		super(out);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		this.out.write(b);
+		this.count++;
+	}
 
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		this.out.write(b, off, len);
+		this.count+=len;
+	}
 
+	public long getCount() {
+		return this.count;
+	}
+}
 
+}
@@ -0,0 +1,67 @@
+/**
+* Copyright 2016 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * InputStream of a document that is available as a file on the local disk. Parsers can use the file to access the document randomly (e.g. the entries of an OOXML zip file or the blocks of an OLE2 file) instead of loading the full document into memory.
+ *
+ */
+public class StagedFileInputStream extends FileInputStream {
+	private static final Log LOG = LogFactory.getLog(StagedFileInputStream.class.getName());
+	private final File file;
+	private final boolean temporary;
+	private boolean closed;
+
+	/**
+	 * 
+	 * @param file      local file containing the document
+	 * @param temporary true, if the file is a temporary copy of the document that is deleted when the stream is closed
+	 * @throws FileNotFoundException
+	 */
+	public StagedFileInputStream(File file, boolean temporary) throws FileNotFoundException {
+		super(file);
+		this.file = file;
+		this.temporary = temporary;
+	}
+
+	/**
+	 * 
+	 * @return local file containing the document
+	 */
+	public File getFile() {
+		return this.file;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			super.close();
+		} finally {
+			if ((this.temporary) && (!this.closed) && (!this.file.delete())) {
+				LOG.warn("Could not delete temporary file " + this.file.getAbsolutePath());
+			}
+			this.closed = true;
+		}
+	}
+}
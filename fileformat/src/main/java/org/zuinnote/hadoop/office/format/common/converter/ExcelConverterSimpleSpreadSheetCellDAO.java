@@ -31,6 +31,7 @@ import java.util.List;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.NumberToTextConverter;
 import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericBigDecimalDataType;
 import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericBooleanDataType;
 import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericByteDataType;
@@ -101,11 +102,13 @@ public class ExcelConverterSimpleSpreadSheetCellDAO implements Serializable {
 						this.schemaRow.add(null);
 					}
 				}
-				if ((currentSpreadSheetCellDAO.getFormattedValue() != null)
-						&& (!"".equals(currentSpreadSheetCellDAO.getFormattedValue()))) { // skip null value
-					String currentCellValue = currentSpreadSheetCellDAO.getFormattedValue();
+				if (!isEmptyCell(currentSpreadSheetCellDAO)) { // skip null value
+					// raw values are typed already and do not need to be formatted and parsed again
+					boolean rawValue = currentSpreadSheetCellDAO.getRawType() != SpreadSheetCellDAO.RAWTYPE_NONE;
+					String currentCellValue = rawValue ? null : currentSpreadSheetCellDAO.getFormattedValue();
 					// check if boolean
-					if (("TRUE".equals(currentCellValue)) || ("FALSE".equals(currentCellValue))) {
+					if ((rawValue) ? (currentSpreadSheetCellDAO.getRawType() == SpreadSheetCellDAO.RAWTYPE_BOOLEAN)
+							: (("TRUE".equals(currentCellValue)) || ("FALSE".equals(currentCellValue)))) {
 						dataTypeFound = true;
 						if (this.schemaRow.get(j) != null) { // check if previous assumption was boolean
 
@@ -121,7 +124,8 @@ public class ExcelConverterSimpleSpreadSheetCellDAO implements Serializable {
 
 					if (!dataTypeFound) {
 
-						Date theDate = this.dateFormat.parse(currentCellValue, new ParsePosition(0));
+						Date theDate = rawValue ? currentSpreadSheetCellDAO.getRawDateValue()
+								: this.dateFormat.parse(currentCellValue, new ParsePosition(0));
 						if (theDate != null) { // we have indeed a date
 
 							dataTypeFound = true;
@@ -138,7 +142,8 @@ public class ExcelConverterSimpleSpreadSheetCellDAO implements Serializable {
 					}
 					// check if BigDecimal
 
-					BigDecimal bd = (BigDecimal) this.decimalFormat.parse(currentCellValue, new ParsePosition(0));
+					BigDecimal bd = rawValue ? getRawDecimalValue(currentSpreadSheetCellDAO)
+							: (BigDecimal) this.decimalFormat.parse(currentCellValue, new ParsePosition(0));
 					if ((!dataTypeFound) && (bd != null)) {
 						BigDecimal bdv = bd.stripTrailingZeros();
 
@@ -323,81 +328,7 @@ public class ExcelConverterSimpleSpreadSheetCellDAO implements Serializable {
 						returnList.add(null);
 					}
 				}
-				GenericDataType applyDataType = null;
-				if (j >= this.schemaRow.size()) {
-					LOG.warn("No further schema row for column defined: " + String.valueOf(j)+". Will assume String.");
-				} else {
-					applyDataType = this.schemaRow.get(j);
-				}
-				if (applyDataType == null) {
-					returnList.set(j, currentCell.getFormattedValue());
-				} else if (applyDataType instanceof GenericStringDataType) {
-					returnList.set(j, currentCell.getFormattedValue());
-				} else if (applyDataType instanceof GenericBooleanDataType) {
-					if (!"".equals(currentCell.getFormattedValue())) {
-						if (currentCell.getFormattedValue().equalsIgnoreCase("true") ||currentCell.getFormattedValue().equalsIgnoreCase("false")) {
-							returnList.set(j, Boolean.valueOf(currentCell.getFormattedValue()));
-						} 
-					}
-				} else if (applyDataType instanceof GenericDateDataType) {
-					if (!"".equals(currentCell.getFormattedValue())) {
-						Date theDate = this.dateFormat.parse(currentCell.getFormattedValue(), new ParsePosition(0));
-						if (theDate != null) {
-							returnList.set(j,theDate);
-
-						} else {
-							returnList.set(j, null);
-						}
-					}
-				} else if (applyDataType instanceof GenericTimestampDataType) {
-					if (!"".equals(currentCell.getFormattedValue())) {
-						Date theDate = this.dateFormat.parse(currentCell.getFormattedValue(), new ParsePosition(0));
-						if (theDate != null) {
-							returnList.set(j,new java.sql.Timestamp(theDate.getTime()));
-
-						} else {
-							returnList.set(j, null);
-						}
-					}
-				} 
-				
-				else if (applyDataType instanceof GenericNumericDataType) {
-					if (!"".equals(currentCell.getFormattedValue())) {
-						BigDecimal bd = null;
-						try {
-							if (!"".equals(currentCell.getFormattedValue())) {
-								bd = (BigDecimal) this.decimalFormat.parse(currentCell.getFormattedValue());
-							}
-						} catch (ParseException p) {
-							LOG.warn(
-									"Could not parse decimal in spreadsheet cell, although type was detected as decimal");
-						}
-						if (bd != null) {
-							BigDecimal bdv = bd.stripTrailingZeros();
-							if (applyDataType instanceof GenericByteDataType) {
-								returnList.set(j,(byte)bdv.byteValueExact());
-							} else if (applyDataType instanceof GenericShortDataType) {
-								returnList.set(j,(short)bdv.shortValueExact());
-							} else if (applyDataType instanceof GenericIntegerDataType) {
-								returnList.set(j,(int) bdv.intValueExact());
-							} else if (applyDataType instanceof GenericLongDataType) {
-								returnList.set(j,(long)bdv.longValueExact());
-							}  else if (applyDataType instanceof GenericDoubleDataType) {
-								returnList.set(j,(double)bdv.doubleValue());
-							} else if (applyDataType instanceof GenericFloatDataType) {
-								returnList.set(j,(float)bdv.floatValue());
-							} 
-							else if (applyDataType instanceof GenericBigDecimalDataType) {
-								returnList.set(j,bd);
-							} else {
-								returnList.set(j,null);
-							}
-						}
-					}
-				} else {
-					returnList.set(j,null);
-					LOG.warn("Could not convert object in spreadsheet cellrow. Did you add a new datatype?");
-				}
+				returnList.set(j, this.getValueAccordingToSchema(currentCell, j));
 			}
 		}
 		Object[] result = new Object[returnList.size()];
@@ -405,6 +336,132 @@ public class ExcelConverterSimpleSpreadSheetCellDAO implements Serializable {
 		return result;
 	}
 
+	/**
+	 * Translates a single cell according to the datatype of its column in the currently defined schema. It allows to convert only some columns of a row, e.g. the columns selected by a query.
+	 * 
+	 * @param cell
+	 *            cell containing data
+	 * @param column
+	 *            column of the cell starting with 0 (e.g. 2 for C7)
+	 * @return object of a primitive datatype (see getDataAccordingToSchema) or null if the cell is empty or cannot be converted. Cells of columns without a datatype are returned as formatted String
+	 * @throws ArithmeticException in case the number does not fit into the datatype of the column
+	 */
+	public Object getValueAccordingToSchema(SpreadSheetCellDAO cell, int column) {
+		GenericDataType applyDataType = null;
+		if (column >= this.schemaRow.size()) {
+			LOG.warn("No further schema row for column defined: " + String.valueOf(column)+". Will assume String.");
+		} else {
+			applyDataType = this.schemaRow.get(column);
+		}
+		if ((applyDataType == null) || (applyDataType instanceof GenericStringDataType)) {
+			return cell.getFormattedValue();
+		} else if (applyDataType instanceof GenericBooleanDataType) {
+			if (cell.getRawType() == SpreadSheetCellDAO.RAWTYPE_BOOLEAN) {
+				return cell.getRawBooleanValue();
+			} else if (cell.getFormattedValue().equalsIgnoreCase("true") || cell.getFormattedValue().equalsIgnoreCase("false")) {
+				return Boolean.valueOf(cell.getFormattedValue());
+			}
+			return null;
+		} else if ((applyDataType instanceof GenericDateDataType) || (applyDataType instanceof GenericTimestampDataType)) {
+			if (isEmptyCell(cell)) {
+				return null;
+			}
+			Date theDate = this.getDateValue(cell);
+			if ((theDate != null) && (applyDataType instanceof GenericTimestampDataType)) {
+				return new java.sql.Timestamp(theDate.getTime());
+			}
+			return theDate;
+		} else if (applyDataType instanceof GenericNumericDataType) {
+			if (isEmptyCell(cell)) {
+				return null;
+			}
+			BigDecimal bd = this.getDecimalValue(cell);
+			if (bd == null) {
+				return null;
+			}
+			BigDecimal bdv = bd.stripTrailingZeros();
+			if (applyDataType instanceof GenericByteDataType) {
+				return (byte) bdv.byteValueExact();
+			} else if (applyDataType instanceof GenericShortDataType) {
+				return (short) bdv.shortValueExact();
+			} else if (applyDataType instanceof GenericIntegerDataType) {
+				return (int) bdv.intValueExact();
+			} else if (applyDataType instanceof GenericLongDataType) {
+				return (long) bdv.longValueExact();
+			} else if (applyDataType instanceof GenericDoubleDataType) {
+				return (double) bdv.doubleValue();
+			} else if (applyDataType instanceof GenericFloatDataType) {
+				return (float) bdv.floatValue();
+			} else if (applyDataType instanceof GenericBigDecimalDataType) {
+				return bd;
+			}
+			return null;
+		}
+		LOG.warn("Could not convert object in spreadsheet cellrow. Did you add a new datatype?");
+		return null;
+	}
+
+	/**
+	 * Checks if a cell is empty. Cells with a raw numeric or boolean value are never empty, so they do not need to be formatted for this check.
+	 * 
+	 * @param cell cell
+	 * @return true, if the cell has no value
+	 */
+	public static boolean isEmptyCell(SpreadSheetCellDAO cell) {
+		if ((cell.getRawType() == SpreadSheetCellDAO.RAWTYPE_NUMERIC) || (cell.getRawType() == SpreadSheetCellDAO.RAWTYPE_BOOLEAN)) {
+			return false;
+		}
+		return (cell.getFormattedValue() == null) || ("".equals(cell.getFormattedValue()));
+	}
+
+	/**
+	 * Returns the date of a cell. A raw date is used as it is, a formatted value is parsed using the date format
+	 * 
+	 * @param cell cell
+	 * @return date or null if the cell does not contain a date
+	 */
+	public Date getDateValue(SpreadSheetCellDAO cell) {
+		if (cell.getRawType() != SpreadSheetCellDAO.RAWTYPE_NONE) {
+			return cell.getRawDateValue();
+		}
+		return this.dateFormat.parse(cell.getFormattedValue(), new ParsePosition(0));
+	}
+
+	/**
+	 * Returns the decimal of a cell. A raw numeric value is used as it is, a formatted value is parsed using the decimal format
+	 * 
+	 * @param cell cell
+	 * @return decimal or null if the cell does not contain a number
+	 */
+	public BigDecimal getDecimalValue(SpreadSheetCellDAO cell) {
+		if (cell.getRawType() != SpreadSheetCellDAO.RAWTYPE_NONE) {
+			return getRawDecimalValue(cell);
+		}
+		if ("".equals(cell.getFormattedValue())) {
+			return null;
+		}
+		try {
+			return (BigDecimal) this.decimalFormat.parse(cell.getFormattedValue());
+		} catch (ParseException p) {
+			LOG.warn("Could not parse decimal in spreadsheet cell, although type was detected as decimal");
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the decimal of a cell with a raw numeric value
+	 * 
+	 * @param cell cell
+	 * @return decimal or null if the cell has no raw numeric value (e.g. a string)
+	 */
+	private static BigDecimal getRawDecimalValue(SpreadSheetCellDAO cell) {
+		if (cell.getRawType() != SpreadSheetCellDAO.RAWTYPE_NUMERIC) {
+			return null;
+		}
+		// shortest representation as shown by Excel, e.g. 0.1 instead of 0.1000000000000000055511151231257827
+		return new BigDecimal(NumberToTextConverter.toText(cell.getRawNumericValue()));
+	}
+
 	/***
 	 * Converts a row consisting of objects of simple data types (String, byte,
 	 * short, int, long, etc.) to a row of SpreadSheetCellDAO
@@ -19,15 +19,22 @@ package org.zuinnote.hadoop.office.format.common.dao;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.Date;
 
 import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.io.WritableFactories;
 import org.apache.hadoop.io.Text;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
 
 
 /*
 * This DAO represents a spreadsheet cell
+*
+* If the document has been read with raw values (hadoopoffice.read.rawvalues) then the cell additionally contains the type and the unformatted value of the cell. In this case the formatted value of numeric cells is only created when it is requested for the first time, so that typed consumers do not need to format and parse numbers/dates
+* The raw values are only available to consumers of the reader. They are not written as Writable, so that the Writable format stays compatible with existing files (e.g. SequenceFiles) and jobs. A cell read as Writable has no raw value (RAWTYPE_NONE)
 */
 
 public class SpreadSheetCellDAO implements Writable, Serializable {
@@ -40,6 +47,21 @@ private String comment;
 private String formula;
 private String address;
 private String sheetName;
+private byte rawType;
+private double rawNumericValue;
+private boolean rawBooleanValue;
+private int formatIndex;
+private String formatString;
+private boolean date1904;
+private transient DataFormatter formatter;
+
+/** no raw value available **/
+public static final byte RAWTYPE_NONE=0;
+public static final byte RAWTYPE_NUMERIC=1;
+public static final byte RAWTYPE_STRING=2;
+public static final byte RAWTYPE_BOOLEAN=3;
+public static final byte RAWTYPE_ERROR=4;
+public static final byte RAWTYPE_BLANK=5;
 
 public SpreadSheetCellDAO() {
 	this.formattedValue="";
@@ -60,6 +82,10 @@ public SpreadSheetCellDAO(String formattedValue, String comment, String formula,
 }
 
 public String getFormattedValue() {
+	if ((this.formattedValue==null) && (this.formatter!=null)) { // format raw numeric value on first access
+		this.formattedValue=this.formatter.formatRawCellContents(this.rawNumericValue, this.formatIndex, this.formatString, this.date1904);
+		this.formatter=null;
+	}
 	return this.formattedValue;
 }
 
@@ -80,7 +106,135 @@ public String getSheetName() {
 	return this.sheetName;
 }
 
+/**
+ * 
+ * @return type of the raw value (RAWTYPE_*), RAWTYPE_NONE if the document has not been read with raw values
+ */
+public byte getRawType() {
+	return this.rawType;
+}
+
+/**
+ * 
+ * @return unformatted value of a numeric cell (dates are numeric cells in Excel)
+ */
+public double getRawNumericValue() {
+	return this.rawNumericValue;
+}
+
+/**
+ * 
+ * @return value of a boolean cell
+ */
+public boolean getRawBooleanValue() {
+	return this.rawBooleanValue;
+}
+
+/**
+ * 
+ * @return index of the number format of a numeric cell
+ */
+public int getFormatIndex() {
+	return this.formatIndex;
+}
+
+/**
+ * 
+ * @return number format of a numeric cell
+ */
+public String getFormatString() {
+	return this.formatString;
+}
+
+/**
+ * 
+ * @return true, if the date of a numeric cell is based on 1904 instead of 1900
+ */
+public boolean getDate1904() {
+	return this.date1904;
+}
+
+/**
+ * 
+ * @return true, if the cell is numeric and has a date format
+ */
+public boolean isRawDate() {
+	return (this.rawType==SpreadSheetCellDAO.RAWTYPE_NUMERIC) && (DateUtil.isADateFormat(this.formatIndex, this.formatString)) && (DateUtil.isValidExcelDate(this.rawNumericValue));
+}
 
+/**
+ * 
+ * @return date of a numeric cell with a date format, null if it is not a date
+ */
+public Date getRawDateValue() {
+	if (!this.isRawDate()) {
+		return null;
+	}
+	return DateUtil.getJavaDate(this.rawNumericValue, this.date1904);
+}
+
+/**
+ * Sets the unformatted value of a numeric cell
+ * 
+ * @param value unformatted value
+ * @param formatIndex index of the number format
+ * @param formatString number format
+ * @param date1904 true, if dates are based on 1904 instead of 1900
+ * @param formatter if not null then the formatted value is created with this formatter when it is requested the first time. It must be used only in the thread reading the cell
+ */
+public void setRawNumericValue(double value, int formatIndex, String formatString, boolean date1904, DataFormatter formatter) {
+	this.rawType=SpreadSheetCellDAO.RAWTYPE_NUMERIC;
+	this.rawNumericValue=value;
+	this.formatIndex=formatIndex;
+	this.formatString=formatString;
+	this.date1904=date1904;
+	this.formatter=formatter;
+}
+
+/**
+ * Sets the value of a boolean cell
+ * 
+ * @param value value
+ */
+public void setRawBooleanValue(boolean value) {
+	this.rawType=SpreadSheetCellDAO.RAWTYPE_BOOLEAN;
+	this.rawBooleanValue=value;
+}
+
+/**
+ * Sets the type of a cell whose raw value is its formatted value (string, error, blank)
+ * 
+ * @param rawType RAWTYPE_STRING, RAWTYPE_ERROR or RAWTYPE_BLANK
+ */
+public void setRawType(byte rawType) {
+	this.rawType=rawType;
+}
+
+
+
+/**
+ * Replaces the content of the cell, e.g. to reuse it for another cell. The raw value is reset
+ * 
+ * @param formattedValue formatted value
+ * @param comment comment
+ * @param formula formula
+ * @param address address
+ * @param sheetName sheet name
+ */
+public void set(String formattedValue, String comment, String formula, String address, String sheetName) {
+	this.formattedValue=formattedValue;
+	this.comment=comment;
+	this.formula=formula;
+	this.address=address;
+	this.sheetName=sheetName;
+	this.rawType=SpreadSheetCellDAO.RAWTYPE_NONE;
+	this.rawNumericValue=0;
+	this.rawBooleanValue=false;
+	this.formatIndex=0;
+	this.formatString=null;
+	this.date1904=false;
+	this.formatter=null;
+}
 
 public void set(SpreadSheetCellDAO newSpreadSheetCellDAO) {
 	this.formattedValue=newSpreadSheetCellDAO.getFormattedValue();
@@ -88,6 +242,13 @@ public void set(SpreadSheetCellDAO newSpreadSheetCellDAO) {
 	this.formula=newSpreadSheetCellDAO.getFormula();
 	this.address=newSpreadSheetCellDAO.getAddress();
 	this.sheetName=newSpreadSheetCellDAO.getSheetName();
+	this.rawType=newSpreadSheetCellDAO.getRawType();
+	this.rawNumericValue=newSpreadSheetCellDAO.getRawNumericValue();
+	this.rawBooleanValue=newSpreadSheetCellDAO.getRawBooleanValue();
+	this.formatIndex=newSpreadSheetCellDAO.getFormatIndex();
+	this.formatString=newSpreadSheetCellDAO.getFormatString();
+	this.date1904=newSpreadSheetCellDAO.getDate1904();
+	this.formatter=null;
 }
 
 
@@ -96,7 +257,7 @@ public void set(SpreadSheetCellDAO newSpreadSheetCellDAO) {
   @Override
   public void write(DataOutput dataOutput) throws IOException {
     Text formattedValueText = new Text("");
-    if (formattedValue!=null) {
+    if (getFormattedValue()!=null) {
 	formattedValueText = new Text(formattedValue);
     }
     Text commentText = new Text("");
@@ -120,7 +281,6 @@ public void set(SpreadSheetCellDAO newSpreadSheetCellDAO) {
     formulaText.write(dataOutput);
     addressText.write(dataOutput);
     sheetNameText.write(dataOutput);
-
 }
 
   @Override
@@ -140,6 +300,22 @@ public void set(SpreadSheetCellDAO newSpreadSheetCellDAO) {
     Text sheetNameText = (Text) WritableFactories.newInstance(Text.class);
     sheetNameText.readFields(dataInput);
     this.sheetName=sheetNameText.toString();
+    // raw values are not part of the Writable format
+    this.rawType=SpreadSheetCellDAO.RAWTYPE_NONE;
+    this.rawNumericValue=0;
+    this.rawBooleanValue=false;
+    this.formatIndex=0;
+    this.formatString=null;
+    this.date1904=false;
+    this.formatter=null;
+}
+
+/** Serializable **/
+
+private void writeObject(ObjectOutputStream out) throws IOException {
+	// the formatter is not serialized, so the value needs to be formatted before
+	getFormattedValue();
+	out.defaultWriteObject();
 }
 
 }
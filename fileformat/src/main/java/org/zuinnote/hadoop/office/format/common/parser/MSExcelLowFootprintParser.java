@@ -15,19 +15,23 @@
 **/
 package org.zuinnote.hadoop.office.format.common.parser;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.GeneralSecurityException;
-import java.security.InvalidAlgorithmParameterException;
-import java.security.NoSuchAlgorithmException;
-import java.security.NoSuchProviderException;
-import java.security.cert.CertificateException;
-import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.xml.parsers.ParserConfigurationException;
 
@@ -58,31 +62,39 @@ import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
 import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.poifs.crypt.Decryptor;
 import org.apache.poi.poifs.crypt.EncryptionInfo;
-import org.apache.poi.poifs.crypt.dsig.SignatureConfig;
-import org.apache.poi.poifs.crypt.dsig.SignatureInfo;
-import org.apache.poi.poifs.crypt.dsig.SignatureInfo.SignaturePart;
+import org.apache.poi.poifs.crypt.temp.AesZipFileZipEntrySource;
 import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.SAXHelper;
+import org.apache.poi.util.TempFile;
 import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
 import org.apache.poi.xssf.eventusermodel.XSSFReader;
 import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
 import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
 
+import org.apache.poi.xssf.model.CommentsTable;
 import org.apache.poi.xssf.model.StylesTable;
 import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.xml.sax.Attributes;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.XMLFilterImpl;
 import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.OfficeMetrics;
+import org.zuinnote.hadoop.office.format.common.StagedFileInputStream;
 import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
-import org.zuinnote.hadoop.office.format.common.util.CertificateChainVerificationUtil;
+import org.zuinnote.hadoop.office.format.common.util.MSExcelMetadataUtil;
+import org.zuinnote.hadoop.office.format.common.util.MSExcelOOXMLSignVerificationUtil;
 import org.zuinnote.hadoop.office.format.common.util.MSExcelUtil;
 
 /*
@@ -105,6 +117,7 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 
 	private DataFormatter useDataFormatter=null;
 	private static final Log LOG = LogFactory.getLog(MSExcelLowFootprintParser.class.getName());
+	private static final AtomicInteger PARSER_THREAD_COUNTER = new AtomicInteger();
 	private Map<Integer,List<SpreadSheetCellDAO[]>> spreadSheetCellDAOCache;
 	private List<String> sheetNameList;
 	private InputStream in;
@@ -115,6 +128,13 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 	private String[] header;
 	private int currentSkipLine=0;
 	private boolean firstSheetSkipped=false;
+	private boolean filtered=true;
+	private File decryptedTempFile;
+	private AesZipFileZipEntrySource decryptedTempSource;
+	private long sharedStrings;
+	private long peakCachedRows;
+	private long totalRows;
+	private long signatureVerificationTime;
 	
 	public MSExcelLowFootprintParser(HadoopOfficeReadConfiguration hocr) {
 		this(hocr, null);
@@ -127,18 +147,14 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 	* @param hocr HadoopOffice configuration for reading files:
 	* password Password of this document (null if no password)
 	* metadataFilter filter on metadata. The name is the metadata attribute name and the property is a filter which contains a regular expression. Currently the following are supported for .xlsx documents: category,contentstatus, contenttype,created,creator,description,identifier,keywords,lastmodifiedbyuser,lastprinted,modified,revision,subject,title. Additionally all custom.* are defined as custom properties. Example custom.myproperty. Finally, matchAll can be set to true (all metadata needs to be matched), or false (at least one of the metadata item needs to match).
- Currently the following are supported for .xls documents: applicationname,author,charcount, comments, createdatetime,edittime,keywords,lastauthor,lastprinted,lastsavedatetime,pagecount,revnumber,security,subject,template,title,wordcount. Finally, matchAll can be set to true (all metadata needs to be matched), or false (at least one of the metadata item needs to match).
+ Currently the following are supported for .xls documents: applicationname,author,charcount, comments, createdatetime,edittime,keywords,lastauthor,lastprinted,lastsavedatetime,pagecount,revnumber,security,subject,template,title,wordcount. Additionally all custom.* are defined as custom properties. Finally, matchAll can be set to true (all metadata needs to be matched), or false (at least one of the metadata item needs to match).
 	* @param sheets selecrted sheets
 	*
 	*/
 	public MSExcelLowFootprintParser(HadoopOfficeReadConfiguration hocr, String[] sheets) {
 		this.sheets=sheets;
 		this.hocr=hocr;
-		if (hocr.getLocale()==null)  {
-			useDataFormatter=new DataFormatter(); // use default locale
-		} else {
-			useDataFormatter=new DataFormatter(hocr.getLocale());
-		}
+		useDataFormatter=hocr.getDataFormatter(); // shared by all documents read with this configuration
 		this.spreadSheetCellDAOCache=new HashMap<>();
 		this.sheetNameList=new ArrayList<>();
 		this.currentRow=0;
@@ -147,9 +163,6 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 		if ((this.hocr.getReadLinkedWorkbooks()) || (this.hocr.getIgnoreMissingLinkedWorkbooks())) {
 			LOG.warn("Linked workbooks not supported in low footprint parsing mode");
 		}
-		if ((this.hocr.getMetaDataFilter()!=null) && (this.hocr.getMetaDataFilter().size()>0))  {
-			LOG.warn("Metadata filtering is not supported in low footprint parsing mode");
-		}
 	}
 	
 	/*
@@ -173,7 +186,12 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 			FileMagic fm = FileMagic.valueOf(nin);
 				if(fm==FileMagic.OLE2) { // 
 					LOG.debug("Paersing OLE2 container");
-					NPOIFSFileSystem poifs = new NPOIFSFileSystem(nin);
+					NPOIFSFileSystem poifs;
+					if (in instanceof StagedFileInputStream) { // random access to the blocks of the local file
+						poifs = new NPOIFSFileSystem(((StagedFileInputStream)in).getFile(), true);
+					} else {
+						poifs = new NPOIFSFileSystem(nin);
+					}
 					// check if we need to decrypt a new Excel file
 					if (poifs.getRoot().hasEntry(Decryptor.DEFAULT_POIFS_ENTRY)) {
 						LOG.info("Low footprint parsing of new Excel files (.xlsx) - encrypted file");
@@ -190,20 +208,34 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 								throw new FormatNotUnderstoodException("Error: Cannot decrypt new Excel file (.xlsx) in low footprint mode");
 							}
 						
-						OPCPackage pkg;
+						OPCPackage pkg = null;
 						try {
-							pkg = OPCPackage.open(in);
+							pkg = this.openDecryptedPackage(in, poifs);
 							this.processOPCPackage(pkg);
 							
 						} catch (InvalidFormatException e) {
 							LOG.error(e);
 							throw new FormatNotUnderstoodException("Error: Cannot read new Excel file (.xlsx) in low footprint mode");
+						} catch (GeneralSecurityException e) {
+							LOG.error(e);
+							throw new FormatNotUnderstoodException("Error: Cannot create encrypted temporary file for new Excel file (.xlsx) in low footprint mode");
+						} finally {
+							this.releaseDecryptedPackage(pkg);
 						}
 						return;
 						
 					}
 					// else we need to 
 					LOG.info("Low footprint parsing of old Excel files (.xls)");
+					if (this.hasMetaDataFilter()) {
+						this.filtered=MSExcelMetadataUtil.matchesMetaDataFilter(MSExcelMetadataUtil.getMetadata(poifs.getRoot()), this.hocr);
+						if (!this.filtered) {
+							LOG.info("Document \""+this.hocr.getFileName()+"\" does not match metadata filter");
+							this.header=new String[0];
+							poifs.close();
+							return;
+						}
+					}
 					 // use event model API for old Excel files
 					if (this.hocr.getPassword()!=null) {
 						Biff8EncryptionKey.setCurrentUserPassword(this.hocr.getPassword());
@@ -218,6 +250,7 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 					  req.addListenerForAllRecords(listener);
 					  HSSFEventFactory factory = new HSSFEventFactory();
 					  factory.processEvents(req, din);
+					  this.updatePeakCachedRows();
 					} catch (EncryptedDocumentException e) {
 						LOG.error(e);
 						throw new FormatNotUnderstoodException("Cannot decrypt document");
@@ -234,9 +267,18 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 					// this is unencrypted
 					
 					try {
-						OPCPackage pkg = OPCPackage.open(nin);
+						if (in instanceof StagedFileInputStream) { // random access to the zip entries of the local file
+							OPCPackage pkg = OPCPackage.open(((StagedFileInputStream)in).getFile(), PackageAccess.READ);
+							try {
+								this.processOPCPackage(pkg);
+							} finally {
+								pkg.revert();
+							}
+						} else {
+							OPCPackage pkg = OPCPackage.open(nin);
 						
-						this.processOPCPackage(pkg);
+							this.processOPCPackage(pkg);
+						}
 					} catch (InvalidFormatException e) {
 						LOG.error(e);
 						throw new FormatNotUnderstoodException("Error cannot read new Excel file (.xlsx)");
@@ -264,6 +306,70 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 	}
 
 	
+	/**
+	 * Opens the decrypted content of an encrypted new Excel file (.xlsx). Depending on the configuration, the decrypted content is kept in memory or spilled to a (possibly encrypted) local temporary file, so that decrypting large files does not require a lot of heap.
+	 * 
+	 * @param decryptedIn decrypted content
+	 * @param poifs container of the encrypted file. It is closed after the content has been spilled to disk
+	 * @return package
+	 * @throws IOException
+	 * @throws InvalidFormatException
+	 * @throws GeneralSecurityException
+	 */
+	private OPCPackage openDecryptedPackage(InputStream decryptedIn, NPOIFSFileSystem poifs) throws IOException, InvalidFormatException, GeneralSecurityException {
+		String spill = this.hocr.getLowFootprintDecryptSpill();
+		if (HadoopOfficeReadConfiguration.LOWFOOTPRINT_DECRYPTSPILL_TEMPFILE.equalsIgnoreCase(spill)) {
+			this.decryptedTempFile = TempFile.createTempFile("hadoopoffice-decrypted", ".xlsx");
+			LOG.debug("Spilling decrypted document to temporary file "+this.decryptedTempFile.getAbsolutePath());
+			try (FileOutputStream fos = new FileOutputStream(this.decryptedTempFile)) {
+				IOUtils.copy(decryptedIn, fos);
+			} finally {
+				decryptedIn.close();
+				poifs.close();
+			}
+			return OPCPackage.open(this.decryptedTempFile, PackageAccess.READ);
+		} 
+		if (HadoopOfficeReadConfiguration.LOWFOOTPRINT_DECRYPTSPILL_ENCRYPTEDTEMPFILE.equalsIgnoreCase(spill)) {
+			LOG.debug("Spilling decrypted document to encrypted temporary file");
+			try {
+				this.decryptedTempSource = AesZipFileZipEntrySource.createZipEntrySource(decryptedIn);
+			} finally {
+				decryptedIn.close();
+				poifs.close();
+			}
+			return OPCPackage.open(this.decryptedTempSource);
+		}
+		if (!HadoopOfficeReadConfiguration.LOWFOOTPRINT_DECRYPTSPILL_MEMORY.equalsIgnoreCase(spill)) {
+			LOG.warn("Unknown option for spilling decrypted documents \""+spill+"\". Keeping decrypted document in memory");
+		}
+		return OPCPackage.open(decryptedIn);
+	}
+	
+	/**
+	 * Closes a package opened by openDecryptedPackage and deletes temporary files. All data has been read from the package before.
+	 * 
+	 * @param pkg package, can be null
+	 */
+	private void releaseDecryptedPackage(OPCPackage pkg) {
+		if ((pkg!=null) && ((this.decryptedTempFile!=null) || (this.decryptedTempSource!=null))) {
+			pkg.revert();
+		}
+		if (this.decryptedTempSource!=null) {
+			try {
+				this.decryptedTempSource.close();
+			} catch (IOException e) {
+				LOG.warn("Could not delete encrypted temporary file", e);
+			}
+			this.decryptedTempSource=null;
+		}
+		if (this.decryptedTempFile!=null) {
+			if (!this.decryptedTempFile.delete()) {
+				LOG.warn("Could not delete temporary file "+this.decryptedTempFile.getAbsolutePath());
+			}
+			this.decryptedTempFile=null;
+		}
+	}
+	
 	/**
 	 * Processes a OPCPackage (new Excel format, .xlsx) in Streaming Mode
 	 * 
@@ -273,38 +379,27 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 	 */
 	private void processOPCPackage(OPCPackage pkg) throws FormatNotUnderstoodException {
 		LOG.debug("Processing OPCPackage in low footprint mode");
-		// check if signature should be verified
+		// check metadata filter before any sheet is parsed
+		if (this.hasMetaDataFilter()) {
+			this.filtered=MSExcelMetadataUtil.matchesMetaDataFilter(MSExcelMetadataUtil.getMetadata(pkg), this.hocr);
+			if (!this.filtered) {
+				LOG.info("Document \""+this.hocr.getFileName()+"\" does not match metadata filter");
+				this.header=new String[0];
+				pkg.revert();
+				return;
+			}
+		}
+		// check if signature should be verified. The signature parts are validated while the sheets are parsed
+		MSExcelOOXMLSignVerificationUtil signVerification = null;
 		if (this.hocr.getVerifySignature()) {
-				LOG.info("Verifying signature of document");
-				SignatureConfig sic = new SignatureConfig();
-				sic.setOpcPackage(pkg);
-				SignatureInfo si = new SignatureInfo();
-				si.setSignatureConfig(sic);
-				if (!si.verifySignature()) {
-						throw new FormatNotUnderstoodException("Cannot verify signature of OOXML (.xlsx) file: "+this.hocr.getFileName());
-				} else {
-					LOG.info("Successfully verifed first part signature of OXXML (.xlsx) file: "+this.hocr.getFileName());
-				}
-				Iterator<SignaturePart> spIter = si.getSignatureParts().iterator();
-				 while (spIter.hasNext()) {
-					 SignaturePart currentSP = spIter.next();
-					 if (!(currentSP.validate())) {
-						 throw new FormatNotUnderstoodException("Could not validate all signature parts for file: "+this.hocr.getFileName());
-					 } else {
-						 X509Certificate currentCertificate = currentSP.getSigner();
-						 try {
-							if ((this.hocr.getX509CertificateChain().size()>0) && (!CertificateChainVerificationUtil.verifyCertificateChain(currentCertificate, this.hocr.getX509CertificateChain()))) {
-								 throw new FormatNotUnderstoodException("Could not validate signature part for principal \""+currentCertificate.getSubjectX500Principal().getName()+"\" : "+this.hocr.getFileName());
-							 }
-						} catch (CertificateException | NoSuchAlgorithmException | NoSuchProviderException
-								| InvalidAlgorithmParameterException e) {
-							LOG.error("Could not validate signature part for principal \""+currentCertificate.getSubjectX500Principal().getName()+"\" : "+this.hocr.getFileName(), e);
-							 throw new FormatNotUnderstoodException("Could not validate signature part for principal \""+currentCertificate.getSubjectX500Principal().getName()+"\" : "+this.hocr.getFileName());
-								
-						}
-					 }
-				 }
-				 LOG.info("Successfully verifed all signatures of OXXML (.xlsx) file: "+this.hocr.getFileName());
+			signVerification = new MSExcelOOXMLSignVerificationUtil(this.hocr);
+			if (this.decryptedTempSource!=null) {
+				// all entries of the encrypted temporary file share one cipher, so the parts cannot be read concurrently
+				LOG.debug("Encrypted temporary file does not support concurrent access. Verifying signature before parsing");
+				signVerification.verify(pkg);
+			} else {
+				signVerification.startVerification(pkg);
+			}
 		}
 		// continue in lowfootprint mode
 		XSSFReader r;
@@ -316,11 +411,18 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 		}
 		try {
 			
-			ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+			final ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
 			
-			StylesTable styles = r.getStylesTable();
+			final StylesTable styles = r.getStylesTable();
 			XSSFReader.SheetIterator iter = (XSSFReader.SheetIterator)r.getSheetsData();
 			int sheetNumber = 0;
+			// shared strings and styles are loaded, so the sheets can be decoded independently of each other
+			int threads = this.hocr.getLowFootprintParserThreads();
+			if ((threads>1) && (this.decryptedTempSource!=null)) {
+				LOG.debug("Encrypted temporary file does not support concurrent access. Decoding one sheet after the other");
+				threads=1;
+			}
+			List<Callable<Void>> sheetTasks = new ArrayList<>();
 			while (iter.hasNext()) {
 				
 				// check if we need to parse this sheet?
@@ -338,20 +440,34 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 				// sheet is supposed to be parsed
 				if (parse) {
 					
-					InputStream rawSheetInputStream = iter.next();
+					final InputStream rawSheetInputStream = iter.next();
 					this.sheetNameList.add(iter.getSheetName());
-					InputSource rawSheetInputSource = new InputSource(rawSheetInputStream);
-					XMLReader sheetParser = SAXHelper.newXMLReader();
-					XSSFEventParser xssfp = new XSSFEventParser(sheetNumber,iter.getSheetName(), this.spreadSheetCellDAOCache);
-					
-		            ContentHandler handler = new XSSFSheetXMLHandler(
-		                  styles, iter.getSheetComments(), strings, xssfp, this.useDataFormatter, false);
-		            sheetParser.setContentHandler(handler);
-		            sheetParser.parse(rawSheetInputSource);
+					final CommentsTable comments = iter.getSheetComments();
+					final XSSFEventParser xssfp;
+					final DataFormatter formatter;
+					if (this.hocr.getReadRawValues()) { // numbers are formatted later by the reading thread when requested
+						RawValueDataFormatter rawValueFormatter = new RawValueDataFormatter();
+						xssfp = new XSSFEventParser(sheetNumber,iter.getSheetName(), this.spreadSheetCellDAOCache, rawValueFormatter, this.useDataFormatter);
+						formatter = rawValueFormatter;
+					} else {
+						xssfp = new XSSFEventParser(sheetNumber,iter.getSheetName(), this.spreadSheetCellDAOCache);
+						// a DataFormatter is not thread-safe
+						formatter = threads>1?this.hocr.createDataFormatter():this.useDataFormatter;
+					}
+					sheetTasks.add(new Callable<Void>() {
+						@Override
+						public Void call() throws IOException, SAXException, ParserConfigurationException {
+							parseSheet(rawSheetInputStream, xssfp, styles, comments, strings, formatter);
+							return null;
+						}
+					});
 		            sheetNumber++;
 
 				}
 						}
+			this.sharedStrings=strings.getUniqueCount();
+			this.parseSheets(sheetTasks, threads);
+			this.updatePeakCachedRows();
 		} catch (InvalidFormatException | IOException e) {
 			LOG.error(e);
 			throw new FormatNotUnderstoodException("Error cannot parse new Excel file (.xlsx)");
@@ -361,6 +477,11 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 		} catch (ParserConfigurationException e) {
 			LOG.error(e);
 			throw new FormatNotUnderstoodException("Parsing Excel sheet in .xlsx format failed. Cannot read XML content");
+		}
+		// no row must be returned before the signature has been verified
+		if (signVerification!=null) {
+			signVerification.awaitVerification();
+			this.signatureVerificationTime=signVerification.getVerificationTime();
 		}
 		 // check skipping of additional lines
 		for (int i=0;i<this.hocr.getSkipLines();i++) {
@@ -404,6 +525,12 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 		throw new FormatNotUnderstoodException("Workbooks are not supported in low footprint mode");
 	}
 
+	@Override
+	public int addLinkedWorkbooks(Map<String, InputStream> linkedWorkbooks, Map<String, String> passwords)
+			throws FormatNotUnderstoodException {
+		throw new FormatNotUnderstoodException("Workbooks are not supported in low footprint mode");
+	}
+
 	@Override
 	public List<String> getLinkedWorkbooks() {
 		return new ArrayList<>();
@@ -450,7 +577,11 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 
 	@Override
 	public boolean getFiltered() {
-		return true;
+		return this.filtered;
+	}
+	
+	private boolean hasMetaDataFilter() {
+		return (this.hocr.getMetaDataFilter()!=null) && (this.hocr.getMetaDataFilter().size()>0);
 	}
 
 	@Override
@@ -461,6 +592,148 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 		
 	}
 	
+	/**
+	 * Decodes the sheets of a new Excel file (.xlsx). Each sheet is decoded into its own list of rows, so the order of the rows is the order of the sheets even if they are decoded in parallel.
+	 * 
+	 * @param sheetTasks one task per sheet decoding it
+	 * @param threads number of threads decoding sheets in parallel
+	 * @throws IOException
+	 * @throws SAXException
+	 * @throws ParserConfigurationException
+	 * @throws FormatNotUnderstoodException
+	 */
+	private void parseSheets(List<Callable<Void>> sheetTasks, int threads) throws IOException, SAXException, ParserConfigurationException, FormatNotUnderstoodException {
+		threads = Math.min(threads, sheetTasks.size());
+		if (threads<=1) {
+			for (Callable<Void> currentTask: sheetTasks) {
+				try {
+					currentTask.call();
+				} catch (IOException | SAXException | ParserConfigurationException e) {
+					throw e;
+				} catch (Exception e) {
+					LOG.error(e);
+					throw new FormatNotUnderstoodException("Error cannot parse new Excel file (.xlsx)");
+				}
+			}
+			return;
+		}
+		LOG.debug("Decoding "+sheetTasks.size()+" sheets with "+threads+" threads");
+		ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread result = new Thread(r, "hadoopoffice-sheet-parser-" + PARSER_THREAD_COUNTER.incrementAndGet());
+				result.setDaemon(true);
+				return result;
+			}
+		});
+		try {
+			List<Future<Void>> results = new ArrayList<>(sheetTasks.size());
+			for (Callable<Void> currentTask: sheetTasks) {
+				results.add(executor.submit(currentTask));
+			}
+			for (Future<Void> currentResult: results) {
+				currentResult.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FormatNotUnderstoodException("Interrupted while parsing new Excel file (.xlsx)");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof SAXException) {
+				throw (SAXException) cause;
+			} else if (cause instanceof ParserConfigurationException) {
+				throw (ParserConfigurationException) cause;
+			}
+			LOG.error(cause);
+			throw new FormatNotUnderstoodException("Error cannot parse new Excel file (.xlsx)");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Decodes one sheet of a new Excel file (.xlsx)
+	 * 
+	 * @param rawSheetInputStream XML content of the sheet
+	 * @param xssfp receives the rows of the sheet
+	 * @param styles styles of the document
+	 * @param comments comments of the sheet
+	 * @param strings shared strings of the document
+	 * @param formatter formats the cell values
+	 * @throws IOException
+	 * @throws SAXException
+	 * @throws ParserConfigurationException
+	 */
+	private static void parseSheet(InputStream rawSheetInputStream, final XSSFEventParser xssfp, StylesTable styles, CommentsTable comments, ReadOnlySharedStringsTable strings, DataFormatter formatter) throws IOException, SAXException, ParserConfigurationException {
+		try {
+			InputSource rawSheetInputSource = new InputSource(rawSheetInputStream);
+			XMLReader sheetParser = SAXHelper.newXMLReader();
+			ContentHandler handler = new XSSFSheetXMLHandler(
+					styles, comments, strings, xssfp, formatter, false);
+			if (xssfp.isRawValues()) {
+				// the handler does not provide the type of a cell, so it is taken from the XML
+				XMLFilterImpl cellTypeFilter = new XMLFilterImpl(sheetParser) {
+					@Override
+					public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+						if ("c".equals(localName)) {
+							xssfp.setRawCellType(atts.getValue("t"));
+						}
+						super.startElement(uri, localName, qName, atts);
+					}
+				};
+				cellTypeFilter.setContentHandler(handler);
+				cellTypeFilter.parse(rawSheetInputSource);
+			} else {
+				sheetParser.setContentHandler(handler);
+				sheetParser.parse(rawSheetInputSource);
+			}
+		} finally {
+			rawSheetInputStream.close();
+		}
+	}
+	
+	/**
+	 * Used instead of a DataFormatter by the XSSFSheetXMLHandler if raw values are read. It does not format numbers, but only keeps the raw value of the current cell
+	 *
+	 */
+	private static class RawValueDataFormatter extends DataFormatter {
+		private boolean hasValue;
+		private double value;
+		private int formatIndex;
+		private String formatString;
+		
+		@Override
+		public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+			this.hasValue=true;
+			this.value=value;
+			this.formatIndex=formatIndex;
+			this.formatString=formatString;
+			return null;
+		}
+		
+		public void reset() {
+			this.hasValue=false;
+		}
+		
+		public boolean hasValue() {
+			return this.hasValue;
+		}
+		
+		public double getValue() {
+			return this.value;
+		}
+		
+		public int getFormatIndex() {
+			return this.formatIndex;
+		}
+		
+		public String getFormatString() {
+			return this.formatString;
+		}
+	}
+	
 	/** Adapted from the Apache POI HowTos 
 	 * https://poi.apache.org/spreadsheet/how-to.html
 	 * 
@@ -474,6 +747,9 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 
 		private int currentRow;
 		private int currentColumn;
+		private RawValueDataFormatter rawValueFormatter;
+		private DataFormatter lazyFormatter;
+		private String rawCellType;
 		
 		public XSSFEventParser(Integer currentSheet,String sheetName, Map<Integer,List<SpreadSheetCellDAO[]>> spreadSheetCellDAOCache) {
 			this.currentSheet=currentSheet;
@@ -483,6 +759,34 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 			this.currentRow=-1;
 		}
 		
+		/**
+		 * Creates a parser for raw values
+		 * 
+		 * @param currentSheet number of the sheet
+		 * @param sheetName name of the sheet
+		 * @param spreadSheetCellDAOCache receives the rows
+		 * @param rawValueFormatter formatter used by the XSSFSheetXMLHandler, which collects the raw numeric values
+		 * @param lazyFormatter formatter for formatting the raw numeric values when requested
+		 */
+		public XSSFEventParser(Integer currentSheet,String sheetName, Map<Integer,List<SpreadSheetCellDAO[]>> spreadSheetCellDAOCache, RawValueDataFormatter rawValueFormatter, DataFormatter lazyFormatter) {
+			this(currentSheet,sheetName,spreadSheetCellDAOCache);
+			this.rawValueFormatter=rawValueFormatter;
+			this.lazyFormatter=lazyFormatter;
+		}
+		
+		public boolean isRawValues() {
+			return this.rawValueFormatter!=null;
+		}
+		
+		/**
+		 * 
+		 * @param rawCellType type of the next cell according to the XML (attribute t), null if not specified (numeric)
+		 */
+		public void setRawCellType(String rawCellType) {
+			this.rawCellType=rawCellType;
+			this.rawValueFormatter.reset();
+		}
+		
 		
 		@Override
 		public void startRow(int rowNum) {
@@ -523,9 +827,30 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 			} else {
 				currentDAO = new SpreadSheetCellDAO(formattedValue,"", "", cellReference,this.sheetName);
 			}
+			if (this.rawValueFormatter!=null) {
+				this.setRawValue(currentDAO, formattedValue);
+			}
 			this.currentColumn++;
 			this.spreadSheetCellDAOCurrentRow.add(currentDAO);
 		}
+		
+		private void setRawValue(SpreadSheetCellDAO currentDAO, String formattedValue) {
+			if (this.rawValueFormatter.hasValue()) { // number with format
+				currentDAO.setRawNumericValue(this.rawValueFormatter.getValue(), this.rawValueFormatter.getFormatIndex(), this.rawValueFormatter.getFormatString(), false, this.lazyFormatter);
+			} else if ("b".equals(this.rawCellType)) {
+				currentDAO.setRawBooleanValue("TRUE".equals(formattedValue));
+			} else if ("e".equals(this.rawCellType)) {
+				currentDAO.setRawType(SpreadSheetCellDAO.RAWTYPE_ERROR);
+			} else if (((this.rawCellType==null) || ("n".equals(this.rawCellType))) && (formattedValue!=null) && (!"".equals(formattedValue))) { // number without format
+				try {
+					currentDAO.setRawNumericValue(Double.parseDouble(formattedValue), 0, "General", false, null);
+				} catch (NumberFormatException e) {
+					currentDAO.setRawType(SpreadSheetCellDAO.RAWTYPE_STRING);
+				}
+			} else {
+				currentDAO.setRawType(SpreadSheetCellDAO.RAWTYPE_STRING);
+			}
+		}
 		@Override
 		public void headerFooter(String text, boolean isHeader, String tagName) {
 			// we do not care about header/footer
@@ -580,6 +905,20 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 			
 		}
 
+		/**
+		 * Returns the format string of a format index. Builtin formats (e.g. General) are not necessarily stored as format records in the file
+		 * 
+		 * @param formatIndex index of the format
+		 * @return format string
+		 */
+		private String getFormatString(int formatIndex) {
+			String formatString=this.formatRecordIndexMap.get(formatIndex);
+			if (formatString==null) {
+				formatString=BuiltinFormats.getBuiltinFormat(formatIndex);
+			}
+			return formatString;
+		}
+
 		@Override
 		public void processRecord(Record record) {
 			switch (record.getSid()) // one should note that these do not arrive necessary in linear order. First all the sheets are processed. Then all the rows of the sheets
@@ -671,8 +1010,15 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 	            		} else {
 
 	            			int formatIndex= this.extendedRecordFormatIndexList.get(formRec.getXFIndex());
-	            			String theNumber=this.useDataFormatter.formatRawCellContents(formRec.getValue(), formatIndex, this.formatRecordIndexMap.get(formatIndex));
-	            			this.spreadSheetCellDAOCache.get(this.currentSheet-1).get(formRec.getRow())[formRec.getColumn()]=new SpreadSheetCellDAO(theNumber,"",formulaString,MSExcelUtil.getCellAddressA1Format(formRec.getRow(), formRec.getColumn()),this.sheetList.get(this.currentSheet-1));          			
+	            			SpreadSheetCellDAO formulaDAO;
+	            			if (hocr.getReadRawValues()) { // formatted when requested
+	            				formulaDAO=new SpreadSheetCellDAO(null,"",formulaString,MSExcelUtil.getCellAddressA1Format(formRec.getRow(), formRec.getColumn()),this.sheetList.get(this.currentSheet-1));
+	            				formulaDAO.setRawNumericValue(formRec.getValue(), formatIndex, this.getFormatString(formatIndex), false, this.useDataFormatter);
+	            			} else {
+	            				String theNumber=this.useDataFormatter.formatRawCellContents(formRec.getValue(), formatIndex, this.getFormatString(formatIndex));
+	            				formulaDAO=new SpreadSheetCellDAO(theNumber,"",formulaString,MSExcelUtil.getCellAddressA1Format(formRec.getRow(), formRec.getColumn()),this.sheetList.get(this.currentSheet-1));
+	            			}
+	            			this.spreadSheetCellDAOCache.get(this.currentSheet-1).get(formRec.getRow())[formRec.getColumn()]=formulaDAO;          			
 	            		}
 	            	}
 	            	break;
@@ -684,7 +1030,11 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 	            		break;
 	            	}
 	            	/** **/
-	              this.spreadSheetCellDAOCache.get(this.currentSheet-1).get(this.cachedRowNum)[this.cachedColumnNum]=new SpreadSheetCellDAO(strRec.getString(),"","",MSExcelUtil.getCellAddressA1Format(this.cachedRowNum,this.cachedColumnNum),this.sheetList.get(this.currentSheet-1));          			
+	              SpreadSheetCellDAO stringDAO=new SpreadSheetCellDAO(strRec.getString(),"","",MSExcelUtil.getCellAddressA1Format(this.cachedRowNum,this.cachedColumnNum),this.sheetList.get(this.currentSheet-1));
+	              if (hocr.getReadRawValues()) {
+	            	  stringDAO.setRawType(SpreadSheetCellDAO.RAWTYPE_STRING);
+	              }
+	              this.spreadSheetCellDAOCache.get(this.currentSheet-1).get(this.cachedRowNum)[this.cachedColumnNum]=stringDAO;          			
 	    	        
 	            	
 	            	break;
@@ -705,8 +1055,14 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
             		} else {
             			// convert the number in the right format (can be date etc.)
             			int formatIndex= this.extendedRecordFormatIndexList.get(numrec.getXFIndex());
-            			String theNumber=this.useDataFormatter.formatRawCellContents(numrec.getValue(), formatIndex, this.formatRecordIndexMap.get(formatIndex));
-            			SpreadSheetCellDAO mySpreadSheetCellDAO =   new SpreadSheetCellDAO(theNumber,"","",MSExcelUtil.getCellAddressA1Format(numrec.getRow(),numrec.getColumn()),this.sheetList.get(this.currentSheet-1));
+            			SpreadSheetCellDAO mySpreadSheetCellDAO;
+            			if (hocr.getReadRawValues()) { // formatted when requested
+            				mySpreadSheetCellDAO = new SpreadSheetCellDAO(null,"","",MSExcelUtil.getCellAddressA1Format(numrec.getRow(),numrec.getColumn()),this.sheetList.get(this.currentSheet-1));
+            				mySpreadSheetCellDAO.setRawNumericValue(numrec.getValue(), formatIndex, this.getFormatString(formatIndex), false, this.useDataFormatter);
+            			} else {
+            				String theNumber=this.useDataFormatter.formatRawCellContents(numrec.getValue(), formatIndex, this.getFormatString(formatIndex));
+            				mySpreadSheetCellDAO =   new SpreadSheetCellDAO(theNumber,"","",MSExcelUtil.getCellAddressA1Format(numrec.getRow(),numrec.getColumn()),this.sheetList.get(this.currentSheet-1));
+            			}
    
             			this.spreadSheetCellDAOCache.get(this.currentSheet-1).get(numrec.getRow())[numrec.getColumn()]=mySpreadSheetCellDAO;          		
             		}
@@ -716,6 +1072,7 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 	            	LOG.debug("SST record found");
 	          
 	                this.currentSSTrecord=(SSTRecord) record;
+	                MSExcelLowFootprintParser.this.sharedStrings=this.currentSSTrecord.getNumUniqueStrings();
 	                break;
 	            case LabelSSTRecord.sid: // get the string out of unique string value table 
 	            	LOG.debug("Label found");
@@ -732,7 +1089,11 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
             			if ((lrec.getSSTIndex()<0) || (lrec.getSSTIndex()>=this.currentSSTrecord.getNumUniqueStrings())) {
             				LOG.error("Invalid SST record index. Cell ignored");
             			} else {
-            				   this.spreadSheetCellDAOCache.get(this.currentSheet-1).get(lrec.getRow())[lrec.getColumn()]=new SpreadSheetCellDAO(this.currentSSTrecord.getString(lrec.getSSTIndex()).getString(),"","",MSExcelUtil.getCellAddressA1Format(lrec.getRow(),lrec.getColumn()),this.sheetList.get(this.currentSheet-1));          		
+            				   SpreadSheetCellDAO labelDAO=new SpreadSheetCellDAO(this.currentSSTrecord.getString(lrec.getSSTIndex()).getString(),"","",MSExcelUtil.getCellAddressA1Format(lrec.getRow(),lrec.getColumn()),this.sheetList.get(this.currentSheet-1));
+            				   if (hocr.getReadRawValues()) {
+            					   labelDAO.setRawType(SpreadSheetCellDAO.RAWTYPE_STRING);
+            				   }
+            				   this.spreadSheetCellDAOCache.get(this.currentSheet-1).get(lrec.getRow())[lrec.getColumn()]=labelDAO;          		
             	            	
             				
             			}
@@ -802,5 +1163,50 @@ public class MSExcelLowFootprintParser implements OfficeReaderParserInterface  {
 	public String[] getHeader() {
 		return this.header;
 	}
+
+	/**
+	 * Returns the number of unique strings of the document and the maximum number of rows kept in memory. Formulas are never evaluated by the low footprint parser
+	 *
+	 * @return metrics of the parsed document
+	 */
+	@Override
+	public Map<String,Long> getMetrics() {
+		Map<String,Long> result = new LinkedHashMap<>();
+		result.put(OfficeMetrics.SHARED_STRINGS, this.sharedStrings);
+		result.put(OfficeMetrics.PEAK_CACHED_ROWS, this.peakCachedRows);
+		if (this.hocr.getVerifySignature()) {
+			result.put(OfficeMetrics.SIGNATURE_VERIFICATION_TIME, this.signatureVerificationTime);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the rows read so far relative to all rows of the selected sheets. All rows are decoded when the document is parsed, so the total number of rows is known before the first row is read
+	 *
+	 * @return progress between 0.0 and 1.0
+	 */
+	@Override
+	public float getProgress() {
+		if (this.totalRows==0) {
+			return 1.0f;
+		}
+		long remainingRows=0;
+		for (List<SpreadSheetCellDAO[]> currentSheetRows: this.spreadSheetCellDAOCache.values()) {
+			remainingRows+=currentSheetRows.size();
+		}
+		return Math.max(0.0f, 1.0f-remainingRows/(float)this.totalRows);
+	}
+
+	/**
+	 * All rows of the selected sheets are kept in memory after they have been decoded until they are read
+	 */
+	private void updatePeakCachedRows() {
+		long cachedRows=0;
+		for (List<SpreadSheetCellDAO[]> currentSheetRows: this.spreadSheetCellDAOCache.values()) {
+			cachedRows+=currentSheetRows.size();
+		}
+		this.peakCachedRows=Math.max(this.peakCachedRows, cachedRows);
+		this.totalRows=cachedRows;
+	}
 	
 }
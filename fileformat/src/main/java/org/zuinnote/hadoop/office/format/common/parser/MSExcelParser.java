@@ -18,52 +18,62 @@ package org.zuinnote.hadoop.office.format.common.parser;
 
 import java.io.InputStream;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
 
 
-import java.util.Date;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.poi.hssf.model.InternalWorkbook;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.crypto.Biff8EncryptionKey;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFCell;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellValue;
 import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.FormulaError;
 import org.apache.poi.ss.usermodel.FormulaEvaluator;
 import org.apache.poi.ss.usermodel.Comment;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory; 
 import org.apache.poi.xssf.model.ExternalLinksTable;
 import org.apache.poi.EncryptedDocumentException;
-import org.apache.poi.POIXMLProperties;
-import org.apache.poi.hpsf.SummaryInformation;
 
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.openxml4j.opc.OPCPackage;
-import org.apache.poi.poifs.crypt.dsig.SignatureConfig;
-import org.apache.poi.poifs.crypt.dsig.SignatureInfo;
-import org.apache.poi.poifs.crypt.dsig.SignatureInfo.SignaturePart;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.crypt.Decryptor;
+import org.apache.poi.poifs.filesystem.DocumentFactoryHelper;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
 import org.apache.commons.logging.LogFactory;
 import org.apache.commons.logging.Log;
 
 import java.lang.reflect.Method;
-import java.security.InvalidAlgorithmParameterException;
-import java.security.NoSuchAlgorithmException;
-import java.security.NoSuchProviderException;
-import java.security.cert.CertificateException;
-import java.security.cert.X509Certificate;
 import java.lang.reflect.InvocationTargetException;
 
 import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.OfficeMetrics;
+import org.zuinnote.hadoop.office.format.common.StagedFileInputStream;
 import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
-import org.zuinnote.hadoop.office.format.common.util.CertificateChainVerificationUtil;
+import org.zuinnote.hadoop.office.format.common.util.LinkedWorkbookCache;
+import org.zuinnote.hadoop.office.format.common.util.MSExcelMetadataUtil;
+import org.zuinnote.hadoop.office.format.common.util.MSExcelOOXMLSignVerificationUtil;
 
 /*
 *
@@ -73,12 +83,12 @@ import org.zuinnote.hadoop.office.format.common.util.CertificateChainVerificatio
 
 public class MSExcelParser implements OfficeReaderParserInterface {
 private static final String MIMETYPE_EXCEL_BINARY_ID = "ms-excel.sheet.binary"; // application/vnd.ms-excel.sheet.binary.macroEnabled.12
-private static final String MATCH_ALL = "matchAll";
-private static final String NOT_MATCHING = "Not matching: ";
 private static final String COULD_NOT_RETRIEVE_LINKED_WORKBOOKS_FOR_OLD_EXCEL_FORMAT = "Could not retrieve linked workbooks for old Excel format.";
 private static final Log LOG = LogFactory.getLog(MSExcelParser.class.getName());
 public static final String DATE_FORMAT = "hh:mm:ss dd.MM.yyyy";
 public static final int MAX_LINKEDWB_OLDEXCEL=100;
+private static final AtomicInteger LINKEDWB_THREAD_COUNTER = new AtomicInteger();
+private static final FormulaEvaluator CACHED_VALUE_EVALUATOR = new CachedValueFormulaEvaluator();
 private FormulaEvaluator formulaEvaluator;
 private InputStream in;
 private DataFormatter useDataFormatter=null;
@@ -89,9 +99,18 @@ private int sheetsIndex=0; // current index of sheets, if specified
 private int currentRow=0;
 private String currentSheetName="";
 private HashMap<String,FormulaEvaluator> addedFormulaEvaluators;
-private ArrayList<Workbook> addedWorkbooks;
+private ArrayList<LinkedWorkbookCache.Entry> addedLinkedWorkbooks;
 
 private boolean filtered=false;
+private boolean date1904=false;
+private String formulaEvaluation;
+private long formulaEvaluationCount;
+private long formulaEvaluationTime;
+private long signatureVerificationTime;
+private long[] sheetRowOffsets;
+private SpreadSheetCellDAO[][] reusableRows;
+private SpreadSheetCellDAO[] reusableCells;
+private boolean formulaEvaluationLimitReached;
 private HadoopOfficeReadConfiguration hocr;
 private String[] header;
 private int currentSkipLine=0;
@@ -104,7 +123,7 @@ private int currentSkipLine=0;
 	* ignoreMissingLinkedWorkbooks ignore missing linked Workbooks
 	* password Password of this document (null if no password)
 	* metadataFilter filter on metadata. The name is the metadata attribute name and the property is a filter which contains a regular expression. Currently the following are supported for .xlsx documents: category,contentstatus, contenttype,created,creator,description,identifier,keywords,lastmodifiedbyuser,lastprinted,modified,revision,subject,title. Additionally all custom.* are defined as custom properties. Example custom.myproperty. Finally, matchAll can be set to true (all metadata needs to be matched), or false (at least one of the metadata item needs to match).
- Currently the following are supported for .xls documents: applicationname,author,charcount, comments, createdatetime,edittime,keywords,lastauthor,lastprinted,lastsavedatetime,pagecount,revnumber,security,subject,template,title,wordcount. Finally, matchAll can be set to true (all metadata needs to be matched), or false (at least one of the metadata item needs to match).
+ Currently the following are supported for .xls documents: applicationname,author,charcount, comments, createdatetime,edittime,keywords,lastauthor,lastprinted,lastsavedatetime,pagecount,revnumber,security,subject,template,title,wordcount. Additionally all custom.* are defined as custom properties. Finally, matchAll can be set to true (all metadata needs to be matched), or false (at least one of the metadata item needs to match).
 	*
 	*/
 
@@ -123,21 +142,19 @@ private int currentSkipLine=0;
 	* ignoreMissingLinkedWorkbooks ignore missing linked Workbooks
 	* password Password of this document (null if no password)
 	* metadataFilter filter on metadata. The name is the metadata attribute name and the property is a filter which contains a regular expression. Currently the following are supported for .xlsx documents: category,contentstatus, contenttype,created,creator,description,identifier,keywords,lastmodifiedbyuser,lastprinted,modified,revision,subject,title. Additionally all custom.* are defined as custom properties. Example custom.myproperty. Finally, matchAll can be set to true (all metadata needs to be matched), or false (at least one of the metadata item needs to match).
- Currently the following are supported for .xls documents: applicationname,author,charcount, comments, createdatetime,edittime,keywords,lastauthor,lastprinted,lastsavedatetime,pagecount,revnumber,security,subject,template,title,wordcount. Finally, matchAll can be set to true (all metadata needs to be matched), or false (at least one of the metadata item needs to match).
+ Currently the following are supported for .xls documents: applicationname,author,charcount, comments, createdatetime,edittime,keywords,lastauthor,lastprinted,lastsavedatetime,pagecount,revnumber,security,subject,template,title,wordcount. Additionally all custom.* are defined as custom properties. Finally, matchAll can be set to true (all metadata needs to be matched), or false (at least one of the metadata item needs to match).
 	* @param sheets selecrted sheets
 	*
 	*/
 	public MSExcelParser(HadoopOfficeReadConfiguration hocr, String[] sheets) {
 		this.sheets=sheets;
 		this.hocr=hocr;
-		if (hocr.getLocale()==null)  {
-			useDataFormatter=new DataFormatter(); // use default locale
-		} else {
-			useDataFormatter=new DataFormatter(hocr.getLocale());
-		}
+		useDataFormatter=hocr.getDataFormatter(); // shared by all documents read with this configuration
 		
 		this.addedFormulaEvaluators = new HashMap<>();
-		this.addedWorkbooks = new ArrayList<>();
+		this.addedLinkedWorkbooks = new ArrayList<>();
+		this.reusableRows = new SpreadSheetCellDAO[0][];
+		this.reusableCells = new SpreadSheetCellDAO[0];
 	}
 
 	/*
@@ -155,7 +172,7 @@ private int currentSkipLine=0;
 		// read xls
 	
 			try {
-				this.currentWorkbook=WorkbookFactory.create(in,this.hocr.getPassword());
+				this.currentWorkbook=this.openWorkbook(in);
 			} catch (EncryptedDocumentException | InvalidFormatException | IOException e) {
 				LOG.error(e);
 				throw new FormatNotUnderstoodException(e.toString());
@@ -169,51 +186,33 @@ private int currentSkipLine=0;
 					}
 				}
 			}
-			// check if signature should be verified
+			if (this.currentWorkbook==null) { // document does not match metadata filter, no need to load sheets
+				LOG.info("Document \""+this.hocr.getFileName()+"\" does not match metadata filter");
+				this.header=new String[0];
+				return;
+			}
+			// check if signature should be verified. The workbook is already loaded completely, so the signature parts are only validated while the formula evaluation is prepared and the header is read
+			MSExcelOOXMLSignVerificationUtil signVerification = null;
 			if (this.hocr.getVerifySignature()) {
-				LOG.info("Verifying signature of document");
 				if (!(this.currentWorkbook instanceof XSSFWorkbook)) {
 					throw new FormatNotUnderstoodException("Can only verify signatures for files using the OOXML (.xlsx) format");
-				} else {
-					//
-					OPCPackage pgk = ((XSSFWorkbook)this.currentWorkbook).getPackage();
-					SignatureConfig sic = new SignatureConfig();
-					sic.setOpcPackage(pgk);
-					SignatureInfo si = new SignatureInfo();
-					si.setSignatureConfig(sic);
-					if (!si.verifySignature()) {
-						throw new FormatNotUnderstoodException("Cannot verify signature of OOXML (.xlsx) file: "+this.hocr.getFileName());
-					} else {
-						LOG.info("Successfully verifed first part signature of OXXML (.xlsx) file: "+this.hocr.getFileName());
-					}
-					 Iterator<SignaturePart> spIter = si.getSignatureParts().iterator();
-					 while (spIter.hasNext()) {
-						 SignaturePart currentSP = spIter.next();
-						 if (!(currentSP.validate())) {
-							 throw new FormatNotUnderstoodException("Could not validate all signature parts for file: "+this.hocr.getFileName());
-						 } else {
-							 X509Certificate currentCertificate = currentSP.getSigner();
-							 try {
-								if ((this.hocr.getX509CertificateChain().size()>0) && (!CertificateChainVerificationUtil.verifyCertificateChain(currentCertificate, this.hocr.getX509CertificateChain()))) {
-									 throw new FormatNotUnderstoodException("Could not validate signature part for principal \""+currentCertificate.getSubjectX500Principal().getName()+"\" : "+this.hocr.getFileName());
-								 }
-							} catch (CertificateException | NoSuchAlgorithmException | NoSuchProviderException
-									| InvalidAlgorithmParameterException e) {
-								LOG.error("Could not validate signature part for principal \""+currentCertificate.getSubjectX500Principal().getName()+"\" : "+this.hocr.getFileName(), e);
-								 throw new FormatNotUnderstoodException("Could not validate signature part for principal \""+currentCertificate.getSubjectX500Principal().getName()+"\" : "+this.hocr.getFileName());
-									
-							}
-						 }
-					 }
-					 LOG.info("Successfully verifed all signatures of OXXML (.xlsx) file: "+this.hocr.getFileName());
 				}
+				signVerification = new MSExcelOOXMLSignVerificationUtil(this.hocr);
+				signVerification.startVerification(((XSSFWorkbook)this.currentWorkbook).getPackage());
 			}
+		// dates of raw values
+		 if (this.currentWorkbook instanceof XSSFWorkbook) {
+			 this.date1904=((XSSFWorkbook)this.currentWorkbook).isDate1904();
+		 } else if (this.currentWorkbook instanceof HSSFWorkbook) {
+			 this.date1904=((HSSFWorkbook)this.currentWorkbook).getInternalWorkbook().isUsing1904DateWindowing();
+		 }
 		// formulaEvaluator
 		 this.formulaEvaluator = this.currentWorkbook.getCreationHelper().createFormulaEvaluator();
 		  // add the formulator evaluator of this file as well or we will see a strange Exception
 		 this.addedFormulaEvaluators.put(this.hocr.getFileName(),this.formulaEvaluator);
 		 this.formulaEvaluator.setIgnoreMissingWorkbooks(this.hocr.getIgnoreMissingLinkedWorkbooks());
-		 this.filtered=this.checkFiltered();
+		 this.initFormulaEvaluation();
+		 this.initSheetRowOffsets();
 		 this.currentRow=0;
 		 if (this.sheets==null) {
 			this.currentSheetName=this.currentWorkbook.getSheetAt(0).getSheetName();
@@ -237,10 +236,81 @@ private int currentSkipLine=0;
 				 this.header=new String[0];
 			 }
 		 }
-
+		 // no row must be returned before the signature has been verified
+		 if (signVerification!=null) {
+			 signVerification.awaitVerification();
+			 this.signatureVerificationTime=signVerification.getVerificationTime();
+		 }
 	
 	}
 
+	/**
+	* Opens the workbook similarly to WorkbookFactory, but evaluates the metadata filter on the document properties before any sheet is loaded
+	*
+	* @param in InputStream containing Excel data
+	*
+	* @return workbook, or null if the document does not match the metadata filter
+	*
+	*/
+	private Workbook openWorkbook(InputStream in) throws IOException, InvalidFormatException, FormatNotUnderstoodException {
+		this.filtered=true;
+		InputStream nin = FileMagic.prepareToCheckMagic(in);
+		FileMagic fm = FileMagic.valueOf(nin);
+		if (fm==FileMagic.OLE2) {
+			NPOIFSFileSystem poifs;
+			if (in instanceof StagedFileInputStream) { // random access to the blocks of the local file
+				poifs = new NPOIFSFileSystem(((StagedFileInputStream)in).getFile(), true);
+			} else {
+				poifs = new NPOIFSFileSystem(nin);
+			}
+			if (poifs.getRoot().hasEntry(Decryptor.DEFAULT_POIFS_ENTRY)) { // encrypted new Excel file
+				InputStream decryptedIn = DocumentFactoryHelper.getDecryptedStream(poifs, this.hocr.getPassword());
+				return this.openOOXMLWorkbook(OPCPackage.open(decryptedIn));
+			}
+			if (this.hasMetaDataFilter()) {
+				this.filtered=MSExcelMetadataUtil.matchesMetaDataFilter(MSExcelMetadataUtil.getMetadata(poifs.getRoot()), this.hocr);
+				if (!this.filtered) {
+					poifs.close();
+					return null;
+				}
+			}
+			if (this.hocr.getPassword()!=null) {
+				Biff8EncryptionKey.setCurrentUserPassword(this.hocr.getPassword());
+			}
+			try {
+				return new HSSFWorkbook(poifs.getRoot(), true);
+			} finally {
+				Biff8EncryptionKey.setCurrentUserPassword(null);
+			}
+		} else if (fm==FileMagic.OOXML) {
+			if (in instanceof StagedFileInputStream) { // random access to the zip entries of the local file
+				return this.openOOXMLWorkbook(OPCPackage.open(((StagedFileInputStream)in).getFile(), PackageAccess.READ));
+			}
+			return this.openOOXMLWorkbook(OPCPackage.open(nin));
+		}
+		throw new InvalidFormatException("Your InputStream was neither an OLE2 stream, nor an OOXML stream");
+	}
+
+	private Workbook openOOXMLWorkbook(OPCPackage pkg) throws IOException, FormatNotUnderstoodException {
+		if (this.hasMetaDataFilter()) {
+			try {
+				this.filtered=MSExcelMetadataUtil.matchesMetaDataFilter(MSExcelMetadataUtil.getMetadata(pkg), this.hocr);
+			} finally {
+				if (!this.filtered) {
+					pkg.revert();
+				}
+			}
+			if (!this.filtered) {
+				return null;
+			}
+		}
+		return new XSSFWorkbook(pkg);
+	}
+
+	private boolean hasMetaDataFilter() {
+		return (this.hocr.getMetaDataFilter()!=null) && (this.hocr.getMetaDataFilter().size()>0);
+	}
+
 	/**
 	* Adds a linked workbook that is referred from this workbook. If the filename is already in the list then it is not processed twice. Note that the inputStream is closed after parsing
 	*
@@ -259,6 +329,194 @@ private int currentSkipLine=0;
 		if (this.addedFormulaEvaluators.containsKey(name)) {
 			return false;
 		}
+		LinkedWorkbookCache.Entry linkedWorkbook = this.acquireCachedLinkedWorkbook(name, inputStream, password);
+		if (linkedWorkbook==null) {
+			linkedWorkbook = this.parseLinkedWorkbook(name, inputStream, password);
+		}
+		// add linked workbook
+		this.addedLinkedWorkbooks.add(linkedWorkbook);
+		this.addedFormulaEvaluators.put(name,linkedWorkbook.getFormulaEvaluator());
+		this.formulaEvaluator.setupReferencedWorkbooks(addedFormulaEvaluators);
+	
+		return true;
+	}
+
+	/**
+	* Adds several linked workbooks that are referred from this workbook. Linked workbooks that are not cached (see hadoopoffice.read.linkedworkbooks.cache.maxcount) are parsed concurrently by a bounded number of threads (hadoopoffice.read.linkedworkbooks.threads) and their formula evaluators are registered once all of them have been parsed. Workbooks that have already been added are not processed twice. Note that the inputStreams are closed after parsing
+	*
+	* @param linkedWorkbooks fileName (without path) and content of the linked workbooks
+	* @param passwords fileName (without path) and password of encrypted linked workbooks
+	*
+	* @return number of added workbooks
+	*
+	* @throws org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException in case there are issues reading from one of the Excel files or the thread is interrupted. None of the linked workbooks has been added then
+	*
+	**/
+	@Override
+	public int addLinkedWorkbooks(Map<String,InputStream> linkedWorkbooks, final Map<String,String> passwords) throws FormatNotUnderstoodException {
+		final List<String> names = new ArrayList<>();
+		for (String name: linkedWorkbooks.keySet()) {
+			if (!this.addedFormulaEvaluators.containsKey(name)) {
+				names.add(name);
+			}
+		}
+		LinkedWorkbookCache.Entry[] linkedWBEntries = new LinkedWorkbookCache.Entry[names.size()];
+		final List<Integer> parseIndexes = new ArrayList<>();
+		for (int i=0;i<names.size();i++) {
+			String name = names.get(i);
+			linkedWBEntries[i]=this.acquireCachedLinkedWorkbook(name, linkedWorkbooks.get(name), passwords.get(name));
+			if (linkedWBEntries[i]==null) {
+				parseIndexes.add(i);
+			}
+		}
+		FormatNotUnderstoodException firstError = null;
+		int threads = Math.min(this.hocr.getLinkedWorkbookThreads(), parseIndexes.size());
+		if (threads<=1) {
+			for (int i: parseIndexes) {
+				String name = names.get(i);
+				try {
+					linkedWBEntries[i]=this.parseLinkedWorkbook(name, linkedWorkbooks.get(name), passwords.get(name));
+				} catch (FormatNotUnderstoodException e) {
+					LOG.error("Could not read linked workbook \""+name+"\"",e);
+					if (firstError==null) {
+						firstError=e;
+					}
+				}
+			}
+		} else {
+			LOG.debug("Parsing "+parseIndexes.size()+" linked workbooks with "+threads+" threads");
+			ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread result = new Thread(r, "hadoopoffice-linkedworkbook-" + LINKEDWB_THREAD_COUNTER.incrementAndGet());
+					result.setDaemon(true);
+					return result;
+				}
+			});
+			List<Future<LinkedWorkbookCache.Entry>> parseResults = new ArrayList<>(parseIndexes.size());
+			int collected=0;
+			try {
+				for (int i: parseIndexes) {
+					final String name = names.get(i);
+					final InputStream inputStream = linkedWorkbooks.get(name);
+					parseResults.add(executor.submit(new Callable<LinkedWorkbookCache.Entry>() {
+						@Override
+						public LinkedWorkbookCache.Entry call() throws FormatNotUnderstoodException {
+							return parseLinkedWorkbook(name, inputStream, passwords.get(name));
+						}
+					}));
+				}
+				for (;collected<parseIndexes.size();collected++) {
+					int i=parseIndexes.get(collected);
+					try {
+						linkedWBEntries[i]=parseResults.get(collected).get();
+					} catch (ExecutionException e) {
+						LOG.error("Could not read linked workbook \""+names.get(i)+"\"",e.getCause());
+						if (firstError==null) {
+							firstError = (e.getCause() instanceof FormatNotUnderstoodException)?(FormatNotUnderstoodException)e.getCause():new FormatNotUnderstoodException("Could not read linked workbook \""+names.get(i)+"\": "+e.getCause());
+						}
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				// workbooks that are still parsed are not needed anymore, workbooks that have already been parsed are given back
+				for (int j=collected;j<parseResults.size();j++) {
+					Future<LinkedWorkbookCache.Entry> pendingResult=parseResults.get(j);
+					if ((!pendingResult.cancel(true)) && (!pendingResult.isCancelled())) {
+						linkedWBEntries[parseIndexes.get(j)]=getParsedLinkedWorkbook(pendingResult);
+					}
+				}
+				this.releaseLinkedWorkbooks(linkedWBEntries);
+				throw new FormatNotUnderstoodException("Interrupted while reading linked workbooks of file: "+this.hocr.getFileName());
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+		if (firstError!=null) {
+			this.releaseLinkedWorkbooks(linkedWBEntries);
+			throw firstError;
+		}
+		// register all linked workbooks at once
+		int added=0;
+		for (int i=0;i<names.size();i++) {
+			if (linkedWBEntries[i]!=null) {
+				this.addedLinkedWorkbooks.add(linkedWBEntries[i]);
+				this.addedFormulaEvaluators.put(names.get(i),linkedWBEntries[i].getFormulaEvaluator());
+				added++;
+			}
+		}
+		if (added>0) {
+			this.formulaEvaluator.setupReferencedWorkbooks(addedFormulaEvaluators);
+		}
+		return added;
+	}
+
+	/**
+	 * Gives back linked workbooks that are not added to this workbook, e.g. because another linked workbook could not be read
+	 * 
+	 * @param linkedWBEntries linked workbooks, entries may be null
+	 */
+	private void releaseLinkedWorkbooks(LinkedWorkbookCache.Entry[] linkedWBEntries) {
+		for (int i=0;i<linkedWBEntries.length;i++) {
+			if (linkedWBEntries[i]!=null) {
+				LinkedWorkbookCache.release(linkedWBEntries[i], this.hocr.getLinkedWorkbookCacheMaxCount(), this.hocr.getLinkedWorkbookCacheMaxSize());
+				linkedWBEntries[i]=null;
+			}
+		}
+	}
+
+	/**
+	 * Returns the result of a linked workbook that has already been parsed
+	 * 
+	 * @param parseResult completed parsing of a linked workbook
+	 * @return parsed linked workbook or null if it could not be parsed
+	 */
+	private static LinkedWorkbookCache.Entry getParsedLinkedWorkbook(Future<LinkedWorkbookCache.Entry> parseResult) {
+		try {
+			// the result is available, so that it is returned even if the thread is interrupted
+			return parseResult.get();
+		} catch (ExecutionException e) {
+			LOG.debug("Linked workbook could not be parsed",e.getCause());
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	/**
+	 * Takes a linked workbook out of the JVM-wide cache of parsed linked workbooks. The content of the linked workbook is not needed then and the inputStream is closed
+	 * 
+	 * @param name fileName (without path) of the workbook
+	 * @param inputStream content of the linked workbook
+	 * @param password if document is encrypted, null if not encrypted
+	 * @return cached linked workbook or null if it is not cached
+	 */
+	private LinkedWorkbookCache.Entry acquireCachedLinkedWorkbook(String name, InputStream inputStream, String password) {
+		if (this.hocr.getLinkedWorkbookCacheMaxCount()<=0) {
+			return null;
+		}
+		LinkedWorkbookCache.Entry result = LinkedWorkbookCache.acquire(this.hocr.getLinkedWorkbookVersions().get(name), password);
+		if (result!=null) {
+			try {
+				inputStream.close();
+			} catch (IOException e) {
+				LOG.error("Could not close linked workbook \""+name+"\"",e);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Parses a linked workbook. It does not modify this parser and can be called concurrently
+	 * 
+	 * @param name fileName (without path) of the workbook
+	 * @param inputStream content of the linked workbook
+	 * @param password if document is encrypted, null if not encrypted
+	 * @return parsed linked workbook, which can be cached when it is not used anymore
+	 * @throws FormatNotUnderstoodException in case there are issues reading from the Excel file
+	 */
+	private LinkedWorkbookCache.Entry parseLinkedWorkbook(String name, InputStream inputStream, String password) throws FormatNotUnderstoodException {
 		LOG.debug("Start adding  \""+name+"\" to current workbook");
 		// create new parser, select all sheets, no linkedworkbookpasswords,no metadatafilter
 		HadoopOfficeReadConfiguration linkedWBHOCR = new HadoopOfficeReadConfiguration();
@@ -270,15 +528,8 @@ private int currentSkipLine=0;
 		linkedWBHOCR.setMetaDataFilter(null);
 		MSExcelParser linkedWBMSExcelParser = new MSExcelParser(linkedWBHOCR,null);
 		// parse workbook 
-	
-			linkedWBMSExcelParser.parse(inputStream);
-		
-		// add linked workbook
-		this.addedWorkbooks.add(linkedWBMSExcelParser.getCurrentWorkbook());
-		this.addedFormulaEvaluators.put(name,linkedWBMSExcelParser.getCurrentFormulaEvaluator());
-		this.formulaEvaluator.setupReferencedWorkbooks(addedFormulaEvaluators);
-	
-		return true;
+		linkedWBMSExcelParser.parse(inputStream);
+		return new LinkedWorkbookCache.Entry(this.hocr.getLinkedWorkbookVersions().get(name), password, linkedWBMSExcelParser.getCurrentWorkbook(), linkedWBMSExcelParser.getCurrentFormulaEvaluator());
 	}
 
 	/**
@@ -298,7 +549,7 @@ private int currentSkipLine=0;
 			for (ExternalLinksTable element: ((XSSFWorkbook)this.currentWorkbook).getExternalLinksTable()) {
 				result.add(element.getLinkedFileName());
 			}
-		} else {
+		} else if (this.currentWorkbook!=null) {
 			LOG.warn("Cannot determine linked workbooks");
 		}
 		return result;
@@ -413,6 +664,9 @@ private int currentSkipLine=0;
 	public Object[] getNext() {
 	
 		SpreadSheetCellDAO[] result=null;
+		if (this.currentWorkbook==null) { // document filtered out
+			return result;
+		}
 		// all sheets?
 		if (this.sheets==null) { //  go on with all sheets
 			if (!nextAllSheets()) {
@@ -428,15 +682,14 @@ private int currentSkipLine=0;
 		Row rRow = rSheet.getRow(this.currentRow);
 		if (rRow==null) {
 			this.currentRow++;
-			return new SpreadSheetCellDAO[0]; // emtpy row
+			return this.createRow(0); // emtpy row
 		}
-		result = new SpreadSheetCellDAO[rRow.getLastCellNum()];
+		result = this.createRow(rRow.getLastCellNum());
 		for (int i=0;i<rRow.getLastCellNum();i++) {
 			Cell currentCell=rRow.getCell(i);
 			if (currentCell==null) {
 				result[i]=null;
 			} else {	
-				String formattedValue=useDataFormatter.formatCellValue(currentCell,this.formulaEvaluator);
 				String formula = "";
 				if (currentCell.getCellTypeEnum()==CellType.FORMULA)  {
 					formula = currentCell.getCellFormula();
@@ -448,7 +701,17 @@ private int currentSkipLine=0;
 				}
 				String address = currentCell.getAddress().toString();
 				String sheetName = currentCell.getSheet().getSheetName();
-				SpreadSheetCellDAO mySpreadSheetCellDAO = new SpreadSheetCellDAO(formattedValue,comment,formula,address,sheetName);
+				SpreadSheetCellDAO mySpreadSheetCellDAO;
+				if (this.hocr.getReadRawValues()) {
+					mySpreadSheetCellDAO = this.getRawCell(i,currentCell,comment,formula,address,sheetName);
+				} else {
+					if (currentCell.getCellTypeEnum()==CellType.FORMULA) {
+						this.evaluateFormulaCell(currentCell);
+					}
+					// the result of the formula is already stored in the cell
+					String formattedValue=useDataFormatter.formatCellValue(currentCell,MSExcelParser.CACHED_VALUE_EVALUATOR);
+					mySpreadSheetCellDAO = this.createCell(i,formattedValue,comment,formula,address,sheetName);
+				}
 				
 				result[i]=mySpreadSheetCellDAO;
 			}
@@ -459,6 +722,167 @@ private int currentSkipLine=0;
 		return result;
 	}
 	
+	/**
+	 * Creates a cell containing the raw value. Numeric values are formatted when the formatted value is requested
+	 * 
+	 * @param column column of the cell in the row
+	 * @param currentCell cell
+	 * @param comment comment of the cell
+	 * @param formula formula of the cell
+	 * @param address address of the cell
+	 * @param sheetName name of the sheet
+	 * @return cell with raw value
+	 */
+	private SpreadSheetCellDAO getRawCell(int column, Cell currentCell, String comment, String formula, String address, String sheetName) {
+		CellType cellType = currentCell.getCellTypeEnum();
+		if (cellType==CellType.FORMULA) { // same as the DataFormatter: use the result of the formula
+			cellType = this.evaluateFormulaCell(currentCell);
+		}
+		SpreadSheetCellDAO result;
+		switch (cellType) {
+			case NUMERIC:
+				result = this.createCell(column,null,comment,formula,address,sheetName);
+				result.setRawNumericValue(currentCell.getNumericCellValue(), currentCell.getCellStyle().getDataFormat(), currentCell.getCellStyle().getDataFormatString(), this.date1904, this.useDataFormatter);
+				break;
+			case STRING:
+				result = this.createCell(column,currentCell.getRichStringCellValue().getString(),comment,formula,address,sheetName);
+				result.setRawType(SpreadSheetCellDAO.RAWTYPE_STRING);
+				break;
+			case BOOLEAN:
+				result = this.createCell(column,currentCell.getBooleanCellValue()?"TRUE":"FALSE",comment,formula,address,sheetName);
+				result.setRawBooleanValue(currentCell.getBooleanCellValue());
+				break;
+			case ERROR:
+				result = this.createCell(column,FormulaError.forInt(currentCell.getErrorCellValue()).getString(),comment,formula,address,sheetName);
+				result.setRawType(SpreadSheetCellDAO.RAWTYPE_ERROR);
+				break;
+			default:
+				result = this.createCell(column,"",comment,formula,address,sheetName);
+				result.setRawType(SpreadSheetCellDAO.RAWTYPE_BLANK);
+		}
+		return result;
+	}
+	
+	/**
+	 * Returns an array for the cells of a row. If rows are reused then the same array is returned for all rows with the same number of columns
+	 * 
+	 * @param columns number of columns of the row
+	 * @return array for the cells
+	 */
+	private SpreadSheetCellDAO[] createRow(int columns) {
+		if (!this.hocr.getReuseRows()) {
+			return new SpreadSheetCellDAO[columns];
+		}
+		if (columns>=this.reusableRows.length) {
+			this.reusableRows=Arrays.copyOf(this.reusableRows, columns+1);
+		}
+		SpreadSheetCellDAO[] result=this.reusableRows[columns];
+		if (result==null) {
+			result=new SpreadSheetCellDAO[columns];
+			this.reusableRows[columns]=result;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a cell with the given content. If rows are reused then the same object is returned for all cells of a column
+	 * 
+	 * @param column column of the cell in the row
+	 * @param formattedValue formatted value
+	 * @param comment comment of the cell
+	 * @param formula formula of the cell
+	 * @param address address of the cell
+	 * @param sheetName name of the sheet
+	 * @return cell
+	 */
+	private SpreadSheetCellDAO createCell(int column, String formattedValue, String comment, String formula, String address, String sheetName) {
+		if (!this.hocr.getReuseRows()) {
+			return new SpreadSheetCellDAO(formattedValue,comment,formula,address,sheetName);
+		}
+		if (column>=this.reusableCells.length) {
+			this.reusableCells=Arrays.copyOf(this.reusableCells, Math.max(column+1, this.reusableCells.length*2));
+		}
+		SpreadSheetCellDAO result=this.reusableCells[column];
+		if (result==null) {
+			result=new SpreadSheetCellDAO();
+			this.reusableCells[column]=result;
+		}
+		result.set(formattedValue,comment,formula,address,sheetName);
+		return result;
+	}
+
+	/**
+	 * Reads the policy for evaluating formulas and resets the limits for the current workbook
+	 */
+	private void initFormulaEvaluation() {
+		this.formulaEvaluation=this.hocr.getFormulaEvaluation();
+		if (!(HadoopOfficeReadConfiguration.FORMULAEVALUATION_ALWAYS.equalsIgnoreCase(this.formulaEvaluation)||HadoopOfficeReadConfiguration.FORMULAEVALUATION_MISSING.equalsIgnoreCase(this.formulaEvaluation)||HadoopOfficeReadConfiguration.FORMULAEVALUATION_CACHED.equalsIgnoreCase(this.formulaEvaluation))) {
+			LOG.warn("Unknown option for evaluating formulas \""+this.formulaEvaluation+"\". Evaluating all formulas");
+			this.formulaEvaluation=HadoopOfficeReadConfiguration.FORMULAEVALUATION_ALWAYS;
+		}
+		this.formulaEvaluationCount=0;
+		this.formulaEvaluationTime=0;
+		this.formulaEvaluationLimitReached=false;
+	}
+	
+	/**
+	 * Determines the result of a formula cell. Depending on the configuration the formula is evaluated or the value cached in the document is used. 
+	 * Evaluated formulas share the evaluation cache of the formula evaluator of the workbook, ie cells referenced by several formulas are evaluated only once.
+	 * 
+	 * @param currentCell formula cell
+	 * @return type of the result of the formula. The result itself is stored in the cell
+	 */
+	private CellType evaluateFormulaCell(Cell currentCell) {
+		if (!this.isFormulaEvaluated(currentCell)) {
+			return currentCell.getCachedFormulaResultTypeEnum();
+		}
+		long start=System.nanoTime();
+		CellType result=this.formulaEvaluator.evaluateFormulaCellEnum(currentCell);
+		this.formulaEvaluationTime+=System.nanoTime()-start;
+		this.formulaEvaluationCount++;
+		return result;
+	}
+	
+	/**
+	 * Checks if a formula should be evaluated
+	 * 
+	 * @param currentCell formula cell
+	 * @return true, if the formula should be evaluated, false if its cached value should be used
+	 */
+	private boolean isFormulaEvaluated(Cell currentCell) {
+		if (HadoopOfficeReadConfiguration.FORMULAEVALUATION_CACHED.equalsIgnoreCase(this.formulaEvaluation)) {
+			return false;
+		}
+		if ((HadoopOfficeReadConfiguration.FORMULAEVALUATION_MISSING.equalsIgnoreCase(this.formulaEvaluation)) && (hasCachedFormulaResult(currentCell))) {
+			return false;
+		}
+		if (this.formulaEvaluationLimitReached) {
+			return false;
+		}
+		long maxCount=this.hocr.getFormulaEvaluationMaxCount();
+		long maxTime=this.hocr.getFormulaEvaluationMaxTime();
+		if (((maxCount>0) && (this.formulaEvaluationCount>=maxCount)) || ((maxTime>0) && (this.formulaEvaluationTime>=maxTime*1000000L))) {
+			LOG.warn("Limit for evaluating formulas reached after "+this.formulaEvaluationCount+" formulas in "+(this.formulaEvaluationTime/1000000L)+" ms. Using cached values of further formulas in file: "+this.hocr.getFileName());
+			this.formulaEvaluationLimitReached=true;
+			return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Checks if the document contains the result of a formula
+	 * 
+	 * @param currentCell formula cell
+	 * @return true, if the result is cached in the document
+	 */
+	private static boolean hasCachedFormulaResult(Cell currentCell) {
+		if (currentCell instanceof XSSFCell) {
+			return ((XSSFCell)currentCell).getCTCell().isSetV();
+		}
+		// the old Excel format always contains the result of a formula
+		return true;
+	}
+	
 	private boolean nextAllSheets() {
 		while (this.currentRow>this.currentWorkbook.getSheetAt(this.currentSheet).getLastRowNum()) { // end of row reached? => next sheet
 			this.currentSheet++;
@@ -483,28 +907,25 @@ private int currentSkipLine=0;
 	private boolean nextSpecificSheets() {
 		// go through sheets specified until one found
 					while (this.sheetsIndex!=this.sheets.length) {
-						if (this.currentWorkbook.getSheet(this.sheets[this.sheetsIndex])==null) { // log only if sheet not found
+						Sheet selectedSheet = this.currentWorkbook.getSheet(this.sheets[this.sheetsIndex]);
+						if (selectedSheet==null) { // log only if sheet not found
 							LOG.warn("Sheet \""+this.sheets[this.sheetsIndex]+"\" not found");
-						} else { // sheet found, check number of rows
-						   if (this.currentRow<=this.currentWorkbook.getSheet(this.sheets[this.sheetsIndex]).getLastRowNum()) {
+						} else if (this.currentRow<=selectedSheet.getLastRowNum()) { // sheet found, check number of rows
 						 // we have a sheet where we still need to process rows
-							this.currentSheet=this.currentWorkbook.getSheetIndex(this.currentWorkbook.getSheet(this.sheets[this.sheetsIndex]));
-							this.currentSheetName=this.currentWorkbook.getSheetAt(this.currentSheet).getSheetName();
+							this.currentSheet=this.currentWorkbook.getSheetIndex(selectedSheet);
+							this.currentSheetName=selectedSheet.getSheetName();
 							break;
-						   }
 						}
-						while (this.currentRow>this.currentWorkbook.getSheet(this.sheets[this.sheetsIndex]).getLastRowNum()) {
-							this.sheetsIndex++;
-							this.currentRow=0;
-							// check if we need to skip lines
-							if (this.hocr.getSkipLinesAllSheets()) {
-								this.currentRow+=this.hocr.getSkipLines();
-							}
-							// check if we need to skip header
-							if (this.hocr.getIgnoreHeaderInAllSheets()) {
-								this.currentRow++;
-							}
-
+						// sheet not found or all rows processed => next sheet
+						this.sheetsIndex++;
+						this.currentRow=0;
+						// check if we need to skip lines
+						if (this.hocr.getSkipLinesAllSheets()) {
+							this.currentRow+=this.hocr.getSkipLines();
+						}
+						// check if we need to skip header
+						if (this.hocr.getIgnoreHeaderInAllSheets()) {
+							this.currentRow++;
 						}
 					}
 					if (this.sheetsIndex>=this.sheets.length) {
@@ -516,7 +937,7 @@ private int currentSkipLine=0;
 
 	
 	/**
-	* Close parser and linked workbooks
+	* Close parser and linked workbooks. Linked workbooks are given back to the JVM-wide cache of parsed linked workbooks if caching is enabled
 	*
 	*/
 	@Override
@@ -528,436 +949,210 @@ private int currentSkipLine=0;
 			LOG.debug("Closing current Workbook \""+this.hocr.getFileName()+"\"");
 			this.currentWorkbook.close();
 		}
-		for (Workbook addedWorkbook: this.addedWorkbooks) {
-			
-			addedWorkbook.close();
+		for (LinkedWorkbookCache.Entry addedLinkedWorkbook: this.addedLinkedWorkbooks) {
+			LinkedWorkbookCache.release(addedLinkedWorkbook, this.hocr.getLinkedWorkbookCacheMaxCount(), this.hocr.getLinkedWorkbookCacheMaxSize());
 		}
+		this.addedLinkedWorkbooks.clear();
 	
 	}
 
 
-	/*
-	* Check if document matches the metadata filters
-	*
-	* @return true, if it matches, false if not
+	@Override
+	public void setCurrentRow(long row) {
+		this.currentRow=(int) row;
+		
+	}
+
+	@Override
+	public void setCurrentSheet(long sheet) {
+		this.currentSheet=(int) sheet;
+		
+	}
+
+	@Override
+	public long getCurrentSheet() {
+		return this.currentSheet;
+	}
+
+	@Override
+	public String[] getHeader() {
+		return this.header;
+	}
+
+	/**
+	* Returns the rows of the sheets processed so far relative to the rows of all selected sheets. The rows of a sheet are determined by its last row, ie they include empty rows
 	*
+	* @return progress between 0.0 and 1.0
 	*/
-	private boolean checkFiltered() {	
-		if ((this.hocr.getMetaDataFilter()==null) || (this.hocr.getMetaDataFilter().size()==0)) { // if no filter is defined it does match by definition
-			return true;
+	@Override
+	public float getProgress() {
+		if ((this.currentWorkbook==null) || (this.sheetRowOffsets==null)) {
+			return 1.0f;
 		}
-		if (this.currentWorkbook instanceof XSSFWorkbook) {
-			return checkFilteredXSSF();
-		} else if (this.currentWorkbook instanceof HSSFWorkbook) {
-			return checkFilteredHSSF();
-		} else	{
-			LOG.error("Unknown workbook format. Cannot check if document matches metadata filter");
-			return false;
+		int sheetPosition=this.sheets==null?this.currentSheet:this.sheetsIndex;
+		long totalRows=this.sheetRowOffsets[this.sheetRowOffsets.length-1];
+		if ((sheetPosition>=this.sheetRowOffsets.length-1) || (totalRows==0)) {
+			return 1.0f;
 		}
+		long sheetRows=this.sheetRowOffsets[sheetPosition+1]-this.sheetRowOffsets[sheetPosition];
+		long processedRows=this.sheetRowOffsets[sheetPosition]+Math.min(this.currentRow, sheetRows);
+		return Math.min(1.0f, processedRows/(float)totalRows);
 	}
 
-	/*
-	* Check if document matches the metadata filters for XSSF documents. 
-	*
-	* @return true, if it matches, false if not
+	/**
+	* Determines for each selected sheet in the order of processing the number of rows of all sheets before it. The last element contains the rows of all selected sheets
 	*
 	*/
-	private boolean checkFilteredXSSF() {
-		XSSFWorkbook currentXSSFWorkbook = (XSSFWorkbook) this.currentWorkbook;
-     		POIXMLProperties props = currentXSSFWorkbook.getProperties();
-		SimpleDateFormat format = new SimpleDateFormat(MSExcelParser.DATE_FORMAT); 
-		// check for each defined property
-		// check if we need to match all
-		boolean matchAll=true;
-		boolean matchFull=true;
-		boolean matchOnce=false;
-		if (this.hocr.getMetaDataFilter().get(MATCH_ALL)!=null) {
-			if ("true".equalsIgnoreCase(this.hocr.getMetaDataFilter().get(MATCH_ALL))) {
-				matchAll=true;
-				LOG.info("matching all metadata properties");
-			} else if ("false".equalsIgnoreCase(this.hocr.getMetaDataFilter().get(MATCH_ALL)))	{
-				matchAll=false;
-				LOG.info("matching at least one metadata property");
-			} else {
-				LOG.error("Metadata property matchAll not defined correctly. Assuming that at only least one attribute needs to match");
-			}
-		}
-		// check core properties
-		String corePropertyName;
-		POIXMLProperties.CoreProperties coreProp=props.getCoreProperties();
-		corePropertyName="category";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-				String corePropStr=coreProp.getCategory();
-				if ((corePropStr!=null) && (corePropStr.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-					matchOnce=true;
-				 } else {
-						matchFull=false;
-					LOG.debug(NOT_MATCHING+corePropStr+":"+this.hocr.getMetaDataFilter().get(corePropertyName));
-				}
-		}
-		corePropertyName="contentstatus";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-				String corePropStr=coreProp.getContentStatus();
-				if ((corePropStr!=null) && (corePropStr.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-					matchOnce=true;
-				 } else {
-						matchFull=false;
-						LOG.debug(NOT_MATCHING+corePropStr+":"+this.hocr.getMetaDataFilter().get(corePropertyName));
-				}
-		}
-		corePropertyName="contenttype";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-				String corePropStr=coreProp.getContentType();
-				if ((corePropStr!=null) && (corePropStr.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-					matchOnce=true;
-				 } else {
-						matchFull=false;
-						LOG.debug(NOT_MATCHING+corePropStr+":"+this.hocr.getMetaDataFilter().get(corePropertyName));
-				}
-		}
-		corePropertyName="created";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-				Date corePropStr=coreProp.getCreated();
-				if ((corePropStr!=null) && (format.format(corePropStr).matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-					matchOnce=true;
-				 } else {
-						matchFull=false;
-						LOG.debug(NOT_MATCHING+format.format(corePropStr)+":"+this.hocr.getMetaDataFilter().get(corePropertyName));
-						LOG.debug(corePropertyName);
-				}
-		}
-		corePropertyName="creator";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-				String corePropStr=coreProp.getCreator();
-				if ((corePropStr!=null) && (corePropStr.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-					matchOnce=true;
-				 } else {
-						matchFull=false;
-						LOG.debug(NOT_MATCHING+corePropStr+":"+this.hocr.getMetaDataFilter().get(corePropertyName));
-				}
-		}
-		corePropertyName="description";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-				String corePropStr=coreProp.getDescription();
-				if ((corePropStr!=null) && (corePropStr.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-					matchOnce=true;
-				 } else {
-						matchFull=false;
-						LOG.debug(NOT_MATCHING+corePropStr+":"+this.hocr.getMetaDataFilter().get(corePropertyName));
-				}
-		}
-		corePropertyName="identifier";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-				String corePropStr=coreProp.getIdentifier();
-				if ((corePropStr!=null) && (corePropStr.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-					matchOnce=true;
-				 } else {
-						matchFull=false;
-						LOG.debug(NOT_MATCHING+corePropStr+":"+this.hocr.getMetaDataFilter().get(corePropertyName));
-				}
-		}
-		corePropertyName="keywords";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-				String corePropStr=coreProp.getKeywords();
-				if ((corePropStr!=null) && (corePropStr.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-					matchOnce=true;
-				 } else {
-						matchFull=false;
-						LOG.debug(NOT_MATCHING+corePropStr+":"+this.hocr.getMetaDataFilter().get(corePropertyName));
-				}
-		}
-		corePropertyName="lastmodifiedbyuser";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-				String corePropStr=coreProp.getLastModifiedByUser();
-				if ((corePropStr!=null) && (corePropStr.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-					matchOnce=true;
-				 } else {
-						matchFull=false;
-						LOG.debug(NOT_MATCHING+corePropStr+":"+this.hocr.getMetaDataFilter().get(corePropertyName));
-				}
-		}
-		corePropertyName="lastprinted";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-				Date corePropStr=coreProp.getLastPrinted();
-				if ((corePropStr!=null) && (format.format(corePropStr).matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-					matchOnce=true;
-				 } else {
-						matchFull=false;
-						LOG.debug(NOT_MATCHING+format.format(corePropStr)+":"+this.hocr.getMetaDataFilter().get(corePropertyName));
-						LOG.debug(corePropertyName);
-				}
-		}
-		corePropertyName="modified";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-				Date corePropStr=coreProp.getModified();
-				if ((corePropStr!=null) && (format.format(corePropStr).matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-					matchOnce=true;
-				 } else {
-						matchFull=false;
-						LOG.debug(NOT_MATCHING+corePropStr+":"+this.hocr.getMetaDataFilter().get(corePropertyName));
-						LOG.debug(corePropertyName);
-				}
-		}
-		corePropertyName="revision";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-				String corePropStr=coreProp.getRevision();
-				if ((corePropStr!=null) && (corePropStr.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-					matchOnce=true;
-				 } else {
-						matchFull=false;
-						LOG.debug(NOT_MATCHING+corePropStr+":"+this.hocr.getMetaDataFilter().get(corePropertyName));
-				}
-		}
-		corePropertyName="subject";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-				String corePropStr=coreProp.getSubject();
-				if ((corePropStr!=null) && (corePropStr.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-					matchOnce=true;
-				 } else {
-						matchFull=false;
-						LOG.debug(NOT_MATCHING+corePropStr+":"+this.hocr.getMetaDataFilter().get(corePropertyName));
-				}
-		}
-		corePropertyName="title";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-				String corePropStr=coreProp.getTitle();
-				if ((corePropStr!=null) && (corePropStr.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-					matchOnce=true;
-				 } else {
-						matchFull=false;
-						LOG.debug(NOT_MATCHING+corePropStr+":"+this.hocr.getMetaDataFilter().get(corePropertyName));
-				}
-		}
-		// check for custom properties
-		POIXMLProperties.CustomProperties custProp = props.getCustomProperties();
-		for (Map.Entry<String,String> entry: this.hocr.getMetaDataFilter().entrySet()) {
-			if (entry.getKey().startsWith("custom.")) {
-				String strippedKey=entry.getKey().substring("custom.".length());
-				if (strippedKey.length()>0) {
-					String valueMatch=entry.getValue();
-					if (valueMatch!=null) {
-						
-						if ((custProp.getProperty(strippedKey)!=null) && (custProp.getProperty(strippedKey).getName()!=null)&& (custProp.getProperty(strippedKey).getLpwstr().matches(valueMatch))) {
-		matchOnce=true;
-	} else {
-		matchFull=false;
-	}
-					}
-				}
+	private void initSheetRowOffsets() {
+		int selectedSheets=this.sheets==null?this.currentWorkbook.getNumberOfSheets():this.sheets.length;
+		this.sheetRowOffsets=new long[selectedSheets+1];
+		for (int i=0;i<selectedSheets;i++) {
+			Sheet currentSheet=this.sheets==null?this.currentWorkbook.getSheetAt(i):this.currentWorkbook.getSheet(this.sheets[i]);
+			long sheetRows=0;
+			if ((currentSheet!=null) && (currentSheet.getPhysicalNumberOfRows()>0)) {
+				sheetRows=currentSheet.getLastRowNum()+1L;
 			}
-		}		
-		
-		if (!(matchAll)) {
-			return  matchOnce;
-		} else {
-			return matchFull;
+			this.sheetRowOffsets[i+1]=this.sheetRowOffsets[i]+sheetRows;
 		}
 	}
-	
-	/*
-	* Check if document matches the metadata filters for HSSF documents
-	*
-	* @return true, if it matches, false if not
+
+	/**
+	* Returns the number of unique strings of the workbook and the number and time of formula evaluations
 	*
+	* @return metrics of the parsed document
 	*/
-	private boolean checkFilteredHSSF() {
-		HSSFWorkbook currentHSSFWorkbook = (HSSFWorkbook) this.currentWorkbook;
-		SummaryInformation summaryInfo = currentHSSFWorkbook.getSummaryInformation(); 
-		boolean matchAll=true;
-
-		boolean matchFull=true;
-		boolean matchOnce=false;
-		if (this.hocr.getMetaDataFilter().get(MATCH_ALL)!=null) {
-			if ("true".equalsIgnoreCase(this.hocr.getMetaDataFilter().get(MATCH_ALL))) {
-				matchAll=true;
-			} else if ("false".equalsIgnoreCase(this.hocr.getMetaDataFilter().get(MATCH_ALL))) {
-				matchAll=false;
-			} else {
-				LOG.error("Metadata property matchAll not defined correctly. Assuming that at only least one attribute needs to match");
-			}
-		}
-		String corePropertyName;
-		corePropertyName="applicationname";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			String coreProp=summaryInfo.getApplicationName();
-			if ((coreProp!=null) && (coreProp.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
-			}
-		}
-		corePropertyName="author";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			String coreProp=summaryInfo.getAuthor();
-			if ((coreProp!=null) && (coreProp.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
-			}
-		}
-		corePropertyName="charcount";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			int coreProp=summaryInfo.getCharCount();
-			if (String.valueOf(coreProp).matches(this.hocr.getMetaDataFilter().get(corePropertyName))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
+	@Override
+	public Map<String,Long> getMetrics() {
+		Map<String,Long> result = new LinkedHashMap<>();
+		if (this.currentWorkbook instanceof XSSFWorkbook) {
+			result.put(OfficeMetrics.SHARED_STRINGS, (long) ((XSSFWorkbook)this.currentWorkbook).getSharedStringSource().getUniqueCount());
+		} else if (this.currentWorkbook instanceof HSSFWorkbook) {
+			Record sst = ((HSSFWorkbook)this.currentWorkbook).getInternalWorkbook().findFirstRecordBySid(SSTRecord.sid);
+			if (sst!=null) {
+				result.put(OfficeMetrics.SHARED_STRINGS, (long) ((SSTRecord)sst).getNumUniqueStrings());
 			}
 		}
-		corePropertyName="comments";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			String coreProp=summaryInfo.getComments();
-			if ((coreProp!=null) && (coreProp.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
-			}
+		result.put(OfficeMetrics.FORMULA_EVALUATIONS, this.formulaEvaluationCount);
+		result.put(OfficeMetrics.FORMULA_EVALUATION_TIME, this.formulaEvaluationTime/1000000L);
+		if (this.hocr.getVerifySignature()) {
+			result.put(OfficeMetrics.SIGNATURE_VERIFICATION_TIME, this.signatureVerificationTime);
 		}
-		corePropertyName="createddatetime";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			Date coreProp=summaryInfo.getCreateDateTime();
-			if ((coreProp!=null) && (coreProp.toString().matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
-			}
+		return result;
+	}
+
+	/**
+	 * Used by the DataFormatter for formula cells whose result has already been determined. It does not evaluate formulas, but returns the result cached in the cell
+	 *
+	 */
+	static class CachedValueFormulaEvaluator implements FormulaEvaluator {
+
+		@Override
+		public CellType evaluateFormulaCellEnum(Cell cell) {
+			return cell.getCachedFormulaResultTypeEnum();
 		}
-		corePropertyName="edittime";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			long coreProp=summaryInfo.getEditTime();
-			if (String.valueOf(coreProp).matches(this.hocr.getMetaDataFilter().get(corePropertyName))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
-			}
+
+		/**
+		 * @deprecated required by the interface, use {@link #evaluateFormulaCellEnum(Cell)}
+		 */
+		@Deprecated
+		@SuppressWarnings("deprecation")
+		@Override
+		public int evaluateFormulaCell(Cell cell) {
+			return cell.getCachedFormulaResultType();
 		}
-		corePropertyName="keywords";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			String coreProp=summaryInfo.getKeywords();
-			if ((coreProp!=null) && (coreProp.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
-			}
+
+		@Override
+		public void clearAllCachedResultValues() {
+			// nothing cached
 		}
-		corePropertyName="lastauthor";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			String coreProp=summaryInfo.getLastAuthor();
-			if ((coreProp!=null) && (coreProp.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
-			}
+
+		@Override
+		public void notifySetFormula(Cell cell) {
+			// nothing cached
 		}
-		corePropertyName="lastprinted";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			Date coreProp=summaryInfo.getLastPrinted();
-			if ((coreProp!=null) && (coreProp.toString().matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
-			}
+
+		@Override
+		public void notifyDeleteCell(Cell cell) {
+			// nothing cached
 		}
-		corePropertyName="lastsavedatetime";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			Date coreProp=summaryInfo.getLastSaveDateTime();
-			if ((coreProp!=null) && (coreProp.toString().matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
-			}
+
+		@Override
+		public void notifyUpdateCell(Cell cell) {
+			// nothing cached
 		}
-		corePropertyName="pagecount";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			int coreProp=summaryInfo.getPageCount();
-			if (String.valueOf(coreProp).matches(this.hocr.getMetaDataFilter().get(corePropertyName))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
-			}
+
+		@Override
+		public void evaluateAll() {
+			// the results of all formulas are already cached in the cells
 		}
-		corePropertyName="revnumber";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			String coreProp=summaryInfo.getRevNumber();
-			if ((coreProp!=null) && (coreProp.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
+
+		@Override
+		public CellValue evaluate(Cell cell) {
+			if (cell == null) {
+				return null;
 			}
-		}
-		corePropertyName="security";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			int coreProp=summaryInfo.getSecurity();
-			if (String.valueOf(coreProp).matches(this.hocr.getMetaDataFilter().get(corePropertyName))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
+			CellType cellType = cell.getCellTypeEnum();
+			if (cellType == CellType.FORMULA) {
+				cellType = cell.getCachedFormulaResultTypeEnum();
 			}
-		}
-		corePropertyName="subject";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			String coreProp=summaryInfo.getSubject();
-			if ((coreProp!=null) && (coreProp.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
+			switch (cellType) {
+			case NUMERIC:
+				return new CellValue(cell.getNumericCellValue());
+			case STRING:
+				return new CellValue(cell.getRichStringCellValue().getString());
+			case BOOLEAN:
+				return CellValue.valueOf(cell.getBooleanCellValue());
+			case ERROR:
+				return CellValue.getError(cell.getErrorCellValue());
+			default: // blank
+				return null;
 			}
 		}
-		corePropertyName="template";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			String coreProp=summaryInfo.getTemplate();
-			if ((coreProp!=null) && (coreProp.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
+
+		@Override
+		public Cell evaluateInCell(Cell cell) {
+			if ((cell == null) || (cell.getCellTypeEnum() != CellType.FORMULA)) {
+				return cell;
 			}
-		}
-		corePropertyName="title";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			String coreProp=summaryInfo.getTitle();
-			if ((coreProp!=null) && (coreProp.matches(this.hocr.getMetaDataFilter().get(corePropertyName)))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
+			// replace the formula by its cached result
+			CellValue cachedValue = this.evaluate(cell);
+			if (cachedValue == null) {
+				cell.setCellType(CellType.BLANK);
+				return cell;
 			}
-		}
-		corePropertyName="wordcount";
-		if (this.hocr.getMetaDataFilter().get(corePropertyName)!=null) {
-			int coreProp=summaryInfo.getWordCount();
-			if (String.valueOf(coreProp).matches(this.hocr.getMetaDataFilter().get(corePropertyName))) {
-				matchOnce=true;
-			} else {
-				matchFull=false;
+			// the type is changed first, because changing the type of a cell may change its value
+			cell.setCellType(cachedValue.getCellTypeEnum());
+			switch (cachedValue.getCellTypeEnum()) {
+			case NUMERIC:
+				cell.setCellValue(cachedValue.getNumberValue());
+				break;
+			case STRING:
+				cell.setCellValue(cachedValue.getStringValue());
+				break;
+			case BOOLEAN:
+				cell.setCellValue(cachedValue.getBooleanValue());
+				break;
+			default: // error
+				cell.setCellErrorValue(cachedValue.getErrorValue());
+				break;
 			}
+			return cell;
 		}
-	
-		if (!(matchAll)) {
-			return  matchOnce;
-		} else {
-			return matchFull;
-		}
-	}
 
-	@Override
-	public void setCurrentRow(long row) {
-		this.currentRow=(int) row;
-		
-	}
-
-	@Override
-	public void setCurrentSheet(long sheet) {
-		this.currentSheet=(int) sheet;
-		
-	}
+		@Override
+		public void setupReferencedWorkbooks(Map<String, FormulaEvaluator> workbooks) {
+			// no references are evaluated
+		}
 
-	@Override
-	public long getCurrentSheet() {
-		return this.currentSheet;
-	}
+		@Override
+		public void setIgnoreMissingWorkbooks(boolean ignore) {
+			// no references are evaluated
+		}
 
-	@Override
-	public String[] getHeader() {
-		return this.header;
+		@Override
+		public void setDebugEvaluationOutputForNextEval(boolean value) {
+			// nothing evaluated
+		}
 	}
 
 }
@@ -19,6 +19,7 @@ package org.zuinnote.hadoop.office.format.common.parser;
 import java.io.InputStream;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 /*
 *
 * This interface is implemented by all parsers
@@ -34,10 +35,23 @@ public long getCurrentSheet();
 public void setCurrentSheet(long sheet);
 public String getCurrentSheetName();
 public boolean addLinkedWorkbook(String name, InputStream inputStream,String password) throws FormatNotUnderstoodException;
+public int addLinkedWorkbooks(Map<String,InputStream> linkedWorkbooks, Map<String,String> passwords) throws FormatNotUnderstoodException;
 public List<String> getLinkedWorkbooks();
 public Object[] getNext();
 public boolean getFiltered();
 public void close() throws IOException;
 public String[] getHeader();
+/**
+* Returns metrics of the parsed document, e.g. the number of shared strings or evaluated formulas (see {@link org.zuinnote.hadoop.office.format.common.OfficeMetrics})
+*
+* @return Map with the name of the metric as key and its value
+*/
+public Map<String,Long> getMetrics();
+/**
+* Returns how much of the document has been read in terms of rows of the selected sheets
+*
+* @return progress between 0.0 and 1.0
+*/
+public float getProgress();
 
 }
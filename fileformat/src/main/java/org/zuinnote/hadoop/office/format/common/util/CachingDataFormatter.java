@@ -0,0 +1,186 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.util;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.LocaleUtil;
+
+/**
+ * DataFormatter for formatting raw cell contents (e.g. by the event based parsers of the low footprint mode), which are formatted cell by cell with the format index and format string of the style of the cell.
+ *
+ * The kind of format is determined only once per format index instead of for every cell. Numbers with the builtin formats General, 0 and 0.00 are formatted directly if this gives exactly the same result as the DataFormatter, all other formats (including dates) are formatted by the DataFormatter.
+ *
+ * Note: Like the DataFormatter this class is not thread-safe.
+ *
+ */
+public class CachingDataFormatter extends DataFormatter {
+	private static final int KIND_OTHER = 0;
+	private static final int KIND_GENERAL = 1;
+	private static final int KIND_INTEGER = 2;
+	private static final int KIND_TWODECIMALS = 3;
+	/** largest absolute value that is formatted as integer by General **/
+	private static final double GENERAL_INTEGER_MAX = 1E11;
+	/** General formats decimals with at most 10 significant digits and 10 fraction digits **/
+	private static final int GENERAL_DECIMAL_DIGITS = 10;
+	private static final double GENERAL_DECIMAL_MAX = 1E10;
+	/** largest absolute value that is formatted directly by 0 and 0.00 **/
+	private static final double FIXED_MAX = 1E15;
+
+	private final Locale fixedLocale;
+	private Locale symbolsLocale;
+	private boolean directFormatting;
+	private char decimalSeparator;
+	private String[] formatStrings = new String[0];
+	private int[] formatKinds = new int[0];
+
+	/**
+	 * Creates a formatter for the default locale
+	 */
+	public CachingDataFormatter() {
+		super();
+		this.fixedLocale = null;
+	}
+
+	/**
+	 * Creates a formatter for the given locale
+	 *
+	 * @param locale locale
+	 */
+	public CachingDataFormatter(Locale locale) {
+		super(locale);
+		this.fixedLocale = locale;
+	}
+
+	@Override
+	public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+		if ((formatString != null) && (formatIndex >= 0)) {
+			int kind = this.getFormatKind(formatIndex, formatString);
+			if ((kind != KIND_OTHER) && (this.isDirectFormatting())) {
+				String result = this.formatDirectly(value, kind);
+				if (result != null) {
+					return result;
+				}
+			}
+		}
+		return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+	}
+
+	/**
+	 * Returns the kind of format of a format index. The format string is compared to the cached one, because the same formatter can be used for different workbooks
+	 *
+	 * @param formatIndex  index of the format
+	 * @param formatString format
+	 * @return kind of format
+	 */
+	private int getFormatKind(int formatIndex, String formatString) {
+		if (formatIndex >= this.formatStrings.length) {
+			int newLength = Math.max(formatIndex + 1, this.formatStrings.length * 2);
+			this.formatStrings = Arrays.copyOf(this.formatStrings, newLength);
+			this.formatKinds = Arrays.copyOf(this.formatKinds, newLength);
+		}
+		String cachedFormatString = this.formatStrings[formatIndex];
+		if ((cachedFormatString != formatString) && (!formatString.equals(cachedFormatString))) {
+			this.formatKinds[formatIndex] = determineFormatKind(formatIndex, formatString);
+			this.formatStrings[formatIndex] = formatString;
+		}
+		return this.formatKinds[formatIndex];
+	}
+
+	private static int determineFormatKind(int formatIndex, String formatString) {
+		if (DateUtil.isADateFormat(formatIndex, formatString)) {
+			return KIND_OTHER;
+		}
+		if ("General".equalsIgnoreCase(formatString)) {
+			return KIND_GENERAL;
+		}
+		if ("0".equals(formatString)) {
+			return KIND_INTEGER;
+		}
+		if ("0.00".equals(formatString)) {
+			return KIND_TWODECIMALS;
+		}
+		return KIND_OTHER;
+	}
+
+	/**
+	 * Formats a number directly
+	 *
+	 * @param value number
+	 * @param kind  kind of format
+	 * @return formatted number or null if the number has to be formatted by the DataFormatter (e.g. because it needs to be rounded)
+	 */
+	private String formatDirectly(double value, int kind) {
+		boolean isInteger = Math.rint(value) == value;
+		double abs = Math.abs(value);
+		if (kind == KIND_GENERAL) {
+			if ((isInteger) && (abs < CachingDataFormatter.GENERAL_INTEGER_MAX)) {
+				return Long.toString((long) value);
+			}
+			if ((!isInteger) && (abs < CachingDataFormatter.GENERAL_DECIMAL_MAX)) {
+				// decimals that do not need to be rounded. 10 decimal places are left to the DataFormatter, because it formats +-1E-10 in scientific notation
+				BigDecimal decimal = new BigDecimal(NumberToTextConverter.toText(value));
+				if ((decimal.precision() <= CachingDataFormatter.GENERAL_DECIMAL_DIGITS) && (decimal.scale() < CachingDataFormatter.GENERAL_DECIMAL_DIGITS)) {
+					return this.toLocalizedString(decimal);
+				}
+			}
+			return null;
+		}
+		if (abs >= CachingDataFormatter.FIXED_MAX) {
+			return null;
+		}
+		if (kind == KIND_INTEGER) {
+			return isInteger ? Long.toString((long) value) : null;
+		}
+		// 0.00
+		BigDecimal decimal = new BigDecimal(NumberToTextConverter.toText(value));
+		if (decimal.scale() > 2) { // would need rounding
+			return null;
+		}
+		return this.toLocalizedString(decimal.setScale(2));
+	}
+
+	private String toLocalizedString(BigDecimal decimal) {
+		String result = decimal.toPlainString();
+		if (this.decimalSeparator != '.') {
+			result = result.replace('.', this.decimalSeparator);
+		}
+		return result;
+	}
+
+	/**
+	 * Checks if numbers of the current locale can be formatted directly, ie the locale uses the digits 0-9 and - as minus sign
+	 *
+	 * @return true, if numbers can be formatted directly
+	 */
+	private boolean isDirectFormatting() {
+		Locale currentLocale = this.fixedLocale != null ? this.fixedLocale : LocaleUtil.getUserLocale();
+		if (currentLocale != this.symbolsLocale) {
+			DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(currentLocale);
+			this.directFormatting = (symbols.getZeroDigit() == '0') && (symbols.getMinusSign() == '-');
+			this.decimalSeparator = symbols.getDecimalSeparator();
+			this.symbolsLocale = currentLocale;
+		}
+		return this.directFormatting;
+	}
+
+}
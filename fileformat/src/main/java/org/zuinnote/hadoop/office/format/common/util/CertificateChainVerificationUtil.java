@@ -15,8 +15,10 @@
 **/
 package org.zuinnote.hadoop.office.format.common.util;
 
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.PublicKey;
@@ -24,6 +26,7 @@ import java.security.SignatureException;
 import java.security.cert.CertPathBuilder;
 import java.security.cert.CertPathBuilderException;
 import java.security.cert.CertStore;
+import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
 import java.security.cert.CollectionCertStoreParameters;
 import java.security.cert.PKIXBuilderParameters;
@@ -32,7 +35,12 @@ import java.security.cert.PKIXParameters;
 import java.security.cert.TrustAnchor;
 import java.security.cert.X509CertSelector;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.logging.Log;
@@ -40,14 +48,109 @@ import org.apache.commons.logging.LogFactory;
 
 /**
  * Verify the certificate chain of a given certificate. Requires BouncyCastle Library
+ * 
+ * The result of a verification is cached JVM-wide for the combination of certificate and chain certificates (identified by their SHA-256 fingerprints), because usually many files are signed with the same certificate. A cached result expires after a time to live and at the latest when the certificate expires. If the cache is full, the least recently used result is removed.
  *
  */
 public class CertificateChainVerificationUtil {
 	
 	private static final Log LOG = LogFactory.getLog(CertificateChainVerificationUtil.class.getName());
+	/** time to live of cached verification results in milliseconds **/
+	public static final long CACHE_TTL = 10L * 60L * 1000L;
+	static final int CACHE_MAXSIZE = 1024;
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	// access order, so that the least recently used result is removed if the cache is full
+	private static final Map<String,CachedResult> VERIFICATION_CACHE = new LinkedHashMap<String,CachedResult>(16, 0.75f, true) {
+		private static final long serialVersionUID = 4728133415067340524L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String,CachedResult> eldest) {
+			return size()>CertificateChainVerificationUtil.CACHE_MAXSIZE;
+		}
+	};
+	
+	/**
+	 * Verifies the certificate chain of a certificate. The result is taken from the cache, if the same certificate has already been verified with the same chain certificates
+	 * 
+	 * @param theCertificate certificate to verify
+	 * @param chainCertificates certificates of the truststore to establish a chain
+	 * @return true, if a chain can be established, false if not
+	 * @throws CertificateException
+	 * @throws NoSuchAlgorithmException
+	 * @throws NoSuchProviderException
+	 * @throws InvalidAlgorithmParameterException
+	 */
 	public static boolean verifyCertificateChain(X509Certificate theCertificate,Set<X509Certificate> chainCertificates) throws CertificateException, NoSuchAlgorithmException, NoSuchProviderException, InvalidAlgorithmParameterException {
-		
+		return verifyCertificateChain(theCertificate, chainCertificates, getFingerprint(chainCertificates));
+	}
+	
+	/**
+	 * Verifies the certificate chain of a certificate. The result is taken from the cache, if the same certificate has already been verified with the same chain certificates. 
+	 * The fingerprint of the chain certificates is provided by the caller, so that it needs to be calculated only once for all certificates verified with the same truststore
+	 * 
+	 * @param theCertificate certificate to verify
+	 * @param chainCertificates certificates of the truststore to establish a chain
+	 * @param chainFingerprint fingerprint of the chain certificates, see {@link #getFingerprint(Set)}
+	 * @return true, if a chain can be established, false if not
+	 * @throws CertificateException
+	 * @throws NoSuchAlgorithmException
+	 * @throws NoSuchProviderException
+	 * @throws InvalidAlgorithmParameterException
+	 */
+	public static boolean verifyCertificateChain(X509Certificate theCertificate,Set<X509Certificate> chainCertificates, String chainFingerprint) throws CertificateException, NoSuchAlgorithmException, NoSuchProviderException, InvalidAlgorithmParameterException {
+		String cacheKey = getFingerprint(theCertificate)+"|"+chainFingerprint;
+		long now = System.currentTimeMillis();
+		CachedResult cachedResult;
+		synchronized (VERIFICATION_CACHE) {
+			cachedResult = VERIFICATION_CACHE.get(cacheKey);
+		}
+		if ((cachedResult!=null) && (now<cachedResult.expiryTime)) {
+			LOG.debug("Using cached result of certification chain verification for "+theCertificate.getSubjectX500Principal());
+			return cachedResult.result;
+		}
+		boolean result = verifyCertificateChainUncached(theCertificate, chainCertificates);
+		synchronized (VERIFICATION_CACHE) {
+			VERIFICATION_CACHE.put(cacheKey, new CachedResult(result, Math.min(now+CertificateChainVerificationUtil.CACHE_TTL, theCertificate.getNotAfter().getTime())));
+		}
+		return result;
+	}
+	
+	/**
+	 * Removes all cached verification results, e.g. because certificates have been revoked
+	 */
+	public static void clearCache() {
+		synchronized (VERIFICATION_CACHE) {
+			VERIFICATION_CACHE.clear();
+		}
+	}
+	
+	/**
+	 * 
+	 * @return number of cached verification results
+	 */
+	static int getCacheSize() {
+		synchronized (VERIFICATION_CACHE) {
+			return VERIFICATION_CACHE.size();
+		}
+	}
 	
+	/**
+	 * Checks if a verification result is cached without changing the order in which cached results are removed
+	 * 
+	 * @param theCertificate verified certificate
+	 * @param chainFingerprint fingerprint of the chain certificates, see {@link #getFingerprint(Set)}
+	 * @return true, if a result is cached for the certificate and chain certificates
+	 * @throws CertificateEncodingException
+	 * @throws NoSuchAlgorithmException
+	 */
+	static boolean isCached(X509Certificate theCertificate, String chainFingerprint) throws CertificateEncodingException, NoSuchAlgorithmException {
+		String cacheKey = getFingerprint(theCertificate)+"|"+chainFingerprint;
+		synchronized (VERIFICATION_CACHE) {
+			return VERIFICATION_CACHE.containsKey(cacheKey);
+		}
+	}
+	
+	private static boolean verifyCertificateChainUncached(X509Certificate theCertificate,Set<X509Certificate> chainCertificates) throws CertificateException, NoSuchAlgorithmException, NoSuchProviderException, InvalidAlgorithmParameterException {
 		// check if we can establish a trust chain
 		if (isSelfSigned(theCertificate)) {
 			LOG.error("Certificate is self-signed - no trust chain can be established with provided truststore");
@@ -94,6 +197,46 @@ public class CertificateChainVerificationUtil {
 		return false;
 	}
 	
+	/**
+	 * 
+	 * @param certificate
+	 * @return SHA-256 fingerprint of the certificate
+	 * @throws CertificateEncodingException
+	 * @throws NoSuchAlgorithmException
+	 */
+	private static String getFingerprint(X509Certificate certificate) throws CertificateEncodingException, NoSuchAlgorithmException {
+		return toHex(MessageDigest.getInstance("SHA-256").digest(certificate.getEncoded()));
+	}
+	
+	/**
+	 * 
+	 * @param certificates
+	 * @return SHA-256 fingerprint of a set of certificates, which does not depend on the order of the certificates
+	 * @throws CertificateEncodingException
+	 * @throws NoSuchAlgorithmException
+	 */
+	public static String getFingerprint(Set<X509Certificate> certificates) throws CertificateEncodingException, NoSuchAlgorithmException {
+		List<String> fingerprints = new ArrayList<>(certificates.size());
+		for (X509Certificate currentCertificate: certificates) {
+			fingerprints.add(getFingerprint(currentCertificate));
+		}
+		Collections.sort(fingerprints);
+		MessageDigest digest = MessageDigest.getInstance("SHA-256");
+		for (String currentFingerprint: fingerprints) {
+			digest.update(currentFingerprint.getBytes(StandardCharsets.US_ASCII));
+		}
+		return toHex(digest.digest());
+	}
+	
+	private static String toHex(byte[] bytes) {
+		char[] result = new char[bytes.length*2];
+		for (int i=0;i<bytes.length;i++) {
+			result[i*2]=HEX_DIGITS[(bytes[i]>>4)&0x0F];
+			result[i*2+1]=HEX_DIGITS[bytes[i]&0x0F];
+		}
+		return new String(result);
+	}
+	
 	private static boolean isSelfSigned(X509Certificate certificate) throws CertificateException, NoSuchAlgorithmException, NoSuchProviderException {
 		try {
 			PublicKey pubKey = certificate.getPublicKey();
@@ -105,6 +248,18 @@ public class CertificateChainVerificationUtil {
 		
 	}
     
-	
+	/**
+	 * Result of a verification and until when it can be used
+	 *
+	 */
+	private static class CachedResult {
+		private final boolean result;
+		private final long expiryTime;
+		
+		CachedResult(boolean result, long expiryTime) {
+			this.result=result;
+			this.expiryTime=expiryTime;
+		}
+	}
 
 }
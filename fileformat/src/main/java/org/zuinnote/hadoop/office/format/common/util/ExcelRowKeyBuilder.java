@@ -0,0 +1,62 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.util;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hadoop.io.Text;
+
+/**
+ * Sets the key of a row (e.g. [name.xlsx]Sheet1!A1) in place. The encoded prefix ([name.xlsx]Sheet1!A) is cached until the sheet changes and the row number is appended without creating a String, so that no objects are created per row once the Text has grown to the length of the key.
+ *
+ */
+public class ExcelRowKeyBuilder {
+	private final String fileName;
+	private String currentSheetName;
+	private byte[] currentPrefix;
+	private final byte[] rowDigits = new byte[20]; // maximum number of digits of a long
+
+	/**
+	 *
+	 * @param fileName name of the document without path
+	 */
+	public ExcelRowKeyBuilder(String fileName) {
+		this.fileName = fileName;
+	}
+
+	/**
+	 * Sets the key of a row
+	 *
+	 * @param key       Text that is updated
+	 * @param sheetName name of the sheet of the row
+	 * @param row       row number
+	 */
+	public void set(Text key, String sheetName, long row) {
+		if ((this.currentPrefix == null) || (!this.currentSheetName.equals(sheetName))) {
+			this.currentSheetName = sheetName;
+			this.currentPrefix = ("[" + this.fileName + "]" + sheetName + "!A").getBytes(StandardCharsets.UTF_8);
+		}
+		key.set(this.currentPrefix);
+		int position = this.rowDigits.length;
+		long remaining = row;
+		do {
+			this.rowDigits[--position] = (byte) ('0' + (remaining % 10));
+			remaining /= 10;
+		} while (remaining > 0);
+		key.append(this.rowDigits, position, this.rowDigits.length - position);
+	}
+
+}
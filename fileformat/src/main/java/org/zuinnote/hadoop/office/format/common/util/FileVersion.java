@@ -0,0 +1,68 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.util;
+
+import java.io.Serializable;
+
+/**
+ * Identifies a version of a file, e.g. of a linked workbook or a template, so that its cached content is only reused as long as the file has not changed
+ *
+ */
+public class FileVersion implements Serializable {
+	private static final long serialVersionUID = -1736436325466378916L;
+	private final String location;
+	private final long length;
+	private final long modificationTime;
+
+	/**
+	 *
+	 * @param location         location of the file (e.g. fully qualified path)
+	 * @param length           length of the file
+	 * @param modificationTime modification time of the file
+	 */
+	public FileVersion(String location, long length, long modificationTime) {
+		this.location = location;
+		this.length = length;
+		this.modificationTime = modificationTime;
+	}
+
+	public String getLocation() {
+		return this.location;
+	}
+
+	public long getLength() {
+		return this.length;
+	}
+
+	public long getModificationTime() {
+		return this.modificationTime;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof FileVersion)) {
+			return false;
+		}
+		FileVersion other = (FileVersion) obj;
+		return (this.location.equals(other.location)) && (this.length == other.length) && (this.modificationTime == other.modificationTime);
+	}
+
+	@Override
+	public int hashCode() {
+		return (31 * this.location.hashCode() + Long.hashCode(this.length)) * 31 + Long.hashCode(this.modificationTime);
+	}
+
+}
@@ -0,0 +1,236 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.UnrecoverableEntryException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.SecretKey;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * JVM-wide cache of keystores/truststores loaded from files. Many readers/writers in the same JVM (e.g. one per file of a job) use the same keystore, which would otherwise be read from the filesystem again and again including the expensive derivation of passwords stored in it.
+ *
+ * A keystore is identified by its location, type, length and modification time, so that a changed file is loaded again. Additionally, entries expire after a time to live. The keystore password is only kept as a digest to verify that a cached keystore is only returned to callers knowing its password.
+ * Passwords derived from the keystore and the X509 certificates in the keystore are cached together with the keystore.
+ *
+ */
+public class KeyStoreCache {
+	private static final Log LOG = LogFactory.getLog(KeyStoreCache.class.getName());
+	/** default time to live of cached keystores in milliseconds **/
+	public static final long DEFAULT_TTL = 10L * 60L * 1000L;
+	private static final Map<String, Entry> CACHE = new ConcurrentHashMap<>();
+
+	private KeyStoreCache() {
+	}
+
+	/**
+	 * Returns a cached keystore
+	 *
+	 * @param location         location of the keystore file (e.g. fully qualified path)
+	 * @param keyStoreType     type of the keystore
+	 * @param length           length of the keystore file
+	 * @param modificationTime modification time of the keystore file
+	 * @param keyStorePassword password of the keystore
+	 * @return cached entry or null if the keystore is not cached, has been modified, is expired or the password does not match
+	 */
+	public static Entry get(String location, String keyStoreType, long length, long modificationTime, String keyStorePassword) {
+		String key = getKey(location, keyStoreType, length, modificationTime);
+		Entry entry = CACHE.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.isExpired(System.currentTimeMillis())) {
+			CACHE.remove(key, entry);
+			return null;
+		}
+		if (!MessageDigest.isEqual(entry.passwordDigest, digest(keyStorePassword))) {
+			return null;
+		}
+		return entry;
+	}
+
+	/**
+	 * Adds a keystore to the cache. Expired entries and entries of previous versions of the same keystore file are removed.
+	 *
+	 * @param location         location of the keystore file (e.g. fully qualified path)
+	 * @param keyStoreType     type of the keystore
+	 * @param length           length of the keystore file
+	 * @param modificationTime modification time of the keystore file
+	 * @param keyStorePassword password of the keystore
+	 * @param keystore         loaded keystore. It must not be modified afterwards.
+	 * @param ttl              time to live in milliseconds. If it is not greater than 0 then the keystore is not cached, but an entry is returned nevertheless
+	 * @return entry for the keystore
+	 */
+	public static Entry put(String location, String keyStoreType, long length, long modificationTime, String keyStorePassword, KeyStore keystore, long ttl) {
+		long now = System.currentTimeMillis();
+		Entry entry = new Entry(location, keystore, digest(keyStorePassword), ttl > 0 ? now + ttl : now);
+		if (ttl > 0) {
+			Iterator<Entry> iter = CACHE.values().iterator();
+			while (iter.hasNext()) {
+				Entry currentEntry = iter.next();
+				if ((currentEntry.isExpired(now)) || (currentEntry.location.equals(location))) {
+					iter.remove();
+				}
+			}
+			LOG.debug("Caching keystore \"" + location + "\"");
+			CACHE.put(getKey(location, keyStoreType, length, modificationTime), entry);
+		}
+		return entry;
+	}
+
+	/**
+	 * Removes all cached versions of a keystore, e.g. because it has been overwritten
+	 *
+	 * @param location location of the keystore file
+	 */
+	public static void invalidate(String location) {
+		Iterator<Entry> iter = CACHE.values().iterator();
+		while (iter.hasNext()) {
+			if (iter.next().location.equals(location)) {
+				iter.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes all cached keystores
+	 */
+	public static void clear() {
+		CACHE.clear();
+	}
+
+	private static String getKey(String location, String keyStoreType, long length, long modificationTime) {
+		return location + "|" + keyStoreType + "|" + length + "|" + modificationTime;
+	}
+
+	private static byte[] digest(String password) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-256 is available in every Java platform
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * A loaded keystore together with the passwords and certificates already read from it
+	 *
+	 */
+	public static class Entry {
+		private final String location;
+		private final KeyStore keystore;
+		private final byte[] passwordDigest;
+		private final long expiryTime;
+		private final Map<String, String> passwords = new ConcurrentHashMap<>();
+		private volatile Set<X509Certificate> x509Certificates;
+		private volatile String x509CertificatesFingerprint;
+
+		private Entry(String location, KeyStore keystore, byte[] passwordDigest, long expiryTime) {
+			this.location = location;
+			this.keystore = keystore;
+			this.passwordDigest = passwordDigest;
+			this.expiryTime = expiryTime;
+		}
+
+		private boolean isExpired(long now) {
+			return now >= this.expiryTime;
+		}
+
+		/**
+		 *
+		 * @return loaded keystore. It must not be modified.
+		 */
+		public KeyStore getKeyStore() {
+			return this.keystore;
+		}
+
+		/**
+		 * Retrieves a password from the keystore. The password is derived only once per alias
+		 *
+		 * @param alias            alias of the password
+		 * @param passwordPassword password protecting the password
+		 * @return password
+		 * @throws NoSuchAlgorithmException
+		 * @throws UnrecoverableEntryException
+		 * @throws KeyStoreException
+		 */
+		public String getPassword(String alias, String passwordPassword) throws NoSuchAlgorithmException, UnrecoverableEntryException, KeyStoreException {
+			String key = alias + "|" + new String(digest(passwordPassword), StandardCharsets.ISO_8859_1);
+			String password = this.passwords.get(key);
+			if (password == null) {
+				SecretKey sk = (SecretKey) this.keystore.getKey(alias, passwordPassword.toCharArray());
+				password = new String(sk.getEncoded());
+				this.passwords.put(key, password);
+			}
+			return password;
+		}
+
+		/**
+		 * Reads all X509Certificates from the keystore. They are read only once
+		 *
+		 * @return unmodifiable set of X509 Certificates in the keystore
+		 * @throws KeyStoreException
+		 */
+		public Set<X509Certificate> getAllX509Certificates() throws KeyStoreException {
+			if (this.x509Certificates == null) {
+				HashSet<X509Certificate> result = new HashSet<>();
+				Enumeration<String> enumAlias = this.keystore.aliases();
+				while (enumAlias.hasMoreElements()) {
+					Certificate currentCert = this.keystore.getCertificate(enumAlias.nextElement());
+					if (currentCert instanceof X509Certificate) {
+						LOG.debug(((X509Certificate) currentCert).getSubjectX500Principal().getName());
+						result.add((X509Certificate) currentCert);
+					}
+				}
+				this.x509Certificates = Collections.unmodifiableSet(result);
+			}
+			return this.x509Certificates;
+		}
+
+		/**
+		 * Calculates the fingerprint of all X509Certificates in the keystore (see {@link CertificateChainVerificationUtil#getFingerprint(Set)}). It is calculated only once
+		 *
+		 * @return fingerprint of the X509 Certificates in the keystore
+		 * @throws KeyStoreException
+		 * @throws CertificateEncodingException
+		 * @throws NoSuchAlgorithmException
+		 */
+		public String getAllX509CertificatesFingerprint() throws KeyStoreException, CertificateEncodingException, NoSuchAlgorithmException {
+			if (this.x509CertificatesFingerprint == null) {
+				this.x509CertificatesFingerprint = CertificateChainVerificationUtil.getFingerprint(this.getAllX509Certificates());
+			}
+			return this.x509CertificatesFingerprint;
+		}
+	}
+
+}
@@ -0,0 +1,213 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * JVM-wide cache of parsed linked workbooks. The same linked workbooks (e.g. exchange rates) are often referred from many files of a job, which would otherwise be read from the filesystem and parsed again by every reader/writer.
+ *
+ * A linked workbook is identified by its location, length and modification time, so that a changed file is parsed again. The password of an encrypted linked workbook is only kept as a digest to verify that a cached workbook is only returned to callers knowing its password.
+ * A formula evaluator can only be used by one workbook at a time, because it is attached to the evaluators of the workbook referring to it. Hence, a cached workbook is removed from the cache while it is used (see {@link #acquire(FileVersion, String)}) and put back when it is not needed anymore (see {@link #release(Entry, int, long)}).
+ * Only workbooks not in use are cached. They are bounded by their number and the total length of their files. The least recently released workbooks are evicted first.
+ *
+ */
+public class LinkedWorkbookCache {
+	private static final Log LOG = LogFactory.getLog(LinkedWorkbookCache.class.getName());
+	/** most recently released workbook first **/
+	private static final LinkedList<Entry> CACHE = new LinkedList<>();
+	private static long cachedLength = 0L;
+
+	private LinkedWorkbookCache() {
+	}
+
+	/**
+	 * Takes a parsed linked workbook out of the cache. It has to be given back by {@link #release(Entry, int, long)} after it has been used
+	 *
+	 * @param version  location, length and modification time of the linked workbook file
+	 * @param password password of the linked workbook, null if it is not encrypted
+	 * @return cached entry or null if the workbook is not cached, has been modified or the password does not match
+	 */
+	public static Entry acquire(FileVersion version, String password) {
+		if (version == null) {
+			return null;
+		}
+		byte[] passwordDigest = digest(password);
+		synchronized (CACHE) {
+			Iterator<Entry> iter = CACHE.iterator();
+			while (iter.hasNext()) {
+				Entry currentEntry = iter.next();
+				if ((currentEntry.version.equals(version)) && (MessageDigest.isEqual(currentEntry.passwordDigest, passwordDigest))) {
+					iter.remove();
+					cachedLength -= version.getLength();
+					LOG.debug("Reusing cached linked workbook \"" + version.getLocation() + "\"");
+					return currentEntry;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gives back a linked workbook that is not used anymore. It is cached if caching is enabled, otherwise it is closed. Previous versions of the same linked workbook file are removed from the cache and workbooks exceeding the given bounds are evicted.
+	 *
+	 * @param entry     linked workbook
+	 * @param maxCount  maximum number of cached linked workbooks. If it is not greater than 0 then the linked workbook is closed
+	 * @param maxLength maximum total length of the files of cached linked workbooks in bytes
+	 */
+	public static void release(Entry entry, int maxCount, long maxLength) {
+		List<Entry> evictedEntries = new ArrayList<>();
+		if ((entry.version == null) || (maxCount <= 0) || (entry.version.getLength() > maxLength)) {
+			evictedEntries.add(entry);
+		} else {
+			synchronized (CACHE) {
+				Iterator<Entry> iter = CACHE.iterator();
+				while (iter.hasNext()) {
+					Entry currentEntry = iter.next();
+					if ((currentEntry.version.getLocation().equals(entry.version.getLocation())) && (!currentEntry.version.equals(entry.version))) {
+						iter.remove();
+						cachedLength -= currentEntry.version.getLength();
+						evictedEntries.add(currentEntry);
+					}
+				}
+				CACHE.addFirst(entry);
+				cachedLength += entry.version.getLength();
+				while ((CACHE.size() > maxCount) || (cachedLength > maxLength)) {
+					Entry evictedEntry = CACHE.removeLast();
+					cachedLength -= evictedEntry.version.getLength();
+					evictedEntries.add(evictedEntry);
+				}
+			}
+		}
+		for (Entry evictedEntry : evictedEntries) {
+			evictedEntry.close();
+		}
+	}
+
+	/**
+	 * Removes all cached versions of a linked workbook, e.g. because it has been overwritten
+	 *
+	 * @param location location of the linked workbook file
+	 */
+	public static void invalidate(String location) {
+		List<Entry> evictedEntries = new ArrayList<>();
+		synchronized (CACHE) {
+			Iterator<Entry> iter = CACHE.iterator();
+			while (iter.hasNext()) {
+				Entry currentEntry = iter.next();
+				if (currentEntry.version.getLocation().equals(location)) {
+					iter.remove();
+					cachedLength -= currentEntry.version.getLength();
+					evictedEntries.add(currentEntry);
+				}
+			}
+		}
+		for (Entry evictedEntry : evictedEntries) {
+			evictedEntry.close();
+		}
+	}
+
+	/**
+	 * Removes all cached linked workbooks
+	 */
+	public static void clear() {
+		List<Entry> evictedEntries;
+		synchronized (CACHE) {
+			evictedEntries = new ArrayList<>(CACHE);
+			CACHE.clear();
+			cachedLength = 0L;
+		}
+		for (Entry evictedEntry : evictedEntries) {
+			evictedEntry.close();
+		}
+	}
+
+	/**
+	 *
+	 * @return number of cached linked workbooks
+	 */
+	static int size() {
+		synchronized (CACHE) {
+			return CACHE.size();
+		}
+	}
+
+	private static byte[] digest(String password) {
+		if (password == null) {
+			return new byte[0];
+		}
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-256 is available in every Java platform
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * A parsed linked workbook together with its formula evaluator
+	 *
+	 */
+	public static class Entry {
+		private final FileVersion version;
+		private final byte[] passwordDigest;
+		private final Workbook workbook;
+		private final FormulaEvaluator formulaEvaluator;
+
+		/**
+		 *
+		 * @param version          location, length and modification time of the linked workbook file, null if the workbook should not be cached
+		 * @param password         password of the linked workbook, null if it is not encrypted
+		 * @param workbook         parsed linked workbook
+		 * @param formulaEvaluator formula evaluator of the linked workbook
+		 */
+		public Entry(FileVersion version, String password, Workbook workbook, FormulaEvaluator formulaEvaluator) {
+			this.version = version;
+			this.passwordDigest = digest(password);
+			this.workbook = workbook;
+			this.formulaEvaluator = formulaEvaluator;
+		}
+
+		public Workbook getWorkbook() {
+			return this.workbook;
+		}
+
+		public FormulaEvaluator getFormulaEvaluator() {
+			return this.formulaEvaluator;
+		}
+
+		private void close() {
+			try {
+				this.workbook.close();
+			} catch (IOException e) {
+				LOG.error("Could not close linked workbook", e);
+			}
+		}
+	}
+
+}
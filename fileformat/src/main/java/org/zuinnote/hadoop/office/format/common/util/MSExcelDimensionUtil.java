@@ -0,0 +1,518 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.poi.EmptyFileException;
+import org.apache.poi.EncryptedDocumentException;
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.DimensionsRecord;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.crypto.Biff8EncryptionKey;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.poifs.crypt.Decryptor;
+import org.apache.poi.poifs.crypt.EncryptionInfo;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.util.IOUtils;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+
+/**
+ * Reads the used range (dimension) of each sheet of an Excel file without parsing its cells. For new Excel files (.xlsx) the dimension element at the beginning of each worksheet part is read. For old Excel files (.xls) the DIMENSIONS record of each sheet substream is read.
+ * This is much cheaper than parsing the full document and can be used, for example, to estimate the number of rows for statistics.
+ *
+ */
+public class MSExcelDimensionUtil {
+	private static final Log LOG = LogFactory.getLog(MSExcelDimensionUtil.class.getName());
+	private static final String OOXML_ELEMENT_WORKBOOK = "workbook";
+	private static final String OOXML_ELEMENT_WORKSHEET = "worksheet";
+	private static final String OOXML_ELEMENT_SHEET = "sheet";
+	private static final String OOXML_ELEMENT_SHEETS = "sheets";
+	private static final String OOXML_ELEMENT_DIMENSION = "dimension";
+	private static final String OOXML_ELEMENT_SHEETDATA = "sheetData";
+	private static final String OOXML_ELEMENT_ROW = "row";
+	private static final String OOXML_ELEMENT_RELATIONSHIP = "Relationship";
+	private static final String OOXML_RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+	private static final String OOXML_RELTYPE_OFFICEDOCUMENT = "/officeDocument";
+	private static final String OOXML_PACKAGE_RELS = "_rels/.rels";
+	private static final String OOXML_DEFAULT_WORKBOOK = "xl/workbook.xml";
+	private static final String OOXML_CONTENT_TYPES = "[Content_Types].xml";
+	private static final String OOXML_DOCPROPS_FOLDER = "docProps/";
+
+	private MSExcelDimensionUtil() {
+	}
+
+	/**
+	 * Reads the dimension of all sheets of an Excel document (.xls or .xlsx). The InputStream is read, but not closed.
+	 *
+	 * @param in InputStream containing the Excel document
+	 * @param password password of the document, null if the document is not encrypted
+	 * @return Map with sheet name as key and the used range of the sheet as value in the order of the sheets in the workbook. The value is null if the document does not contain dimension information for this sheet or the sheet is empty
+	 * @throws FormatNotUnderstoodException in case the format of the document is not supported or it cannot be decrypted
+	 */
+	public static Map<String, CellRangeAddress> getSheetDimensions(InputStream in, String password) throws FormatNotUnderstoodException {
+		return getSheetDimensions(in, password, null);
+	}
+
+	/**
+	 * Reads the dimension of all sheets of an Excel document (.xls or .xlsx) and, in the same pass, its document properties (see {@link MSExcelMetadataUtil}). The InputStream is read, but not closed.
+	 *
+	 * @param in InputStream containing the Excel document
+	 * @param password password of the document, null if the document is not encrypted
+	 * @param documentProperties map to which the document properties are added, null if they should not be read
+	 * @return Map with sheet name as key and the used range of the sheet as value in the order of the sheets in the workbook. The value is null if the document does not contain dimension information for this sheet or the sheet is empty
+	 * @throws FormatNotUnderstoodException in case the format of the document is not supported or it cannot be decrypted
+	 */
+	public static Map<String, CellRangeAddress> getSheetDimensions(InputStream in, String password, Map<String, String> documentProperties) throws FormatNotUnderstoodException {
+		try {
+			InputStream nin = FileMagic.prepareToCheckMagic(in);
+			FileMagic fm = FileMagic.valueOf(nin);
+			if (fm == FileMagic.OLE2) {
+				NPOIFSFileSystem poifs = new NPOIFSFileSystem(nin);
+				try {
+					if (poifs.getRoot().hasEntry(Decryptor.DEFAULT_POIFS_ENTRY)) {
+						LOG.debug("Reading dimensions of new Excel file (.xlsx) - encrypted file");
+						EncryptionInfo info = new EncryptionInfo(poifs);
+						Decryptor d = Decryptor.getInstance(info);
+						try {
+							if (!d.verifyPassword(password == null ? Decryptor.DEFAULT_PASSWORD : password)) {
+								throw new FormatNotUnderstoodException("Error: Cannot decrypt new Excel file (.xlsx) to read dimensions: wrong password");
+							}
+							try (InputStream din = d.getDataStream(poifs)) {
+								return getSheetDimensionsOOXML(din, documentProperties);
+							}
+						} catch (GeneralSecurityException e) {
+							LOG.error(e);
+							throw new FormatNotUnderstoodException("Error: Cannot decrypt new Excel file (.xlsx) to read dimensions");
+						}
+					}
+					LOG.debug("Reading dimensions of old Excel file (.xls)");
+					if (documentProperties != null) {
+						documentProperties.putAll(MSExcelMetadataUtil.getMetadata(poifs.getRoot()));
+					}
+					return getSheetDimensionsBIFF(poifs, password);
+				} finally {
+					poifs.close();
+				}
+			} else if (fm == FileMagic.OOXML) {
+				LOG.debug("Reading dimensions of new Excel file (.xlsx) - not encrypted file");
+				return getSheetDimensionsOOXML(nin, documentProperties);
+			} else {
+				throw new FormatNotUnderstoodException("Could not detect Excel format to read dimensions");
+			}
+		} catch (EmptyFileException | IOException e) {
+			LOG.error(e);
+			throw new FormatNotUnderstoodException("Could not read dimensions of Excel file");
+		}
+	}
+
+	/**
+	 * Estimates the number of rows that a reader returns for a document based on the dimensions of its sheets. Selected sheets, skipped lines and headers are taken into account as configured.
+	 * Note: This is an estimate. Metadata filters are not applied and sheets without dimension information are counted as empty.
+	 *
+	 * @param sheetDimensions dimensions of the sheets, see {@link #getSheetDimensions(InputStream, String)}
+	 * @param hocr HadoopOffice configuration for reading files
+	 * @return estimated number of rows
+	 */
+	public static long getRowCount(Map<String, CellRangeAddress> sheetDimensions, HadoopOfficeReadConfiguration hocr) {
+		List<String> selectedSheets = new ArrayList<>();
+		if ((hocr.getSheets() != null) && (!"".equals(hocr.getSheets()))) {
+			for (String currentSheet : hocr.getSheets().split(":")) {
+				if (sheetDimensions.containsKey(currentSheet)) {
+					selectedSheets.add(currentSheet);
+				}
+			}
+		} else {
+			selectedSheets.addAll(sheetDimensions.keySet());
+		}
+		long result = 0;
+		boolean firstSheet = true;
+		for (String currentSheet : selectedSheets) {
+			CellRangeAddress currentDimension = sheetDimensions.get(currentSheet);
+			if (currentDimension == null) {
+				LOG.debug("No dimension information for sheet \"" + currentSheet + "\"");
+				continue;
+			}
+			// readers return all rows starting from the first row of a sheet
+			long currentRows = currentDimension.getLastRow() + 1L;
+			if (firstSheet || hocr.getSkipLinesAllSheets()) {
+				currentRows -= hocr.getSkipLines();
+			}
+			if ((firstSheet && hocr.getReadHeader()) || (!firstSheet && hocr.getIgnoreHeaderInAllSheets())) {
+				currentRows--;
+			}
+			result += Math.max(0, currentRows);
+			firstSheet = false;
+		}
+		return result;
+	}
+
+	/**
+	 * Reads dimensions of an old Excel file (.xls) using the event API. Processing stops after the last sheet substream.
+	 *
+	 * @param poifs file system of the document
+	 * @param password password of the document, null if not encrypted
+	 * @return dimensions of the sheets
+	 * @throws IOException
+	 * @throws FormatNotUnderstoodException
+	 */
+	private static Map<String, CellRangeAddress> getSheetDimensionsBIFF(NPOIFSFileSystem poifs, String password) throws IOException, FormatNotUnderstoodException {
+		if (password != null) {
+			Biff8EncryptionKey.setCurrentUserPassword(password);
+		}
+		InputStream din = poifs.createDocumentInputStream("Workbook");
+		try {
+			HSSFRequest req = new HSSFRequest();
+			BIFFDimensionsListener listener = new BIFFDimensionsListener();
+			req.addListener(listener, BOFRecord.sid);
+			req.addListener(listener, EOFRecord.sid);
+			req.addListener(listener, BoundSheetRecord.sid);
+			req.addListener(listener, DimensionsRecord.sid);
+			req.addListener(listener, RowRecord.sid);
+			HSSFEventFactory factory = new HSSFEventFactory();
+			factory.abortableProcessEvents(req, din);
+			return listener.getSheetDimensions();
+		} catch (EncryptedDocumentException | HSSFUserException e) {
+			LOG.error(e);
+			throw new FormatNotUnderstoodException("Cannot read dimensions of old Excel file (.xls)");
+		} finally {
+			Biff8EncryptionKey.setCurrentUserPassword(null);
+			din.close();
+		}
+	}
+
+	/**
+	 * Reads dimensions of a new Excel file (.xlsx) by streaming through the zip archive. Only the workbook part, relationship parts and the beginning of each worksheet part are parsed.
+	 * If document properties are requested then the content types, the package relationships and the docProps parts are copied to a small in-memory package from which the properties are read.
+	 *
+	 * @param in InputStream containing the zip archive
+	 * @param documentProperties map to which the document properties are added, null if they should not be read
+	 * @return dimensions of the sheets
+	 * @throws IOException
+	 * @throws FormatNotUnderstoodException
+	 */
+	private static Map<String, CellRangeAddress> getSheetDimensionsOOXML(InputStream in, Map<String, String> documentProperties) throws IOException, FormatNotUnderstoodException {
+		XMLInputFactory xif = XMLInputFactory.newInstance();
+		xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		Map<String, Map<String, String>> relationships = new HashMap<>();
+		Map<String, String> worksheetDimensions = new HashMap<>();
+		Map<String, String> workbookSheets = new LinkedHashMap<>();
+		String workbookPart = null;
+		String officeDocumentPart = null;
+		ByteArrayOutputStream propertiesPackage = null;
+		ZipOutputStream propertiesZos = null;
+		if (documentProperties != null) {
+			propertiesPackage = new ByteArrayOutputStream();
+			propertiesZos = new ZipOutputStream(propertiesPackage);
+		}
+		ZipInputStream zis = new ZipInputStream(in);
+		try {
+			ZipEntry currentEntry = zis.getNextEntry();
+			while (currentEntry != null) {
+				String currentName = currentEntry.getName();
+				if (currentName.startsWith("/")) {
+					currentName = currentName.substring(1);
+				}
+				InputStream currentIn = zis;
+				if ((propertiesZos != null) && !currentEntry.isDirectory() && (OOXML_CONTENT_TYPES.equals(currentName) || OOXML_PACKAGE_RELS.equals(currentName) || currentName.startsWith(OOXML_DOCPROPS_FOLDER))) {
+					byte[] currentContent = IOUtils.toByteArray(zis);
+					propertiesZos.putNextEntry(new ZipEntry(currentName));
+					propertiesZos.write(currentContent);
+					propertiesZos.closeEntry();
+					currentIn = new ByteArrayInputStream(currentContent);
+				}
+				if (!currentEntry.isDirectory() && (currentName.endsWith(".rels") || currentName.endsWith(".xml"))) {
+					XMLStreamReader reader = xif.createXMLStreamReader(currentIn);
+					try {
+						if (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+							String rootElement = reader.getLocalName();
+							if (currentName.endsWith(".rels")) {
+								Map<String, String> currentRelationships = new HashMap<>();
+								String currentOfficeDocument = readRelationships(reader, currentRelationships);
+								relationships.put(currentName, currentRelationships);
+								if (OOXML_PACKAGE_RELS.equals(currentName)) {
+									officeDocumentPart = currentOfficeDocument;
+								}
+							} else if (OOXML_ELEMENT_WORKBOOK.equals(rootElement)) {
+								workbookPart = currentName;
+								readWorkbookSheets(reader, workbookSheets);
+							} else if (OOXML_ELEMENT_WORKSHEET.equals(rootElement)) {
+								worksheetDimensions.put(currentName, readWorksheetDimension(reader));
+							}
+						}
+					} finally {
+						reader.close();
+					}
+				}
+				currentEntry = zis.getNextEntry();
+			}
+		} catch (XMLStreamException e) {
+			LOG.error(e);
+			throw new FormatNotUnderstoodException("Cannot read dimensions of new Excel file (.xlsx)");
+		}
+		if (propertiesZos != null) {
+			propertiesZos.close();
+			documentProperties.putAll(readDocumentProperties(propertiesPackage.toByteArray()));
+		}
+		if (officeDocumentPart != null) {
+			workbookPart = resolvePartName("", officeDocumentPart);
+		}
+		if (workbookPart == null) {
+			workbookPart = OOXML_DEFAULT_WORKBOOK;
+		}
+		Map<String, String> workbookRelationships = relationships.get(getRelationshipPartName(workbookPart));
+		if (workbookRelationships == null) {
+			throw new FormatNotUnderstoodException("Cannot read dimensions of new Excel file (.xlsx): no relationships for workbook");
+		}
+		Map<String, CellRangeAddress> result = new LinkedHashMap<>();
+		for (Map.Entry<String, String> currentSheet : workbookSheets.entrySet()) {
+			String target = workbookRelationships.get(currentSheet.getValue());
+			String dimension = null;
+			if (target != null) {
+				dimension = worksheetDimensions.get(resolvePartName(workbookPart, target));
+			}
+			result.put(currentSheet.getKey(), dimension == null ? null : CellRangeAddress.valueOf(dimension));
+		}
+		return result;
+	}
+
+	/**
+	 * Reads the document properties from a package containing only the property parts
+	 *
+	 * @param propertiesPackage zip archive with content types, package relationships and docProps parts
+	 * @return document properties
+	 * @throws IOException
+	 * @throws FormatNotUnderstoodException
+	 */
+	private static Map<String, String> readDocumentProperties(byte[] propertiesPackage) throws IOException, FormatNotUnderstoodException {
+		OPCPackage pkg;
+		try {
+			pkg = OPCPackage.open(new ByteArrayInputStream(propertiesPackage));
+		} catch (InvalidFormatException e) {
+			LOG.error(e);
+			throw new FormatNotUnderstoodException("Cannot read document properties of new Excel file (.xlsx)");
+		}
+		try {
+			return MSExcelMetadataUtil.getMetadata(pkg);
+		} finally {
+			pkg.revert();
+		}
+	}
+
+	/**
+	 * Reads all relationships of a relationship part
+	 *
+	 * @param reader reader positioned at the root element
+	 * @param idTargetMap map to which id and target of the relationships are added
+	 * @return target of the office document relationship, if any
+	 * @throws XMLStreamException
+	 */
+	private static String readRelationships(XMLStreamReader reader, Map<String, String> idTargetMap) throws XMLStreamException {
+		String result = null;
+		while (reader.hasNext()) {
+			if ((reader.next() == XMLStreamConstants.START_ELEMENT) && (OOXML_ELEMENT_RELATIONSHIP.equals(reader.getLocalName()))) {
+				String id = reader.getAttributeValue(null, "Id");
+				String target = reader.getAttributeValue(null, "Target");
+				String type = reader.getAttributeValue(null, "Type");
+				if ((id != null) && (target != null)) {
+					idTargetMap.put(id, target);
+				}
+				if ((type != null) && (type.endsWith(OOXML_RELTYPE_OFFICEDOCUMENT))) {
+					result = target;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Reads the names and relationship ids of all sheets from the workbook part
+	 *
+	 * @param reader reader positioned at the root element
+	 * @param nameIdMap map to which sheet name and relationship id are added in the order of the workbook
+	 * @throws XMLStreamException
+	 */
+	private static void readWorkbookSheets(XMLStreamReader reader, Map<String, String> nameIdMap) throws XMLStreamException {
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if ((event == XMLStreamConstants.START_ELEMENT) && (OOXML_ELEMENT_SHEET.equals(reader.getLocalName()))) {
+				nameIdMap.put(reader.getAttributeValue(null, "name"), reader.getAttributeValue(OOXML_RELATIONSHIPS_NS, "id"));
+			} else if ((event == XMLStreamConstants.END_ELEMENT) && (OOXML_ELEMENT_SHEETS.equals(reader.getLocalName()))) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Reads the dimension of a worksheet part. The dimension element is located before the cell data, so only the beginning of the part is parsed.
+	 *
+	 * @param reader reader positioned at the root element
+	 * @return reference of the dimension, e.g. A1:D10, or null if there is no dimension element or the sheet does not contain any row
+	 * @throws XMLStreamException
+	 */
+	private static String readWorksheetDimension(XMLStreamReader reader) throws XMLStreamException {
+		String result = null;
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				if (OOXML_ELEMENT_DIMENSION.equals(reader.getLocalName())) {
+					result = reader.getAttributeValue(null, "ref");
+					// empty sheets have the dimension A1, so only for a single cell it needs to be checked if the sheet contains any row
+					if ((result == null) || (result.indexOf(':') != -1)) {
+						return result;
+					}
+				} else if (OOXML_ELEMENT_ROW.equals(reader.getLocalName())) {
+					return result;
+				}
+			} else if ((event == XMLStreamConstants.END_ELEMENT) && (OOXML_ELEMENT_SHEETDATA.equals(reader.getLocalName()))) {
+				return null;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Resolves the target of a relationship relative to its source part
+	 *
+	 * @param sourcePart name of the source part in the zip archive, empty for package relationships
+	 * @param target target of the relationship
+	 * @return name of the target part in the zip archive
+	 */
+	private static String resolvePartName(String sourcePart, String target) {
+		try {
+			return new URI("/" + sourcePart).resolve(new URI(target)).getPath().substring(1);
+		} catch (URISyntaxException e) {
+			LOG.warn("Cannot resolve relationship target \"" + target + "\"", e);
+			return target.startsWith("/") ? target.substring(1) : target;
+		}
+	}
+
+	/**
+	 * Returns the name of the relationship part of a given part, e.g. xl/_rels/workbook.xml.rels for xl/workbook.xml
+	 *
+	 * @param part name of the part
+	 * @return name of the relationship part
+	 */
+	private static String getRelationshipPartName(String part) {
+		int lastSlash = part.lastIndexOf('/');
+		return part.substring(0, lastSlash + 1) + "_rels/" + part.substring(lastSlash + 1) + ".rels";
+	}
+
+	/**
+	 * Listener collecting bound sheets and dimensions records of old Excel files (.xls)
+	 *
+	 */
+	private static class BIFFDimensionsListener extends AbortableHSSFListener {
+		private List<BoundSheetRecord> boundSheets = new ArrayList<>();
+		private BoundSheetRecord[] orderedBoundSheets;
+		private Map<String, CellRangeAddress> sheetDimensions = new HashMap<>();
+		private int depth = 0;
+		private int currentSheet = -1;
+		private boolean currentSheetEmpty = false;
+
+		@Override
+		public short abortableProcessRecord(Record record) {
+			switch (record.getSid()) {
+			case BOFRecord.sid:
+				if ((this.depth == 0) && (((BOFRecord) record).getType() != BOFRecord.TYPE_WORKBOOK)) {
+					if (this.orderedBoundSheets == null) {
+						this.orderedBoundSheets = BoundSheetRecord.orderByBofPosition(this.boundSheets);
+					}
+					this.currentSheet++;
+				}
+				this.depth++;
+				break;
+			case EOFRecord.sid:
+				this.depth--;
+				if ((this.depth == 0) && (this.currentSheetEmpty)) {
+					this.sheetDimensions.put(this.orderedBoundSheets[this.currentSheet].getSheetname(), null);
+					this.currentSheetEmpty = false;
+				}
+				if ((this.depth == 0) && (this.currentSheet + 1 >= this.boundSheets.size())) {
+					// all sheets processed, no need to read remaining records
+					return 1;
+				}
+				break;
+			case BoundSheetRecord.sid:
+				this.boundSheets.add((BoundSheetRecord) record);
+				break;
+			case DimensionsRecord.sid:
+				if ((this.depth == 1) && (this.orderedBoundSheets != null) && (this.currentSheet >= 0) && (this.currentSheet < this.orderedBoundSheets.length)) {
+					DimensionsRecord dr = (DimensionsRecord) record;
+					// last row and last column in the dimensions record are the first row and column after the used range
+					CellRangeAddress dimension = new CellRangeAddress(dr.getFirstRow(), Math.max(dr.getFirstRow(), dr.getLastRow() - 1), dr.getFirstCol(), Math.max(dr.getFirstCol(), dr.getLastCol() - 1));
+					this.sheetDimensions.put(this.orderedBoundSheets[this.currentSheet].getSheetname(), dimension);
+					// empty sheets have a dimension of one cell, so it needs to be checked if the sheet contains any row
+					this.currentSheetEmpty = dimension.getNumberOfCells() == 1;
+				}
+				break;
+			case RowRecord.sid:
+				this.currentSheetEmpty = false;
+				break;
+			default:
+				break;
+			}
+			return 0;
+		}
+
+		/**
+		 * Returns the collected dimensions in the order of the sheets in the workbook
+		 *
+		 * @return dimensions of the sheets
+		 */
+		public Map<String, CellRangeAddress> getSheetDimensions() {
+			Map<String, CellRangeAddress> result = new LinkedHashMap<>();
+			for (BoundSheetRecord currentBoundSheet : this.boundSheets) {
+				result.put(currentBoundSheet.getSheetname(), this.sheetDimensions.get(currentBoundSheet.getSheetname()));
+			}
+			return result;
+		}
+	}
+
+}
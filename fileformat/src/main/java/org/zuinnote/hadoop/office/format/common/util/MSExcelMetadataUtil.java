@@ -0,0 +1,266 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.util;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.poi.POIXMLProperties;
+import org.apache.poi.hpsf.CustomProperties;
+import org.apache.poi.hpsf.DocumentSummaryInformation;
+import org.apache.poi.hpsf.HPSFException;
+import org.apache.poi.hpsf.PropertySet;
+import org.apache.poi.hpsf.PropertySetFactory;
+import org.apache.poi.hpsf.SummaryInformation;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.poifs.filesystem.DirectoryNode;
+import org.apache.xmlbeans.XmlException;
+import org.openxmlformats.schemas.officeDocument.x2006.customProperties.CTProperty;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+import org.zuinnote.hadoop.office.format.common.parser.MSExcelParser;
+
+/**
+ * Reads the document properties of Excel files without loading any sheet and
+ * evaluates the metadata filter of the HadoopOffice read configuration on them.
+ * For .xlsx files only docProps/core.xml, docProps/app.xml and
+ * docProps/custom.xml are parsed, for .xls files only the SummaryInformation
+ * and DocumentSummaryInformation streams.
+ *
+ */
+public class MSExcelMetadataUtil {
+	private static final Log LOG = LogFactory.getLog(MSExcelMetadataUtil.class.getName());
+	public static final String MATCH_ALL = "matchAll";
+	public static final String CUSTOM_PREFIX = "custom.";
+	public static final String SHEETS = "sheets";
+	public static final String SHEET_PREFIX = "sheet.";
+	private static final String[] HSSF_PROPERTIES = { "applicationname", "author", "charcount", "comments",
+			"createddatetime", "edittime", "keywords", "lastauthor", "lastprinted", "lastsavedatetime", "pagecount",
+			"revnumber", "security", "subject", "template", "title", "wordcount" };
+
+	private MSExcelMetadataUtil() {
+	}
+
+	/**
+	 * Reads the document properties of an OOXML (.xlsx) package. Only the
+	 * property parts of the package are parsed.
+	 *
+	 * @param pkg package of the document
+	 * @return map of property name and its value (null if the property is not
+	 *         set), custom properties are prefixed with "custom."
+	 * @throws FormatNotUnderstoodException in case the property parts cannot be
+	 *                                      read
+	 */
+	public static Map<String, String> getMetadata(OPCPackage pkg) throws FormatNotUnderstoodException {
+		try {
+			return getMetadata(new POIXMLProperties(pkg));
+		} catch (IOException | OpenXML4JException | XmlException e) {
+			LOG.error(e);
+			throw new FormatNotUnderstoodException("Cannot read document properties of new Excel file (.xlsx): " + e);
+		}
+	}
+
+	/**
+	 * Converts the document properties of an OOXML (.xlsx) document. Dates are
+	 * formatted according to MSExcelParser.DATE_FORMAT
+	 *
+	 * @param props properties of the document
+	 * @return map of property name and its value (null if the property is not
+	 *         set), custom properties are prefixed with "custom."
+	 */
+	public static Map<String, String> getMetadata(POIXMLProperties props) {
+		Map<String, String> result = new LinkedHashMap<>();
+		SimpleDateFormat format = new SimpleDateFormat(MSExcelParser.DATE_FORMAT);
+		POIXMLProperties.CoreProperties coreProp = props.getCoreProperties();
+		result.put("category", coreProp.getCategory());
+		result.put("contentstatus", coreProp.getContentStatus());
+		result.put("contenttype", coreProp.getContentType());
+		result.put("created", formatDate(format, coreProp.getCreated()));
+		result.put("creator", coreProp.getCreator());
+		result.put("description", coreProp.getDescription());
+		result.put("identifier", coreProp.getIdentifier());
+		result.put("keywords", coreProp.getKeywords());
+		result.put("lastmodifiedbyuser", coreProp.getLastModifiedByUser());
+		result.put("lastprinted", formatDate(format, coreProp.getLastPrinted()));
+		result.put("modified", formatDate(format, coreProp.getModified()));
+		result.put("revision", coreProp.getRevision());
+		result.put("subject", coreProp.getSubject());
+		result.put("title", coreProp.getTitle());
+		POIXMLProperties.CustomProperties custProp = props.getCustomProperties();
+		if ((custProp != null) && (custProp.getUnderlyingProperties() != null)) {
+			for (CTProperty currentProperty : custProp.getUnderlyingProperties().getPropertyList()) {
+				if (currentProperty.getName() != null) {
+					result.put(CUSTOM_PREFIX + currentProperty.getName(),
+							currentProperty.isSetLpwstr() ? currentProperty.getLpwstr() : null);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Reads the document properties of an OLE2 (.xls) document. Only the
+	 * SummaryInformation and DocumentSummaryInformation streams are parsed.
+	 *
+	 * @param root root directory of the OLE2 file system
+	 * @return map of property name and its value (null if the property is not
+	 *         set), custom properties are prefixed with "custom."
+	 */
+	public static Map<String, String> getMetadata(DirectoryNode root) {
+		SummaryInformation summaryInfo = null;
+		DocumentSummaryInformation docSummaryInfo = null;
+		PropertySet currentSet = readPropertySet(root, SummaryInformation.DEFAULT_STREAM_NAME);
+		if (currentSet instanceof SummaryInformation) {
+			summaryInfo = (SummaryInformation) currentSet;
+		}
+		currentSet = readPropertySet(root, DocumentSummaryInformation.DEFAULT_STREAM_NAME);
+		if (currentSet instanceof DocumentSummaryInformation) {
+			docSummaryInfo = (DocumentSummaryInformation) currentSet;
+		}
+		return getMetadata(summaryInfo, docSummaryInfo);
+	}
+
+	/**
+	 * Converts the document properties of an OLE2 (.xls) document
+	 *
+	 * @param summaryInfo    summary information of the document (can be null)
+	 * @param docSummaryInfo document summary information containing the custom
+	 *                       properties (can be null)
+	 * @return map of property name and its value (null if the property is not
+	 *         set), custom properties are prefixed with "custom."
+	 */
+	public static Map<String, String> getMetadata(SummaryInformation summaryInfo,
+			DocumentSummaryInformation docSummaryInfo) {
+		Map<String, String> result = new LinkedHashMap<>();
+		if (summaryInfo != null) {
+			result.put("applicationname", summaryInfo.getApplicationName());
+			result.put("author", summaryInfo.getAuthor());
+			result.put("charcount", String.valueOf(summaryInfo.getCharCount()));
+			result.put("comments", summaryInfo.getComments());
+			result.put("createddatetime", toString(summaryInfo.getCreateDateTime()));
+			result.put("edittime", String.valueOf(summaryInfo.getEditTime()));
+			result.put("keywords", summaryInfo.getKeywords());
+			result.put("lastauthor", summaryInfo.getLastAuthor());
+			result.put("lastprinted", toString(summaryInfo.getLastPrinted()));
+			result.put("lastsavedatetime", toString(summaryInfo.getLastSaveDateTime()));
+			result.put("pagecount", String.valueOf(summaryInfo.getPageCount()));
+			result.put("revnumber", summaryInfo.getRevNumber());
+			result.put("security", String.valueOf(summaryInfo.getSecurity()));
+			result.put("subject", summaryInfo.getSubject());
+			result.put("template", summaryInfo.getTemplate());
+			result.put("title", summaryInfo.getTitle());
+			result.put("wordcount", String.valueOf(summaryInfo.getWordCount()));
+		} else { // document without summary information does not match any filter on it
+			for (String propertyName : HSSF_PROPERTIES) {
+				result.put(propertyName, null);
+			}
+		}
+		if ((docSummaryInfo != null) && (docSummaryInfo.getCustomProperties() != null)) {
+			CustomProperties custProp = docSummaryInfo.getCustomProperties();
+			for (Map.Entry<String, Object> entry : custProp.entrySet()) {
+				result.put(CUSTOM_PREFIX + entry.getKey(), toString(entry.getValue()));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Checks if the metadata of a document matches the metadata filter of the
+	 * configuration. Filter keys that are not metadata of the document format are
+	 * ignored, with the exception of custom properties, which do not match if the
+	 * document does not define them. The regular expressions are compiled only
+	 * once per configuration.
+	 *
+	 * @param metadata metadata of the document as returned by getMetadata
+	 * @param hocr     HadoopOffice read configuration containing the metadata
+	 *                 filter
+	 * @return true, if the document matches the filter or no filter is defined,
+	 *         false if not
+	 */
+	public static boolean matchesMetaDataFilter(Map<String, String> metadata, HadoopOfficeReadConfiguration hocr) {
+		Map<String, String> filter = hocr.getMetaDataFilter();
+		if ((filter == null) || (filter.size() == 0)) { // if no filter is defined it does match by definition
+			return true;
+		}
+		boolean matchAll = true;
+		String matchAllStr = filter.get(MATCH_ALL);
+		if (matchAllStr != null) {
+			if ("true".equalsIgnoreCase(matchAllStr)) {
+				LOG.debug("matching all metadata properties");
+			} else if ("false".equalsIgnoreCase(matchAllStr)) {
+				matchAll = false;
+				LOG.debug("matching at least one metadata property");
+			} else {
+				LOG.error(
+						"Metadata property matchAll not defined correctly. Assuming that all metadata properties need to match");
+			}
+		}
+		boolean matchFull = true;
+		boolean matchOnce = false;
+		for (Map.Entry<String, Pattern> entry : hocr.getMetaDataFilterPatterns().entrySet()) {
+			String propertyName = entry.getKey();
+			boolean isCustom = propertyName.startsWith(CUSTOM_PREFIX) && (propertyName.length() > CUSTOM_PREFIX.length());
+			if ((!isCustom) && (!metadata.containsKey(propertyName))) {
+				continue;
+			}
+			String propertyValue = metadata.get(propertyName);
+			if ((propertyValue != null) && (entry.getValue().matcher(propertyValue).matches())) {
+				matchOnce = true;
+			} else {
+				matchFull = false;
+				LOG.debug("Not matching: " + propertyName + "=" + propertyValue + ":" + entry.getValue().pattern());
+			}
+		}
+		if (!(matchAll)) {
+			return matchOnce;
+		}
+		return matchFull;
+	}
+
+	private static PropertySet readPropertySet(DirectoryNode root, String streamName) {
+		if (!root.hasEntry(streamName)) {
+			return null;
+		}
+		try {
+			return PropertySetFactory.create(root, streamName);
+		} catch (IOException | HPSFException e) {
+			LOG.warn("Cannot read document property stream \"" + streamName + "\"", e);
+			return null;
+		}
+	}
+
+	private static String formatDate(SimpleDateFormat format, Date date) {
+		if (date == null) {
+			return null;
+		}
+		return format.format(date);
+	}
+
+	private static String toString(Object value) {
+		if (value == null) {
+			return null;
+		}
+		return value.toString();
+	}
+
+}
@@ -0,0 +1,236 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.util;
+
+import java.security.InvalidAlgorithmParameterException;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.poifs.crypt.dsig.SignatureConfig;
+import org.apache.poi.poifs.crypt.dsig.SignatureInfo;
+import org.apache.poi.poifs.crypt.dsig.SignatureInfo.SignaturePart;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+
+/**
+ * Verifies the signature of an OOXML Excel file. The signature parts are independent of each other and are validated in parallel by a bounded number of threads (hadoopoffice.read.security.sign.verifysignature.threads), while the caller can continue to work with the package, e.g. parse its sheets. The parts of the package must support concurrent reads for this.
+ * The caller has to wait for the result of the verification before returning any data of the document.
+ *
+ */
+public class MSExcelOOXMLSignVerificationUtil {
+	private static final Log LOG = LogFactory.getLog(MSExcelOOXMLSignVerificationUtil.class.getName());
+	private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+	private HadoopOfficeReadConfiguration hocr;
+	private ExecutorService executor;
+	private List<Future<Void>> verificationResults;
+	private final AtomicLong verificationTime = new AtomicLong();
+
+	public MSExcelOOXMLSignVerificationUtil(HadoopOfficeReadConfiguration hocr) {
+		this.hocr = hocr;
+	}
+
+	/**
+	 * Starts the verification of all signature parts of the package. If the number of threads is 0 then the signature parts are validated before this method returns.
+	 *
+	 * @param pkg OOXML package
+	 * @throws FormatNotUnderstoodException in case the document has no signature or (in case of 0 threads) the signature cannot be verified
+	 */
+	public void startVerification(final OPCPackage pkg) throws FormatNotUnderstoodException {
+		this.startVerification(pkg, this.hocr.getVerifySignatureThreads());
+	}
+
+	/**
+	 * Validates all signature parts of the package before this method returns, independent of the configured number of threads. This is needed if the parts of the package cannot be read concurrently, e.g. because it is stored in an encrypted temporary file
+	 *
+	 * @param pkg OOXML package
+	 * @throws FormatNotUnderstoodException in case the document has no signature or the signature cannot be verified
+	 */
+	public void verify(final OPCPackage pkg) throws FormatNotUnderstoodException {
+		this.startVerification(pkg, 0);
+	}
+
+	/**
+	 * Starts the verification of all signature parts of the package
+	 *
+	 * @param pkg OOXML package
+	 * @param maxThreads maximum number of threads to validate the signature parts. If it is 0 then the signature parts are validated before this method returns
+	 * @throws FormatNotUnderstoodException in case the document has no signature or (in case of 0 threads) the signature cannot be verified
+	 */
+	private void startVerification(final OPCPackage pkg, int maxThreads) throws FormatNotUnderstoodException {
+		LOG.info("Verifying signature of document");
+		List<SignaturePart> signatureParts = getSignatureParts(pkg);
+		if (signatureParts.isEmpty()) {
+			throw new FormatNotUnderstoodException("Cannot verify signature of OOXML (.xlsx) file: " + this.hocr.getFileName());
+		}
+		if ((this.hocr.getX509CertificateChain().size() > 0) && (this.hocr.getX509CertificateChainFingerprint() == null)) {
+			// calculate the fingerprint of the truststore only once and not for each signature part
+			try {
+				this.hocr.setX509CertificateChainFingerprint(CertificateChainVerificationUtil.getFingerprint(this.hocr.getX509CertificateChain()));
+			} catch (CertificateException | NoSuchAlgorithmException e) {
+				LOG.error("Could not calculate fingerprint of the truststore for file: " + this.hocr.getFileName(), e);
+				throw new FormatNotUnderstoodException("Could not validate signature of file: " + this.hocr.getFileName());
+			}
+		}
+		this.verificationResults = new ArrayList<>(signatureParts.size());
+		int threads = Math.min(maxThreads, signatureParts.size());
+		if (threads <= 0) {
+			for (int i = 0; i < signatureParts.size(); i++) {
+				this.validateSignaturePart(signatureParts.get(i), i);
+			}
+			LOG.info("Successfully verifed all signatures of OXXML (.xlsx) file: " + this.hocr.getFileName());
+			return;
+		}
+		LOG.debug("Validating " + signatureParts.size() + " signature parts with " + threads + " threads");
+		this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread result = new Thread(r, "hadoopoffice-signature-verification-" + THREAD_COUNTER.incrementAndGet());
+				result.setDaemon(true);
+				return result;
+			}
+		});
+		for (int i = 0; i < signatureParts.size(); i++) {
+			final int partNumber = i;
+			this.verificationResults.add(this.executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws FormatNotUnderstoodException {
+					// each task uses its own signature configuration, because it is not safe to share it between threads
+					validateSignaturePart(getSignatureParts(pkg).get(partNumber), partNumber);
+					return null;
+				}
+			}));
+		}
+		this.executor.shutdown();
+	}
+
+	/**
+	 * Determines the signature parts of the package based on a new signature configuration
+	 *
+	 * @param pkg OOXML package
+	 * @return signature parts in the order of the package
+	 */
+	private static List<SignaturePart> getSignatureParts(OPCPackage pkg) {
+		SignatureConfig sic = new SignatureConfig();
+		sic.setOpcPackage(pkg);
+		SignatureInfo si = new SignatureInfo();
+		si.setSignatureConfig(sic);
+		List<SignaturePart> result = new ArrayList<>();
+		for (SignaturePart currentSP : si.getSignatureParts()) {
+			result.add(currentSP);
+		}
+		return result;
+	}
+
+	/**
+	 * Waits until all signature parts have been validated. If several signature parts are invalid then the error of the first one is reported.
+	 *
+	 * @throws FormatNotUnderstoodException in case the signature cannot be verified
+	 */
+	public void awaitVerification() throws FormatNotUnderstoodException {
+		if (this.executor == null) {
+			return;
+		}
+		try {
+			for (Future<Void> currentResult : this.verificationResults) {
+				currentResult.get();
+			}
+			LOG.info("Successfully verifed all signatures of OXXML (.xlsx) file: " + this.hocr.getFileName());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FormatNotUnderstoodException("Interrupted while verifying signature of file: " + this.hocr.getFileName());
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof FormatNotUnderstoodException) {
+				throw (FormatNotUnderstoodException) e.getCause();
+			}
+			LOG.error("Could not validate all signature parts for file: " + this.hocr.getFileName(), e.getCause());
+			throw new FormatNotUnderstoodException("Could not validate all signature parts for file: " + this.hocr.getFileName());
+		} finally {
+			this.close();
+		}
+	}
+
+	/**
+	 * Stops validation that is still running, e.g. because parsing the document failed
+	 */
+	public void close() {
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+			this.executor = null;
+		}
+	}
+
+	/**
+	 * Returns the time spent on validating the signature parts and certificate chains. If the parts are validated in parallel then this is the sum of the time of all threads
+	 *
+	 * @return validation time in milliseconds
+	 */
+	public long getVerificationTime() {
+		return this.verificationTime.get() / 1000000L;
+	}
+
+	/**
+	 * Validates one signature part and the certificate chain of its signer
+	 *
+	 * @param currentSP  signature part
+	 * @param partNumber number of the part in the document
+	 * @throws FormatNotUnderstoodException in case the part or the certificate chain cannot be validated
+	 */
+	private void validateSignaturePart(SignaturePart currentSP, int partNumber) throws FormatNotUnderstoodException {
+		long startTime = System.nanoTime();
+		try {
+			this.validateSignaturePartAndSigner(currentSP, partNumber);
+		} finally {
+			this.verificationTime.addAndGet(System.nanoTime() - startTime);
+		}
+	}
+
+	private void validateSignaturePartAndSigner(SignaturePart currentSP, int partNumber) throws FormatNotUnderstoodException {
+		if (!(currentSP.validate())) {
+			if (partNumber == 0) {
+				throw new FormatNotUnderstoodException("Cannot verify signature of OOXML (.xlsx) file: " + this.hocr.getFileName());
+			}
+			throw new FormatNotUnderstoodException("Could not validate all signature parts for file: " + this.hocr.getFileName());
+		}
+		if (partNumber == 0) {
+			LOG.info("Successfully verifed first part signature of OXXML (.xlsx) file: " + this.hocr.getFileName());
+		}
+		X509Certificate currentCertificate = currentSP.getSigner();
+		try {
+			if ((this.hocr.getX509CertificateChain().size() > 0) && (!CertificateChainVerificationUtil.verifyCertificateChain(currentCertificate, this.hocr.getX509CertificateChain(), this.hocr.getX509CertificateChainFingerprint()))) {
+				throw new FormatNotUnderstoodException("Could not validate signature part for principal \"" + currentCertificate.getSubjectX500Principal().getName() + "\" : " + this.hocr.getFileName());
+			}
+		} catch (CertificateException | NoSuchAlgorithmException | NoSuchProviderException | InvalidAlgorithmParameterException e) {
+			LOG.error("Could not validate signature part for principal \"" + currentCertificate.getSubjectX500Principal().getName() + "\" : " + this.hocr.getFileName(), e);
+			throw new FormatNotUnderstoodException("Could not validate signature part for principal \"" + currentCertificate.getSubjectX500Principal().getName() + "\" : " + this.hocr.getFileName());
+		}
+	}
+
+}
@@ -0,0 +1,151 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.poi.util.IOUtils;
+
+/**
+ * JVM-wide cache of the content of templates. Usually all writers of a job (e.g. hundreds of reducers) create their documents from the same template, which would otherwise be read from the filesystem by every writer.
+ *
+ * A template is identified by its location, length and modification time, so that a changed file is read again. The content is kept as it is stored in the file, ie an encrypted template stays encrypted and is only decrypted by the writer knowing its password.
+ * Note: Every writer still parses the cached content, because it modifies the workbook of the template.
+ * The cached templates are bounded by their total size. The least recently used templates are evicted first.
+ *
+ */
+public class TemplateCache {
+	private static final Log LOG = LogFactory.getLog(TemplateCache.class.getName());
+	/** least recently used template first **/
+	private static final LinkedHashMap<FileVersion, byte[]> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+	private static long cachedSize = 0L;
+
+	private TemplateCache() {
+	}
+
+	/**
+	 * Returns the content of a template. It is read only if it is not cached yet
+	 *
+	 * @param version  location, length and modification time of the template file
+	 * @param opener   opens the template file if it is not cached
+	 * @param maxSize  maximum total size of cached templates in bytes. If it is not greater than 0 then the template file is returned without caching it
+	 * @return content of the template
+	 * @throws IOException in case the template file cannot be read
+	 */
+	public static InputStream get(FileVersion version, TemplateOpener opener, long maxSize) throws IOException {
+		if ((version == null) || (maxSize <= 0)) {
+			return opener.open();
+		}
+		byte[] content;
+		synchronized (CACHE) {
+			content = CACHE.get(version);
+		}
+		if (content != null) {
+			LOG.debug("Reusing cached template \"" + version.getLocation() + "\"");
+			return new ByteArrayInputStream(content);
+		}
+		try (InputStream templateIn = opener.open()) {
+			content = IOUtils.toByteArray(templateIn);
+		}
+		put(version, content, maxSize);
+		return new ByteArrayInputStream(content);
+	}
+
+	/**
+	 * Adds the content of a template to the cache. Previous versions of the same template file and templates exceeding the maximum total size are removed
+	 *
+	 * @param version location, length and modification time of the template file
+	 * @param content content of the template
+	 * @param maxSize maximum total size of cached templates in bytes
+	 */
+	private static void put(FileVersion version, byte[] content, long maxSize) {
+		if (content.length > maxSize) {
+			return;
+		}
+		synchronized (CACHE) {
+			Iterator<Map.Entry<FileVersion, byte[]>> iter = CACHE.entrySet().iterator();
+			while (iter.hasNext()) {
+				Map.Entry<FileVersion, byte[]> currentEntry = iter.next();
+				if (currentEntry.getKey().getLocation().equals(version.getLocation())) {
+					cachedSize -= currentEntry.getValue().length;
+					iter.remove();
+				}
+			}
+			LOG.debug("Caching template \"" + version.getLocation() + "\"");
+			CACHE.put(version, content);
+			cachedSize += content.length;
+			iter = CACHE.entrySet().iterator();
+			while (cachedSize > maxSize) {
+				cachedSize -= iter.next().getValue().length;
+				iter.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes all cached versions of a template, e.g. because it has been overwritten
+	 *
+	 * @param location location of the template file
+	 */
+	public static void invalidate(String location) {
+		synchronized (CACHE) {
+			Iterator<Map.Entry<FileVersion, byte[]>> iter = CACHE.entrySet().iterator();
+			while (iter.hasNext()) {
+				Map.Entry<FileVersion, byte[]> currentEntry = iter.next();
+				if (currentEntry.getKey().getLocation().equals(location)) {
+					cachedSize -= currentEntry.getValue().length;
+					iter.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes all cached templates
+	 */
+	public static void clear() {
+		synchronized (CACHE) {
+			CACHE.clear();
+			cachedSize = 0L;
+		}
+	}
+
+	/**
+	 *
+	 * @return number of cached templates
+	 */
+	static int size() {
+		synchronized (CACHE) {
+			return CACHE.size();
+		}
+	}
+
+	/**
+	 * Opens a template file, e.g. via the Hadoop or Flink filesystem API
+	 *
+	 */
+	public interface TemplateOpener {
+		InputStream open() throws IOException;
+	}
+
+}
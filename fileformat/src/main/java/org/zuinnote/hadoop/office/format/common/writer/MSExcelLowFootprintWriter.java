@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
@@ -72,9 +73,12 @@ import org.apache.poi.xssf.streaming.SXSSFRow;
 import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
 import org.zuinnote.hadoop.office.format.common.HadoopOfficeWriteConfiguration;
+import org.zuinnote.hadoop.office.format.common.OfficeMetrics;
 import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
 import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+import org.zuinnote.hadoop.office.format.common.parser.MSExcelParser;
 import org.zuinnote.hadoop.office.format.common.util.MSExcelOOXMLSignUtil;
 
 /**
@@ -95,6 +99,9 @@ public class MSExcelLowFootprintWriter implements OfficeSpreadSheetWriterInterfa
 	private Map<String,Drawing> mappedDrawings;
 
 	private MSExcelOOXMLSignUtil signUtil;
+	private long cellsWritten;
+	private long writeTime;
+	private long signingTime;
 
 public MSExcelLowFootprintWriter(String excelFormat, HadoopOfficeWriteConfiguration howc) throws InvalidWriterConfigurationException {
 	boolean formatFound=MSExcelWriter.isSupportedFormat(excelFormat);
@@ -119,11 +126,13 @@ public MSExcelLowFootprintWriter(String excelFormat, HadoopOfficeWriteConfigurat
 		if ((linkedWorkbooks!=null) && (linkedWorkbooks.size()>0)) {
 			throw new OfficeWriterException("Linked Workbooks are not supported in low footprint write mode");
 		}
+		this.osStream=osStream;
 		if (template!=null) {
-			throw new OfficeWriterException("Templates are not supported in low footprint write mode");
+			// new rows are streamed after the existing content of the template
+			this.currentWorkbook=new SecureSXSSFWorkbook(this.loadTemplate(template),this.howc.getLowFootprintCacheRows(),this.encryptAlgorithmCipher,this.chainModeCipher);
+		} else {
+			this.currentWorkbook=new SecureSXSSFWorkbook(this.howc.getLowFootprintCacheRows(),this.encryptAlgorithmCipher,this.chainModeCipher);
 		}
-		this.osStream=osStream;
-		this.currentWorkbook=new SecureSXSSFWorkbook(this.howc.getLowFootprintCacheRows(),this.encryptAlgorithmCipher,this.chainModeCipher);
 		this.mappedDrawings=new HashMap<>();	
 		if (this.howc.getSigKey()!=null) { // create temp file
 			LOG.info("Creating tempfile for signing");
@@ -137,6 +146,35 @@ public MSExcelLowFootprintWriter(String excelFormat, HadoopOfficeWriteConfigurat
 		}
 	}
 
+	/**
+	 * Loads the workbook of a template. Only templates in new Excel format (.xlsx) are supported
+	 * 
+	 * @param template content of the template
+	 * @return workbook of the template
+	 * @throws OfficeWriterException in case the template cannot be read
+	 */
+	private XSSFWorkbook loadTemplate(InputStream template) throws OfficeWriterException {
+		LOG.info("Loading template: "+this.howc.getTemplate());
+		HadoopOfficeReadConfiguration currentTemplateHOCR = new HadoopOfficeReadConfiguration();
+		currentTemplateHOCR.setLocale(this.howc.getLocale());
+		currentTemplateHOCR.setSheets(null);
+		currentTemplateHOCR.setIgnoreMissingLinkedWorkbooks(this.howc.getIgnoreMissingLinkedWorkbooks());
+		currentTemplateHOCR.setMetaDataFilter(null);
+		currentTemplateHOCR.setPassword(this.howc.getTemplatePassword());
+		MSExcelParser currentTemplateParser = new MSExcelParser(currentTemplateHOCR,null);
+		try {
+			currentTemplateParser.parse(template);
+		} catch (FormatNotUnderstoodException e) {
+			LOG.error(e);
+			LOG.error("Cannot read template");
+			throw new OfficeWriterException(e.toString());
+		}
+		if (!(currentTemplateParser.getCurrentWorkbook() instanceof XSSFWorkbook)) {
+			throw new OfficeWriterException("Only templates in new Excel format (.xlsx) are supported in low footprint write mode");
+		}
+		return (XSSFWorkbook) currentTemplateParser.getCurrentWorkbook();
+	}
+
 	@Override
 	public void write(Object newDAO) throws OfficeWriterException {
 		if (newDAO!=null) {
@@ -150,12 +188,19 @@ public MSExcelLowFootprintWriter(String excelFormat, HadoopOfficeWriteConfigurat
 				}
 				// create drawing anchor (needed for comments...)
 				this.mappedDrawings.put(safeSheetName,currentSheet.createDrawingPatriarch());
+			} else if (!(this.mappedDrawings.containsKey(safeSheetName))) { // sheet of the template
+				this.mappedDrawings.put(safeSheetName,currentSheet.createDrawingPatriarch());
 			}
 			// check if cell exist
 			CellAddress currentCA = new CellAddress(sscd.getAddress());
 			SXSSFRow currentRow = currentSheet.getRow(currentCA.getRow());
 			if (currentRow==null) { // row does not exist? => create it
-				currentRow=currentSheet.createRow(currentCA.getRow());
+				try {
+					currentRow=currentSheet.createRow(currentCA.getRow());
+				} catch (IllegalArgumentException e) {
+					LOG.error(e);
+					throw new OfficeWriterException("Invalid cell specification: row of cell "+currentCA+" has already been written or belongs to the template. Rows can only be added after them in low footprint write mode");
+				}
 			}
 			SXSSFCell currentCell = currentRow.getCell(currentCA.getColumn());
 			if ((currentCell!=null)) { // cell already exists and no template loaded ? => throw exception
@@ -187,12 +232,13 @@ public MSExcelLowFootprintWriter(String excelFormat, HadoopOfficeWriteConfigurat
 				    currentCell.setCellComment(currentComment);
 	
 			}
+			this.cellsWritten++;
 		}
 		}
 
 	@Override
 	public void close() throws IOException {
-		
+		long startTime=System.currentTimeMillis();
 		// store unencrypted
 		if (this.howc.getPassword()==null) {
 			if (this.signUtil!=null) {
@@ -231,6 +277,7 @@ public MSExcelLowFootprintWriter(String excelFormat, HadoopOfficeWriteConfigurat
 		}
 		
 		this.currentWorkbook.dispose(); // this is needed to remove tempfiles
+		this.writeTime=System.currentTimeMillis()-startTime;
 		
 			try {
 				// do we need to sign => sign
@@ -240,6 +287,7 @@ public MSExcelLowFootprintWriter(String excelFormat, HadoopOfficeWriteConfigurat
 					if (this.howc.getSigCertificate()==null) {
 						LOG.error("Cannot sign document \""+this.howc.getFileName()+"\". No certificate for key provided");
 					} else {
+					long signingStartTime=System.currentTimeMillis();
 					try {
 						ArrayList<X509Certificate> certList = new ArrayList<>();
 						certList.add(this.howc.getSigCertificate());
@@ -247,7 +295,7 @@ public MSExcelLowFootprintWriter(String excelFormat, HadoopOfficeWriteConfigurat
 						} catch (XMLSignatureException|MarshalException|IOException|FormatNotUnderstoodException e) {
 						LOG.error("Cannot sign document \""+this.howc.getFileName()+"\" "+e);
 					}
-						
+					this.signingTime=System.currentTimeMillis()-signingStartTime;
 					}
 					
 				}
@@ -258,6 +306,22 @@ public MSExcelLowFootprintWriter(String excelFormat, HadoopOfficeWriteConfigurat
 				}
 		
 	}
+
+	/**
+	 * Returns the number of cells written and the time to serialize and sign the document
+	 *
+	 * @return metrics of the written document
+	 */
+	@Override
+	public Map<String,Long> getMetrics() {
+		Map<String,Long> result = new LinkedHashMap<>();
+		result.put(OfficeMetrics.CELLS_WRITTEN, this.cellsWritten);
+		result.put(OfficeMetrics.WRITE_TIME, this.writeTime);
+		if (this.signUtil!=null) {
+			result.put(OfficeMetrics.SIGNING_TIME, this.signingTime);
+		}
+		return result;
+	}
 	
 
 	/**
@@ -278,6 +342,13 @@ public MSExcelLowFootprintWriter(String excelFormat, HadoopOfficeWriteConfigurat
 			this.cm=cm;
 		}
 		
+		public SecureSXSSFWorkbook(XSSFWorkbook template, int cacherows, CipherAlgorithm ca, ChainingMode cm) {
+			super(template, cacherows);
+			setCompressTempFiles(true);
+			this.ca=ca;
+			this.cm=cm;
+		}
+		
 		@Override
 		public void write(OutputStream stream) throws IOException {
 			
@@ -25,6 +25,7 @@ import javax.xml.crypto.MarshalException;
 import javax.xml.crypto.dsig.XMLSignatureException;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Date;
 
 import java.text.ParseException;
@@ -66,9 +67,12 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.commons.logging.Log;
 import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
 import org.zuinnote.hadoop.office.format.common.HadoopOfficeWriteConfiguration;
+import org.zuinnote.hadoop.office.format.common.OfficeMetrics;
 import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
 import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
 import org.zuinnote.hadoop.office.format.common.parser.MSExcelParser;
+import org.zuinnote.hadoop.office.format.common.util.FileVersion;
+import org.zuinnote.hadoop.office.format.common.util.LinkedWorkbookCache;
 import org.zuinnote.hadoop.office.format.common.util.MSExcelOOXMLSignUtil;
 
 public class MSExcelWriter implements OfficeSpreadSheetWriterInterface {
@@ -80,8 +84,8 @@ private static final String DEFAULT_FORMAT = VALID_FORMAT[0];
 private String format=DEFAULT_FORMAT;
 private OutputStream oStream;
 private Workbook currentWorkbook;
-private Map<String,Drawing> mappedDrawings;
-private List<Workbook> listOfWorkbooks;
+private Map<String,Drawing<?>> mappedDrawings;
+private List<LinkedWorkbookCache.Entry> listOfWorkbooks;
 private POIFSFileSystem ooxmlDocumentFileSystem;
 private HadoopOfficeWriteConfiguration howc;
 private CipherAlgorithm encryptAlgorithmCipher;
@@ -90,6 +94,9 @@ private EncryptionMode encryptionModeCipher;
 private ChainingMode chainModeCipher;
 private boolean hasTemplate;
 private MSExcelOOXMLSignUtil signUtil;
+private long cellsWritten;
+private long writeTime;
+private long signingTime;
 
 
 
@@ -170,6 +177,9 @@ public void create(OutputStream oStream, Map<String,InputStream> linkedWorkbooks
 			throw new OfficeWriterException(e.toString());
 		}
 		this.currentWorkbook=currentTemplateParser.getCurrentWorkbook();
+		if (this.currentWorkbook instanceof XSSFWorkbook) { // needed for encryption
+			this.ooxmlDocumentFileSystem = new POIFSFileSystem();
+		}
 	} else {
 		// create a new Workbook either in old Excel or "new" Excel format
 		if (this.format.equals(MSExcelWriter.FORMAT_OOXML)) {
@@ -192,24 +202,34 @@ public void create(OutputStream oStream, Map<String,InputStream> linkedWorkbooks
 	// parse linked workbooks
 	try {
 		for (Map.Entry<String,InputStream> entry: linkedWorkbooks.entrySet()) {
-			// parse linked workbook
-			HadoopOfficeReadConfiguration currentLinkedWBHOCR = new HadoopOfficeReadConfiguration();
-			currentLinkedWBHOCR.setLocale(this.howc.getLocale());
-			currentLinkedWBHOCR.setSheets(null);
-			currentLinkedWBHOCR.setIgnoreMissingLinkedWorkbooks(this.howc.getIgnoreMissingLinkedWorkbooks());
-			currentLinkedWBHOCR.setFileName(entry.getKey());
-			currentLinkedWBHOCR.setPassword(linkedWorkbooksPasswords.get(entry.getKey()));
-			currentLinkedWBHOCR.setMetaDataFilter(null);
-			MSExcelParser currentLinkedWorkbookParser = new MSExcelParser(currentLinkedWBHOCR,null);
-			try {
-				currentLinkedWorkbookParser.parse(entry.getValue());
-			} catch (FormatNotUnderstoodException e) {
-				LOG.error(e);
-				throw new OfficeWriterException(e.toString());
+			String currentPassword = linkedWorkbooksPasswords.get(entry.getKey());
+			FileVersion currentVersion = this.howc.getLinkedWorkbookVersions().get(entry.getKey());
+			// reuse linked workbook parsed by another reader/writer
+			LinkedWorkbookCache.Entry currentLinkedWorkbook = null;
+			if (this.howc.getLinkedWorkbookCacheMaxCount()>0) {
+				currentLinkedWorkbook = LinkedWorkbookCache.acquire(currentVersion, currentPassword);
 			}
-			this.listOfWorkbooks.add(currentLinkedWorkbookParser.getCurrentWorkbook());
-			linkedFormulaEvaluators.put(entry.getKey(),currentLinkedWorkbookParser.getCurrentFormulaEvaluator());
-			this.currentWorkbook.linkExternalWorkbook(entry.getKey(),currentLinkedWorkbookParser.getCurrentWorkbook());
+			if (currentLinkedWorkbook==null) {
+				// parse linked workbook
+				HadoopOfficeReadConfiguration currentLinkedWBHOCR = new HadoopOfficeReadConfiguration();
+				currentLinkedWBHOCR.setLocale(this.howc.getLocale());
+				currentLinkedWBHOCR.setSheets(null);
+				currentLinkedWBHOCR.setIgnoreMissingLinkedWorkbooks(this.howc.getIgnoreMissingLinkedWorkbooks());
+				currentLinkedWBHOCR.setFileName(entry.getKey());
+				currentLinkedWBHOCR.setPassword(currentPassword);
+				currentLinkedWBHOCR.setMetaDataFilter(null);
+				MSExcelParser currentLinkedWorkbookParser = new MSExcelParser(currentLinkedWBHOCR,null);
+				try {
+					currentLinkedWorkbookParser.parse(entry.getValue());
+				} catch (FormatNotUnderstoodException e) {
+					LOG.error(e);
+					throw new OfficeWriterException(e.toString());
+				}
+				currentLinkedWorkbook = new LinkedWorkbookCache.Entry(currentVersion, currentPassword, currentLinkedWorkbookParser.getCurrentWorkbook(), currentLinkedWorkbookParser.getCurrentFormulaEvaluator());
+			}
+			this.listOfWorkbooks.add(currentLinkedWorkbook);
+			linkedFormulaEvaluators.put(entry.getKey(),currentLinkedWorkbook.getFormulaEvaluator());
+			this.currentWorkbook.linkExternalWorkbook(entry.getKey(),currentLinkedWorkbook.getWorkbook());
 		}
 					
 	} finally {	// close linked workbook inputstreams
@@ -254,6 +274,9 @@ public void write(Object newDAO) throws OfficeWriterException {
 			}
 			// create drawing anchor (needed for comments...)
 			this.mappedDrawings.put(safeSheetName,currentSheet.createDrawingPatriarch());
+		} else if (!(this.mappedDrawings.containsKey(safeSheetName))) { // sheet of the template: keep its drawings
+			Drawing<?> templateDrawing=currentSheet.getDrawingPatriarch();
+			this.mappedDrawings.put(safeSheetName,templateDrawing!=null?templateDrawing:currentSheet.createDrawingPatriarch());
 		}
 		// check if cell exist
 		CellAddress currentCA = new CellAddress(sscd.getAddress());
@@ -293,6 +316,7 @@ public void write(Object newDAO) throws OfficeWriterException {
 			    currentCell.setCellComment(currentComment);
 	
 		}
+		this.cellsWritten++;
 	}
 }
 
@@ -334,6 +358,7 @@ public static SpreadSheetCellDAO checkSpreadSheetCellDAO(Object newDAO) throws O
 */
 @Override
 public void close() throws IOException {
+	long startTime=System.currentTimeMillis();
 	try {
 		// prepare metadata
 		prepareMetaData();
@@ -365,13 +390,12 @@ public void close() throws IOException {
 			this.currentWorkbook.close();
 		}
 		
-		// close linked workbooks
-		 	for (Workbook currentWorkbookItem: this.listOfWorkbooks) {
-				if (currentWorkbookItem!=null) {
-					currentWorkbookItem.close();
-				}
+		// close linked workbooks or give them back to the cache of parsed linked workbooks
+		 	for (LinkedWorkbookCache.Entry currentWorkbookItem: this.listOfWorkbooks) {
+				LinkedWorkbookCache.release(currentWorkbookItem, this.howc.getLinkedWorkbookCacheMaxCount(), this.howc.getLinkedWorkbookCacheMaxSize());
 			}
 		}
+	this.writeTime=System.currentTimeMillis()-startTime;
 	try {
 	// do we need to sign => sign
 	if (this.signUtil!=null) {
@@ -382,6 +406,7 @@ public void close() throws IOException {
 		} else if (!(this.currentWorkbook instanceof XSSFWorkbook)){
 			LOG.warn("Signing of docuemnts in old Excel format not supported for \""+this.howc.getFileName()+"\"");
 		}else {
+		long signingStartTime=System.currentTimeMillis();
 		try {
 				ArrayList<X509Certificate> certList = new ArrayList<>();
 				certList.add(this.howc.getSigCertificate());
@@ -389,6 +414,7 @@ public void close() throws IOException {
 		} catch (XMLSignatureException|MarshalException|IOException|FormatNotUnderstoodException e) {
 			LOG.error("Cannot sign document \""+this.howc.getFileName()+"\" "+e);
 		}
+		this.signingTime=System.currentTimeMillis()-signingStartTime;
 			
 		}
 		
@@ -400,6 +426,22 @@ public void close() throws IOException {
 	}
 }
 
+/**
+* Returns the number of cells written and the time to serialize and sign the document
+*
+* @return metrics of the written document
+*/
+@Override
+public Map<String,Long> getMetrics() {
+	Map<String,Long> result = new LinkedHashMap<>();
+	result.put(OfficeMetrics.CELLS_WRITTEN, this.cellsWritten);
+	result.put(OfficeMetrics.WRITE_TIME, this.writeTime);
+	if (this.signUtil!=null) {
+		result.put(OfficeMetrics.SIGNING_TIME, this.signingTime);
+	}
+	return result;
+}
+
 
 
 private void finalizeWriteNotEncrypted() throws IOException {
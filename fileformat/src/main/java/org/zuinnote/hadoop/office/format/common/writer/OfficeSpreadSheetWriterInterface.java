@@ -30,4 +30,11 @@ public void write(Object newDAO) throws OfficeWriterException;
 
 public void close() throws IOException;
 
+/**
+* Returns metrics of the written document, e.g. the number of cells written or the time to serialize it (see {@link org.zuinnote.hadoop.office.format.common.OfficeMetrics}). They are complete after the writer has been closed
+*
+* @return Map with the name of the metric as key and its value
+*/
+public Map<String,Long> getMetrics();
+
 }
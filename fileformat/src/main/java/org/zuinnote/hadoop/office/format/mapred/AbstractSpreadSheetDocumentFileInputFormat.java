@@ -18,9 +18,11 @@ package org.zuinnote.hadoop.office.format.mapred;
 
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
 
 
-
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.Text;
@@ -30,6 +32,11 @@ import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.RecordReader;
 import org.apache.hadoop.mapred.Reporter;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.zuinnote.hadoop.office.format.common.HadoopFileReader;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.OfficeReader;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
 
 
 
@@ -45,6 +52,27 @@ public abstract class AbstractSpreadSheetDocumentFileInputFormat  extends FileIn
 	protected abstract boolean isSplitable(FileSystem fs, Path file);
 
 	public abstract void configure(JobConf conf);
+
+	/**
+	 * Reads the sheet names and the used range (dimension) of each sheet of a file without parsing the document, e.g. to plan splits based on the number of rows
+	 * 
+	 * @param conf configuration, the mime type and further read options (e.g. password) are taken from it
+	 * @param file file to probe
+	 * @return Map with sheet name as key and the used range of the sheet as value, see {@link org.zuinnote.hadoop.office.format.common.OfficeReader#probe()}
+	 * @throws IOException in case the file cannot be read or its format is not understood
+	 */
+	protected Map<String,CellRangeAddress> probe(Configuration conf, Path file) throws IOException {
+		HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration(conf);
+		hocr.setFileName(file.getName());
+		HadoopFileReader hfr = new HadoopFileReader(conf);
+		try (InputStream in = hfr.openFile(file)) {
+			return new OfficeReader(in, hocr).probe();
+		} catch (FormatNotUnderstoodException e) {
+			throw new IOException("Cannot probe file \""+file+"\"", e);
+		} finally {
+			hfr.close();
+		}
+	}
 	
 	
 
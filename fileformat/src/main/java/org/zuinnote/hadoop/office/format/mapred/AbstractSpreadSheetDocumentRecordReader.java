@@ -22,12 +22,10 @@ import java.io.InputStream;
 
 import java.security.GeneralSecurityException;
 import java.security.InvalidAlgorithmParameterException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.security.UnrecoverableEntryException;
-import java.security.cert.CertificateException;
-import java.security.spec.InvalidKeySpecException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 import org.apache.hadoop.fs.FSDataInputStream;
@@ -49,8 +47,8 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.commons.logging.Log;
 
 import org.zuinnote.hadoop.office.format.common.HadoopFileReader;
-import org.zuinnote.hadoop.office.format.common.HadoopKeyStoreManager;
 import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.HadoopUtil;
 import org.zuinnote.hadoop.office.format.common.OfficeReader;
 import org.zuinnote.hadoop.office.format.common.parser.*;
 
@@ -73,7 +71,7 @@ private Decompressor decompressor;
 private Configuration conf;
 private long start;
 private long end;
-private final Seekable filePosition;
+private Seekable filePosition;
 private HadoopFileReader currentHFR;
 private HadoopOfficeReadConfiguration hocr;
 private Reporter reporter;
@@ -112,28 +110,36 @@ public AbstractSpreadSheetDocumentRecordReader(FileSplit split, JobConf job, Rep
      compressionCodecs = new CompressionCodecFactory(job);
     codec = compressionCodecs.getCodec(file);
     FSDataInputStream fileIn = file.getFileSystem(job).open(file);
+    InputStream documentIn;
     // open stream
       if (isCompressedInput()) { // decompress
       	decompressor = CodecPool.getDecompressor(codec);
       	if (codec instanceof SplittableCompressionCodec) {
 		LOG.debug("Reading from a compressed file \""+file+"\" with splittable compression codec");
         	final SplitCompressionInputStream cIn =((SplittableCompressionCodec)codec).createInputStream(fileIn, decompressor, start, end,SplittableCompressionCodec.READ_MODE.CONTINUOUS);
-				officeReader = new OfficeReader(cIn, this.hocr);
+				documentIn = cIn;
 		start = cIn.getAdjustedStart();
        		end = cIn.getAdjustedEnd();
         	filePosition = cIn; // take pos from compressed stream
       } else {
 	LOG.debug("Reading from a compressed file \""+file+"\" with non-splittable compression codec");
-	officeReader = new OfficeReader(codec.createInputStream(fileIn,decompressor), this.hocr);
+	documentIn = codec.createInputStream(fileIn,decompressor);
         filePosition = fileIn;
       }
     } else {
 	LOG.debug("Reading from an uncompressed file \""+file+"\"");
       fileIn.seek(start);
-	officeReader = new OfficeReader(fileIn, this.hocr);  
+	documentIn = fileIn;  
       filePosition = fileIn;
     }
      this.reporter.setStatus("Parsing document");
+    if (this.hocr.getStageLocal()) {
+	// parsers can access a local file randomly instead of loading the full document into memory
+	LOG.debug("Staging file \""+file+"\" on local disk");
+	documentIn = HadoopUtil.stageLocal(job, file, documentIn, isCompressedInput());
+	filePosition = null; // the document has been read completely
+    }
+    officeReader = new OfficeReader(documentIn, this.hocr);
     // initialize reader
     this.officeReader.parse();
     // read linked workbooks
@@ -145,13 +151,22 @@ public AbstractSpreadSheetDocumentRecordReader(FileSplit split, JobConf job, Rep
 	// read linked workbook filenames
 	List<String> linkedWorkbookList=this.officeReader.getCurrentParser().getLinkedWorkbooks();
 	this.currentHFR = new HadoopFileReader(job);
+	Map<String,InputStream> linkedWorkbooks = new LinkedHashMap<>();
+	Map<String,String> linkedWorkbookPasswords = new HashMap<>();
 	for (String listItem: linkedWorkbookList) {
 		LOG.info("Adding linked workbook \""+listItem+"\"");
 		String sanitizedListItem = new Path(listItem).getName();
 		// read file from hadoop file
 		Path currentFile=new Path(parentPath,sanitizedListItem);
-		InputStream currentIn=this.currentHFR.openFile(currentFile);
-		this.officeReader.getCurrentParser().addLinkedWorkbook(listItem,currentIn,this.hocr.getLinkedWBCredentialMap().get(sanitizedListItem));
+		if (this.hocr.getLinkedWorkbookCacheMaxCount()>0) { // a cached parsed linked workbook can be reused if the file has not changed
+			this.hocr.getLinkedWorkbookVersions().put(listItem,this.currentHFR.getFileVersion(currentFile));
+		}
+		linkedWorkbooks.put(listItem,this.currentHFR.openFile(currentFile));
+		linkedWorkbookPasswords.put(listItem,this.hocr.getLinkedWBCredentialMap().get(sanitizedListItem));
+	}
+	// parsed concurrently
+	if (!linkedWorkbooks.isEmpty()) {
+		this.officeReader.getCurrentParser().addLinkedWorkbooks(linkedWorkbooks,linkedWorkbookPasswords);
 	}
     }
 }
@@ -165,24 +180,7 @@ public AbstractSpreadSheetDocumentRecordReader(FileSplit split, JobConf job, Rep
  * 
  */
 private void readKeyStore(Configuration conf) throws IOException, FormatNotUnderstoodException {
-	if ((this.hocr.getCryptKeystoreFile()!=null) && (!"".equals(this.hocr.getCryptKeystoreFile()))) {
-		LOG.info("Using keystore to obtain credentials instead of passwords");
-		HadoopKeyStoreManager hksm = new HadoopKeyStoreManager(conf);
-		try {
-			hksm.openKeyStore(new Path(this.hocr.getCryptKeystoreFile()), this.hocr.getCryptKeystoreType(), this.hocr.getCryptKeystorePassword());
-			String pw="";
-			if ((this.hocr.getCryptKeystoreAlias()!=null) && (!"".equals(this.hocr.getCryptKeystoreAlias()))) {
-				pw=hksm.getPassword(this.hocr.getCryptKeystoreAlias(), this.hocr.getCryptKeystorePassword());
-			} else {
-				pw=hksm.getPassword(this.hocr.getFileName(), this.hocr.getCryptKeystorePassword());
-			}
-			this.hocr.setPassword(pw);
-		} catch (NoSuchAlgorithmException | CertificateException | KeyStoreException | IllegalArgumentException | UnrecoverableEntryException | InvalidKeySpecException e) {
-			LOG.error("Cannopt read keystore. Exception: ",e);
-			throw new FormatNotUnderstoodException("Cannot read keystore to obtain credentials to access encrypted documents "+e);
-		}
-		
-	}
+	HadoopUtil.readKeyStore(conf, this.hocr, null);
 }
 
 
@@ -194,18 +192,7 @@ private void readKeyStore(Configuration conf) throws IOException, FormatNotUnder
  * @throws FormatNotUnderstoodException
  */
 private void readTrustStore(Configuration conf) throws IOException, FormatNotUnderstoodException {
-	if (((this.hocr.getSigTruststoreFile()!=null) && (!"".equals(this.hocr.getSigTruststoreFile())))) {
-		LOG.info("Reading truststore to validate certificate chain for signatures");
-		HadoopKeyStoreManager hksm = new HadoopKeyStoreManager(conf);
-		try {
-			hksm.openKeyStore(new Path(this.hocr.getSigTruststoreFile()), this.hocr.getSigTruststoreType(), this.hocr.getSigTruststorePassword());
-			this.hocr.setX509CertificateChain(hksm.getAllX509Certificates());
-		} catch (NoSuchAlgorithmException | CertificateException | KeyStoreException | IllegalArgumentException e) {
-			LOG.error("Cannopt read truststore. Exception: ",e);
-			throw new FormatNotUnderstoodException("Cannot read truststore to establish certificate chain for signature validation "+e);
-		}
-		
-	}
+	HadoopUtil.readTrustStore(conf, this.hocr);
 }
 
 /*
@@ -229,6 +216,9 @@ public OfficeReader getOfficeReader() {
 */
 
 public long getFilePosition() throws IOException {
+	if (filePosition==null) { // staged on local disk
+		return end;
+	}
 	return  filePosition.getPos();
 }
 
@@ -244,7 +234,7 @@ public long getEnd() {
 }
 
 /*
-* Returns how much of the file has been processed in terms of bytes
+* Returns how much of the file has been processed in terms of rows of the selected sheets. The document is read completely when the reader is initialized, so the progress is only based on the bytes read if no document is open
 *
 * @return progress percentage
 *
@@ -253,6 +243,9 @@ public long getEnd() {
 */
 @Override
 public synchronized float getProgress() throws IOException {
+if (officeReader!=null) {
+      return officeReader.getProgress();
+}
 if (start == end) {
       return 0.0f;
     } else {
@@ -279,7 +272,7 @@ private boolean  isCompressedInput() {
 */
 @Override
 public  synchronized long getPos() throws IOException {
-	return filePosition.getPos();
+	return getFilePosition();
 }
 
 
@@ -296,7 +289,9 @@ public  synchronized long getPos() throws IOException {
 public synchronized void  close() throws IOException {
 try {
     if (officeReader!=null) {
+	HadoopUtil.reportMetrics(officeReader.getMetrics(), this.reporter);
 	officeReader.close();
+	officeReader=null;
      }
     } finally {
       if (decompressor != null) { // return this decompressor
@@ -44,6 +44,7 @@ import org.apache.commons.logging.Log;
 import org.zuinnote.hadoop.office.format.common.HadoopFileReader;
 import org.zuinnote.hadoop.office.format.common.HadoopKeyStoreManager;
 import org.zuinnote.hadoop.office.format.common.HadoopOfficeWriteConfiguration;
+import org.zuinnote.hadoop.office.format.common.HadoopUtil;
 import org.zuinnote.hadoop.office.format.common.OfficeWriter;
 import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
 import org.zuinnote.hadoop.office.format.common.writer.*;
@@ -93,12 +94,15 @@ public AbstractSpreadSheetDocumentRecordWriter(DataOutputStream out, String file
     this.readSigningKeyAndCertificate(conf);
       // load linked workbooks as inputstreams
      this.currentReader= new HadoopFileReader(conf);
+     if (this.howc.getLinkedWorkbookCacheMaxCount()>0) { // a cached parsed linked workbook can be reused if the file has not changed
+     	this.howc.setLinkedWorkbookVersions(this.currentReader.getLinkedWorkbookVersions(this.howc.getLinkedWorkbooksName()));
+     }
      this.linkedWorkbooksMap=this.currentReader.loadLinkedWorkbooks(this.howc.getLinkedWorkbooksName());
     // create OfficeWriter 
       this.officeWriter=new OfficeWriter(this.howc);
       InputStream templateInputStream=null;
       if ((this.howc.getTemplate()!=null) && (!"".equals(this.howc.getTemplate()))) {
-   	   templateInputStream=this.currentReader.loadTemplate(this.howc.getTemplate());
+   	   templateInputStream=this.currentReader.loadTemplate(this.howc.getTemplate(),this.howc.getTemplateCacheMaxSize());
       }
      this.officeWriter.create(out,this.linkedWorkbooksMap,this.howc.getLinkedWBCredentialMap(),templateInputStream); 
 }
@@ -204,6 +208,7 @@ public synchronized void  close(Reporter reporter) throws IOException {
 
 	try {
 			this.officeWriter.close();
+			HadoopUtil.reportMetrics(this.officeWriter.getMetrics(), reporter);
 		}  finally {
 			if (this.currentReader!=null) {
 				this.currentReader.close();
@@ -32,6 +32,7 @@ import org.apache.commons.logging.Log;
 
 import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
 import org.zuinnote.hadoop.office.format.common.parser.*;
+import org.zuinnote.hadoop.office.format.common.util.ExcelRowKeyBuilder;
 
 /* ExcelRecordReader reads rows from Excel
 *
@@ -45,11 +46,13 @@ import org.zuinnote.hadoop.office.format.common.parser.*;
 public class ExcelRecordReader extends AbstractSpreadSheetDocumentRecordReader<Text,ArrayWritable> {
 private static final Log LOG = LogFactory.getLog(ExcelRecordReader.class.getName());
 private FileSplit split;
+private ExcelRowKeyBuilder rowKeyBuilder;
 
 public ExcelRecordReader(FileSplit split, JobConf job, Reporter reporter) throws IOException,FormatNotUnderstoodException,GeneralSecurityException {
  super(split,job,reporter);
  LOG.debug("Initialize ExcelRecordReader");
  this.split=split;
+ this.rowKeyBuilder=new ExcelRowKeyBuilder(split.getPath().getName());
 }
 
 /**
@@ -94,7 +97,7 @@ public boolean next(Text key, ArrayWritable value) throws IOException {
 		return false; // no more to read
 	}
 	SpreadSheetCellDAO[] cellRows = (SpreadSheetCellDAO[])objectArray;
-	key.set(new Text("["+this.split.getPath().getName()+"]"+this.getOfficeReader().getCurrentSheetName()+"!A"+this.getOfficeReader().getCurrentRow()));
+	this.rowKeyBuilder.set(key,this.getOfficeReader().getCurrentSheetName(),this.getOfficeReader().getCurrentRow());
 	value.set(cellRows);
 	return true;	
 }
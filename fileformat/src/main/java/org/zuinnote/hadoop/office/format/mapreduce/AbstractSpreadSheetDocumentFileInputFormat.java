@@ -18,9 +18,11 @@ package org.zuinnote.hadoop.office.format.mapreduce;
 
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
 
 
-
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.ArrayWritable;
@@ -29,6 +31,11 @@ import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.apache.hadoop.mapreduce.InputSplit;
 import org.apache.hadoop.mapreduce.RecordReader;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.zuinnote.hadoop.office.format.common.HadoopFileReader;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.OfficeReader;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
 
 
 
@@ -41,6 +48,27 @@ public abstract class AbstractSpreadSheetDocumentFileInputFormat  extends FileIn
 	
 	@Override
 	protected abstract boolean isSplitable(JobContext context, Path file);
+
+	/**
+	 * Reads the sheet names and the used range (dimension) of each sheet of a file without parsing the document, e.g. to plan splits based on the number of rows
+	 * 
+	 * @param conf configuration, the mime type and further read options (e.g. password) are taken from it
+	 * @param file file to probe
+	 * @return Map with sheet name as key and the used range of the sheet as value, see {@link org.zuinnote.hadoop.office.format.common.OfficeReader#probe()}
+	 * @throws IOException in case the file cannot be read or its format is not understood
+	 */
+	protected Map<String,CellRangeAddress> probe(Configuration conf, Path file) throws IOException {
+		HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration(conf);
+		hocr.setFileName(file.getName());
+		HadoopFileReader hfr = new HadoopFileReader(conf);
+		try (InputStream in = hfr.openFile(file)) {
+			return new OfficeReader(in, hocr).probe();
+		} catch (FormatNotUnderstoodException e) {
+			throw new IOException("Cannot probe file \""+file+"\"", e);
+		} finally {
+			hfr.close();
+		}
+	}
 	
 
 
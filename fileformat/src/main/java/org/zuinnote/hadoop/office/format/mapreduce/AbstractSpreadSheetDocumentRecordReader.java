@@ -22,12 +22,10 @@ import java.io.InputStream;
 
 import java.security.GeneralSecurityException;
 import java.security.InvalidAlgorithmParameterException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.security.UnrecoverableEntryException;
-import java.security.cert.CertificateException;
-import java.security.spec.InvalidKeySpecException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.Path;
@@ -50,6 +48,7 @@ import org.apache.commons.logging.Log;
 import org.zuinnote.hadoop.office.format.common.HadoopFileReader;
 import org.zuinnote.hadoop.office.format.common.HadoopKeyStoreManager;
 import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.HadoopUtil;
 import org.zuinnote.hadoop.office.format.common.OfficeReader;
 import org.zuinnote.hadoop.office.format.common.parser.*;
 
@@ -76,6 +75,9 @@ private long end;
 private Seekable filePosition;
 private HadoopFileReader currentHFR;
 private HadoopOfficeReadConfiguration hocr;
+private HadoopKeyStoreManager keyStoreManager;
+private boolean trustStoreRead=false;
+private TaskAttemptContext context;
 
 /**
 * Creates an Abstract Record Reader for tables from various document formats
@@ -102,6 +104,7 @@ public AbstractSpreadSheetDocumentRecordReader(Configuration conf) {
 */
 @Override
 public void initialize(InputSplit split, TaskAttemptContext context) throws IOException, InterruptedException {
+this.context=context;
 try {
    FileSplit fSplit = (FileSplit)split;
  // Initialize start and end of split
@@ -113,27 +116,35 @@ try {
     this.readKeyStore(context.getConfiguration());
     this.readTrustStore(context.getConfiguration());
     FSDataInputStream fileIn = file.getFileSystem(conf).open(file);
+    InputStream documentIn;
     // open stream
       if (isCompressedInput()) { // decompress
       	decompressor = CodecPool.getDecompressor(codec);
       	if (codec instanceof SplittableCompressionCodec) {
 		LOG.debug("Reading from a compressed file \""+file+"\" with splittable compression codec");
         	final SplitCompressionInputStream cIn =((SplittableCompressionCodec)codec).createInputStream(fileIn, decompressor, start, end,SplittableCompressionCodec.READ_MODE.CONTINUOUS);
-		officeReader = new OfficeReader(cIn, this.hocr);  
+		documentIn = cIn;  
 		start = cIn.getAdjustedStart();
        		end = cIn.getAdjustedEnd();
         	filePosition = cIn; // take pos from compressed stream
       } else {
 	LOG.debug("Reading from a compressed file \""+file+"\" with non-splittable compression codec");
-	officeReader = new OfficeReader(codec.createInputStream(fileIn,decompressor), this.hocr);
+	documentIn = codec.createInputStream(fileIn,decompressor);
         filePosition = fileIn;
       }
     } else {
 	LOG.debug("Reading from an uncompressed file \""+file+"\"");
       fileIn.seek(start);
-	officeReader = new OfficeReader(fileIn, this.hocr);  
+	documentIn = fileIn;  
       filePosition = fileIn;
     }
+    if (this.hocr.getStageLocal()) {
+	// parsers can access a local file randomly instead of loading the full document into memory
+	LOG.debug("Staging file \""+file+"\" on local disk");
+	documentIn = HadoopUtil.stageLocal(conf, file, documentIn, isCompressedInput());
+	filePosition = null; // the document has been read completely
+    }
+    officeReader = new OfficeReader(documentIn, this.hocr);
     // initialize reader
     this.officeReader.parse();
     // read linked workbooks
@@ -145,13 +156,22 @@ try {
 	List<String> linkedWorkbookList=this.officeReader.getCurrentParser().getLinkedWorkbooks();
 	LOG.debug(linkedWorkbookList.size());
 	this.currentHFR = new HadoopFileReader(context.getConfiguration());
+	Map<String,InputStream> linkedWorkbooks = new LinkedHashMap<>();
+	Map<String,String> linkedWorkbookPasswords = new HashMap<>();
 	for (String listItem: linkedWorkbookList) {
 		LOG.info("Adding linked workbook \""+listItem+"\"");
 		String sanitizedListItem = new Path(listItem).getName();
 		// read file from hadoop file
 		Path currentFile=new Path(parentPath,sanitizedListItem);
-		InputStream currentIn=this.currentHFR.openFile(currentFile);
-		this.officeReader.getCurrentParser().addLinkedWorkbook(listItem,currentIn,this.hocr.getLinkedWBCredentialMap().get(sanitizedListItem));
+		if (this.hocr.getLinkedWorkbookCacheMaxCount()>0) { // a cached parsed linked workbook can be reused if the file has not changed
+			this.hocr.getLinkedWorkbookVersions().put(listItem,this.currentHFR.getFileVersion(currentFile));
+		}
+		linkedWorkbooks.put(listItem,this.currentHFR.openFile(currentFile));
+		linkedWorkbookPasswords.put(listItem,this.hocr.getLinkedWBCredentialMap().get(sanitizedListItem));
+	}
+	// parsed concurrently
+	if (!linkedWorkbooks.isEmpty()) {
+		this.officeReader.getCurrentParser().addLinkedWorkbooks(linkedWorkbooks,linkedWorkbookPasswords);
 	}
     }
 } catch (FormatNotUnderstoodException fnue) {
@@ -171,24 +191,8 @@ try {
  * 
  */
 private void readKeyStore(Configuration conf) throws IOException, FormatNotUnderstoodException {
-	if ((this.hocr.getCryptKeystoreFile()!=null) && (!"".equals(this.hocr.getCryptKeystoreFile()))) {
-		LOG.info("Using keystore to obtain credentials instead of passwords");
-		HadoopKeyStoreManager hksm = new HadoopKeyStoreManager(conf);
-		try {
-			hksm.openKeyStore(new Path(this.hocr.getCryptKeystoreFile()), this.hocr.getCryptKeystoreType(), this.hocr.getCryptKeystorePassword());
-			String pw="";
-			if ((this.hocr.getCryptKeystoreAlias()!=null) && (!"".equals(this.hocr.getCryptKeystoreAlias()))) {
-				pw=hksm.getPassword(this.hocr.getCryptKeystoreAlias(), this.hocr.getCryptKeystorePassword());
-			} else {
-				pw=hksm.getPassword(this.hocr.getFileName(), this.hocr.getCryptKeystorePassword());
-			}
-			this.hocr.setPassword(pw);
-		} catch (NoSuchAlgorithmException | CertificateException | KeyStoreException | IllegalArgumentException | UnrecoverableEntryException | InvalidKeySpecException e) {
-			LOG.error("Cannopt read keystore. Exception: ",e);
-			throw new FormatNotUnderstoodException("Cannot read keystore to obtain credentials to access encrypted documents "+e);
-		}
-		
-	}
+	// the keystore is opened only once, even if the reader is initialized for several files
+	this.keyStoreManager=HadoopUtil.readKeyStore(conf, this.hocr, this.keyStoreManager);
 }
 
 
@@ -201,17 +205,9 @@ private void readKeyStore(Configuration conf) throws IOException, FormatNotUnder
  * @throws FormatNotUnderstoodException
  */
 private void readTrustStore(Configuration conf) throws IOException, FormatNotUnderstoodException {
-	if (((this.hocr.getSigTruststoreFile()!=null) && (!"".equals(this.hocr.getSigTruststoreFile())))) {
-		LOG.info("Reading truststore to validate certificate chain for signatures");
-		HadoopKeyStoreManager hksm = new HadoopKeyStoreManager(conf);
-		try {
-			hksm.openKeyStore(new Path(this.hocr.getSigTruststoreFile()), this.hocr.getSigTruststoreType(), this.hocr.getSigTruststorePassword());
-			this.hocr.setX509CertificateChain(hksm.getAllX509Certificates());
-		} catch (NoSuchAlgorithmException | CertificateException | KeyStoreException | IllegalArgumentException  e) {
-			LOG.error("Cannopt read truststore. Exception: ",e);
-			throw new FormatNotUnderstoodException("Cannot read truststore to establish certificate chain for signature validation "+e);
-		}
-		
+	// the truststore is read only once, even if the reader is initialized for several files
+	if (!this.trustStoreRead) {
+		this.trustStoreRead=HadoopUtil.readTrustStore(conf, this.hocr);
 	}
 }
 
@@ -248,6 +244,9 @@ public OfficeReader getOfficeReader() {
 */
 
 public long getFilePosition() throws IOException {
+	if (filePosition==null) { // staged on local disk
+		return end;
+	}
 	return  filePosition.getPos();
 }
 
@@ -263,7 +262,7 @@ public long getEnd() {
 }
 
 /*
-* Returns how much of the file has been processed in terms of bytes
+* Returns how much of the file has been processed in terms of rows of the selected sheets. The document is read completely when the reader is initialized, so the progress is only based on the bytes read if no document is open
 *
 * @return progress percentage
 *
@@ -272,6 +271,9 @@ public long getEnd() {
 */
 @Override
 public synchronized float getProgress() throws IOException {
+if (officeReader!=null) {
+      return officeReader.getProgress();
+}
 if (start == end) {
       return 0.0f;
     } else {
@@ -298,7 +300,7 @@ private boolean  isCompressedInput() {
 */
 
 public  synchronized long getPos() throws IOException {
-	return filePosition.getPos();
+	return getFilePosition();
 }
 
 
@@ -315,7 +317,11 @@ public  synchronized long getPos() throws IOException {
 public synchronized void  close() throws IOException {
 try {
     if (officeReader!=null) {
+	if (this.context!=null) {
+		HadoopUtil.reportMetrics(officeReader.getMetrics(), this.context);
+	}
 	officeReader.close();
+	officeReader=null;
      }
     } finally {
       if (decompressor != null) { // return this decompressor
@@ -324,6 +330,7 @@ try {
       } // return decompressor of linked workbooks
 	if (this.currentHFR!=null) {
 		currentHFR.close();
+		currentHFR=null;
 	}
     }
 	// do not close the filesystem! will cause exceptions in Spark
@@ -48,6 +48,7 @@ import org.apache.commons.logging.Log;
 import org.zuinnote.hadoop.office.format.common.HadoopFileReader;
 import org.zuinnote.hadoop.office.format.common.HadoopKeyStoreManager;
 import org.zuinnote.hadoop.office.format.common.HadoopOfficeWriteConfiguration;
+import org.zuinnote.hadoop.office.format.common.HadoopUtil;
 import org.zuinnote.hadoop.office.format.common.OfficeWriter;
 import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
 import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
@@ -102,12 +103,15 @@ public AbstractSpreadSheetDocumentRecordWriter(DataOutputStream out, String file
      this.readSigningKeyAndCertificate(conf);
        // load linked workbooks as inputstreams
       this.currentReader= new HadoopFileReader(conf);
+      if (this.howc.getLinkedWorkbookCacheMaxCount()>0) { // a cached parsed linked workbook can be reused if the file has not changed
+      	this.howc.setLinkedWorkbookVersions(this.currentReader.getLinkedWorkbookVersions(this.howc.getLinkedWorkbooksName()));
+      }
       this.linkedWorkbooksMap=this.currentReader.loadLinkedWorkbooks(this.howc.getLinkedWorkbooksName());
      // create OfficeWriter 
        this.officeWriter=new OfficeWriter(this.howc);
        InputStream templateInputStream=null;
        if ((this.howc.getTemplate()!=null) && (!"".equals(this.howc.getTemplate()))) {
-    	   templateInputStream=this.currentReader.loadTemplate(this.howc.getTemplate());
+    	   templateInputStream=this.currentReader.loadTemplate(this.howc.getTemplate(),this.howc.getTemplateCacheMaxSize());
        }
       this.officeWriter.create(out,this.linkedWorkbooksMap,this.howc.getLinkedWBCredentialMap(), templateInputStream);
 }
@@ -214,6 +218,7 @@ public synchronized void  close(TaskAttemptContext context) throws IOException {
 
 		try {
 			this.officeWriter.close();
+			HadoopUtil.reportMetrics(this.officeWriter.getMetrics(), context);
 		}  finally {
 			if (this.out!=null) {
 				this.out.close();
@@ -0,0 +1,67 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.mapreduce;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.ArrayWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.CombineFileInputFormat;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+
+/**
+ * Input format for many small Excel files. Several files are packed into one split (taking into account on which nodes/racks the files are stored), so that not every file requires its own mapper.
+ * Keys and values are the same as for {@link ExcelFileInputFormat}. The files of one split are read one after the other by the same reader, which reuses the keystore, truststore and the formatter of cell values across the files.
+ *
+ * The size of a split can be limited by the standard Hadoop option mapreduce.input.fileinputformat.split.maxsize. If it is not set then all files on one node are combined in one split.
+ *
+ */
+public class CombineExcelFileInputFormat extends CombineFileInputFormat<Text,ArrayWritable> {
+private static final Log LOG = LogFactory.getLog(CombineExcelFileInputFormat.class.getName());
+
+@Override
+public RecordReader<Text,ArrayWritable> createRecordReader(InputSplit split, TaskAttemptContext ctx) throws IOException {
+	try {
+		// send configuration option to ms excel. The format of the Excel (old vs new) is detected automaitcally
+		ctx.getConfiguration().set(HadoopOfficeReadConfiguration.CONF_MIMETYPE,"ms-excel");
+		return new CombineExcelRecordReader(ctx.getConfiguration());
+	} catch (FormatNotUnderstoodException e) {
+		LOG.error(e);
+	} catch (GeneralSecurityException gse) {
+		LOG.error(gse);
+	}
+	return null;
+}
+
+	/**
+	 * Excel documents cannot be split, but several of them are combined in one split
+	 *
+	 */
+	@Override
+	protected boolean isSplitable(JobContext context, Path file) {
+		return false;
+	}
+
+}
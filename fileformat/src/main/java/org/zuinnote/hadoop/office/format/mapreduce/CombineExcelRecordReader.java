@@ -0,0 +1,160 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.mapreduce;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.ArrayWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.CombineFileSplit;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+
+/**
+ * Reads the rows of all Excel files in a CombineFileSplit one file after the other. One ExcelRecordReader is reused for all files, so that keystore, truststore and the formatter of cell values are only loaded once per split.
+ *
+ */
+public class CombineExcelRecordReader extends RecordReader<Text,ArrayWritable> {
+private static final Log LOG = LogFactory.getLog(CombineExcelRecordReader.class.getName());
+private final ExcelRecordReader currentReader;
+private CombineFileSplit split;
+private TaskAttemptContext context;
+private int currentIndex;
+private boolean currentOpen;
+private long processedLength;
+
+public CombineExcelRecordReader(Configuration conf) throws IOException,FormatNotUnderstoodException,GeneralSecurityException {
+	LOG.debug("Initalizing CombineExcelRecordReader");
+	this.currentReader=new ExcelRecordReader(conf, null);
+}
+
+/**
+* Initializes reader
+* @param split Split to use (assumed to be a combine file split)
+* @param context context of the job
+*
+*/
+@Override
+public void initialize(InputSplit split, TaskAttemptContext context) {
+	this.split=(CombineFileSplit)split;
+	this.context=context;
+	this.currentIndex=-1;
+	this.currentOpen=false;
+	this.processedLength=0;
+}
+
+/**
+*
+* Read row from the current Excel file. If the current file has no more rows (or does not match a defined metadata filter) then the next file of the split is read
+*
+* @return true if next more rows are available, false if not
+*
+* @throws java.io.IOException in case of errors reading from the filestream provided by Hadoop
+* @throws java.lang.InterruptedException in case a file cannot be parsed
+*/
+@Override
+public boolean nextKeyValue() throws IOException, InterruptedException {
+	while (true) {
+		if ((this.currentOpen) && (this.currentReader.nextKeyValue())) {
+			return true;
+		}
+		if (!this.nextFile()) {
+			return false;
+		}
+	}
+}
+
+/**
+*
+*  get current key after calling next()
+*
+* @return key is a text containing a reference for the SpreadSheet (e.g. [name.xlsx]Sheet1!A1)
+*/
+@Override
+public Text getCurrentKey() {
+	return this.currentReader.getCurrentKey();
+}
+
+/**
+*
+*  get current value after calling next()
+*
+* @return is an array of type SpreadSheetDAO
+*/
+@Override
+public ArrayWritable getCurrentValue() {
+	return this.currentReader.getCurrentValue();
+}
+
+/*
+* Returns how much of the split has been processed in terms of bytes
+*
+* @return progress percentage
+*
+* @throws java.io.IOException in case of errors reading from the filestream provided by Hadoop
+*
+*/
+@Override
+public float getProgress() throws IOException {
+	if ((this.split==null) || (this.split.getLength()==0)) {
+		return 0.0f;
+	}
+	long currentLength=0;
+	if (this.currentOpen) {
+		currentLength=(long)(this.currentReader.getProgress()*this.split.getLength(this.currentIndex));
+	}
+	return Math.min(1.0f, (this.processedLength+currentLength)/(float)this.split.getLength());
+}
+
+@Override
+public void close() throws IOException {
+	if (this.currentOpen) {
+		this.currentOpen=false;
+		this.currentReader.close();
+	}
+}
+
+/**
+ * Closes the current file and opens the next file of the split
+ *
+ * @return true, if there is a next file, false if all files of the split have been read
+ * @throws IOException
+ * @throws InterruptedException
+ */
+private boolean nextFile() throws IOException, InterruptedException {
+	if (this.currentIndex>=0) {
+		this.processedLength+=this.split.getLength(this.currentIndex);
+	}
+	this.close();
+	this.currentIndex++;
+	if (this.currentIndex>=this.split.getNumPaths()) {
+		return false;
+	}
+	FileSplit fileSplit = new FileSplit(this.split.getPath(this.currentIndex),this.split.getOffset(this.currentIndex),this.split.getLength(this.currentIndex),this.split.getLocations());
+	LOG.debug("Reading file \""+fileSplit.getPath()+"\" of combined split");
+	this.currentReader.initialize(fileSplit, this.context);
+	this.currentOpen=true;
+	return true;
+}
+
+}
@@ -17,6 +17,7 @@
 package org.zuinnote.hadoop.office.format.mapreduce;
 
 import java.io.IOException;
+import java.util.Map;
 
 
 import org.apache.hadoop.conf.Configuration;
@@ -35,6 +36,8 @@ import org.apache.commons.logging.Log;
 
 import java.security.GeneralSecurityException;
 
+import org.apache.poi.ss.util.CellRangeAddress;
+
 import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
 import org.zuinnote.hadoop.office.format.common.parser.*;
 
@@ -62,6 +65,22 @@ public void configure (Configuration conf) {
 		// nothing here
 } 
 
+/**
+ * Reads the sheet names and the used range (dimension) of each sheet of an Excel file without parsing it
+ * 
+ * @param conf configuration
+ * @param file Excel file
+ * @return Map with sheet name as key and the used range of the sheet as value
+ * @throws IOException in case the file cannot be read or is not an Excel file
+ */
+@Override
+protected Map<String,CellRangeAddress> probe(Configuration conf, Path file) throws IOException {
+	// do not change the configuration of the caller
+	Configuration probeConf = new Configuration(conf);
+	probeConf.set(HadoopOfficeReadConfiguration.CONF_MIMETYPE,"ms-excel");
+	return super.probe(probeConf, file);
+}
+
 	
 
 	/**
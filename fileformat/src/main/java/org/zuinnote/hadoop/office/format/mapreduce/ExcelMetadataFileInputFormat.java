@@ -0,0 +1,52 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.mapreduce;
+
+import java.io.IOException;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.MapWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+
+/**
+ * Input format returning one record per Excel file containing only its metadata, i.e. the document properties, the sheet names and the used range of each sheet. The sheet data itself is never parsed, so this is suitable to catalog a large number of documents.
+ * The key is the path of the file, the value a map of Text, see {@link org.zuinnote.hadoop.office.format.common.OfficeReader#readMetadata()}
+ *
+ */
+public class ExcelMetadataFileInputFormat extends FileInputFormat<Text, MapWritable> {
+
+	@Override
+	public RecordReader<Text, MapWritable> createRecordReader(InputSplit split, TaskAttemptContext ctx) throws IOException {
+		// send configuration option to ms excel. The format of the Excel (old vs new) is detected automaitcally
+		ctx.getConfiguration().set(HadoopOfficeReadConfiguration.CONF_MIMETYPE, "ms-excel");
+		return new ExcelMetadataRecordReader(ctx.getConfiguration());
+	}
+
+	/**
+	 * Metadata can only be read from full documents
+	 */
+	@Override
+	protected boolean isSplitable(JobContext context, Path file) {
+		return false;
+	}
+
+}
@@ -0,0 +1,132 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.mapreduce;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.MapWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.zuinnote.hadoop.office.format.common.HadoopFileReader;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.HadoopUtil;
+import org.zuinnote.hadoop.office.format.common.OfficeReader;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+
+/**
+ * Reads the metadata of an Excel file as one record. The key is the path of the file and the value contains the document properties, sheet names and sheet dimensions, see {@link org.zuinnote.hadoop.office.format.common.OfficeReader#readMetadata()}
+ *
+ */
+public class ExcelMetadataRecordReader extends RecordReader<Text, MapWritable> {
+	private static final Log LOG = LogFactory.getLog(ExcelMetadataRecordReader.class.getName());
+	private Configuration conf;
+	private HadoopOfficeReadConfiguration hocr;
+	private Path file;
+	private boolean processed = false;
+	private Text currentKey = new Text("");
+	private MapWritable currentValue = new MapWritable();
+
+	/**
+	 * Creates a reader for the metadata of Excel files
+	 *
+	 * @param conf Configuration: configuration to be parsed by HadoopOfficeConfiguration class
+	 */
+	public ExcelMetadataRecordReader(Configuration conf) {
+		this.conf = conf;
+		this.hocr = new HadoopOfficeReadConfiguration(conf);
+	}
+
+	@Override
+	public void initialize(InputSplit split, TaskAttemptContext context) throws IOException {
+		this.file = ((FileSplit) split).getPath();
+		this.hocr.setFileName(this.file.getName());
+		this.processed = false;
+	}
+
+	/**
+	 * Reads the metadata of the file. Only one record is returned per file.
+	 *
+	 * @return true if the metadata has been read, false if it has already been returned
+	 * @throws IOException in case the file cannot be read or its format is not understood
+	 */
+	@Override
+	public boolean nextKeyValue() throws IOException {
+		if (this.processed) {
+			return false;
+		}
+		this.processed = true;
+		Map<String, String> metadata;
+		try {
+			HadoopUtil.readKeyStore(this.conf, this.hocr, null);
+			metadata = this.readMetadata();
+		} catch (FormatNotUnderstoodException e) {
+			LOG.error(e);
+			throw new IOException("Cannot read metadata of file \"" + this.file + "\"", e);
+		}
+		this.currentKey.set(this.file.toString());
+		this.currentValue.clear();
+		for (Map.Entry<String, String> entry : metadata.entrySet()) {
+			this.currentValue.put(new Text(entry.getKey()), new Text(entry.getValue() == null ? "" : entry.getValue()));
+		}
+		return true;
+	}
+
+	@Override
+	public Text getCurrentKey() {
+		return this.currentKey;
+	}
+
+	@Override
+	public MapWritable getCurrentValue() {
+		return this.currentValue;
+	}
+
+	@Override
+	public float getProgress() {
+		return this.processed ? 1.0f : 0.0f;
+	}
+
+	@Override
+	public void close() throws IOException {
+		// file is closed after reading the metadata
+	}
+
+	/**
+	 * Opens the (possibly compressed) file and reads its metadata
+	 *
+	 * @return metadata of the file
+	 * @throws IOException
+	 * @throws FormatNotUnderstoodException
+	 */
+	private Map<String, String> readMetadata() throws IOException, FormatNotUnderstoodException {
+		HadoopFileReader hfr = new HadoopFileReader(this.conf);
+		try (InputStream in = hfr.openFile(this.file)) {
+			return new OfficeReader(in, this.hocr).readMetadata();
+		} finally {
+			hfr.close();
+		}
+	}
+
+}
@@ -23,6 +23,8 @@ import java.security.GeneralSecurityException;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.ArrayWritable;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.input.FileSplit;
 
 import org.apache.commons.logging.LogFactory;
@@ -30,6 +32,7 @@ import org.apache.commons.logging.Log;
 
 import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
 import org.zuinnote.hadoop.office.format.common.parser.*;
+import org.zuinnote.hadoop.office.format.common.util.ExcelRowKeyBuilder;
 
 /* ExcelRecordReader reads rows from Excel
 *
@@ -45,6 +48,7 @@ private static final Log LOG = LogFactory.getLog(ExcelRecordReader.class.getName
 private FileSplit split;
 private Text currentKey=new Text("");
 private ArrayWritable currentValue=new ArrayWritable(SpreadSheetCellDAO.class);
+private ExcelRowKeyBuilder rowKeyBuilder;
 
 public ExcelRecordReader(Configuration conf, FileSplit split) throws IOException,FormatNotUnderstoodException,GeneralSecurityException {
  super(conf);
@@ -52,6 +56,22 @@ public ExcelRecordReader(Configuration conf, FileSplit split) throws IOException
  this.split=split;
 }
 
+/**
+* Initializes reader. The reader can be initialized again for another file after it has been closed, which is used by CombineExcelFileInputFormat to read several files in one split
+*
+* @param split Split to use (assumed to be a file split)
+* @param context context of the job
+*
+* @throws java.io.IOException in case of errors reading from the filestream provided by Hadoop
+* @throws java.lang.InterruptedException in case of thread interruption
+*/
+@Override
+public void initialize(InputSplit split, TaskAttemptContext context) throws IOException, InterruptedException {
+	this.split=(FileSplit)split;
+	this.rowKeyBuilder=new ExcelRowKeyBuilder(this.split.getPath().getName());
+	super.initialize(split, context);
+}
+
 /**
 *
 *  get current key after calling next()
@@ -91,7 +111,7 @@ public boolean nextKeyValue() throws IOException {
 		return false; // no more to read
 	}
 	SpreadSheetCellDAO[] cellRows = (SpreadSheetCellDAO[])objectArray;
-	this.currentKey.set(new Text("["+this.split.getPath().getName()+"]"+this.getOfficeReader().getCurrentSheetName()+"!A"+this.getOfficeReader().getCurrentRow()));
+	this.rowKeyBuilder.set(this.currentKey,this.getOfficeReader().getCurrentSheetName(),this.getOfficeReader().getCurrentRow());
 	this.currentValue.set(cellRows);
 	return true;	
 }
@@ -0,0 +1,119 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.mapreduce;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.ArrayWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+
+/**
+ * Input format for large Excel files with several sheets. Each sheet of a file is read by its own mapper, so that the sheets are processed in parallel. Keys and values are the same as for {@link ExcelFileInputFormat}.
+ *
+ * The sheets of a file are determined without parsing it (see {@link org.zuinnote.hadoop.office.format.common.OfficeReader#probe()}). If only some sheets are selected (hadoopoffice.read.sheets) then only splits for these sheets are created. A file with only one (selected) sheet or a file that cannot be probed (e.g. because its password is stored in a keystore) is read completely by one mapper as by ExcelFileInputFormat.
+ * Note: Every mapper still needs to open the complete file, but the low footprint parser (hadoopoffice.read.lowFootprint) decodes only the sheet of the split of a new Excel file (.xlsx). As for ExcelFileInputFormat, lines are skipped (hadoopoffice.read.sheet.skiplines.num) and the header is read (hadoopoffice.read.header.read) only in the first (selected) sheet of a file, unless this is configured for all sheets (hadoopoffice.read.sheet.skiplines.allsheets, hadoopoffice.read.header.skipheaderinallsheets). Hence, the header of the file is only available to the reader of the split of the first sheet.
+ *
+ */
+public class ExcelSheetFileInputFormat extends ExcelFileInputFormat {
+private static final Log LOG = LogFactory.getLog(ExcelSheetFileInputFormat.class.getName());
+
+/**
+ * Creates one split per (selected) sheet of each file
+ *
+ * @param job job with the input files
+ * @return splits
+ * @throws IOException in case the files cannot be listed
+ */
+@Override
+public List<InputSplit> getSplits(JobContext job) throws IOException {
+	Configuration conf = job.getConfiguration();
+	HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration(conf);
+	Set<String> selectedSheets = null;
+	if ((hocr.getSheets() != null) && (!"".equals(hocr.getSheets()))) {
+		selectedSheets = new HashSet<>(Arrays.asList(hocr.getSheets().split(":")));
+	}
+	List<InputSplit> result = new ArrayList<>();
+	for (InputSplit currentSplit : super.getSplits(job)) {
+		FileSplit fileSplit = (FileSplit) currentSplit;
+		List<String> sheets = new ArrayList<>();
+		try {
+			for (String currentSheet : this.probe(conf, fileSplit.getPath()).keySet()) {
+				if ((selectedSheets == null) || (selectedSheets.contains(currentSheet))) {
+					sheets.add(currentSheet);
+				}
+			}
+		} catch (IOException e) {
+			LOG.warn("Cannot determine sheets of file \"" + fileSplit.getPath() + "\". It is read completely by one mapper", e);
+		}
+		if (sheets.size() <= 1) {
+			result.add(fileSplit);
+		} else {
+			LOG.debug("Creating " + sheets.size() + " splits for the sheets of file \"" + fileSplit.getPath() + "\"");
+			boolean firstSheet = true;
+			for (String currentSheet : sheets) {
+				result.add(new ExcelSheetFileSplit(fileSplit.getPath(), fileSplit.getStart(), fileSplit.getLength(), fileSplit.getLocations(), currentSheet, firstSheet));
+				firstSheet = false;
+			}
+		}
+	}
+	return result;
+}
+
+@Override
+public RecordReader<Text,ArrayWritable> createRecordReader(InputSplit split, TaskAttemptContext ctx) throws IOException {
+	if (!(split instanceof ExcelSheetFileSplit)) {
+		return super.createRecordReader(split, ctx);
+	}
+	try {
+		// the reader of the split reads only its sheet
+		Configuration conf = new Configuration(ctx.getConfiguration());
+		conf.set(HadoopOfficeReadConfiguration.CONF_MIMETYPE, "ms-excel");
+		conf.set(HadoopOfficeReadConfiguration.CONF_SHEETS, ((ExcelSheetFileSplit) split).getSheetName());
+		if (!((ExcelSheetFileSplit) split).isFirstSheet()) {
+			// the sheet of the split is the first sheet for the reader, but not for the file
+			HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration(conf);
+			if (!hocr.getSkipLinesAllSheets()) {
+				conf.setInt(HadoopOfficeReadConfiguration.CONF_SKIPLINES, 0);
+			}
+			// the first row of other sheets is skipped as header only if configured for all sheets
+			conf.setBoolean(HadoopOfficeReadConfiguration.CONF_READHEADER, hocr.getIgnoreHeaderInAllSheets());
+		}
+		return new ExcelRecordReader(conf, (FileSplit) split);
+	} catch (FormatNotUnderstoodException e) {
+		LOG.error(e);
+	} catch (GeneralSecurityException gse) {
+		LOG.error(gse);
+	}
+	return null;
+}
+
+}
@@ -0,0 +1,92 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.mapreduce;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+
+/**
+ * Split of a complete Excel file of which only one sheet is read (see {@link ExcelSheetFileInputFormat})
+ *
+ */
+public class ExcelSheetFileSplit extends FileSplit {
+	private String sheetName;
+	private boolean firstSheet;
+
+	public ExcelSheetFileSplit() {
+		super();
+	}
+
+	/**
+	 *
+	 * @param file      Excel file
+	 * @param start     position of the first byte of the file to process
+	 * @param length    number of bytes of the file to process
+	 * @param hosts     list of hosts containing the file
+	 * @param sheetName name of the sheet to read
+	 */
+	public ExcelSheetFileSplit(Path file, long start, long length, String[] hosts, String sheetName) {
+		this(file, start, length, hosts, sheetName, true);
+	}
+
+	/**
+	 *
+	 * @param file       Excel file
+	 * @param start      position of the first byte of the file to process
+	 * @param length     number of bytes of the file to process
+	 * @param hosts      list of hosts containing the file
+	 * @param sheetName  name of the sheet to read
+	 * @param firstSheet true, if the sheet is the first (selected) sheet of the file. Lines are skipped and the header is read only for the first sheet, unless configured for all sheets
+	 */
+	public ExcelSheetFileSplit(Path file, long start, long length, String[] hosts, String sheetName, boolean firstSheet) {
+		super(file, start, length, hosts);
+		this.sheetName = sheetName;
+		this.firstSheet = firstSheet;
+	}
+
+	public String getSheetName() {
+		return this.sheetName;
+	}
+
+	public boolean isFirstSheet() {
+		return this.firstSheet;
+	}
+
+	@Override
+	public void write(DataOutput out) throws IOException {
+		super.write(out);
+		Text.writeString(out, this.sheetName);
+		out.writeBoolean(this.firstSheet);
+	}
+
+	@Override
+	public void readFields(DataInput in) throws IOException {
+		super.readFields(in);
+		this.sheetName = Text.readString(in);
+		this.firstSheet = in.readBoolean();
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + "!" + this.sheetName;
+	}
+
+}
@@ -18,6 +18,7 @@ package org.zuinnote.hadoop.office.format.common;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
@@ -41,6 +42,7 @@ import java.util.Set;
 import java.security.cert.Certificate;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.mapreduce.TaskAttemptID;
@@ -49,6 +51,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.zuinnote.hadoop.office.format.common.util.KeyStoreCache;
 
 /**
  * @author jornfranke
@@ -203,4 +206,52 @@ private static java.nio.file.Path tmpPath;
 		Set<X509Certificate> allX509Certificates=hksm.getAllX509Certificates();
 		assertEquals(104,allX509Certificates.size(),"All X509 Certificate list has length 104");
     }
+
+    @Test
+    public void loadExistingKeyStoreCached() throws IOException, NoSuchAlgorithmException, CertificateException, KeyStoreException, UnrecoverableEntryException, InvalidKeySpecException {
+    	Configuration conf = new Configuration(HadoopKeyStoreManagerTest.defaultConf);
+    	ClassLoader classLoader = getClass().getClassLoader();
+    	String fileName="keystore.jceks";
+		String fileNameKeyStore=classLoader.getResource(fileName).getFile();	
+    	Path file = new Path(fileNameKeyStore);
+    	KeyStoreCache.clear();
+    	HadoopKeyStoreManager hksm = new HadoopKeyStoreManager(conf);
+    	hksm.openKeyStore(file, "JCEKS", "changeit");
+    	FileStatus status = localFs.getFileStatus(file);
+    	String location = status.getPath().toString();
+    	KeyStoreCache.Entry entry = KeyStoreCache.get(location, "JCEKS", status.getLen(), status.getModificationTime(), "changeit");
+    	assertNotNull(entry,"Keystore is cached");
+    	assertNull(KeyStoreCache.get(location, "JCEKS", status.getLen(), status.getModificationTime(), "wrongpassword"),"Cached keystore is not returned for a wrong password");
+    	assertNull(KeyStoreCache.get(location, "JCEKS", status.getLen(), status.getModificationTime()+1, "changeit"),"Cached keystore is not returned for a modified file");
+    	HadoopKeyStoreManager hksm2 = new HadoopKeyStoreManager(conf);
+    	hksm2.openKeyStore(file, "JCEKS", "changeit");
+    	assertEquals("test",hksm2.getPassword("test.xlsx", "changeit"),"Password is correctly read from cached keystore");
+    	assertEquals("test",hksm.getPassword("test.xlsx", "changeit"),"Password is correctly read from cached keystore by another manager");
+    	// disable cache
+    	KeyStoreCache.clear();
+    	conf.setLong(HadoopKeyStoreManager.CONF_CACHE_TTL, 0);
+    	HadoopKeyStoreManager hksmNoCache = new HadoopKeyStoreManager(conf);
+    	hksmNoCache.openKeyStore(file, "JCEKS", "changeit");
+    	assertEquals("test",hksmNoCache.getPassword("test.xlsx", "changeit"),"Password is correctly read from uncached keystore");
+    	assertNull(KeyStoreCache.get(location, "JCEKS", status.getLen(), status.getModificationTime(), "changeit"),"Keystore is not cached if ttl is 0");
+    }
+    
+    @Test
+    public void updateCachedKeyStore() throws IOException, NoSuchAlgorithmException, CertificateException, KeyStoreException, InvalidKeySpecException, UnrecoverableEntryException {
+     	Configuration conf = new Configuration(HadoopKeyStoreManagerTest.defaultConf);
+       	String tmpDir=tmpPath.toString();	
+       	Path outputFile= new Path(tmpDir,"keystore3.jceks");
+       	HadoopKeyStoreManager hksm = new HadoopKeyStoreManager(conf);
+       	hksm.openKeyStore(null, "JCEKS", "changeit");
+       	hksm.setPassword("test.xlsx", "test2", "changeit");
+       	hksm.store(outputFile, "changeit");
+       	hksm.openKeyStore(outputFile, "JCEKS", "changeit");
+       	assertEquals("test2",hksm.getPassword("test.xlsx", "changeit"),"Password is correctly read from new keystore");
+       	// modify the cached keystore and overwrite it
+       	hksm.setPassword("test.xlsx", "test3", "changeit");
+       	hksm.store(outputFile, "changeit");
+       	HadoopKeyStoreManager hksm2 = new HadoopKeyStoreManager(conf);
+       	hksm2.openKeyStore(outputFile, "JCEKS", "changeit");
+       	assertEquals("test3",hksm2.getPassword("test.xlsx", "changeit"),"Modified password is read after keystore has been overwritten");
+    }
 }
@@ -17,13 +17,30 @@
 
 package org.zuinnote.hadoop.office.format.common;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.poi.ss.util.CellRangeAddress;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+import org.zuinnote.hadoop.office.format.common.parser.MSExcelParser;
 
 
 public class OfficeReaderTest {
@@ -52,5 +69,162 @@ public class OfficeReaderTest {
     public void readExcelInputFormat() {
     }
 
-    
+    @Test
+    public void probeExcel2003MultiSheet() throws IOException, FormatNotUnderstoodException {
+    	ClassLoader classLoader = getClass().getClassLoader();
+    	String fileName="excel2003testmultisheet.xls";
+    	HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration();
+    	hocr.setMimeType("ms-excel");
+    	hocr.setFileName(fileName);
+    	try (InputStream in = new FileInputStream(classLoader.getResource(fileName).getFile())) {
+    		OfficeReader reader = new OfficeReader(in, hocr);
+    		Map<String,CellRangeAddress> dimensions = reader.probe();
+    		assertEquals(2, dimensions.size(), "Two sheets probed");
+    		assertEquals(5, dimensions.get("Sheet1").getLastRow(), "Last row of Sheet1 is 5");
+    		assertEquals(4, dimensions.get("Sheet1").getLastColumn(), "Last column of Sheet1 is 4");
+    		assertEquals(2, dimensions.get("testsheet").getLastRow(), "Last row of testsheet is 2");
+    		assertNull(reader.getCurrentParser(), "Document not parsed");
+    	}
+    }
+
+    @Test
+    public void progressExcel2003MultiSheet() throws IOException, FormatNotUnderstoodException {
+    	ClassLoader classLoader = getClass().getClassLoader();
+    	String fileName="excel2003testmultisheet.xls";
+    	HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration();
+    	hocr.setMimeType("ms-excel");
+    	hocr.setFileName(fileName);
+    	try (InputStream in = new FileInputStream(classLoader.getResource(fileName).getFile())) {
+    		OfficeReader reader = new OfficeReader(in, hocr);
+    		reader.parse();
+    		assertEquals(0.0f, reader.getProgress(), "No rows read after parsing");
+    		reader.getNext();
+    		assertEquals(1/9.0f, reader.getProgress(), 0.0001f, "First of 9 rows read");
+    		for (int i=0;i<5;i++) {
+    			reader.getNext();
+    		}
+    		assertEquals(6/9.0f, reader.getProgress(), 0.0001f, "All 6 rows of Sheet1 read");
+    		reader.getNext();
+    		assertEquals(7/9.0f, reader.getProgress(), 0.0001f, "First row of testsheet read");
+    		reader.getNext();
+    		reader.getNext();
+    		assertEquals(1.0f, reader.getProgress(), "All rows read");
+    		assertNull(reader.getNext(), "No further rows");
+    	}
+    }
+
+    @Test
+    public void progressExcel2003MultiSheetLowFootprint() throws IOException, FormatNotUnderstoodException {
+    	ClassLoader classLoader = getClass().getClassLoader();
+    	String fileName="excel2003testmultisheet.xls";
+    	HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration();
+    	hocr.setMimeType("ms-excel");
+    	hocr.setFileName(fileName);
+    	hocr.setLowFootprint(true);
+    	try (InputStream in = new FileInputStream(classLoader.getResource(fileName).getFile())) {
+    		OfficeReader reader = new OfficeReader(in, hocr);
+    		reader.parse();
+    		assertEquals(0.0f, reader.getProgress(), "No rows read after parsing");
+    		float previousProgress = 0.0f;
+    		while (reader.getNext()!=null) {
+    			assertTrue(reader.getProgress()>previousProgress, "Progress increases with every row");
+    			previousProgress = reader.getProgress();
+    		}
+    		assertEquals(1.0f, reader.getProgress(), "All rows read");
+    	}
+    }
+
+    @Test
+    public void reuseRowsExcel2003MultiSheet() throws IOException, FormatNotUnderstoodException {
+    	ClassLoader classLoader = getClass().getClassLoader();
+    	String fileName="excel2003testmultisheet.xls";
+    	HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration();
+    	hocr.setMimeType("ms-excel");
+    	hocr.setFileName(fileName);
+    	hocr.setLocale(new Locale.Builder().setLanguageTag("de").build());
+    	HadoopOfficeReadConfiguration hocrReuse = new HadoopOfficeReadConfiguration();
+    	hocrReuse.setMimeType("ms-excel");
+    	hocrReuse.setFileName(fileName);
+    	hocrReuse.setLocale(new Locale.Builder().setLanguageTag("de").build());
+    	hocrReuse.setReuseRows(true);
+    	try (InputStream in = new FileInputStream(classLoader.getResource(fileName).getFile());
+    			InputStream inReuse = new FileInputStream(classLoader.getResource(fileName).getFile())) {
+    		OfficeReader reader = new OfficeReader(in, hocr);
+    		reader.parse();
+    		OfficeReader readerReuse = new OfficeReader(inReuse, hocrReuse);
+    		readerReuse.parse();
+    		Map<Integer,Object[]> rowsByLength = new HashMap<>();
+    		int rows = 0;
+    		Object[] row;
+    		while ((row = reader.getNext())!=null) {
+    			Object[] rowReuse = readerReuse.getNext();
+    			rows++;
+    			assertEquals(row.length, rowReuse.length, "Row "+rows+" has the same number of cells");
+    			for (int i=0;i<row.length;i++) {
+    				if (row[i]==null) {
+    					assertNull(rowReuse[i], "Row "+rows+" cell "+i+" is empty");
+    				} else {
+    					SpreadSheetCellDAO cell = (SpreadSheetCellDAO) row[i];
+    					SpreadSheetCellDAO cellReuse = (SpreadSheetCellDAO) rowReuse[i];
+    					assertEquals(cell.getFormattedValue(), cellReuse.getFormattedValue(), "Row "+rows+" cell "+i+" has the same value");
+    					assertEquals(cell.getFormula(), cellReuse.getFormula(), "Row "+rows+" cell "+i+" has the same formula");
+    					assertEquals(cell.getAddress(), cellReuse.getAddress(), "Row "+rows+" cell "+i+" has the same address");
+    					assertEquals(cell.getSheetName(), cellReuse.getSheetName(), "Row "+rows+" cell "+i+" has the same sheet");
+    				}
+    			}
+    			if (rowsByLength.containsKey(rowReuse.length)) {
+    				assertSame(rowsByLength.get(rowReuse.length), rowReuse, "Row "+rows+" reuses the array of a previous row with the same length");
+    			}
+    			rowsByLength.put(rowReuse.length, rowReuse);
+    		}
+    		assertNull(readerReuse.getNext(), "No further rows with reused rows");
+    		assertTrue(rowsByLength.size()<rows, "Some rows have been reused");
+    	}
+    }
+
+    @Test
+    public void parseExcel2003MetaDataFilterNegative() throws IOException, FormatNotUnderstoodException {
+    	ClassLoader classLoader = getClass().getClassLoader();
+    	String fileName="excel2003test.xls";
+    	HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration();
+    	hocr.setMimeType("ms-excel");
+    	hocr.setFileName(fileName);
+    	Map<String,String> metadataFilter = new HashMap<>();
+    	metadataFilter.put("author", "user2.*");
+    	hocr.setMetaDataFilter(metadataFilter);
+    	try (InputStream in = new FileInputStream(classLoader.getResource(fileName).getFile())) {
+    		OfficeReader reader = new OfficeReader(in, hocr);
+    		reader.parse();
+    		assertFalse(reader.getFiltered(), "Document does not match metadata filter");
+    		assertNull(((MSExcelParser)reader.getCurrentParser()).getCurrentWorkbook(), "Workbook not loaded for filtered document");
+    		assertNull(reader.getNext(), "No rows for filtered document");
+    	}
+    }
+
+    @Test
+    public void parseExcel2013MetaDataFilterLowFootprint() throws IOException, FormatNotUnderstoodException {
+    	ClassLoader classLoader = getClass().getClassLoader();
+    	String fileName="excel2013test.xlsx";
+    	HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration();
+    	hocr.setMimeType("ms-excel");
+    	hocr.setFileName(fileName);
+    	hocr.setLowFootprint(true);
+    	Map<String,String> metadataFilter = new HashMap<>();
+    	metadataFilter.put("creator", "user1.*");
+    	hocr.setMetaDataFilter(metadataFilter);
+    	try (InputStream in = new FileInputStream(classLoader.getResource(fileName).getFile())) {
+    		OfficeReader reader = new OfficeReader(in, hocr);
+    		reader.parse();
+    		assertTrue(reader.getFiltered(), "Document matches metadata filter in low footprint mode");
+    		assertNotNull(reader.getNext(), "Rows for matching document");
+    	}
+    	metadataFilter.put("creator", "user2.*");
+    	hocr.setMetaDataFilter(metadataFilter);
+    	try (InputStream in = new FileInputStream(classLoader.getResource(fileName).getFile())) {
+    		OfficeReader reader = new OfficeReader(in, hocr);
+    		reader.parse();
+    		assertFalse(reader.getFiltered(), "Document does not match metadata filter in low footprint mode");
+    		assertNull(reader.getNext(), "No rows for filtered document");
+    	}
+    }
 }
@@ -203,6 +203,23 @@ public class ExcelConverterSimpleSpreadSheetCellDAOTest {
 	    }
 	    
 	    
+	    @Test
+	    public void getValueAccordingToSchemaSingleCells() {
+	    		SimpleDateFormat dateFormat = (SimpleDateFormat)DateFormat.getDateInstance(DateFormat.SHORT, Locale.US);
+	    		DecimalFormat decimalFormat = (DecimalFormat) DecimalFormat.getInstance(Locale.US);
+	    		ExcelConverterSimpleSpreadSheetCellDAO converter = new ExcelConverterSimpleSpreadSheetCellDAO(dateFormat,decimalFormat);
+	    		converter.setSchemaRow(new GenericDataType[] {new GenericStringDataType(), new GenericIntegerDataType(), new GenericBigDecimalDataType(3,2), new GenericBooleanDataType()});
+	    		assertEquals("text",converter.getValueAccordingToSchema(new SpreadSheetCellDAO("text","","","A2","Sheet1"), 0),"A2 is a string");
+	    		assertEquals(42,converter.getValueAccordingToSchema(new SpreadSheetCellDAO("42","","","B2","Sheet1"), 1),"B2 is an integer");
+	    		assertEquals(new BigDecimal("1.25"),converter.getValueAccordingToSchema(new SpreadSheetCellDAO("1.25","","","C2","Sheet1"), 2),"C2 is a decimal");
+	    		assertEquals(Boolean.TRUE,converter.getValueAccordingToSchema(new SpreadSheetCellDAO("TRUE","","","D2","Sheet1"), 3),"D2 is a boolean");
+	    		assertNull(converter.getValueAccordingToSchema(new SpreadSheetCellDAO("","","","B3","Sheet1"), 1),"Empty B3 is null");
+	    		assertEquals("outside",converter.getValueAccordingToSchema(new SpreadSheetCellDAO("outside","","","E2","Sheet1"), 4),"E2 outside the schema is a string");
+	    		Object[] row = converter.getDataAccordingToSchema(new SpreadSheetCellDAO[] {new SpreadSheetCellDAO("42","","","B2","Sheet1")});
+	    		assertNull(row[0],"Missing A2 is null");
+	    		assertEquals(42,row[1],"Row conversion uses the same conversion as single cells");
+	    }
+	    
 	    @Test
 	    public void getSpreadSheetCellDAOfromSimpleDataType() throws ParseException {
 		    	// configure converter
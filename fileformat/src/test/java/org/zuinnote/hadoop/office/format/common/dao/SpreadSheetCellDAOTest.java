@@ -0,0 +1,59 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.dao;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.junit.jupiter.api.Test;
+
+public class SpreadSheetCellDAOTest {
+
+	@Test
+	public void writableFormatWithoutRawValues() throws IOException {
+		SpreadSheetCellDAO rawCell = new SpreadSheetCellDAO(null, "comment", "", "A1", "Sheet1");
+		rawCell.setRawNumericValue(1.5, 0, "General", false, new DataFormatter());
+		SpreadSheetCellDAO formattedCell = new SpreadSheetCellDAO("1.5", "comment", "", "A1", "Sheet1");
+		assertArrayEquals(this.write(formattedCell), this.write(rawCell), "Raw values do not change the Writable format");
+	}
+
+	@Test
+	public void readFieldsResetsRawValues() throws IOException {
+		SpreadSheetCellDAO booleanCell = new SpreadSheetCellDAO("TRUE", "", "", "B2", "Sheet1");
+		booleanCell.setRawBooleanValue(true);
+		SpreadSheetCellDAO reusedCell = new SpreadSheetCellDAO("", "", "", "", "");
+		reusedCell.setRawNumericValue(2.0, 0, "General", false, null);
+		reusedCell.readFields(new DataInputStream(new ByteArrayInputStream(this.write(booleanCell))));
+		assertEquals("TRUE", reusedCell.getFormattedValue(), "Formatted value is read");
+		assertEquals("B2", reusedCell.getAddress(), "Address is read");
+		assertEquals(SpreadSheetCellDAO.RAWTYPE_NONE, reusedCell.getRawType(), "Cell read as Writable has no raw value");
+	}
+
+	private byte[] write(SpreadSheetCellDAO cell) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (DataOutputStream dos = new DataOutputStream(bos)) {
+			cell.write(dos);
+		}
+		return bos.toByteArray();
+	}
+}
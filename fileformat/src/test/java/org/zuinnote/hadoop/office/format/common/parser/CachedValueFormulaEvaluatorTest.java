@@ -0,0 +1,93 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+public class CachedValueFormulaEvaluatorTest {
+
+	@Test
+	public void evaluateCachedValuesXSSF() throws IOException {
+		try (Workbook wb = new XSSFWorkbook()) {
+			assertCachedValuesEvaluated(wb);
+		}
+	}
+
+	@Test
+	public void evaluateCachedValuesHSSF() throws IOException {
+		try (Workbook wb = new HSSFWorkbook()) {
+			assertCachedValuesEvaluated(wb);
+		}
+	}
+
+	private static void assertCachedValuesEvaluated(Workbook wb) {
+		Row row = wb.createSheet("test").createRow(0);
+		// the formulas are not evaluated, so the cached results differ on purpose from the results of the formulas
+		Cell numericCell = row.createCell(0);
+		numericCell.setCellFormula("1+1");
+		numericCell.setCellValue(3.5);
+		Cell stringCell = row.createCell(1);
+		stringCell.setCellFormula("\"a\"&\"b\"");
+		stringCell.setCellValue("cached");
+		Cell booleanCell = row.createCell(2);
+		booleanCell.setCellFormula("1=1");
+		booleanCell.setCellValue(false);
+		Cell errorCell = row.createCell(3);
+		errorCell.setCellFormula("1/0");
+		errorCell.setCellErrorValue(FormulaError.NA.getCode());
+		Cell plainCell = row.createCell(4);
+		plainCell.setCellValue(7.0);
+		FormulaEvaluator evaluator = new MSExcelParser.CachedValueFormulaEvaluator();
+		assertEquals(3.5, evaluator.evaluate(numericCell).getNumberValue(), "Cached numeric result is returned");
+		assertEquals("cached", evaluator.evaluate(stringCell).getStringValue(), "Cached string result is returned");
+		assertEquals(false, evaluator.evaluate(booleanCell).getBooleanValue(), "Cached boolean result is returned");
+		CellValue errorValue = evaluator.evaluate(errorCell);
+		assertEquals(CellType.ERROR, errorValue.getCellTypeEnum(), "Cached error result is returned");
+		assertEquals(FormulaError.NA.getCode(), errorValue.getErrorValue(), "Cached error code is returned");
+		assertEquals(7.0, evaluator.evaluate(plainCell).getNumberValue(), "Value of a cell without formula is returned");
+		assertNull(evaluator.evaluate(row.createCell(5)), "Blank cell has no value");
+		// cached results are already available, nothing to do
+		evaluator.evaluateAll();
+		assertEquals(CellType.FORMULA, numericCell.getCellTypeEnum(), "Formulas are kept by evaluateAll");
+		evaluator.evaluateInCell(numericCell);
+		assertEquals(CellType.NUMERIC, numericCell.getCellTypeEnum(), "Formula is replaced by numeric result");
+		assertEquals(3.5, numericCell.getNumericCellValue(), "Cached numeric result is kept in the cell");
+		evaluator.evaluateInCell(stringCell);
+		assertEquals(CellType.STRING, stringCell.getCellTypeEnum(), "Formula is replaced by string result");
+		assertEquals("cached", stringCell.getStringCellValue(), "Cached string result is kept in the cell");
+		evaluator.evaluateInCell(booleanCell);
+		assertEquals(CellType.BOOLEAN, booleanCell.getCellTypeEnum(), "Formula is replaced by boolean result");
+		assertEquals(false, booleanCell.getBooleanCellValue(), "Cached boolean result is kept in the cell");
+		evaluator.evaluateInCell(errorCell);
+		assertEquals(CellType.ERROR, errorCell.getCellTypeEnum(), "Formula is replaced by error result");
+		assertEquals(FormulaError.NA.getCode(), errorCell.getErrorCellValue(), "Cached error code is kept in the cell");
+	}
+
+}
@@ -0,0 +1,90 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.util.FileVersion;
+import org.zuinnote.hadoop.office.format.common.util.LinkedWorkbookCache;
+
+public class MSExcelParserTest {
+	private static final String LINKEDWB = "excel2013linkedworkbookslink1.xlsx";
+	private static final String BROKENWB = "broken.xlsx";
+
+	@AfterEach
+	public void clearCache() {
+		LinkedWorkbookCache.clear();
+	}
+
+	@Test
+	public void addLinkedWorkbooksReleasesParsedWorkbooksOnError() throws IOException, FormatNotUnderstoodException {
+		this.assertParsedWorkbooksReleasedOnError(1);
+	}
+
+	@Test
+	public void addLinkedWorkbooksConcurrentlyReleasesParsedWorkbooksOnError() throws IOException, FormatNotUnderstoodException {
+		this.assertParsedWorkbooksReleasedOnError(2);
+	}
+
+	private void assertParsedWorkbooksReleasedOnError(int threads) throws IOException, FormatNotUnderstoodException {
+		ClassLoader classLoader = getClass().getClassLoader();
+		File linkedFile = new File(classLoader.getResource(LINKEDWB).getFile());
+		FileVersion linkedVersion = new FileVersion(linkedFile.toURI().toString(), linkedFile.length(), linkedFile.lastModified());
+		Map<String, FileVersion> versions = new HashMap<>();
+		versions.put(LINKEDWB, linkedVersion);
+		HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration();
+		hocr.setLocale(Locale.US);
+		hocr.setFileName("excel2013linkedworkbooks.xlsx");
+		hocr.setLinkedWorkbookThreads(threads);
+		hocr.setLinkedWorkbookCacheMaxCount(10);
+		hocr.setLinkedWorkbookCacheMaxSize(100L * 1024L * 1024L);
+		hocr.setLinkedWorkbookVersions(versions);
+		MSExcelParser parser = new MSExcelParser(hocr, null);
+		try {
+			parser.parse(classLoader.getResourceAsStream("excel2013linkedworkbooks.xlsx"));
+			Map<String, InputStream> linkedWorkbooks = new LinkedHashMap<>();
+			linkedWorkbooks.put(LINKEDWB, new FileInputStream(linkedFile));
+			linkedWorkbooks.put(BROKENWB, new ByteArrayInputStream("no workbook".getBytes(StandardCharsets.UTF_8)));
+			assertThrows(FormatNotUnderstoodException.class, () -> parser.addLinkedWorkbooks(linkedWorkbooks, new HashMap<String, String>()), "Linked workbook that cannot be read is reported");
+			// the parsed linked workbook has not been added, but given back to the cache
+			LinkedWorkbookCache.Entry releasedEntry = LinkedWorkbookCache.acquire(linkedVersion, null);
+			assertNotNull(releasedEntry, "Parsed linked workbook is given back if another linked workbook cannot be read");
+			LinkedWorkbookCache.release(releasedEntry, 10, 100L * 1024L * 1024L);
+			Map<String, InputStream> validLinkedWorkbooks = new HashMap<>();
+			validLinkedWorkbooks.put(LINKEDWB, new FileInputStream(linkedFile));
+			assertEquals(1, parser.addLinkedWorkbooks(validLinkedWorkbooks, new HashMap<String, String>()), "Linked workbook can be added again after an error");
+		} finally {
+			parser.close();
+		}
+	}
+
+}
@@ -0,0 +1,80 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Locale;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.junit.jupiter.api.Test;
+
+public class CachingDataFormatterTest {
+	private static final double[] VALUES = new double[] { 0.0, -0.0, 1.0, -1.0, 5.0, 0.5, -0.5, 0.25, -0.004, 1.005, 2.675, 1.23, -1.2, 0.1 + 0.2, 123456.78, 9999999999.0, 1E10, 12345678901.0, 1E11, 1E15, 1E16, 1E21, -98765432109876.0, 1E-11, 1.234E-9, 0.0000012345, 1234567.891, 123456.7891234, 9999999999.5, Math.PI };
+
+	@Test
+	public void formatBuiltinNumberFormatsLikeDataFormatter() {
+		for (Locale locale : new Locale[] { Locale.GERMAN, Locale.US, Locale.FRENCH, new Locale("ar", "EG") }) {
+			DataFormatter expectedFormatter = new DataFormatter(locale);
+			CachingDataFormatter formatter = new CachingDataFormatter(locale);
+			for (int i = 0; i < 2; i++) { // second time from cache
+				for (double value : VALUES) {
+					assertFormattedLikeDataFormatter(expectedFormatter, formatter, value, 0, "General", locale);
+					assertFormattedLikeDataFormatter(expectedFormatter, formatter, value, 1, "0", locale);
+					assertFormattedLikeDataFormatter(expectedFormatter, formatter, value, 2, "0.00", locale);
+					assertFormattedLikeDataFormatter(expectedFormatter, formatter, value, 4, "#,##0.00", locale);
+					assertFormattedLikeDataFormatter(expectedFormatter, formatter, value, 10, "0.00%", locale);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void formatGeneralBoundariesLikeDataFormatter() {
+		// values at the limits of the numbers that are formatted directly with the General format
+		double[] boundaryValues = new double[] { 1E-10, -1E-10, 1.5E-10, 9.9E-11, 1E-9, -1E-9, 1.2E-9, 1.23456789E-9, 0.0000000012, 0.1234567891, 0.12345678912, 1.000000001, 9.999999999, 9999999999.9, 9999999999.99, 99999999999.0, -99999999999.0, 1E11 - 1.0, 0.1 + 0.2, 1.0 - 0.9 };
+		for (Locale locale : new Locale[] { Locale.GERMAN, Locale.US }) {
+			DataFormatter expectedFormatter = new DataFormatter(locale);
+			CachingDataFormatter formatter = new CachingDataFormatter(locale);
+			for (double value : boundaryValues) {
+				assertFormattedLikeDataFormatter(expectedFormatter, formatter, value, 0, "General", locale);
+			}
+		}
+	}
+
+	@Test
+	public void formatDatesLikeDataFormatter() {
+		DataFormatter expectedFormatter = new DataFormatter(Locale.GERMAN);
+		CachingDataFormatter formatter = new CachingDataFormatter(Locale.GERMAN);
+		assertEquals(expectedFormatter.formatRawCellContents(36525.0, 14, "m/d/yy"), formatter.formatRawCellContents(36525.0, 14, "m/d/yy"), "Builtin date format");
+		assertEquals(expectedFormatter.formatRawCellContents(36525.5, 164, "dd.mm.yyyy hh:mm"), formatter.formatRawCellContents(36525.5, 164, "dd.mm.yyyy hh:mm"), "Custom date format");
+	}
+
+	@Test
+	public void formatSameIndexDifferentWorkbooks() {
+		DataFormatter expectedFormatter = new DataFormatter(Locale.US);
+		CachingDataFormatter formatter = new CachingDataFormatter(Locale.US);
+		// custom format indexes are defined per workbook
+		assertEquals("1234.50", formatter.formatRawCellContents(1234.5, 164, "0.00"), "Custom format 0.00 of first workbook");
+		assertEquals(expectedFormatter.formatRawCellContents(36525.0, 164, "yyyy-mm-dd"), formatter.formatRawCellContents(36525.0, 164, "yyyy-mm-dd"), "Custom date format of second workbook with the same index");
+		assertEquals(expectedFormatter.formatRawCellContents(1234.5, 164, "#,##0.0"), formatter.formatRawCellContents(1234.5, 164, "#,##0.0"), "Custom number format of third workbook with the same index");
+	}
+
+	private static void assertFormattedLikeDataFormatter(DataFormatter expectedFormatter, CachingDataFormatter formatter, double value, int formatIndex, String formatString, Locale locale) {
+		assertEquals(expectedFormatter.formatRawCellContents(value, formatIndex, formatString), formatter.formatRawCellContents(value, formatIndex, formatString), "Value " + value + " with format \"" + formatString + "\" in locale " + locale);
+	}
+
+}
@@ -15,8 +15,10 @@
 **/
 package org.zuinnote.hadoop.office.format.common.util;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
@@ -140,4 +142,58 @@ public class CertificateChainVerificationUtilTest {
 			// verify, should be false because no CRLs found / test case needs some enhancemen
 			assertFalse(CertificateChainVerificationUtil.verifyCertificateChain((X509Certificate)certificate, hksmTS.getAllX509Certificates()), "Certification chain can be verified successfully");
 	    }
+
+	    @Test
+	    public void verifyCertificationChainCached() throws IOException, UnrecoverableKeyException, KeyStoreException, NoSuchAlgorithmException, CertificateException, InvalidAlgorithmParameterException, NoSuchProviderException {
+		 	Configuration conf = new Configuration(defaultConf);
+	    		ClassLoader classLoader = getClass().getClassLoader();
+	    		String fileNameKeyStore=classLoader.getResource("testsigningCA.pfx").getFile();	
+	     	HadoopKeyStoreManager hksm = new HadoopKeyStoreManager(conf);
+	       	hksm.openKeyStore(new Path(fileNameKeyStore), "PKCS12", "changeit");
+	       	X509Certificate certificate = (X509Certificate) hksm.getCertificate("testalias");
+	       	assertNotNull(certificate,"Certificate could be loaded");
+			String fileNameTrustStore=classLoader.getResource("signingtruststore.jks").getFile();	
+			HadoopKeyStoreManager hksmTS = new HadoopKeyStoreManager(conf);
+			hksmTS.openKeyStore(new Path(fileNameTrustStore), "JKS", "changeit");
+			CertificateChainVerificationUtil.clearCache();
+			// no CRLs available, so verification fails
+			boolean result = CertificateChainVerificationUtil.verifyCertificateChain(certificate, hksmTS.getAllX509Certificates());
+			assertEquals(1, CertificateChainVerificationUtil.getCacheSize(), "Result of verification is cached");
+			assertEquals(result, CertificateChainVerificationUtil.verifyCertificateChain(certificate, hksmTS.getAllX509Certificates()), "Cached result is the same as the verified one");
+			assertEquals(1, CertificateChainVerificationUtil.getCacheSize(), "Cached result is reused for the same certificate and chain");
+			String fingerprint = hksmTS.getAllX509CertificatesFingerprint();
+			assertEquals(CertificateChainVerificationUtil.getFingerprint(hksmTS.getAllX509Certificates()), fingerprint, "Fingerprint of cached truststore is the fingerprint of its certificates");
+			assertEquals(result, CertificateChainVerificationUtil.verifyCertificateChain(certificate, hksmTS.getAllX509Certificates(), fingerprint), "Cached result is used with precalculated fingerprint of the chain");
+			assertEquals(1, CertificateChainVerificationUtil.getCacheSize(), "Cached result is reused with precalculated fingerprint of the chain");
+			CertificateChainVerificationUtil.clearCache();
+			assertEquals(0, CertificateChainVerificationUtil.getCacheSize(), "Cache is cleared");
+	    }
+
+	    @Test
+	    public void verifyCertificationChainCacheRemovesLeastRecentlyUsed() throws IOException, UnrecoverableKeyException, KeyStoreException, NoSuchAlgorithmException, CertificateException, InvalidAlgorithmParameterException, NoSuchProviderException {
+		 	Configuration conf = new Configuration(defaultConf);
+	    		ClassLoader classLoader = getClass().getClassLoader();
+	    		String fileNameKeyStore=classLoader.getResource("testsigningCA.pfx").getFile();	
+	     	HadoopKeyStoreManager hksm = new HadoopKeyStoreManager(conf);
+	       	hksm.openKeyStore(new Path(fileNameKeyStore), "PKCS12", "changeit");
+	       	X509Certificate certificate = (X509Certificate) hksm.getCertificate("testalias");
+	       	assertNotNull(certificate,"Certificate could be loaded");
+			String fileNameTrustStore=classLoader.getResource("signingtruststore.jks").getFile();	
+			HadoopKeyStoreManager hksmTS = new HadoopKeyStoreManager(conf);
+			hksmTS.openKeyStore(new Path(fileNameTrustStore), "JKS", "changeit");
+			CertificateChainVerificationUtil.clearCache();
+			// the fingerprint of the chain is only used as part of the cache key, so that different fingerprints fill the cache
+			for (int i=0;i<CertificateChainVerificationUtil.CACHE_MAXSIZE;i++) {
+				CertificateChainVerificationUtil.verifyCertificateChain(certificate, hksmTS.getAllX509Certificates(), "chain"+i);
+			}
+			assertEquals(CertificateChainVerificationUtil.CACHE_MAXSIZE, CertificateChainVerificationUtil.getCacheSize(), "Cache is full");
+			// use the oldest result again, so that the second oldest is the least recently used
+			CertificateChainVerificationUtil.verifyCertificateChain(certificate, hksmTS.getAllX509Certificates(), "chain0");
+			CertificateChainVerificationUtil.verifyCertificateChain(certificate, hksmTS.getAllX509Certificates(), "chain"+CertificateChainVerificationUtil.CACHE_MAXSIZE);
+			assertEquals(CertificateChainVerificationUtil.CACHE_MAXSIZE, CertificateChainVerificationUtil.getCacheSize(), "Cache is not cleared if it is full");
+			assertTrue(CertificateChainVerificationUtil.isCached(certificate, "chain0"), "Recently used result is kept");
+			assertFalse(CertificateChainVerificationUtil.isCached(certificate, "chain1"), "Least recently used result is removed");
+			assertTrue(CertificateChainVerificationUtil.isCached(certificate, "chain"+CertificateChainVerificationUtil.CACHE_MAXSIZE), "New result is cached");
+			CertificateChainVerificationUtil.clearCache();
+	    }
 }
@@ -0,0 +1,41 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.apache.hadoop.io.Text;
+import org.junit.jupiter.api.Test;
+
+public class ExcelRowKeyBuilderTest {
+
+	@Test
+	public void setKeyInPlace() {
+		ExcelRowKeyBuilder builder = new ExcelRowKeyBuilder("test.xlsx");
+		Text key = new Text();
+		builder.set(key, "Sheet1", 1);
+		assertEquals("[test.xlsx]Sheet1!A1", key.toString(), "Key of first row");
+		builder.set(key, "Sheet1", 1048576);
+		assertEquals("[test.xlsx]Sheet1!A1048576", key.toString(), "Key of last row of a sheet");
+		builder.set(key, "Sheet1", 0);
+		assertEquals("[test.xlsx]Sheet1!A0", key.toString(), "Key of row 0");
+		builder.set(key, "Übersicht", 42);
+		assertEquals("[test.xlsx]Übersicht!A42", key.toString(), "Key of another sheet with non-ASCII name");
+		builder.set(key, "Sheet1", Long.MAX_VALUE);
+		assertEquals("[test.xlsx]Sheet1!A" + Long.MAX_VALUE, key.toString(), "Key of maximum row number");
+	}
+
+}
@@ -0,0 +1,95 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class LinkedWorkbookCacheTest {
+
+	@AfterEach
+	public void clearCache() {
+		LinkedWorkbookCache.clear();
+	}
+
+	@Test
+	public void acquireReleasedWorkbookOnlyOnce() {
+		FileVersion version = new FileVersion("file:///linked.xls", 100L, 1L);
+		LinkedWorkbookCache.Entry entry = createEntry(version, null);
+		assertNull(LinkedWorkbookCache.acquire(version, null), "Workbook not cached before it has been released");
+		LinkedWorkbookCache.release(entry, 10, 1000L);
+		assertSame(entry, LinkedWorkbookCache.acquire(new FileVersion("file:///linked.xls", 100L, 1L), null), "Released workbook can be reused");
+		assertNull(LinkedWorkbookCache.acquire(version, null), "Workbook in use is not returned twice");
+	}
+
+	@Test
+	public void acquireOnlyMatchingVersionAndPassword() {
+		FileVersion version = new FileVersion("file:///linked.xls", 100L, 1L);
+		LinkedWorkbookCache.Entry entry = createEntry(version, "secret");
+		LinkedWorkbookCache.release(entry, 10, 1000L);
+		assertNull(LinkedWorkbookCache.acquire(new FileVersion("file:///linked.xls", 100L, 2L), "secret"), "Modified workbook is not reused");
+		assertNull(LinkedWorkbookCache.acquire(version, "wrong"), "Workbook is not returned for a wrong password");
+		assertNull(LinkedWorkbookCache.acquire(version, null), "Workbook is not returned without password");
+		assertSame(entry, LinkedWorkbookCache.acquire(version, "secret"), "Workbook is returned for the right password");
+	}
+
+	@Test
+	public void releaseEvictsLeastRecentlyReleased() {
+		FileVersion version1 = new FileVersion("file:///linked1.xls", 100L, 1L);
+		FileVersion version2 = new FileVersion("file:///linked2.xls", 100L, 1L);
+		FileVersion version3 = new FileVersion("file:///linked3.xls", 100L, 1L);
+		LinkedWorkbookCache.release(createEntry(version1, null), 2, 1000L);
+		LinkedWorkbookCache.release(createEntry(version2, null), 2, 1000L);
+		LinkedWorkbookCache.release(createEntry(version3, null), 2, 1000L);
+		assertEquals(2, LinkedWorkbookCache.size(), "Number of cached workbooks is bounded");
+		assertNull(LinkedWorkbookCache.acquire(version1, null), "Least recently released workbook is evicted");
+		// total length of files is bounded
+		LinkedWorkbookCache.release(createEntry(version1, null), 10, 250L);
+		assertEquals(2, LinkedWorkbookCache.size(), "Total length of cached workbooks is bounded");
+		assertNull(LinkedWorkbookCache.acquire(version2, null), "Least recently released workbook is evicted");
+	}
+
+	@Test
+	public void releaseRemovesPreviousVersions() {
+		FileVersion oldVersion = new FileVersion("file:///linked.xls", 100L, 1L);
+		FileVersion newVersion = new FileVersion("file:///linked.xls", 120L, 2L);
+		LinkedWorkbookCache.release(createEntry(oldVersion, null), 10, 1000L);
+		LinkedWorkbookCache.release(createEntry(newVersion, null), 10, 1000L);
+		assertEquals(1, LinkedWorkbookCache.size(), "Only the current version of a workbook is cached");
+		assertNull(LinkedWorkbookCache.acquire(oldVersion, null), "Previous version is removed");
+	}
+
+	@Test
+	public void releaseWithoutCaching() {
+		FileVersion version = new FileVersion("file:///linked.xls", 100L, 1L);
+		LinkedWorkbookCache.release(createEntry(version, null), 0, 1000L);
+		LinkedWorkbookCache.release(createEntry(null, null), 10, 1000L);
+		LinkedWorkbookCache.release(createEntry(version, null), 10, 99L);
+		assertEquals(0, LinkedWorkbookCache.size(), "Workbooks are not cached if caching is disabled, their version is unknown or they are too large");
+	}
+
+	private static LinkedWorkbookCache.Entry createEntry(FileVersion version, String password) {
+		Workbook workbook = new HSSFWorkbook();
+		return new LinkedWorkbookCache.Entry(version, password, workbook, workbook.getCreationHelper().createFormulaEvaluator());
+	}
+
+}
@@ -0,0 +1,111 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+
+public class MSExcelDimensionUtilTest {
+
+	@Test
+	public void getSheetDimensionsExcel2003MultiSheet() throws IOException, FormatNotUnderstoodException {
+		Map<String, CellRangeAddress> dimensions = this.readDimensions("excel2003testmultisheet.xls", null);
+		assertEquals(2, dimensions.size(), "Two sheets");
+		assertNotNull(dimensions.get("Sheet1"), "Dimension of Sheet1 available");
+		assertEquals("A1:E6", dimensions.get("Sheet1").formatAsString(), "Dimension of Sheet1 is A1:E6");
+		assertEquals("A1:C3", dimensions.get("testsheet").formatAsString(), "Dimension of testsheet is A1:C3");
+	}
+
+	@Test
+	public void getSheetDimensionsExcel2013MultiSheet() throws IOException, FormatNotUnderstoodException {
+		Map<String, CellRangeAddress> dimensions = this.readDimensions("excel2013testmultisheet.xlsx", null);
+		assertEquals(2, dimensions.size(), "Two sheets");
+		assertEquals("Sheet1", dimensions.keySet().iterator().next(), "Sheets in workbook order");
+		assertEquals("A1:E6", dimensions.get("Sheet1").formatAsString(), "Dimension of Sheet1 is A1:E6");
+		assertEquals("A1:C3", dimensions.get("testsheet").formatAsString(), "Dimension of testsheet is A1:C3");
+	}
+
+	@Test
+	public void getSheetDimensionsExcel2013Encrypted() throws IOException, FormatNotUnderstoodException {
+		Map<String, CellRangeAddress> dimensions = this.readDimensions("excel2013encrypt.xlsx", "test");
+		assertEquals("A1:C1", dimensions.get("Sheet1").formatAsString(), "Dimension of encrypted Sheet1 is A1:C1");
+	}
+
+	@Test
+	public void getRowCountHeaderAndSkipLines() throws IOException, FormatNotUnderstoodException {
+		Map<String, CellRangeAddress> dimensions = this.readDimensions("skipsheet.xlsx", null);
+		HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration();
+		assertEquals(22, MSExcelDimensionUtil.getRowCount(dimensions, hocr), "All rows of all sheets");
+		hocr.setSheets("Sheet3");
+		assertEquals(4, MSExcelDimensionUtil.getRowCount(dimensions, hocr), "All rows of Sheet3");
+		hocr.setSheets("Sheet1:Sheet2");
+		hocr.setSkipLines(5);
+		hocr.setReadHeader(true);
+		hocr.setSkipLinesAllSheets(true);
+		hocr.setIgnoreHeaderInAllSheets(true);
+		assertEquals(6, MSExcelDimensionUtil.getRowCount(dimensions, hocr), "Rows without skipped lines and headers");
+	}
+
+	@Test
+	public void getRowCountEmptySheetExcel2003() throws IOException, FormatNotUnderstoodException {
+		this.assertEmptySheetNoRows(new HSSFWorkbook());
+	}
+
+	@Test
+	public void getRowCountEmptySheetExcel2013() throws IOException, FormatNotUnderstoodException {
+		this.assertEmptySheetNoRows(new XSSFWorkbook());
+	}
+
+	private void assertEmptySheetNoRows(Workbook wb) throws IOException, FormatNotUnderstoodException {
+		wb.createSheet("empty");
+		wb.createSheet("oneCell").createRow(0).createCell(0).setCellValue("test");
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		wb.write(bos);
+		wb.close();
+		Map<String, CellRangeAddress> dimensions = MSExcelDimensionUtil.getSheetDimensions(new ByteArrayInputStream(bos.toByteArray()), null);
+		assertEquals(2, dimensions.size(), "Two sheets");
+		assertNull(dimensions.get("empty"), "No dimension for empty sheet");
+		assertNotNull(dimensions.get("oneCell"), "Dimension of sheet with one cell available");
+		HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration();
+		assertEquals(1, MSExcelDimensionUtil.getRowCount(dimensions, hocr), "Empty sheet has no rows");
+		hocr.setSheets("empty");
+		assertEquals(0, MSExcelDimensionUtil.getRowCount(dimensions, hocr), "Only empty sheet selected");
+	}
+
+	private Map<String, CellRangeAddress> readDimensions(String fileName, String password) throws IOException, FormatNotUnderstoodException {
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		try (InputStream in = new FileInputStream(fileNameSpreadSheet)) {
+			return MSExcelDimensionUtil.getSheetDimensions(in, password);
+		}
+	}
+}
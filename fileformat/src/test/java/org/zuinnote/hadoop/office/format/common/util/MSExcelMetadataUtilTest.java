@@ -0,0 +1,92 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.junit.jupiter.api.Test;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+
+public class MSExcelMetadataUtilTest {
+
+	@Test
+	public void getMetadataExcel2003() throws IOException {
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileNameSpreadSheet = classLoader.getResource("excel2003test.xls").getFile();
+		try (NPOIFSFileSystem poifs = new NPOIFSFileSystem(new File(fileNameSpreadSheet))) {
+			Map<String, String> metadata = MSExcelMetadataUtil.getMetadata(poifs.getRoot());
+			assertEquals("user1 ", metadata.get("author"), "Author is \"user1 \"");
+			assertEquals("6", metadata.get("revnumber"), "Revision number is 6");
+			assertTrue(metadata.containsKey("title"), "Title is a known property");
+			assertNull(metadata.get("title"), "Title is not set");
+		}
+	}
+
+	@Test
+	public void getMetadataExcel2013() throws IOException, InvalidFormatException, FormatNotUnderstoodException {
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileNameSpreadSheet = classLoader.getResource("excel2013test.xlsx").getFile();
+		OPCPackage pkg = OPCPackage.open(new File(fileNameSpreadSheet), PackageAccess.READ);
+		try {
+			Map<String, String> metadata = MSExcelMetadataUtil.getMetadata(pkg);
+			assertEquals("user1 ", metadata.get("creator"), "Creator is \"user1 \"");
+			assertEquals("11:04:31 02.10.2016", metadata.get("created"), "Created is formatted as hh:mm:ss dd.MM.yyyy");
+			assertEquals("6", metadata.get("revision"), "Revision is 6");
+		} finally {
+			pkg.revert();
+		}
+	}
+
+	@Test
+	public void matchesMetaDataFilter() {
+		Map<String, String> metadata = new HashMap<>();
+		metadata.put("creator", "user1");
+		metadata.put("title", null);
+		metadata.put("custom.department", "finance");
+		HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration();
+		assertTrue(MSExcelMetadataUtil.matchesMetaDataFilter(metadata, hocr), "No filter matches every document");
+		Map<String, String> metadataFilter = new HashMap<>();
+		metadataFilter.put("creator", "user.*");
+		metadataFilter.put("custom.department", "fin.*");
+		metadataFilter.put("unknownproperty", "ignored");
+		hocr.setMetaDataFilter(metadataFilter);
+		assertTrue(MSExcelMetadataUtil.matchesMetaDataFilter(metadata, hocr), "All properties match");
+		metadataFilter.put("title", ".*");
+		hocr.setMetaDataFilter(metadataFilter);
+		assertFalse(MSExcelMetadataUtil.matchesMetaDataFilter(metadata, hocr), "Unset title does not match");
+		metadataFilter.put(MSExcelMetadataUtil.MATCH_ALL, "false");
+		hocr.setMetaDataFilter(metadataFilter);
+		assertTrue(MSExcelMetadataUtil.matchesMetaDataFilter(metadata, hocr), "At least one property matches");
+		metadataFilter.remove(MSExcelMetadataUtil.MATCH_ALL);
+		metadataFilter.remove("title");
+		metadataFilter.put("custom.project", ".*");
+		hocr.setMetaDataFilter(metadataFilter);
+		assertFalse(MSExcelMetadataUtil.matchesMetaDataFilter(metadata, hocr), "Missing custom property does not match");
+	}
+}
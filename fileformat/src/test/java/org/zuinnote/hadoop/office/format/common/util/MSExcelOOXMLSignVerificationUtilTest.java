@@ -0,0 +1,186 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.crypto.MarshalException;
+import javax.xml.crypto.dsig.XMLSignatureException;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.poifs.crypt.HashAlgorithm;
+import org.apache.poi.poifs.crypt.dsig.SignatureConfig;
+import org.apache.poi.poifs.crypt.dsig.SignatureInfo;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+
+public class MSExcelOOXMLSignVerificationUtilTest {
+	private static byte[] unsignedDocument;
+	private static byte[] signedDocument;
+	private static byte[] multiSignedDocument;
+	private static byte[] tamperedDocument;
+
+	@BeforeAll
+	public static void oneTimeSetUp() throws IOException, GeneralSecurityException, InvalidFormatException, XMLSignatureException, MarshalException {
+		XSSFWorkbook wb = new XSSFWorkbook();
+		wb.createSheet("Sheet1").createRow(0).createCell(0).setCellValue("signed content");
+		wb.createSheet("Sheet2").createRow(0).createCell(0).setCellValue("more content");
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		wb.write(bos);
+		wb.close();
+		unsignedDocument = bos.toByteArray();
+		signedDocument = sign(unsignedDocument);
+		multiSignedDocument = sign(sign(signedDocument));
+		tamperedDocument = tamper(multiSignedDocument, "signed content", "forged content");
+	}
+
+	@Test
+	public void verifyInline() throws IOException, InvalidFormatException, FormatNotUnderstoodException {
+		this.assertVerified(signedDocument, 0, 1);
+		this.assertVerified(multiSignedDocument, 0, 3);
+	}
+
+	@Test
+	public void verifySeveralThreads() throws IOException, InvalidFormatException, FormatNotUnderstoodException {
+		this.assertVerified(signedDocument, 4, 1);
+		this.assertVerified(multiSignedDocument, 2, 3);
+		this.assertVerified(multiSignedDocument, 4, 3);
+	}
+
+	@Test
+	public void verifyTamperedInline() throws IOException, InvalidFormatException {
+		OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(tamperedDocument));
+		try {
+			MSExcelOOXMLSignVerificationUtil signVerification = new MSExcelOOXMLSignVerificationUtil(this.createConfiguration(0));
+			assertThrows(FormatNotUnderstoodException.class, () -> signVerification.startVerification(pkg), "Tampered document is detected before startVerification returns");
+		} finally {
+			pkg.revert();
+		}
+	}
+
+	@Test
+	public void verifyTamperedSeveralThreads() throws IOException, InvalidFormatException, FormatNotUnderstoodException {
+		OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(tamperedDocument));
+		try {
+			MSExcelOOXMLSignVerificationUtil signVerification = new MSExcelOOXMLSignVerificationUtil(this.createConfiguration(4));
+			signVerification.startVerification(pkg);
+			assertThrows(FormatNotUnderstoodException.class, () -> signVerification.awaitVerification(), "Tampered document is detected by the threads validating the signature parts");
+		} finally {
+			pkg.revert();
+		}
+	}
+
+	@Test
+	public void verifyUnsigned() throws IOException, InvalidFormatException {
+		OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(unsignedDocument));
+		try {
+			MSExcelOOXMLSignVerificationUtil signVerification = new MSExcelOOXMLSignVerificationUtil(this.createConfiguration(4));
+			assertThrows(FormatNotUnderstoodException.class, () -> signVerification.startVerification(pkg), "Document without signature cannot be verified");
+		} finally {
+			pkg.revert();
+		}
+	}
+
+	private void assertVerified(byte[] document, int threads, int signatureParts) throws IOException, InvalidFormatException, FormatNotUnderstoodException {
+		OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(document));
+		try {
+			SignatureConfig sic = new SignatureConfig();
+			sic.setOpcPackage(pkg);
+			SignatureInfo si = new SignatureInfo();
+			si.setSignatureConfig(sic);
+			int parts = 0;
+			for (SignatureInfo.SignaturePart currentSP : si.getSignatureParts()) {
+				parts++;
+			}
+			assertEquals(signatureParts, parts, "Document has " + signatureParts + " signature parts");
+			MSExcelOOXMLSignVerificationUtil signVerification = new MSExcelOOXMLSignVerificationUtil(this.createConfiguration(threads));
+			signVerification.startVerification(pkg);
+			signVerification.awaitVerification();
+			assertTrue(signVerification.getVerificationTime() >= 0, "Verification time is measured");
+		} finally {
+			pkg.revert();
+		}
+	}
+
+	private HadoopOfficeReadConfiguration createConfiguration(int threads) {
+		HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration();
+		hocr.setFileName("signed.xlsx");
+		hocr.setVerifySignatureThreads(threads);
+		return hocr;
+	}
+
+	private static byte[] sign(byte[] document) throws IOException, GeneralSecurityException, InvalidFormatException, XMLSignatureException, MarshalException {
+		KeyStore keystore = KeyStore.getInstance("PKCS12");
+		ClassLoader classLoader = MSExcelOOXMLSignVerificationUtilTest.class.getClassLoader();
+		try (InputStream in = new FileInputStream(classLoader.getResource("testsigning.pfx").getFile())) {
+			keystore.load(in, "changeit".toCharArray());
+		}
+		SignatureConfig sc = new SignatureConfig();
+		sc.setKey((PrivateKey) keystore.getKey("testalias", "changeit".toCharArray()));
+		sc.setSigningCertificateChain(Collections.singletonList((X509Certificate) keystore.getCertificate("testalias")));
+		sc.setDigestAlgo(HashAlgorithm.sha512);
+		OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(document));
+		sc.setOpcPackage(pkg);
+		SignatureInfo si = new SignatureInfo();
+		si.setSignatureConfig(sc);
+		si.confirmSignature();
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		pkg.save(bos);
+		pkg.close();
+		return bos.toByteArray();
+	}
+
+	private static byte[] tamper(byte[] document, String search, String replacement) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(document)); ZipOutputStream zos = new ZipOutputStream(bos)) {
+			ZipEntry currentEntry = zis.getNextEntry();
+			while (currentEntry != null) {
+				byte[] content = IOUtils.toByteArray(zis);
+				String text = new String(content, StandardCharsets.UTF_8);
+				if (text.contains(search)) {
+					content = text.replace(search, replacement).getBytes(StandardCharsets.UTF_8);
+				}
+				zos.putNextEntry(new ZipEntry(currentEntry.getName()));
+				zos.write(content);
+				zos.closeEntry();
+				currentEntry = zis.getNextEntry();
+			}
+		}
+		return bos.toByteArray();
+	}
+}
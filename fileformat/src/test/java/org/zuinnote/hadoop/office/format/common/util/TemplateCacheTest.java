@@ -0,0 +1,96 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.office.format.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.poi.util.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class TemplateCacheTest {
+
+	@AfterEach
+	public void clearCache() {
+		TemplateCache.clear();
+	}
+
+	@Test
+	public void getReadsTemplateOnlyOnce() throws IOException {
+		FileVersion version = new FileVersion("file:///template.xlsx", 3L, 1L);
+		CountingOpener opener = new CountingOpener(new byte[] { 1, 2, 3 });
+		assertArrayEquals(new byte[] { 1, 2, 3 }, IOUtils.toByteArray(TemplateCache.get(version, opener, 100L)), "Content of template read from file");
+		assertArrayEquals(new byte[] { 1, 2, 3 }, IOUtils.toByteArray(TemplateCache.get(new FileVersion("file:///template.xlsx", 3L, 1L), opener, 100L)), "Content of template read from cache");
+		assertEquals(1, opener.opened, "Template file opened only once");
+	}
+
+	@Test
+	public void getReadsModifiedTemplateAgain() throws IOException {
+		CountingOpener opener = new CountingOpener(new byte[] { 1, 2, 3 });
+		TemplateCache.get(new FileVersion("file:///template.xlsx", 3L, 1L), opener, 100L);
+		TemplateCache.get(new FileVersion("file:///template.xlsx", 3L, 2L), opener, 100L);
+		assertEquals(2, opener.opened, "Modified template file opened again");
+		assertEquals(1, TemplateCache.size(), "Only the current version of a template is cached");
+	}
+
+	@Test
+	public void getEvictsLeastRecentlyUsed() throws IOException {
+		FileVersion version1 = new FileVersion("file:///template1.xlsx", 3L, 1L);
+		FileVersion version2 = new FileVersion("file:///template2.xlsx", 3L, 1L);
+		FileVersion version3 = new FileVersion("file:///template3.xlsx", 3L, 1L);
+		CountingOpener opener = new CountingOpener(new byte[] { 1, 2, 3 });
+		TemplateCache.get(version1, opener, 6L);
+		TemplateCache.get(version2, opener, 6L);
+		TemplateCache.get(version1, opener, 6L);
+		TemplateCache.get(version3, opener, 6L);
+		assertEquals(2, TemplateCache.size(), "Total size of cached templates is bounded");
+		TemplateCache.get(version1, opener, 6L);
+		assertEquals(3, opener.opened, "Recently used template is still cached");
+		TemplateCache.get(version2, opener, 6L);
+		assertEquals(4, opener.opened, "Least recently used template has been evicted");
+	}
+
+	@Test
+	public void getWithoutCaching() throws IOException {
+		FileVersion version = new FileVersion("file:///template.xlsx", 3L, 1L);
+		CountingOpener opener = new CountingOpener(new byte[] { 1, 2, 3 });
+		TemplateCache.get(version, opener, 0L);
+		TemplateCache.get(version, opener, 2L);
+		TemplateCache.get(null, opener, 100L);
+		assertEquals(0, TemplateCache.size(), "Templates are not cached if caching is disabled, they are too large or their version is unknown");
+	}
+
+	private static class CountingOpener implements TemplateCache.TemplateOpener {
+		private final byte[] content;
+		private int opened;
+
+		CountingOpener(byte[] content) {
+			this.content = content;
+		}
+
+		@Override
+		public InputStream open() {
+			this.opened++;
+			return new ByteArrayInputStream(this.content);
+		}
+	}
+
+}
@@ -34,6 +34,7 @@ import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.io.ArrayWritable;
+import org.apache.hadoop.io.MapWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapred.FileInputFormat;
 import org.apache.hadoop.mapred.FileOutputFormat;
@@ -5804,4 +5805,29 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 1 with cell 3 == \"test5\"");
 	}
 
+	@Test
+	public void readExcelMetadataInputFormatExcel2013MultiSheet() throws IOException {
+		JobConf job = new JobConf(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2013testmultisheet.xlsx";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+		FileInputFormat.setInputPaths(job, file);
+		ExcelMetadataFileInputFormat format = new ExcelMetadataFileInputFormat();
+		InputSplit[] inputSplits = format.getSplits(job, 1);
+		assertEquals(1, inputSplits.length, "Only one split generated for Excel file");
+		RecordReader<Text, MapWritable> reader = format.getRecordReader(inputSplits[0], job, reporter);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		Text metadataKey = reader.createKey();
+		MapWritable metadata = reader.createValue();
+		assertTrue(reader.next(metadataKey, metadata), "Metadata of Excel file is returned");
+		assertTrue(metadataKey.toString().endsWith(fileName), "Key is the path of the Excel file");
+		assertEquals(new Text("user1 "), metadata.get(new Text("creator")), "Creator is \"user1 \"");
+		assertEquals(new Text("Sheet1:testsheet"), metadata.get(new Text("sheets")), "Sheets are \"Sheet1:testsheet\"");
+		assertEquals(new Text("A1:E6"), metadata.get(new Text("sheet.Sheet1")), "Sheet1 has dimension A1:E6");
+		assertEquals(new Text("A1:C3"), metadata.get(new Text("sheet.testsheet")), "testsheet has dimension A1:C3");
+		assertFalse(reader.next(metadataKey, metadata), "Only one record per Excel file");
+		reader.close();
+	}
+
 }
@@ -22,6 +22,7 @@ import java.nio.file.Files;
 import java.nio.file.FileVisitResult;
 import java.nio.file.SimpleFileVisitor;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -37,6 +38,7 @@ import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.io.ArrayWritable;
+import org.apache.hadoop.io.MapWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.*;
 import org.apache.hadoop.mapreduce.lib.input.*;
@@ -58,7 +60,9 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.zuinnote.hadoop.office.format.common.OfficeMetrics;
 import org.zuinnote.hadoop.office.format.common.dao.*;
+import org.zuinnote.hadoop.office.format.common.util.LinkedWorkbookCache;
 
 public class OfficeFormatHadoopExcelTest {
 
@@ -520,6 +524,92 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 6 with cell 3== \"15\"");
 	}
 
+	@Test
+	public void readExcelInputFormatExcel2003SingleSheetFormulaEvaluationCached() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2003test.xls";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// use results of formulas stored in the document
+		conf.set("hadoopoffice.read.formula.evaluation", "cached");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[excel2003test.xls]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2003test.xls]Sheet1!A1\"");
+		assertEquals(4, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 4 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
+		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
+				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertEquals("test4", ((SpreadSheetCellDAO) spreadSheetValue.get()[3]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 4 == \"test4\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 2 with 1 column");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 2 with cell 1 == \"4\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(5, spreadSheetValue.get().length, "Input Split for Excel file contains row 3 with 5 columns");
+		assertEquals("31/12/99", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"31/12/99\"");
+		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 2 == \"5\"");
+		assertNull(spreadSheetValue.get()[2], "Input Split for Excel file contains row 3 with cell 3 == null");
+		assertNull(spreadSheetValue.get()[3], "Input Split for Excel file contains row 3 with cell 4 == null");
+		assertEquals("null", ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 5 == \"null\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 4 with 1 column");
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 4 with cell 1 == \"1\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 5 with 3 columns");
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 1 == \"2\"");
+		assertEquals("6", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 2== \"6\"");
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 3== \"10\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 6 with 3 columns");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 1 == \"3\"");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 2== \"4\"");
+		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 3== \"15\"");
+	}
+
 	@Test
 	public void readExcelInputFormatExcel2013SingleSheetEncryptedPositive() throws IOException, InterruptedException {
 		Configuration conf = new Configuration(defaultConf);
@@ -802,15 +892,17 @@ public class OfficeFormatHadoopExcelTest {
 	}
 
 	@Test
-	public void readExcelInputFormatExcel2013MultiSheetAll() throws IOException, InterruptedException {
+	public void readExcelInputFormatExcel2013SingleSheetFormulaEvaluationMaxCount() throws IOException, InterruptedException {
 		Configuration conf = new Configuration(defaultConf);
 		ClassLoader classLoader = getClass().getClassLoader();
-		String fileName = "excel2013testmultisheet.xlsx";
+		String fileName = "excel2013test.xlsx";
 		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
 		Path file = new Path(fileNameSpreadSheet);
 
 		// set locale to the one of the test data
 		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// evaluate only one formula, use stored results for the others
+		conf.set("hadoopoffice.read.formula.evaluation.maxcount", "1");
 		Job job = Job.getInstance(conf);
 		FileInputFormat.setInputPaths(job, file);
 		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
@@ -822,11 +914,11 @@ public class OfficeFormatHadoopExcelTest {
 		reader.initialize(splits.get(0), context);
 		Text spreadSheetKey = new Text();
 		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("[excel2013testmultisheet.xlsx]Sheet1!A1", spreadSheetKey.toString(),
-				"Input Split for Excel file has keyname == \"[excel2013testmultisheet.xlsx]Sheet1!A1\"");
+		assertEquals("[excel2013test.xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013test.xlsx]Sheet1!A1\"");
 		assertEquals(4, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 4 columns");
 		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
@@ -840,13 +932,13 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
 		assertEquals("test4", ((SpreadSheetCellDAO) spreadSheetValue.get()[3]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 4 == \"test4\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 2 with 1 column");
 		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 2 with cell 1 == \"4\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(5, spreadSheetValue.get().length, "Input Split for Excel file contains row 3 with 5 columns");
@@ -858,13 +950,13 @@ public class OfficeFormatHadoopExcelTest {
 		assertNull(spreadSheetValue.get()[3], "Input Split for Excel file contains row 3 with cell 4 == null");
 		assertEquals("null", ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getFormattedValue(),
 				"Input Split for Excel file contains row 3 with cell 5 == \"null\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 4 with 1 column");
 		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 4 with cell 1 == \"1\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 5 with 3 columns");
@@ -874,7 +966,7 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 5 with cell 2== \"6\"");
 		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
 				"Input Split for Excel file contains row 5 with cell 3== \"10\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 6 with 3 columns");
@@ -884,87 +976,20 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 6 with cell 2== \"4\"");
 		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
 				"Input Split for Excel file contains row 6 with cell 3== \"15\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 7 (second sheet)");
-		spreadSheetKey = reader.getCurrentKey();
-		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("8", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 7 with cell 1 == \"8\"");
-		assertEquals("99", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
-				"Input Split for Excel file contains row 7 with cell 2 == \"99\"");
-		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 7 with 2 columns");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 8 (second sheet)");
-		spreadSheetKey = reader.getCurrentKey();
-		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 8 with 1 column");
-		assertEquals("test", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 8 with cell 1 == \"test\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 9 (second sheet)");
-		spreadSheetKey = reader.getCurrentKey();
-		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 9 with 3 columns");
-		assertNull(spreadSheetValue.get()[0], "Input Split for Excel file contains row 9 with cell 1 == null");
-		assertNull(spreadSheetValue.get()[1], "Input Split for Excel file contains row 9 with cell 2 == null");
-		assertEquals("seven", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
-				"Input Split for Excel file contains row 9 with cell 3 == \"seven\"");
 	}
 
 	@Test
-	public void readExcelInputFormatExcel2013MultiSheetSelectedSheet() throws IOException, InterruptedException {
+	public void readExcelInputFormatExcel2013SingleSheetFormulaEvaluationCached() throws IOException, InterruptedException {
 		Configuration conf = new Configuration(defaultConf);
 		ClassLoader classLoader = getClass().getClassLoader();
-		String fileName = "excel2013testmultisheet.xlsx";
+		String fileName = "excel2013test.xlsx";
 		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
 		Path file = new Path(fileNameSpreadSheet);
 
 		// set locale to the one of the test data
 		conf.set("hadoopoffice.read.locale.bcp47", "de");
-		// select the sheet
-		conf.set("hadoopoffice.read.sheets", "testsheet");
-		Job job = Job.getInstance(conf);
-		FileInputFormat.setInputPaths(job, file);
-		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
-		ExcelFileInputFormat format = new ExcelFileInputFormat();
-		List<InputSplit> splits = format.getSplits(job);
-		assertEquals(1, splits.size(), "Only one split generated for Excel file");
-		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
-		assertNotNull(reader, "Format returned  null RecordReader");
-		reader.initialize(splits.get(0), context);
-		Text spreadSheetKey = new Text();
-		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 7 (second sheet)");
-		spreadSheetKey = reader.getCurrentKey();
-		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("8", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 7 with cell 1 == \"8\"");
-		assertEquals("99", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
-				"Input Split for Excel file contains row 7 with cell 2 == \"99\"");
-		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 7 with 2 columns");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 8 (second sheet)");
-		spreadSheetKey = reader.getCurrentKey();
-		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 8 with 1 column");
-		assertEquals("test", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 8 with cell 1 == \"test\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 9 (second sheet)");
-		spreadSheetKey = reader.getCurrentKey();
-		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 9 with 3 columns");
-		assertNull(spreadSheetValue.get()[0], "Input Split for Excel file contains row 9 with cell 1 == null");
-		assertNull(spreadSheetValue.get()[1], "Input Split for Excel file contains row 9 with cell 2 == null");
-		assertEquals("seven", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
-				"Input Split for Excel file contains row 9 with cell 3 == \"seven\"");
-	}
-
-	@Test
-	public void readExcelInputFormatExcel2013Comment() throws IOException, InterruptedException {
-		Configuration conf = new Configuration(defaultConf);
-		ClassLoader classLoader = getClass().getClassLoader();
-		String fileName = "excel2013comment.xlsx";
-		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
-
-		// set locale to the one of the test data
-		conf.set("hadoopoffice.read.locale.bcp47", "de");
-		Path file = new Path(fileNameSpreadSheet);
+		// use results of formulas stored in the document
+		conf.set("hadoopoffice.read.formula.evaluation", "cached");
 		Job job = Job.getInstance(conf);
 		FileInputFormat.setInputPaths(job, file);
 		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
@@ -979,21 +1004,21 @@ public class OfficeFormatHadoopExcelTest {
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("[excel2013comment.xlsx]CommentSheet!A1", spreadSheetKey.toString(),
-				"Input Split for Excel file has keyname == \"[excel2013comment.xlsx]CommentSheet!A1\"");
-		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("[excel2013test.xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013test.xlsx]Sheet1!A1\"");
+		assertEquals(4, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 4 columns");
 		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
-		assertEquals("First comment", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(),
-				"Input Split for Excel file contains row 1 with cell 1 comment == \"First comment\"");
-		assertEquals("CommentSheet", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
-				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"CommentSheet\"");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
 		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
 				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
-		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
-				"Input Split for Excel file contains row 1 with cell 2 == \"test3\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
 		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertEquals("test4", ((SpreadSheetCellDAO) spreadSheetValue.get()[3]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 4 == \"test4\"");
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
@@ -1003,36 +1028,55 @@ public class OfficeFormatHadoopExcelTest {
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 3 with 2 columns");
-		assertNull(spreadSheetValue.get()[0], "Input Split for Excel file contains row 3 with cell 1 == null");
+		assertEquals(5, spreadSheetValue.get().length, "Input Split for Excel file contains row 3 with 5 columns");
+		assertEquals("31/12/99", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"31/12/99\"");
 		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
-				"Input Split for Excel file contains row 2 with cell 2 == \"5\"");
-		assertEquals("Second comment", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(),
-				"Input Split for Excel file contains row 2 with cell 2 comment == \"Second comment\"");
+				"Input Split for Excel file contains row 3 with cell 2 == \"5\"");
+		assertNull(spreadSheetValue.get()[2], "Input Split for Excel file contains row 3 with cell 3 == null");
+		assertNull(spreadSheetValue.get()[3], "Input Split for Excel file contains row 3 with cell 4 == null");
+		assertEquals("null", ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 5 == \"null\"");
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 4 with 3 column");
-		assertNull(spreadSheetValue.get()[0], "Input Split for Excel file contains row 4 with cell 1 == null");
-		assertNull(spreadSheetValue.get()[1], "Input Split for Excel file contains row 4 with cell 2 == null");
-		assertEquals("6", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
-				"Input Split for Excel file contains row 4 with cell 3 == \"6\"");
-		assertEquals("Third comment", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(),
-				"Input Split for Excel file contains row 4 with cell 3 comment == \"Third comment\"");
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 4 with 1 column");
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 4 with cell 1 == \"1\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 5 with 3 columns");
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 1 == \"2\"");
+		assertEquals("6", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 2== \"6\"");
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 3== \"10\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 6 with 3 columns");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 1 == \"3\"");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 2== \"4\"");
+		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 3== \"15\"");
 	}
 
 	@Test
-	public void readExcelInputFormatGzipCompressedExcel2013MultiSheetAll() throws IOException, InterruptedException {
+	public void readExcelInputFormatExcel2013SingleSheetRawValues() throws IOException, InterruptedException {
 		Configuration conf = new Configuration(defaultConf);
-		CompressionCodec gzip = new GzipCodec();
-		ReflectionUtils.setConf(gzip, conf);
 		ClassLoader classLoader = getClass().getClassLoader();
-		String fileName = "excel2013testmultisheet.xlsx.gz";
+		String fileName = "excel2013test.xlsx";
 		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
 		Path file = new Path(fileNameSpreadSheet);
 
 		// set locale to the one of the test data
 		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// raw values
+		conf.set("hadoopoffice.read.rawvalues", "true");
 		Job job = Job.getInstance(conf);
 		FileInputFormat.setInputPaths(job, file);
 		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
@@ -1044,11 +1088,11 @@ public class OfficeFormatHadoopExcelTest {
 		reader.initialize(splits.get(0), context);
 		Text spreadSheetKey = new Text();
 		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("[excel2013testmultisheet.xlsx.gz]Sheet1!A1", spreadSheetKey.toString(),
-				"Input Split for Excel file has keyname == \"[excel2013testmultisheet.xlsx.gz]Sheet1!A1\"");
+		assertEquals("[excel2013test.xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013test.xlsx]Sheet1!A1\"");
 		assertEquals(4, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 4 columns");
 		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
@@ -1062,13 +1106,13 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
 		assertEquals("test4", ((SpreadSheetCellDAO) spreadSheetValue.get()[3]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 4 == \"test4\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 2 with 1 column");
 		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 2 with cell 1 == \"4\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(5, spreadSheetValue.get().length, "Input Split for Excel file contains row 3 with 5 columns");
@@ -1076,17 +1120,29 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 3 with cell 1 == \"31/12/99\"");
 		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
 				"Input Split for Excel file contains row 3 with cell 2 == \"5\"");
+		assertEquals(SpreadSheetCellDAO.RAWTYPE_NUMERIC, ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getRawType(),
+				"Input Split for Excel file contains row 3 with cell 1 of raw type numeric");
+		assertTrue(((SpreadSheetCellDAO) spreadSheetValue.get()[0]).isRawDate(),
+				"Input Split for Excel file contains row 3 with cell 1 as raw date");
+		assertEquals(SpreadSheetCellDAO.RAWTYPE_NUMERIC, ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getRawType(),
+				"Input Split for Excel file contains row 3 with cell 2 of raw type numeric");
+		assertEquals(5.0, ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getRawNumericValue(),
+				"Input Split for Excel file contains row 3 with cell 2 with raw value 5.0");
+		assertFalse(((SpreadSheetCellDAO) spreadSheetValue.get()[1]).isRawDate(),
+				"Input Split for Excel file contains row 3 with cell 2 not as raw date");
+		assertEquals(SpreadSheetCellDAO.RAWTYPE_STRING, ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getRawType(),
+				"Input Split for Excel file contains row 3 with cell 5 of raw type string");
 		assertNull(spreadSheetValue.get()[2], "Input Split for Excel file contains row 3 with cell 3 == null");
 		assertNull(spreadSheetValue.get()[3], "Input Split for Excel file contains row 3 with cell 4 == null");
 		assertEquals("null", ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getFormattedValue(),
 				"Input Split for Excel file contains row 3 with cell 5 == \"null\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 4 with 1 column");
 		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 4 with cell 1 == \"1\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 5 with 3 columns");
@@ -1096,7 +1152,7 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 5 with cell 2== \"6\"");
 		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
 				"Input Split for Excel file contains row 5 with cell 3== \"10\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 6 with 3 columns");
@@ -1106,43 +1162,20 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 6 with cell 2== \"4\"");
 		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
 				"Input Split for Excel file contains row 6 with cell 3== \"15\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 7 (second sheet)");
-		spreadSheetKey = reader.getCurrentKey();
-		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("8", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 7 with cell 1 == \"8\"");
-		assertEquals("99", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
-				"Input Split for Excel file contains row 7 with cell 2 == \"99\"");
-		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 7 with 2 columns");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 8 (second sheet)");
-		spreadSheetKey = reader.getCurrentKey();
-		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 8 with 1 column");
-		assertEquals("test", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 8 with cell 1 == \"test\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 9 (second sheet)");
-		spreadSheetKey = reader.getCurrentKey();
-		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 9 with 3 columns");
-		assertNull(spreadSheetValue.get()[0], "Input Split for Excel file contains row 9 with cell 1 == null");
-		assertNull(spreadSheetValue.get()[1], "Input Split for Excel file contains row 9 with cell 2 == null");
-		assertEquals("seven", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
-				"Input Split for Excel file contains row 9 with cell 3 == \"seven\"");
 	}
 
 	@Test
-	public void readExcelInputFormatExcel2013LinkedWorkbook() throws IOException, InterruptedException {
+	public void readExcelInputFormatExcel2013SingleSheetStageLocal() throws IOException, InterruptedException {
 		Configuration conf = new Configuration(defaultConf);
 		ClassLoader classLoader = getClass().getClassLoader();
-		String fileName = "excel2013linkedworkbooks.xlsx";
+		String fileName = "excel2013test.xlsx";
 		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
 		Path file = new Path(fileNameSpreadSheet);
 
 		// set locale to the one of the test data
 		conf.set("hadoopoffice.read.locale.bcp47", "de");
-		// enable option to read linked workbooks
-		conf.setBoolean("hadoopoffice.read.linkedworkbooks", true);
-		conf.setBoolean("hadoopoffice.read.ignoremissinglinkedworkbooks", false);
+		// access the local file randomly
+		conf.set("hadoopoffice.read.stage.local", "true");
 		Job job = Job.getInstance(conf);
 		FileInputFormat.setInputPaths(job, file);
 		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
@@ -1157,9 +1190,9 @@ public class OfficeFormatHadoopExcelTest {
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("[excel2013linkedworkbooks.xlsx]Sheet1!A1", spreadSheetKey.toString(),
-				"Input Split for Excel file has keyname == \"[excel2013linkedworkbooks.xlsx]Sheet1!A1\"");
-		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("[excel2013test.xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013test.xlsx]Sheet1!A1\"");
+		assertEquals(4, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 4 columns");
 		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
 		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
@@ -1170,75 +1203,60 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
 		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertEquals("test4", ((SpreadSheetCellDAO) spreadSheetValue.get()[3]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 4 == \"test4\"");
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 2 columns");
-		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 1 with cell 1 == \"3\" (this tests also if the cached value of 6 is ignored)");
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 2 with 1 column");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 2 with cell 1 == \"4\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(5, spreadSheetValue.get().length, "Input Split for Excel file contains row 3 with 5 columns");
+		assertEquals("31/12/99", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"31/12/99\"");
 		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
-				"Input Split for Excel file contains row 1 with cell 2 == \"5\"");
-
-	}
-
-	@Test
-	public void readExcelInputFormatExcel2003LinkedWorkbook() throws IOException, InterruptedException {
-		Configuration conf = new Configuration(defaultConf);
-		ClassLoader classLoader = getClass().getClassLoader();
-		String fileName = "excel2003linkedworkbooks.xls";
-		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
-		Path file = new Path(fileNameSpreadSheet);
-
-		// set locale to the one of the test data
-		conf.set("hadoopoffice.read.locale.bcp47", "de");
-		// enable option to read linked workbooks
-		conf.setBoolean("hadoopoffice.read.linkedworkbooks", true);
-		conf.setBoolean("hadoopoffice.read.ignoremissinglinkedworkbooks", false);
-		Job job = Job.getInstance(conf);
-		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
-		FileInputFormat.setInputPaths(job, file);
-		ExcelFileInputFormat format = new ExcelFileInputFormat();
-		List<InputSplit> splits = format.getSplits(job);
-		assertEquals(1, splits.size(), "Only one split generated for Excel file");
-		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
-		assertNotNull(reader, "Format returned  null RecordReader");
-		reader.initialize(splits.get(0), context);
-		Text spreadSheetKey = new Text();
-		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+				"Input Split for Excel file contains row 3 with cell 2 == \"5\"");
+		assertNull(spreadSheetValue.get()[2], "Input Split for Excel file contains row 3 with cell 3 == null");
+		assertNull(spreadSheetValue.get()[3], "Input Split for Excel file contains row 3 with cell 4 == null");
+		assertEquals("null", ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 5 == \"null\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("[excel2003linkedworkbooks.xls]Sheet1!A1", spreadSheetKey.toString(),
-				"Input Split for Excel file has keyname == \"[excel2003linkedworkbooks.xls]Sheet1!A1\"");
-		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
-		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
-				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
-		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
-				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
-		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
-				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
-		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
-				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 4 with 1 column");
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 4 with cell 1 == \"1\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 2 columns");
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 5 with 3 columns");
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 1 == \"2\"");
+		assertEquals("6", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 2== \"6\"");
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 3== \"10\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 6 with 3 columns");
 		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 1 with cell 1 == \"3\" (this tests also if the cached value of 6 is ignored)");
-		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
-				"Input Split for Excel file contains row 1 with cell 2 == \"5\"");
-
+				"Input Split for Excel file contains row 6 with cell 1 == \"3\"");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 2== \"4\"");
+		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 3== \"15\"");
+		reader.close();
 	}
 
 	@Test
-	public void readExcelInputFormatBzip2CompressedExcel2013MultiSheetAll() throws IOException, InterruptedException {
+	public void readExcelInputFormatExcel2013MultiSheetAll() throws IOException, InterruptedException {
 		Configuration conf = new Configuration(defaultConf);
-		CompressionCodec bzip2 = new BZip2Codec();
-		ReflectionUtils.setConf(bzip2, conf);
 		ClassLoader classLoader = getClass().getClassLoader();
-		String fileName = "excel2013testmultisheet.xlsx.bz2";
+		String fileName = "excel2013testmultisheet.xlsx";
 		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
 		Path file = new Path(fileNameSpreadSheet);
 
@@ -1258,8 +1276,8 @@ public class OfficeFormatHadoopExcelTest {
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 (first sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("[excel2013testmultisheet.xlsx.bz2]Sheet1!A1", spreadSheetKey.toString(),
-				"Input Split for Excel file has keyname == \"[excel2013testmultisheet.xlsx.bz2]Sheet1!A1\"");
+		assertEquals("[excel2013testmultisheet.xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013testmultisheet.xlsx]Sheet1!A1\"");
 		assertEquals(4, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 4 columns");
 		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
@@ -1342,16 +1360,17 @@ public class OfficeFormatHadoopExcelTest {
 	}
 
 	@Test
-	public void readExcelInputFormatExcel2013MultiSheetHeader() throws IOException, InterruptedException {
+	public void readExcelInputFormatExcel2013MultiSheetSelectedSheet() throws IOException, InterruptedException {
 		Configuration conf = new Configuration(defaultConf);
 		ClassLoader classLoader = getClass().getClassLoader();
-		String fileName = "multisheetheader.xlsx";
+		String fileName = "excel2013testmultisheet.xlsx";
 		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
 		Path file = new Path(fileNameSpreadSheet);
+
 		// set locale to the one of the test data
-		conf.set("hadoopoffice.locale.bcp47", "us");
-		conf.set("hadoopoffice.read.header.read", "true");
-		conf.set("hadoopoffice.read.header.skipheaderinallsheets", "true");
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// select the sheet
+		conf.set("hadoopoffice.read.sheets", "testsheet");
 		Job job = Job.getInstance(conf);
 		FileInputFormat.setInputPaths(job, file);
 		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
@@ -1361,90 +1380,1140 @@ public class OfficeFormatHadoopExcelTest {
 		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
 		assertNotNull(reader, "Format returned  null RecordReader");
 		reader.initialize(splits.get(0), context);
-		assertEquals("column1", ((ExcelRecordReader) reader).getOfficeReader().getCurrentParser().getHeader()[0],
-				" header column 1 correctly read");
-		assertEquals("column2", ((ExcelRecordReader) reader).getOfficeReader().getCurrentParser().getHeader()[1],
-				" header column 2 correctly read");
-		assertEquals("column3", ((ExcelRecordReader) reader).getOfficeReader().getCurrentParser().getHeader()[2],
-				" header column 3 correctly read");
 		Text spreadSheetKey = new Text();
 		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 7 (second sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-
-		// First Sheet
-		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A2 = \"1\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
-		assertEquals("A2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
-
-		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B2 = \"test1\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
-		assertEquals("B2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
-
-		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C2 = \"10\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
-		assertEquals("C2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		assertEquals("8", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 7 with cell 1 == \"8\"");
+		assertEquals("99", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 7 with cell 2 == \"99\"");
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 7 with 2 columns");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 8 (second sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A3 = \"2\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
-		assertEquals("A3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
-
-		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B3 = \"test3\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
-		assertEquals("B3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
-
-		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C3 = \"15\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
-		assertEquals("C3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
-
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 8 with 1 column");
+		assertEquals("test", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 8 with cell 1 == \"test\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 9 (second sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A4 = \"10\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
-		assertEquals("A4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 9 with 3 columns");
+		assertNull(spreadSheetValue.get()[0], "Input Split for Excel file contains row 9 with cell 1 == null");
+		assertNull(spreadSheetValue.get()[1], "Input Split for Excel file contains row 9 with cell 2 == null");
+		assertEquals("seven", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 9 with cell 3 == \"seven\"");
+	}
 
-		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B4 = \"test2\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
-		assertEquals("B4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
+	@Test
+	public void readExcelInputFormatExcel2013MultiSheetSelectedSheetsUntilEnd() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2013testmultisheet.xlsx";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
 
-		assertEquals("20", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C4 = \"20\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
-		assertEquals("C4", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// select a sheet that does not exist and an existing sheet
+		conf.set("hadoopoffice.read.sheets", "missingsheet:testsheet");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		int rows = 0;
+		while (reader.nextKeyValue()) {
+			assertTrue(reader.getCurrentKey().toString().startsWith("[" + fileName + "]testsheet!"), "Row belongs to the selected sheet");
+			rows++;
+		}
+		assertEquals(3, rows, "All rows of the selected sheet are read, the missing sheet is skipped");
+		reader.close();
+	}
 
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 (Second Sheet)");
-		spreadSheetKey = reader.getCurrentKey();
-		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("50", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A2 = \"50\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
-		assertEquals("A2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
-		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+	@Test
+	public void readExcelInputFormatExcel2013Comment() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2013comment.xlsx";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
 
-		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B2 = \"test1\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		Path file = new Path(fileNameSpreadSheet);
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[excel2013comment.xlsx]CommentSheet!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013comment.xlsx]CommentSheet!A1\"");
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("First comment", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(),
+				"Input Split for Excel file contains row 1 with cell 1 comment == \"First comment\"");
+		assertEquals("CommentSheet", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"CommentSheet\"");
+		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
+				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test3\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 2 with 1 column");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 2 with cell 1 == \"4\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 3 with 2 columns");
+		assertNull(spreadSheetValue.get()[0], "Input Split for Excel file contains row 3 with cell 1 == null");
+		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 2 with cell 2 == \"5\"");
+		assertEquals("Second comment", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(),
+				"Input Split for Excel file contains row 2 with cell 2 comment == \"Second comment\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 4 with 3 column");
+		assertNull(spreadSheetValue.get()[0], "Input Split for Excel file contains row 4 with cell 1 == null");
+		assertNull(spreadSheetValue.get()[1], "Input Split for Excel file contains row 4 with cell 2 == null");
+		assertEquals("6", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 4 with cell 3 == \"6\"");
+		assertEquals("Third comment", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(),
+				"Input Split for Excel file contains row 4 with cell 3 comment == \"Third comment\"");
+	}
+
+	@Test
+	public void readExcelInputFormatGzipCompressedExcel2013MultiSheetAll() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		CompressionCodec gzip = new GzipCodec();
+		ReflectionUtils.setConf(gzip, conf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2013testmultisheet.xlsx.gz";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[excel2013testmultisheet.xlsx.gz]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013testmultisheet.xlsx.gz]Sheet1!A1\"");
+		assertEquals(4, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 4 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
+		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
+				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertEquals("test4", ((SpreadSheetCellDAO) spreadSheetValue.get()[3]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 4 == \"test4\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 2 with 1 column");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 2 with cell 1 == \"4\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(5, spreadSheetValue.get().length, "Input Split for Excel file contains row 3 with 5 columns");
+		assertEquals("31/12/99", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"31/12/99\"");
+		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 2 == \"5\"");
+		assertNull(spreadSheetValue.get()[2], "Input Split for Excel file contains row 3 with cell 3 == null");
+		assertNull(spreadSheetValue.get()[3], "Input Split for Excel file contains row 3 with cell 4 == null");
+		assertEquals("null", ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 5 == \"null\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 4 with 1 column");
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 4 with cell 1 == \"1\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 5 with 3 columns");
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 1 == \"2\"");
+		assertEquals("6", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 2== \"6\"");
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 3== \"10\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 6 with 3 columns");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 1 == \"3\"");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 2== \"4\"");
+		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 3== \"15\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 7 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("8", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 7 with cell 1 == \"8\"");
+		assertEquals("99", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 7 with cell 2 == \"99\"");
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 7 with 2 columns");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 8 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 8 with 1 column");
+		assertEquals("test", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 8 with cell 1 == \"test\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 9 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 9 with 3 columns");
+		assertNull(spreadSheetValue.get()[0], "Input Split for Excel file contains row 9 with cell 1 == null");
+		assertNull(spreadSheetValue.get()[1], "Input Split for Excel file contains row 9 with cell 2 == null");
+		assertEquals("seven", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 9 with cell 3 == \"seven\"");
+	}
+
+	@Test
+	public void readExcelInputFormatGzipCompressedExcel2013MultiSheetAllStageLocal() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		CompressionCodec gzip = new GzipCodec();
+		ReflectionUtils.setConf(gzip, conf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2013testmultisheet.xlsx.gz";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// decompress to a local temporary file
+		conf.set("hadoopoffice.read.stage.local", "true");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[excel2013testmultisheet.xlsx.gz]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013testmultisheet.xlsx.gz]Sheet1!A1\"");
+		assertEquals(4, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 4 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
+		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
+				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertEquals("test4", ((SpreadSheetCellDAO) spreadSheetValue.get()[3]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 4 == \"test4\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 2 with 1 column");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 2 with cell 1 == \"4\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(5, spreadSheetValue.get().length, "Input Split for Excel file contains row 3 with 5 columns");
+		assertEquals("31/12/99", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"31/12/99\"");
+		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 2 == \"5\"");
+		assertNull(spreadSheetValue.get()[2], "Input Split for Excel file contains row 3 with cell 3 == null");
+		assertNull(spreadSheetValue.get()[3], "Input Split for Excel file contains row 3 with cell 4 == null");
+		assertEquals("null", ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 5 == \"null\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 4 with 1 column");
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 4 with cell 1 == \"1\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 5 with 3 columns");
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 1 == \"2\"");
+		assertEquals("6", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 2== \"6\"");
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 3== \"10\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 6 with 3 columns");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 1 == \"3\"");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 2== \"4\"");
+		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 3== \"15\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 7 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("8", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 7 with cell 1 == \"8\"");
+		assertEquals("99", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 7 with cell 2 == \"99\"");
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 7 with 2 columns");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 8 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 8 with 1 column");
+		assertEquals("test", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 8 with cell 1 == \"test\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 9 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 9 with 3 columns");
+		assertNull(spreadSheetValue.get()[0], "Input Split for Excel file contains row 9 with cell 1 == null");
+		assertNull(spreadSheetValue.get()[1], "Input Split for Excel file contains row 9 with cell 2 == null");
+		assertEquals("seven", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 9 with cell 3 == \"seven\"");
+		reader.close();
+	}
+
+	@Test
+	public void readExcelInputFormatGzipCompressedExcel2013MultiSheetAllStageLocalLowFootprint() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		CompressionCodec gzip = new GzipCodec();
+		ReflectionUtils.setConf(gzip, conf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2013testmultisheet.xlsx.gz";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// decompress to a local temporary file
+		conf.set("hadoopoffice.read.stage.local", "true");
+		// low footprint
+		conf.set("hadoopoffice.read.lowFootprint", "true");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[excel2013testmultisheet.xlsx.gz]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013testmultisheet.xlsx.gz]Sheet1!A1\"");
+		assertEquals(4, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 4 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
+		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
+				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertEquals("test4", ((SpreadSheetCellDAO) spreadSheetValue.get()[3]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 4 == \"test4\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 2 with 1 column");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 2 with cell 1 == \"4\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(5, spreadSheetValue.get().length, "Input Split for Excel file contains row 3 with 5 columns");
+		assertEquals("31/12/99", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"31/12/99\"");
+		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 2 == \"5\"");
+		assertNull(spreadSheetValue.get()[2], "Input Split for Excel file contains row 3 with cell 3 == null");
+		assertNull(spreadSheetValue.get()[3], "Input Split for Excel file contains row 3 with cell 4 == null");
+		assertEquals("null", ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 5 == \"null\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 4 with 1 column");
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 4 with cell 1 == \"1\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 5 with 3 columns");
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 1 == \"2\"");
+		assertEquals("6", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 2== \"6\"");
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 3== \"10\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 6 with 3 columns");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 1 == \"3\"");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 2== \"4\"");
+		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 3== \"15\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 7 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("8", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 7 with cell 1 == \"8\"");
+		assertEquals("99", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 7 with cell 2 == \"99\"");
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 7 with 2 columns");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 8 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 8 with 1 column");
+		assertEquals("test", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 8 with cell 1 == \"test\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 9 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 9 with 3 columns");
+		assertNull(spreadSheetValue.get()[0], "Input Split for Excel file contains row 9 with cell 1 == null");
+		assertNull(spreadSheetValue.get()[1], "Input Split for Excel file contains row 9 with cell 2 == null");
+		assertEquals("seven", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 9 with cell 3 == \"seven\"");
+		reader.close();
+	}
+
+	@Test
+	public void readExcelInputFormatExcel2013LinkedWorkbook() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2013linkedworkbooks.xlsx";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// enable option to read linked workbooks
+		conf.setBoolean("hadoopoffice.read.linkedworkbooks", true);
+		conf.setBoolean("hadoopoffice.read.ignoremissinglinkedworkbooks", false);
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[excel2013linkedworkbooks.xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013linkedworkbooks.xlsx]Sheet1!A1\"");
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
+		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
+				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 2 columns");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"3\" (this tests also if the cached value of 6 is ignored)");
+		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"5\"");
+
+	}
+
+	@Test
+	public void readExcelInputFormatExcel2013LinkedWorkbookParallel() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2013linkedworkbooks.xlsx";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// enable option to read linked workbooks
+		conf.setBoolean("hadoopoffice.read.linkedworkbooks", true);
+		conf.setBoolean("hadoopoffice.read.ignoremissinglinkedworkbooks", false);
+		// load both linked workbooks concurrently
+		conf.setInt("hadoopoffice.read.linkedworkbooks.threads", 2);
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[excel2013linkedworkbooks.xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013linkedworkbooks.xlsx]Sheet1!A1\"");
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
+		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
+				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 2 columns");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"3\" (this tests also if the cached value of 6 is ignored)");
+		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"5\"");
+
+	}
+
+	@Test
+	public void readExcelInputFormatExcel2013LinkedWorkbookSequential() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2013linkedworkbooks.xlsx";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// enable option to read linked workbooks
+		conf.setBoolean("hadoopoffice.read.linkedworkbooks", true);
+		conf.setBoolean("hadoopoffice.read.ignoremissinglinkedworkbooks", false);
+		// load one linked workbook after the other
+		conf.setInt("hadoopoffice.read.linkedworkbooks.threads", 1);
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[excel2013linkedworkbooks.xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013linkedworkbooks.xlsx]Sheet1!A1\"");
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
+		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
+				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 2 columns");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"3\" (this tests also if the cached value of 6 is ignored)");
+		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"5\"");
+
+	}
+
+	@Test
+	public void readExcelInputFormatExcel2013LinkedWorkbookCached() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2013linkedworkbooks.xlsx";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// enable option to read linked workbooks
+		conf.setBoolean("hadoopoffice.read.linkedworkbooks", true);
+		conf.setBoolean("hadoopoffice.read.ignoremissinglinkedworkbooks", false);
+		// cache parsed linked workbooks
+		conf.setInt("hadoopoffice.read.linkedworkbooks.cache.maxcount", 4);
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		try {
+			// second reader reuses the linked workbooks parsed by the first one
+			for (int i = 0; i < 2; i++) {
+				RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+				assertNotNull(reader, "Format returned  null RecordReader");
+				reader.initialize(splits.get(0), context);
+				ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+				assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+				spreadSheetValue = reader.getCurrentValue();
+				assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+				assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+				spreadSheetValue = reader.getCurrentValue();
+				assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 2 with 2 columns");
+				assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+						"Input Split for Excel file contains row 2 with cell 1 == \"3\" (reader " + i + ")");
+				assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+						"Input Split for Excel file contains row 2 with cell 2 == \"5\" (reader " + i + ")");
+				reader.close();
+			}
+		} finally {
+			LinkedWorkbookCache.clear();
+		}
+	}
+
+	@Test
+	public void readExcelInputFormatExcel2003LinkedWorkbook() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2003linkedworkbooks.xls";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// enable option to read linked workbooks
+		conf.setBoolean("hadoopoffice.read.linkedworkbooks", true);
+		conf.setBoolean("hadoopoffice.read.ignoremissinglinkedworkbooks", false);
+		Job job = Job.getInstance(conf);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		FileInputFormat.setInputPaths(job, file);
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[excel2003linkedworkbooks.xls]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2003linkedworkbooks.xls]Sheet1!A1\"");
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
+		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
+				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 2 columns");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"3\" (this tests also if the cached value of 6 is ignored)");
+		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"5\"");
+
+	}
+
+	@Test
+	public void readExcelInputFormatExcel2003LinkedWorkbookParallel() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2003linkedworkbooks.xls";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// enable option to read linked workbooks
+		conf.setBoolean("hadoopoffice.read.linkedworkbooks", true);
+		conf.setBoolean("hadoopoffice.read.ignoremissinglinkedworkbooks", false);
+		// load both linked workbooks concurrently
+		conf.setInt("hadoopoffice.read.linkedworkbooks.threads", 2);
+		Job job = Job.getInstance(conf);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		FileInputFormat.setInputPaths(job, file);
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[excel2003linkedworkbooks.xls]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2003linkedworkbooks.xls]Sheet1!A1\"");
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
+		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
+				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 2 columns");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"3\" (this tests also if the cached value of 6 is ignored)");
+		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"5\"");
+
+	}
+
+	@Test
+	public void readExcelInputFormatBzip2CompressedExcel2013MultiSheetAll() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		CompressionCodec bzip2 = new BZip2Codec();
+		ReflectionUtils.setConf(bzip2, conf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2013testmultisheet.xlsx.bz2";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[excel2013testmultisheet.xlsx.bz2]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013testmultisheet.xlsx.bz2]Sheet1!A1\"");
+		assertEquals(4, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 4 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
+		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
+				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertEquals("test4", ((SpreadSheetCellDAO) spreadSheetValue.get()[3]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 4 == \"test4\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 2 with 1 column");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 2 with cell 1 == \"4\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(5, spreadSheetValue.get().length, "Input Split for Excel file contains row 3 with 5 columns");
+		assertEquals("31/12/99", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"31/12/99\"");
+		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 2 == \"5\"");
+		assertNull(spreadSheetValue.get()[2], "Input Split for Excel file contains row 3 with cell 3 == null");
+		assertNull(spreadSheetValue.get()[3], "Input Split for Excel file contains row 3 with cell 4 == null");
+		assertEquals("null", ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 5 == \"null\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 4 with 1 column");
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 4 with cell 1 == \"1\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 5 with 3 columns");
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 1 == \"2\"");
+		assertEquals("6", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 2== \"6\"");
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 3== \"10\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 6 with 3 columns");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 1 == \"3\"");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 2== \"4\"");
+		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 3== \"15\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 7 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("8", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 7 with cell 1 == \"8\"");
+		assertEquals("99", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 7 with cell 2 == \"99\"");
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 7 with 2 columns");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 8 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 8 with 1 column");
+		assertEquals("test", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 8 with cell 1 == \"test\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 9 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 9 with 3 columns");
+		assertNull(spreadSheetValue.get()[0], "Input Split for Excel file contains row 9 with cell 1 == null");
+		assertNull(spreadSheetValue.get()[1], "Input Split for Excel file contains row 9 with cell 2 == null");
+		assertEquals("seven", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 9 with cell 3 == \"seven\"");
+	}
+
+	@Test
+	public void readExcelInputFormatExcel2013MultiSheetHeader() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "multisheetheader.xlsx";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.locale.bcp47", "us");
+		conf.set("hadoopoffice.read.header.read", "true");
+		conf.set("hadoopoffice.read.header.skipheaderinallsheets", "true");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		assertEquals("column1", ((ExcelRecordReader) reader).getOfficeReader().getCurrentParser().getHeader()[0],
+				" header column 1 correctly read");
+		assertEquals("column2", ((ExcelRecordReader) reader).getOfficeReader().getCurrentParser().getHeader()[1],
+				" header column 2 correctly read");
+		assertEquals("column3", ((ExcelRecordReader) reader).getOfficeReader().getCurrentParser().getHeader()[2],
+				" header column 3 correctly read");
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+
+		// First Sheet
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A2 = \"1\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
+		assertEquals("A2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B2 = \"test1\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
+		assertEquals("B2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
+
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C2 = \"10\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
+		assertEquals("C2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A3 = \"2\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
+		assertEquals("A3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B3 = \"test3\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
+		assertEquals("B3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
+
+		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C3 = \"15\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
+		assertEquals("C3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A4 = \"10\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
+		assertEquals("A4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B4 = \"test2\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
+		assertEquals("B4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
+
+		assertEquals("20", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C4 = \"20\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
+		assertEquals("C4", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 (Second Sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("50", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A2 = \"50\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
+		assertEquals("A2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B2 = \"test1\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
+		assertEquals("B2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
+
+		assertEquals("80", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C2 = \"80\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
+		assertEquals("C2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2 (Second Sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("60", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A3 = \"60\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
+		assertEquals("A3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B3 = \"test3\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
+		assertEquals("B3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
+
+		assertEquals("90", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C3 = \"90\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
+		assertEquals("C3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3 (Second Sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("70", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A4 = \"70\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
+		assertEquals("A4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B4 = \"test2\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
+		assertEquals("B4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
+
+		assertEquals("10000", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C4 = \"10000\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
+		assertEquals("C4", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+		assertFalse(reader.nextKeyValue(), "Input Split for Excel file contains no further row");
+	}
+
+	@Test
+	public void readExcelInputFormatExcel2013MultiSheetHeaderLowFootPrint() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "multisheetheader.xlsx";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.locale.bcp47", "us");
+		conf.set("hadoopoffice.read.header.read", "true");
+		conf.set("hadoopoffice.read.header.skipheaderinallsheets", "true");
+		conf.set("hadoopoffice.read.lowFootprint", "true");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		assertEquals("column1", ((ExcelRecordReader) reader).getOfficeReader().getCurrentParser().getHeader()[0],
+				" header column 1 correctly read");
+		assertEquals("column2", ((ExcelRecordReader) reader).getOfficeReader().getCurrentParser().getHeader()[1],
+				" header column 2 correctly read");
+		assertEquals("column3", ((ExcelRecordReader) reader).getOfficeReader().getCurrentParser().getHeader()[2],
+				" header column 3 correctly read");
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+
+		// First Sheet
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A2 = \"1\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
+		assertEquals("A2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B2 = \"test1\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
+		assertEquals("B2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
+
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C2 = \"10\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
+		assertEquals("C2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A3 = \"2\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
+		assertEquals("A3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B3 = \"test3\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
+		assertEquals("B3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
+
+		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C3 = \"15\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
+		assertEquals("C3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A4 = \"10\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
+		assertEquals("A4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B4 = \"test2\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
+		assertEquals("B4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
+
+		assertEquals("20", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C4 = \"20\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
+		assertEquals("C4", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 (Second Sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("50", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A2 = \"50\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
+		assertEquals("A2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B2 = \"test1\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
 		assertEquals("B2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
 		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
 
@@ -1499,7 +2568,7 @@ public class OfficeFormatHadoopExcelTest {
 	}
 
 	@Test
-	public void readExcelInputFormatExcel2013MultiSheetHeaderLowFootPrint() throws IOException, InterruptedException {
+	public void readExcelInputFormatExcel2013MultiSheetHeaderLowFootPrintParallelSheets() throws IOException, InterruptedException {
 		Configuration conf = new Configuration(defaultConf);
 		ClassLoader classLoader = getClass().getClassLoader();
 		String fileName = "multisheetheader.xlsx";
@@ -1510,6 +2579,167 @@ public class OfficeFormatHadoopExcelTest {
 		conf.set("hadoopoffice.read.header.read", "true");
 		conf.set("hadoopoffice.read.header.skipheaderinallsheets", "true");
 		conf.set("hadoopoffice.read.lowFootprint", "true");
+		// decode sheets in parallel
+		conf.set("hadoopoffice.read.lowFootprint.parser.threads", "2");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		assertEquals("column1", ((ExcelRecordReader) reader).getOfficeReader().getCurrentParser().getHeader()[0],
+				" header column 1 correctly read");
+		assertEquals("column2", ((ExcelRecordReader) reader).getOfficeReader().getCurrentParser().getHeader()[1],
+				" header column 2 correctly read");
+		assertEquals("column3", ((ExcelRecordReader) reader).getOfficeReader().getCurrentParser().getHeader()[2],
+				" header column 3 correctly read");
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+
+		// First Sheet
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A2 = \"1\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
+		assertEquals("A2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B2 = \"test1\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
+		assertEquals("B2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
+
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C2 = \"10\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
+		assertEquals("C2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A3 = \"2\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
+		assertEquals("A3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B3 = \"test3\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
+		assertEquals("B3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
+
+		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C3 = \"15\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
+		assertEquals("C3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A4 = \"10\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
+		assertEquals("A4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B4 = \"test2\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
+		assertEquals("B4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
+
+		assertEquals("20", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C4 = \"20\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
+		assertEquals("C4", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 (Second Sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("50", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A2 = \"50\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
+		assertEquals("A2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B2 = \"test1\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
+		assertEquals("B2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
+
+		assertEquals("80", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C2 = \"80\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
+		assertEquals("C2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2 (Second Sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("60", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A3 = \"60\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
+		assertEquals("A3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B3 = \"test3\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
+		assertEquals("B3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
+
+		assertEquals("90", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C3 = \"90\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
+		assertEquals("C3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3 (Second Sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("70", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A4 = \"70\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
+		assertEquals("A4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
+
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B4 = \"test2\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
+		assertEquals("B4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
+
+		assertEquals("10000", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C4 = \"10000\"");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
+		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
+		assertEquals("C4", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+		assertFalse(reader.nextKeyValue(), "Input Split for Excel file contains no further row");
+	}
+
+	@Test
+	public void readExcelInputFormatExcel2013MultiSheetSkipWithHeader() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "skipsheet.xlsx";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.locale.bcp47", "us");
+		conf.set("hadoopoffice.read.header.read", "true");
+		conf.set("hadoopoffice.read.header.skipheaderinallsheets", "true");
+		conf.set("hadoopoffice.read.sheet.skiplines.num", "5");
+		conf.set("hadoopoffice.read.sheet.skiplines.allsheets", "true");
 		Job job = Job.getInstance(conf);
 		FileInputFormat.setInputPaths(job, file);
 		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
@@ -1530,134 +2760,129 @@ public class OfficeFormatHadoopExcelTest {
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-
 		// First Sheet
-		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A2 = \"1\"");
+		assertEquals("20", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A7 = \"20\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
-		assertEquals("A2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("A7", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
 		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
-
-		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B2 = \"test1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B7 = \"test2\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
-		assertEquals("B2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("B7", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
 		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
-
-		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C2 = \"10\"");
+		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C7 = \"5\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
-		assertEquals("C2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("C7", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
 		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A3 = \"2\"");
+		assertEquals("30", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A8 = \"30\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
-		assertEquals("A3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("A8", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
 		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
 
-		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B3 = \"test3\"");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B8 = \"test1\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
-		assertEquals("B3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("B8", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
 		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
 
-		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C3 = \"15\"");
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C8 = \"10\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
-		assertEquals("C3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("C8", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
 		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
-
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A4 = \"10\"");
+		assertEquals("40", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A9 = \"40\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
-		assertEquals("A4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("A9", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
 		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
 
-		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B4 = \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B9 = \"test3\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
-		assertEquals("B4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("B9", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
 		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
 
-		assertEquals("20", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C4 = \"20\"");
+		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C9 = \"15\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
-		assertEquals("C4", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("C9", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
 		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
-
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 (Second Sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("50", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A2 = \"50\"");
+		assertEquals("90", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A7 = \"90\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
-		assertEquals("A2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("A7", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
 		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
 
-		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B2 = \"test1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B7 = \"test2\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
-		assertEquals("B2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("B7", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
 		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
 
-		assertEquals("80", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C2 = \"80\"");
+		assertEquals("230", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C7 = \"230\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
-		assertEquals("C2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("C7", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
 		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
-
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2 (Second Sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("60", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A3 = \"60\"");
+		assertEquals("200", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A8 = \"200\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
-		assertEquals("A3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("A8", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
 		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
 
-		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B3 = \"test3\"");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B8 = \"test1\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
-		assertEquals("B3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("B8", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
 		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
 
-		assertEquals("90", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C3 = \"90\"");
+		assertEquals("240", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C8 = \"240\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
-		assertEquals("C3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("C8", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
 		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
-
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3 (Second Sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("70", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A4 = \"70\"");
+		assertEquals("101", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A9 = \"101\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
-		assertEquals("A4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
+		assertEquals("A9", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
 		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
 
-		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B4 = \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B9 = \"test3\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
-		assertEquals("B4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
+		assertEquals("B9", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
 		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
 
-		assertEquals("10000", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C4 = \"10000\"");
+		assertEquals("250", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C9 = \"250\"");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
 		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
-		assertEquals("C4", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
+		assertEquals("C9", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
 		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+		// third sheet is skipped because it does not contain enough rows
 		assertFalse(reader.nextKeyValue(), "Input Split for Excel file contains no further row");
 	}
 
 	@Test
-	public void readExcelInputFormatExcel2013MultiSheetSkipWithHeader() throws IOException, InterruptedException {
+	public void readExcelInputFormatExcel2013MultiSheetSkipWithHeaderLowFootprint()
+			throws IOException, InterruptedException {
 		Configuration conf = new Configuration(defaultConf);
 		ClassLoader classLoader = getClass().getClassLoader();
 		String fileName = "skipsheet.xlsx";
@@ -1669,6 +2894,7 @@ public class OfficeFormatHadoopExcelTest {
 		conf.set("hadoopoffice.read.header.skipheaderinallsheets", "true");
 		conf.set("hadoopoffice.read.sheet.skiplines.num", "5");
 		conf.set("hadoopoffice.read.sheet.skiplines.allsheets", "true");
+		conf.set("hadoopoffice.read.lowFootprint", "true");
 		Job job = Job.getInstance(conf);
 		FileInputFormat.setInputPaths(job, file);
 		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
@@ -1810,162 +3036,236 @@ public class OfficeFormatHadoopExcelTest {
 	}
 
 	@Test
-	public void readExcelInputFormatExcel2013MultiSheetSkipWithHeaderLowFootprint()
-			throws IOException, InterruptedException {
-		Configuration conf = new Configuration(defaultConf);
-		ClassLoader classLoader = getClass().getClassLoader();
-		String fileName = "skipsheet.xlsx";
-		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
-		Path file = new Path(fileNameSpreadSheet);
+	public void writeExcelOutputFormatExcel2013SingleSheet() throws IOException, InterruptedException {
+		// one row string and three columns ("test1","test2","test3")
+		// (String formattedValue, String comment, String formula, String address,String
+		// sheetName)
+		SpreadSheetCellDAO a1 = new SpreadSheetCellDAO("test1", "", "", "A1", "Sheet1");
+		SpreadSheetCellDAO b1 = new SpreadSheetCellDAO("test2", "", "", "B1", "Sheet1");
+		SpreadSheetCellDAO c1 = new SpreadSheetCellDAO("test3", "", "", "C1", "Sheet1");
+		// empty row => nothing todo
+		// one row numbers (1,2,3)
+		SpreadSheetCellDAO a3 = new SpreadSheetCellDAO("", "", "1", "A3", "Sheet1");
+		SpreadSheetCellDAO b3 = new SpreadSheetCellDAO("", "", "2", "B3", "Sheet1");
+		SpreadSheetCellDAO c3 = new SpreadSheetCellDAO("", "", "3", "C3", "Sheet1");
+		// one row formulas (=A3+B3)
+		SpreadSheetCellDAO a4 = new SpreadSheetCellDAO("", "", "A3+B3", "A4", "Sheet1");
+		// write
+		Job job = Job.getInstance();
+		Configuration conf = job.getConfiguration();
+
+		String fileName = "excel2013singlesheettestout";
+		String tmpDir = tmpPath.toString();
+		Path outputPath = new Path(tmpDir);
+		conf.set("mapreduce.output.basename", fileName);
+
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		conf.set("hadoopoffice.write.mimeType", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"); // new
+																														// Excel
+																														// format,
+																														// anyway
+																														// default,
+																														// but
+																														// here
+																														// for
+																														// illustrative
+																														// purposes
+		conf.set(MRJobConfig.TASK_ATTEMPT_ID, attempt);
+		conf.setInt(MRJobConfig.APPLICATION_ATTEMPT_ID, 0);
+		conf.setInt(FileOutputCommitter.FILEOUTPUTCOMMITTER_ALGORITHM_VERSION, 1);
+		FileOutputFormat.setOutputPath(job, outputPath);
+		JobContext jContext = new JobContextImpl(conf, taskID.getJobID());
+
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, taskID);
+		FileOutputCommitter committer = new FileOutputCommitter(outputPath, context);
+		// setup
+		committer.setupJob(jContext);
+		committer.setupTask(context);
+		// set generic outputformat settings
+		ExcelFileOutputFormat outputFormat = new ExcelFileOutputFormat();
+		RecordWriter<NullWritable, SpreadSheetCellDAO> writer = outputFormat.getRecordWriter(context);
+		assertNotNull(writer, "Format returned  null RecordWriter");
+		writer.write(null, a1);
+		writer.write(null, b1);
+		writer.write(null, c1);
+		writer.write(null, a3);
+		writer.write(null, b3);
+		writer.write(null, c3);
+		writer.write(null, a4);
+		writer.close(context);
+		committer.commitTask(context);
+		// try to read it again
+		conf = new Configuration(defaultConf);
+		job = Job.getInstance(conf);
+		fileName = fileName + this.outputbaseAppendix;
+		Path inputFile = new Path(tmpDir + File.separator + "_temporary" + File.separator + "0" + File.separator
+				+ taskAttempt + File.separator + fileName + ".xlsx");
+		FileInputFormat.setInputPaths(job, inputFile);
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		ExcelFileInputFormat inputFormat = new ExcelFileInputFormat();
+		FileInputFormat.setInputPaths(job, inputFile);
+		context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		List<InputSplit> splits = inputFormat.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = inputFormat.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[" + fileName + ".xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[" + fileName + ".xlsx]Sheet1!A1\"");
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(0, spreadSheetValue.get().length, "Input Split for Excel file contain row 2 and is empty");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contain row 3 with 3 columns");
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"1\"");
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 2 == \"2\"");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 3 == \"3\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contain row 4 with 1 column");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"3\"");
+	}
+
+	@Test
+	public void writeExcelOutputFormatExcel2013SingleSheetFormulaEvaluationCached() throws IOException, InterruptedException {
+		// one row string and three columns ("test1","test2","test3")
+		// (String formattedValue, String comment, String formula, String address,String
+		// sheetName)
+		SpreadSheetCellDAO a1 = new SpreadSheetCellDAO("test1", "", "", "A1", "Sheet1");
+		SpreadSheetCellDAO b1 = new SpreadSheetCellDAO("test2", "", "", "B1", "Sheet1");
+		SpreadSheetCellDAO c1 = new SpreadSheetCellDAO("test3", "", "", "C1", "Sheet1");
+		// empty row => nothing todo
+		// one row numbers (1,2,3)
+		SpreadSheetCellDAO a3 = new SpreadSheetCellDAO("", "", "1", "A3", "Sheet1");
+		SpreadSheetCellDAO b3 = new SpreadSheetCellDAO("", "", "2", "B3", "Sheet1");
+		SpreadSheetCellDAO c3 = new SpreadSheetCellDAO("", "", "3", "C3", "Sheet1");
+		// one row formulas (=A3+B3)
+		SpreadSheetCellDAO a4 = new SpreadSheetCellDAO("", "", "A3+B3", "A4", "Sheet1");
+		// write
+		Job job = Job.getInstance();
+		Configuration conf = job.getConfiguration();
+
+		String fileName = "excel2013singlesheettestout";
+		String tmpDir = tmpPath.toString();
+		Path outputPath = new Path(tmpDir);
+		conf.set("mapreduce.output.basename", fileName);
+
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		conf.set("hadoopoffice.write.mimeType", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"); // new
+																														// Excel
+																														// format,
+																														// anyway
+																														// default,
+																														// but
+																														// here
+																														// for
+																														// illustrative
+																														// purposes
+		conf.set(MRJobConfig.TASK_ATTEMPT_ID, attempt);
+		conf.setInt(MRJobConfig.APPLICATION_ATTEMPT_ID, 0);
+		conf.setInt(FileOutputCommitter.FILEOUTPUTCOMMITTER_ALGORITHM_VERSION, 1);
+		FileOutputFormat.setOutputPath(job, outputPath);
+		JobContext jContext = new JobContextImpl(conf, taskID.getJobID());
+
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, taskID);
+		FileOutputCommitter committer = new FileOutputCommitter(outputPath, context);
+		// setup
+		committer.setupJob(jContext);
+		committer.setupTask(context);
+		// set generic outputformat settings
+		ExcelFileOutputFormat outputFormat = new ExcelFileOutputFormat();
+		RecordWriter<NullWritable, SpreadSheetCellDAO> writer = outputFormat.getRecordWriter(context);
+		assertNotNull(writer, "Format returned  null RecordWriter");
+		writer.write(null, a1);
+		writer.write(null, b1);
+		writer.write(null, c1);
+		writer.write(null, a3);
+		writer.write(null, b3);
+		writer.write(null, c3);
+		writer.write(null, a4);
+		writer.close(context);
+		committer.commitTask(context);
+		// try to read it again
+		conf = new Configuration(defaultConf);
+		job = Job.getInstance(conf);
+		fileName = fileName + this.outputbaseAppendix;
+		Path inputFile = new Path(tmpDir + File.separator + "_temporary" + File.separator + "0" + File.separator
+				+ taskAttempt + File.separator + fileName + ".xlsx");
+		FileInputFormat.setInputPaths(job, inputFile);
 		// set locale to the one of the test data
-		conf.set("hadoopoffice.locale.bcp47", "us");
-		conf.set("hadoopoffice.read.header.read", "true");
-		conf.set("hadoopoffice.read.header.skipheaderinallsheets", "true");
-		conf.set("hadoopoffice.read.sheet.skiplines.num", "5");
-		conf.set("hadoopoffice.read.sheet.skiplines.allsheets", "true");
-		conf.set("hadoopoffice.read.lowFootprint", "true");
-		Job job = Job.getInstance(conf);
-		FileInputFormat.setInputPaths(job, file);
-		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
-		ExcelFileInputFormat format = new ExcelFileInputFormat();
-		List<InputSplit> splits = format.getSplits(job);
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// use results of formulas stored in the document
+		conf.set("hadoopoffice.read.formula.evaluation", "cached");
+		ExcelFileInputFormat inputFormat = new ExcelFileInputFormat();
+		FileInputFormat.setInputPaths(job, inputFile);
+		context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		List<InputSplit> splits = inputFormat.getSplits(job);
 		assertEquals(1, splits.size(), "Only one split generated for Excel file");
-		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		RecordReader<Text, ArrayWritable> reader = inputFormat.createRecordReader(splits.get(0), context);
 		assertNotNull(reader, "Format returned  null RecordReader");
 		reader.initialize(splits.get(0), context);
-		assertEquals("column1", ((ExcelRecordReader) reader).getOfficeReader().getCurrentParser().getHeader()[0],
-				" header column 1 correctly read");
-		assertEquals("column2", ((ExcelRecordReader) reader).getOfficeReader().getCurrentParser().getHeader()[1],
-				" header column 2 correctly read");
-		assertEquals("column3", ((ExcelRecordReader) reader).getOfficeReader().getCurrentParser().getHeader()[2],
-				" header column 3 correctly read");
 		Text spreadSheetKey = new Text();
 		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		// First Sheet
-		assertEquals("20", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A7 = \"20\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
-		assertEquals("A7", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
-		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B7 = \"test2\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
-		assertEquals("B7", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
-		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C7 = \"5\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
-		assertEquals("C7", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+		assertEquals("[" + fileName + ".xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[" + fileName + ".xlsx]Sheet1!A1\"");
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("30", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A8 = \"30\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
-		assertEquals("A8", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
-
-		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B8 = \"test1\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
-		assertEquals("B8", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
-
-		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C8 = \"10\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
-		assertEquals("C8", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
+		assertEquals(0, spreadSheetValue.get().length, "Input Split for Excel file contain row 2 and is empty");
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("40", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A9 = \"40\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
-		assertEquals("A9", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
-
-		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B9 = \"test3\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
-		assertEquals("B9", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
-
-		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C9 = \"15\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
-		assertEquals("C9", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
-		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 (Second Sheet)");
-		spreadSheetKey = reader.getCurrentKey();
-		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("90", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A7 = \"90\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
-		assertEquals("A7", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
-		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
-
-		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B7 = \"test2\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
-		assertEquals("B7", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
-		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
-
-		assertEquals("230", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C7 = \"230\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
-		assertEquals("C7", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
-		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2 (Second Sheet)");
-		spreadSheetKey = reader.getCurrentKey();
-		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("200", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A8 = \"200\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
-		assertEquals("A8", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
-		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
-
-		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B8 = \"test1\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
-		assertEquals("B8", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
-		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
-
-		assertEquals("240", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C8 = \"240\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
-		assertEquals("C8", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
-		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3 (Second Sheet)");
+		// the writer does not store results of formulas in the document
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contain row 3 with 3 columns");
+		assertEquals("0", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"0\" (no stored result)");
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(),
+				"Input Split for Excel file contains row 3 with cell 1 formula == \"1\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("101", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(), "A9 = \"101\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(), "Empty formula");
-		assertEquals("A9", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(), "Correct address");
-		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(), "Correct sheet");
-
-		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(), "B9 = \"test3\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(), "Empty formula");
-		assertEquals("B9", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getAddress(), "Correct address");
-		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getSheetName(), "Correct sheet");
-
-		assertEquals("250", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(), "C9 = \"250\"");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getComment(), "Empty Comment");
-		assertEquals("", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormula(), "Empty formula");
-		assertEquals("C9", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getAddress(), "Correct address");
-		assertEquals("Sheet2", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getSheetName(), "Correct sheet");
-		// third sheet is skipped because it does not contain enough rows
-		assertFalse(reader.nextKeyValue(), "Input Split for Excel file contains no further row");
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contain row 4 with 1 column");
+		assertEquals("0", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 4 with cell 1 == \"0\" (no stored result)");
+		assertEquals("A3+B3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(),
+				"Input Split for Excel file contains row 4 with cell 1 formula == \"A3+B3\"");
 	}
 
 	@Test
-	public void writeExcelOutputFormatExcel2013SingleSheet() throws IOException, InterruptedException {
+	public void writeExcelOutputFormatExcel2013SingleSheetFormulaEvaluationMissing() throws IOException, InterruptedException {
 		// one row string and three columns ("test1","test2","test3")
 		// (String formattedValue, String comment, String formula, String address,String
 		// sheetName)
@@ -2033,6 +3333,8 @@ public class OfficeFormatHadoopExcelTest {
 		FileInputFormat.setInputPaths(job, inputFile);
 		// set locale to the one of the test data
 		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// evaluate formulas without stored result
+		conf.set("hadoopoffice.read.formula.evaluation", "missing");
 		ExcelFileInputFormat inputFormat = new ExcelFileInputFormat();
 		FileInputFormat.setInputPaths(job, inputFile);
 		context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
@@ -3987,7 +5289,115 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 3 with cell 1 == \"Test5\"");
 
 		assertEquals("60", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
-				"Input Split for Excel file contains row 3 with cell 2 == \"60\"");
+				"Input Split for Excel file contains row 3 with cell 2 == \"60\"");
+	}
+
+	@Test
+	public void writeExcelOutputFormatExcel2013TemplateSingleSheetLowFootprint() throws IOException, InterruptedException {
+		// add the row 5 after the existing rows of the template
+		SpreadSheetCellDAO a5 = new SpreadSheetCellDAO("Test5", "", "", "A5", "Table1");
+		SpreadSheetCellDAO b5 = new SpreadSheetCellDAO("", "", "60", "B5", "Table1");
+		// write
+		Job job = Job.getInstance();
+		Configuration conf = job.getConfiguration();
+		String fileName = "excel2013basedontemplatelowfootprint";
+		String tmpDir = tmpPath.toString();
+		Path outputPath = new Path(tmpDir);
+		conf.set("mapreduce.output.basename", fileName);
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		conf.set("hadoopoffice.write.mimeType", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"); // new
+																														// excel
+																														// format
+		// template
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileNameTemplate = classLoader.getResource("templatetest1.xlsx").getFile();
+		conf.set("hadoopoffice.write.template.file", fileNameTemplate);
+		conf.setBoolean("hadoopoffice.write.lowFootprint", true);
+		//
+		conf.set(MRJobConfig.TASK_ATTEMPT_ID, attempt);
+		conf.setInt(MRJobConfig.APPLICATION_ATTEMPT_ID, 0);
+		conf.setInt(FileOutputCommitter.FILEOUTPUTCOMMITTER_ALGORITHM_VERSION, 1);
+		FileOutputFormat.setOutputPath(job, outputPath);
+		JobContext jContext = new JobContextImpl(conf, taskID.getJobID());
+
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, taskID);
+		FileOutputCommitter committer = new FileOutputCommitter(outputPath, context);
+		// setup
+		committer.setupJob(jContext);
+		committer.setupTask(context);
+		// set generic outputformat settings
+		ExcelFileOutputFormat outputFormat = new ExcelFileOutputFormat();
+		RecordWriter<NullWritable, SpreadSheetCellDAO> writer = outputFormat.getRecordWriter(context);
+		assertNotNull(writer, "Format returned  null RecordWriter");
+		writer.write(null, a5);
+		writer.write(null, b5);
+		writer.close(context);
+		committer.commitTask(context);
+		// try to read it again
+		conf = new Configuration(defaultConf);
+		job = Job.getInstance(conf);
+		fileName = fileName + this.outputbaseAppendix;
+		Path inputFile = new Path(tmpDir + File.separator + "_temporary" + File.separator + "0" + File.separator
+				+ taskAttempt + File.separator + fileName + ".xlsx");
+		FileInputFormat.setInputPaths(job, inputFile);
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		ExcelFileInputFormat inputFormat = new ExcelFileInputFormat();
+		FileInputFormat.setInputPaths(job, inputFile);
+		context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		List<InputSplit> splits = inputFormat.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = inputFormat.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[" + fileName + ".xlsx]Table1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[" + fileName + ".xlsx]Table1!A1\"");
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 2 columns");
+		assertEquals("Test", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"Test\"");
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"10\"");
+
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 2 with 2 columns");
+		assertEquals("Test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 2 with cell 1 == \"Test2\"");
+		assertEquals("50", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 2 with cell 2 == \"50\"");
+
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contain row 3 with 2 columns");
+		assertEquals("Test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"Test3\"");
+		assertEquals("20", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 2 == \"20\"");
+
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contain row 4 with 2 columns");
+		assertEquals("Test4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 4 with cell 1 == \"Test4\" of the template");
+
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contain row 5 with 2 columns");
+		assertEquals("Test5", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 1 == \"Test5\"");
+		assertEquals("60", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 2 == \"60\"");
 	}
 
 	@Test
@@ -4315,7 +5725,274 @@ public class OfficeFormatHadoopExcelTest {
 		context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
 		List<InputSplit> splits = inputFormat.getSplits(job);
 		assertEquals(1, splits.size(), "Only one split generated for Excel file");
-		RecordReader<Text, ArrayWritable> reader = inputFormat.createRecordReader(splits.get(0), context);
+		RecordReader<Text, ArrayWritable> reader = inputFormat.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[" + fileName + ".xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[" + fileName + ".xlsx]Sheet1!A1\"");
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(0, spreadSheetValue.get().length, "Input Split for Excel file contain row 2 and is empty");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contain row 3 with 3 columns");
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"1\"");
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 2 == \"2\"");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 3 == \"3\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contain row 4 with 1 column");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"3\"");
+	}
+
+	@Test
+	public void writeExcelOutputFormatExcel2013SingleSheetEncryptedKeyStoreAliasPositive()
+			throws IOException, InterruptedException {
+		ClassLoader classLoader = getClass().getClassLoader();
+		// one row string and three columns ("test1","test2","test3")
+		// (String formattedValue, String comment, String formula, String address,String
+		// sheetName)
+		SpreadSheetCellDAO a1 = new SpreadSheetCellDAO("test1", "", "", "A1", "Sheet1");
+		SpreadSheetCellDAO b1 = new SpreadSheetCellDAO("test2", "", "", "B1", "Sheet1");
+		SpreadSheetCellDAO c1 = new SpreadSheetCellDAO("test3", "", "", "C1", "Sheet1");
+		// empty row => nothing todo
+		// one row numbers (1,2,3)
+		SpreadSheetCellDAO a3 = new SpreadSheetCellDAO("", "", "1", "A3", "Sheet1");
+		SpreadSheetCellDAO b3 = new SpreadSheetCellDAO("", "", "2", "B3", "Sheet1");
+		SpreadSheetCellDAO c3 = new SpreadSheetCellDAO("", "", "3", "C3", "Sheet1");
+		// one row formulas (=A3+B3)
+		SpreadSheetCellDAO a4 = new SpreadSheetCellDAO("", "", "A3+B3", "A4", "Sheet1");
+		// write
+		Job job = Job.getInstance();
+		Configuration conf = job.getConfiguration();
+
+		String fileName = "excel2013singlesheettestoutencryptedkeystorepositive";
+		String tmpDir = tmpPath.toString();
+		Path outputPath = new Path(tmpDir);
+		conf.set("mapreduce.output.basename", fileName);
+		// set generic outputformat settings
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		conf.set("hadoopoffice.write.mimeType", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"); // new
+																														// excel
+																														// format
+		// security
+		// for the new Excel format you need to decide on your own which algorithms are
+		// secure
+		conf.set("hadoopoffice.write.security.crypt.encrypt.mode", "agile");
+		conf.set("hadoopoffice.write.security.crypt.encrypt.algorithm", "aes256");
+		conf.set("hadoopoffice.write.security.crypt.chain.mode", "cbc");
+		conf.set("hadoopoffice.write.security.crypt.hash.algorithm", "sha512");
+		// retrieve password for encryption from keystore
+		String keystoreFilename = "keystore.jceks";
+		String filenameKeyStore = classLoader.getResource(keystoreFilename).getFile().toString();
+		conf.set("hadoopoffice.write.security.crypt.credential.keystore.file", filenameKeyStore);
+		conf.set("hadoopoffice.write.security.crypt.credential.keystore.type", "JCEKS");
+		conf.set("hadoopoffice.write.security.crypt.credential.keystore.password", "changeit");
+
+		conf.set("hadoopoffice.write.security.crypt.credential.keystore.alias", "testalias");
+		conf.set(MRJobConfig.TASK_ATTEMPT_ID, attempt);
+		conf.setInt(MRJobConfig.APPLICATION_ATTEMPT_ID, 0);
+		conf.setInt(FileOutputCommitter.FILEOUTPUTCOMMITTER_ALGORITHM_VERSION, 1);
+		FileOutputFormat.setOutputPath(job, outputPath);
+		JobContext jContext = new JobContextImpl(conf, taskID.getJobID());
+
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, taskID);
+		FileOutputCommitter committer = new FileOutputCommitter(outputPath, context);
+		// setup
+		committer.setupJob(jContext);
+		committer.setupTask(context);
+		ExcelFileOutputFormat outputFormat = new ExcelFileOutputFormat();
+		RecordWriter<NullWritable, SpreadSheetCellDAO> writer = outputFormat.getRecordWriter(context);
+		assertNotNull(writer, "Format returned  null RecordWriter");
+		writer.write(null, a1);
+		writer.write(null, b1);
+		writer.write(null, c1);
+		writer.write(null, a3);
+		writer.write(null, b3);
+		writer.write(null, c3);
+		writer.write(null, a4);
+		writer.close(context);
+		committer.commitTask(context);
+		// try to read it again
+		conf = new Configuration(defaultConf);
+		job = Job.getInstance(conf);
+		fileName = fileName + this.outputbaseAppendix;
+		Path inputFile = new Path(tmpDir + File.separator + "_temporary" + File.separator + "0" + File.separator
+				+ taskAttempt + File.separator + fileName + ".xlsx");
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// you just need to provide the password to read encrypted data
+		conf.set("hadoopoffice.read.security.crypt.password", "test");
+		ExcelFileInputFormat inputFormat = new ExcelFileInputFormat();
+		FileInputFormat.setInputPaths(job, inputFile);
+		context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		List<InputSplit> splits = inputFormat.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = inputFormat.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[" + fileName + ".xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[" + fileName + ".xlsx]Sheet1!A1\"");
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(0, spreadSheetValue.get().length, "Input Split for Excel file contain row 2 and is empty");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contain row 3 with 3 columns");
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"1\"");
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 2 == \"2\"");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 3 == \"3\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contain row 4 with 1 column");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"3\"");
+	}
+
+	@Test
+	public void readExcelInputFormatExcel2003SingleSheetLowFootPrint() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2003test.xls";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// low footprint
+		conf.set("hadoopoffice.read.lowFootprint", "true");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[excel2003test.xls]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2003test.xls]Sheet1!A1\"");
+		assertEquals(4, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 4 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
+		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
+				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertEquals("test4", ((SpreadSheetCellDAO) spreadSheetValue.get()[3]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 4 == \"test4\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 2 with 1 column");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 2 with cell 1 == \"4\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(5, spreadSheetValue.get().length, "Input Split for Excel file contains row 3 with 5 columns");
+		assertEquals("31/12/99", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"31/12/99\"");
+		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 2 == \"5\"");
+		assertNull(spreadSheetValue.get()[2], "Input Split for Excel file contains row 3 with cell 3 == null");
+		assertNull(spreadSheetValue.get()[3], "Input Split for Excel file contains row 3 with cell 4 == null");
+		assertEquals("null", ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 5 == \"null\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 4 with 1 column");
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 4 with cell 1 == \"1\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 5 with 3 columns");
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 1 == \"2\"");
+		assertEquals("6", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 2== \"6\"");
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 3== \"10\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 6 with 3 columns");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 1 == \"3\"");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 2== \"4\"");
+		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 3== \"15\"");
+	}
+
+	@Test
+	public void readExcelInputFormatExcel2003SingleSheetLowFootPrintRawValues() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2003test.xls";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// low footprint
+		conf.set("hadoopoffice.read.lowFootprint", "true");
+		// raw values
+		conf.set("hadoopoffice.read.rawvalues", "true");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
 		assertNotNull(reader, "Format returned  null RecordReader");
 		reader.initialize(splits.get(0), context);
 		Text spreadSheetKey = new Text();
@@ -4323,165 +6000,194 @@ public class OfficeFormatHadoopExcelTest {
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("[" + fileName + ".xlsx]Sheet1!A1", spreadSheetKey.toString(),
-				"Input Split for Excel file has keyname == \"[" + fileName + ".xlsx]Sheet1!A1\"");
-		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("[excel2003test.xls]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2003test.xls]Sheet1!A1\"");
+		assertEquals(4, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 4 columns");
 		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
+		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
+				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
 		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
 		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertEquals("test4", ((SpreadSheetCellDAO) spreadSheetValue.get()[3]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 4 == \"test4\"");
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(0, spreadSheetValue.get().length, "Input Split for Excel file contain row 2 and is empty");
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 2 with 1 column");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 2 with cell 1 == \"4\"");
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contain row 3 with 3 columns");
-		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 3 with cell 1 == \"1\"");
-		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
-				"Input Split for Excel file contains row 3 with cell 2 == \"2\"");
-		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
-				"Input Split for Excel file contains row 3 with cell 3 == \"3\"");
+		assertEquals(5, spreadSheetValue.get().length, "Input Split for Excel file contains row 3 with 5 columns");
+		assertEquals("31/12/99", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"31/12/99\"");
+		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 2 == \"5\"");
+		assertEquals(SpreadSheetCellDAO.RAWTYPE_NUMERIC, ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getRawType(),
+				"Input Split for Excel file contains row 3 with cell 1 of raw type numeric");
+		assertTrue(((SpreadSheetCellDAO) spreadSheetValue.get()[0]).isRawDate(),
+				"Input Split for Excel file contains row 3 with cell 1 as raw date");
+		assertEquals(SpreadSheetCellDAO.RAWTYPE_NUMERIC, ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getRawType(),
+				"Input Split for Excel file contains row 3 with cell 2 of raw type numeric");
+		assertEquals(5.0, ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getRawNumericValue(),
+				"Input Split for Excel file contains row 3 with cell 2 with raw value 5.0");
+		assertFalse(((SpreadSheetCellDAO) spreadSheetValue.get()[1]).isRawDate(),
+				"Input Split for Excel file contains row 3 with cell 2 not as raw date");
+		assertEquals(SpreadSheetCellDAO.RAWTYPE_STRING, ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getRawType(),
+				"Input Split for Excel file contains row 3 with cell 5 of raw type string");
+		assertNull(spreadSheetValue.get()[2], "Input Split for Excel file contains row 3 with cell 3 == null");
+		assertNull(spreadSheetValue.get()[3], "Input Split for Excel file contains row 3 with cell 4 == null");
+		assertEquals("null", ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 5 == \"null\"");
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contain row 4 with 1 column");
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 4 with 1 column");
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 4 with cell 1 == \"1\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 5 with 3 columns");
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 1 == \"2\"");
+		assertEquals("6", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 2== \"6\"");
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 3== \"10\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 6 with 3 columns");
 		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 3 with cell 1 == \"3\"");
+				"Input Split for Excel file contains row 6 with cell 1 == \"3\"");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 2== \"4\"");
+		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 3== \"15\"");
 	}
 
 	@Test
-	public void writeExcelOutputFormatExcel2013SingleSheetEncryptedKeyStoreAliasPositive()
-			throws IOException, InterruptedException {
+	public void readExcelInputFormatExcel2003MultiSheetAllLowFootPrint() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
 		ClassLoader classLoader = getClass().getClassLoader();
-		// one row string and three columns ("test1","test2","test3")
-		// (String formattedValue, String comment, String formula, String address,String
-		// sheetName)
-		SpreadSheetCellDAO a1 = new SpreadSheetCellDAO("test1", "", "", "A1", "Sheet1");
-		SpreadSheetCellDAO b1 = new SpreadSheetCellDAO("test2", "", "", "B1", "Sheet1");
-		SpreadSheetCellDAO c1 = new SpreadSheetCellDAO("test3", "", "", "C1", "Sheet1");
-		// empty row => nothing todo
-		// one row numbers (1,2,3)
-		SpreadSheetCellDAO a3 = new SpreadSheetCellDAO("", "", "1", "A3", "Sheet1");
-		SpreadSheetCellDAO b3 = new SpreadSheetCellDAO("", "", "2", "B3", "Sheet1");
-		SpreadSheetCellDAO c3 = new SpreadSheetCellDAO("", "", "3", "C3", "Sheet1");
-		// one row formulas (=A3+B3)
-		SpreadSheetCellDAO a4 = new SpreadSheetCellDAO("", "", "A3+B3", "A4", "Sheet1");
-		// write
-		Job job = Job.getInstance();
-		Configuration conf = job.getConfiguration();
+		String fileName = "excel2003testmultisheet.xls";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
 
-		String fileName = "excel2013singlesheettestoutencryptedkeystorepositive";
-		String tmpDir = tmpPath.toString();
-		Path outputPath = new Path(tmpDir);
-		conf.set("mapreduce.output.basename", fileName);
-		// set generic outputformat settings
 		// set locale to the one of the test data
 		conf.set("hadoopoffice.read.locale.bcp47", "de");
-		conf.set("hadoopoffice.write.mimeType", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"); // new
-																														// excel
-																														// format
-		// security
-		// for the new Excel format you need to decide on your own which algorithms are
-		// secure
-		conf.set("hadoopoffice.write.security.crypt.encrypt.mode", "agile");
-		conf.set("hadoopoffice.write.security.crypt.encrypt.algorithm", "aes256");
-		conf.set("hadoopoffice.write.security.crypt.chain.mode", "cbc");
-		conf.set("hadoopoffice.write.security.crypt.hash.algorithm", "sha512");
-		// retrieve password for encryption from keystore
-		String keystoreFilename = "keystore.jceks";
-		String filenameKeyStore = classLoader.getResource(keystoreFilename).getFile().toString();
-		conf.set("hadoopoffice.write.security.crypt.credential.keystore.file", filenameKeyStore);
-		conf.set("hadoopoffice.write.security.crypt.credential.keystore.type", "JCEKS");
-		conf.set("hadoopoffice.write.security.crypt.credential.keystore.password", "changeit");
 
-		conf.set("hadoopoffice.write.security.crypt.credential.keystore.alias", "testalias");
-		conf.set(MRJobConfig.TASK_ATTEMPT_ID, attempt);
-		conf.setInt(MRJobConfig.APPLICATION_ATTEMPT_ID, 0);
-		conf.setInt(FileOutputCommitter.FILEOUTPUTCOMMITTER_ALGORITHM_VERSION, 1);
-		FileOutputFormat.setOutputPath(job, outputPath);
-		JobContext jContext = new JobContextImpl(conf, taskID.getJobID());
-
-		TaskAttemptContext context = new TaskAttemptContextImpl(conf, taskID);
-		FileOutputCommitter committer = new FileOutputCommitter(outputPath, context);
-		// setup
-		committer.setupJob(jContext);
-		committer.setupTask(context);
-		ExcelFileOutputFormat outputFormat = new ExcelFileOutputFormat();
-		RecordWriter<NullWritable, SpreadSheetCellDAO> writer = outputFormat.getRecordWriter(context);
-		assertNotNull(writer, "Format returned  null RecordWriter");
-		writer.write(null, a1);
-		writer.write(null, b1);
-		writer.write(null, c1);
-		writer.write(null, a3);
-		writer.write(null, b3);
-		writer.write(null, c3);
-		writer.write(null, a4);
-		writer.close(context);
-		committer.commitTask(context);
-		// try to read it again
-		conf = new Configuration(defaultConf);
-		job = Job.getInstance(conf);
-		fileName = fileName + this.outputbaseAppendix;
-		Path inputFile = new Path(tmpDir + File.separator + "_temporary" + File.separator + "0" + File.separator
-				+ taskAttempt + File.separator + fileName + ".xlsx");
-		// set locale to the one of the test data
-		conf.set("hadoopoffice.read.locale.bcp47", "de");
-		// you just need to provide the password to read encrypted data
-		conf.set("hadoopoffice.read.security.crypt.password", "test");
-		ExcelFileInputFormat inputFormat = new ExcelFileInputFormat();
-		FileInputFormat.setInputPaths(job, inputFile);
-		context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
-		List<InputSplit> splits = inputFormat.getSplits(job);
+		// low footprint
+		conf.set("hadoopoffice.read.lowFootprint", "true");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
 		assertEquals(1, splits.size(), "Only one split generated for Excel file");
-		RecordReader<Text, ArrayWritable> reader = inputFormat.createRecordReader(splits.get(0), context);
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
 		assertNotNull(reader, "Format returned  null RecordReader");
 		reader.initialize(splits.get(0), context);
 		Text spreadSheetKey = new Text();
 		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 (first sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("[" + fileName + ".xlsx]Sheet1!A1", spreadSheetKey.toString(),
-				"Input Split for Excel file has keyname == \"[" + fileName + ".xlsx]Sheet1!A1\"");
-		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("[excel2003testmultisheet.xls]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2003testmultisheet.xls]Sheet1!A1\"");
+		assertEquals(4, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 4 columns");
 		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
+		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
+				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
 		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
 		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		assertEquals("test4", ((SpreadSheetCellDAO) spreadSheetValue.get()[3]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 4 == \"test4\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2 (first sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(0, spreadSheetValue.get().length, "Input Split for Excel file contain row 2 and is empty");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 2 with 1 column");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 2 with cell 1 == \"4\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3 (first sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contain row 3 with 3 columns");
+		assertEquals(5, spreadSheetValue.get().length, "Input Split for Excel file contains row 3 with 5 columns");
+		assertEquals("31/12/99", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"31/12/99\"");
+		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 2 == \"5\"");
+		assertNull(spreadSheetValue.get()[2], "Input Split for Excel file contains row 3 with cell 3 == null");
+		assertNull(spreadSheetValue.get()[3], "Input Split for Excel file contains row 3 with cell 4 == null");
+		assertEquals("null", ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 5 == \"null\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 4 with 1 column");
 		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 3 with cell 1 == \"1\"");
-		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
-				"Input Split for Excel file contains row 3 with cell 2 == \"2\"");
-		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
-				"Input Split for Excel file contains row 3 with cell 3 == \"3\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
+				"Input Split for Excel file contains row 4 with cell 1 == \"1\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5 (first sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contain row 4 with 1 column");
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 5 with 3 columns");
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 1 == \"2\"");
+		assertEquals("6", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 2== \"6\"");
+		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 5 with cell 3== \"10\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6 (first sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 6 with 3 columns");
 		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 3 with cell 1 == \"3\"");
+				"Input Split for Excel file contains row 6 with cell 1 == \"3\"");
+		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 2== \"4\"");
+		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 6 with cell 3== \"15\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 7 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("8", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 7 with cell 1 == \"8\"");
+		assertEquals("99", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 7 with cell 2 == \"99\"");
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 7 with 2 columns");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 8 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 8 with 1 column");
+		assertEquals("test", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 8 with cell 1 == \"test\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 9 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 9 with 3 columns");
+		assertNull(spreadSheetValue.get()[0], "Input Split for Excel file contains row 9 with cell 1 == null");
+		assertNull(spreadSheetValue.get()[1], "Input Split for Excel file contains row 9 with cell 2 == null");
+		assertEquals("seven", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 9 with cell 3 == \"seven\"");
 	}
 
 	@Test
-	public void readExcelInputFormatExcel2003SingleSheetLowFootPrint() throws IOException, InterruptedException {
+	public void readExcelInputFormatExcel2013SingleSheetLowFootPrint() throws IOException, InterruptedException {
 		Configuration conf = new Configuration(defaultConf);
 		ClassLoader classLoader = getClass().getClassLoader();
-		String fileName = "excel2003test.xls";
+		String fileName = "excel2013test.xlsx";
 		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
 		Path file = new Path(fileNameSpreadSheet);
 		// set locale to the one of the test data
@@ -4502,8 +6208,8 @@ public class OfficeFormatHadoopExcelTest {
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("[excel2003test.xls]Sheet1!A1", spreadSheetKey.toString(),
-				"Input Split for Excel file has keyname == \"[excel2003test.xls]Sheet1!A1\"");
+		assertEquals("[excel2013test.xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013test.xlsx]Sheet1!A1\"");
 		assertEquals(4, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 4 columns");
 		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
@@ -4564,18 +6270,18 @@ public class OfficeFormatHadoopExcelTest {
 	}
 
 	@Test
-	public void readExcelInputFormatExcel2003MultiSheetAllLowFootPrint() throws IOException, InterruptedException {
+	public void readExcelInputFormatExcel2013SingleSheetLowFootPrintRawValues() throws IOException, InterruptedException {
 		Configuration conf = new Configuration(defaultConf);
 		ClassLoader classLoader = getClass().getClassLoader();
-		String fileName = "excel2003testmultisheet.xls";
+		String fileName = "excel2013test.xlsx";
 		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
 		Path file = new Path(fileNameSpreadSheet);
-
 		// set locale to the one of the test data
 		conf.set("hadoopoffice.read.locale.bcp47", "de");
-
 		// low footprint
 		conf.set("hadoopoffice.read.lowFootprint", "true");
+		// raw values
+		conf.set("hadoopoffice.read.rawvalues", "true");
 		Job job = Job.getInstance(conf);
 		FileInputFormat.setInputPaths(job, file);
 		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
@@ -4587,11 +6293,11 @@ public class OfficeFormatHadoopExcelTest {
 		reader.initialize(splits.get(0), context);
 		Text spreadSheetKey = new Text();
 		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("[excel2003testmultisheet.xls]Sheet1!A1", spreadSheetKey.toString(),
-				"Input Split for Excel file has keyname == \"[excel2003testmultisheet.xls]Sheet1!A1\"");
+		assertEquals("[excel2013test.xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013test.xlsx]Sheet1!A1\"");
 		assertEquals(4, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 4 columns");
 		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
@@ -4605,13 +6311,13 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
 		assertEquals("test4", ((SpreadSheetCellDAO) spreadSheetValue.get()[3]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 4 == \"test4\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 2 with 1 column");
 		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 2 with cell 1 == \"4\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(5, spreadSheetValue.get().length, "Input Split for Excel file contains row 3 with 5 columns");
@@ -4619,17 +6325,29 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 3 with cell 1 == \"31/12/99\"");
 		assertEquals("5", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
 				"Input Split for Excel file contains row 3 with cell 2 == \"5\"");
+		assertEquals(SpreadSheetCellDAO.RAWTYPE_NUMERIC, ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getRawType(),
+				"Input Split for Excel file contains row 3 with cell 1 of raw type numeric");
+		assertTrue(((SpreadSheetCellDAO) spreadSheetValue.get()[0]).isRawDate(),
+				"Input Split for Excel file contains row 3 with cell 1 as raw date");
+		assertEquals(SpreadSheetCellDAO.RAWTYPE_NUMERIC, ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getRawType(),
+				"Input Split for Excel file contains row 3 with cell 2 of raw type numeric");
+		assertEquals(5.0, ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getRawNumericValue(),
+				"Input Split for Excel file contains row 3 with cell 2 with raw value 5.0");
+		assertFalse(((SpreadSheetCellDAO) spreadSheetValue.get()[1]).isRawDate(),
+				"Input Split for Excel file contains row 3 with cell 2 not as raw date");
+		assertEquals(SpreadSheetCellDAO.RAWTYPE_STRING, ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getRawType(),
+				"Input Split for Excel file contains row 3 with cell 5 of raw type string");
 		assertNull(spreadSheetValue.get()[2], "Input Split for Excel file contains row 3 with cell 3 == null");
 		assertNull(spreadSheetValue.get()[3], "Input Split for Excel file contains row 3 with cell 4 == null");
 		assertEquals("null", ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getFormattedValue(),
 				"Input Split for Excel file contains row 3 with cell 5 == \"null\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 4 with 1 column");
 		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 4 with cell 1 == \"1\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 5 with 3 columns");
@@ -4639,7 +6357,7 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 5 with cell 2== \"6\"");
 		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
 				"Input Split for Excel file contains row 5 with cell 3== \"10\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6 (first sheet)");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 6 with 3 columns");
@@ -4649,39 +6367,19 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 6 with cell 2== \"4\"");
 		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
 				"Input Split for Excel file contains row 6 with cell 3== \"15\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 7 (second sheet)");
-		spreadSheetKey = reader.getCurrentKey();
-		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("8", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 7 with cell 1 == \"8\"");
-		assertEquals("99", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
-				"Input Split for Excel file contains row 7 with cell 2 == \"99\"");
-		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 7 with 2 columns");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 8 (second sheet)");
-		spreadSheetKey = reader.getCurrentKey();
-		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 8 with 1 column");
-		assertEquals("test", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 8 with cell 1 == \"test\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 9 (second sheet)");
-		spreadSheetKey = reader.getCurrentKey();
-		spreadSheetValue = reader.getCurrentValue();
-		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 9 with 3 columns");
-		assertNull(spreadSheetValue.get()[0], "Input Split for Excel file contains row 9 with cell 1 == null");
-		assertNull(spreadSheetValue.get()[1], "Input Split for Excel file contains row 9 with cell 2 == null");
-		assertEquals("seven", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
-				"Input Split for Excel file contains row 9 with cell 3 == \"seven\"");
 	}
 
 	@Test
-	public void readExcelInputFormatExcel2013SingleSheetLowFootPrint() throws IOException, InterruptedException {
+	public void readExcelInputFormatExcel2013MultiSheetAllLowFootPrint() throws IOException, InterruptedException {
 		Configuration conf = new Configuration(defaultConf);
 		ClassLoader classLoader = getClass().getClassLoader();
-		String fileName = "excel2013test.xlsx";
+		String fileName = "excel2013testmultisheet.xlsx";
 		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
 		Path file = new Path(fileNameSpreadSheet);
+
 		// set locale to the one of the test data
 		conf.set("hadoopoffice.read.locale.bcp47", "de");
+
 		// low footprint
 		conf.set("hadoopoffice.read.lowFootprint", "true");
 		Job job = Job.getInstance(conf);
@@ -4695,11 +6393,11 @@ public class OfficeFormatHadoopExcelTest {
 		reader.initialize(splits.get(0), context);
 		Text spreadSheetKey = new Text();
 		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 (first sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
-		assertEquals("[excel2013test.xlsx]Sheet1!A1", spreadSheetKey.toString(),
-				"Input Split for Excel file has keyname == \"[excel2013test.xlsx]Sheet1!A1\"");
+		assertEquals("[excel2013testmultisheet.xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013testmultisheet.xlsx]Sheet1!A1\"");
 		assertEquals(4, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 4 columns");
 		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
@@ -4713,13 +6411,13 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
 		assertEquals("test4", ((SpreadSheetCellDAO) spreadSheetValue.get()[3]).getFormattedValue(),
 				"Input Split for Excel file contains row 1 with cell 4 == \"test4\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2 (first sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 2 with 1 column");
 		assertEquals("4", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 2 with cell 1 == \"4\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3 (first sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(5, spreadSheetValue.get().length, "Input Split for Excel file contains row 3 with 5 columns");
@@ -4731,13 +6429,13 @@ public class OfficeFormatHadoopExcelTest {
 		assertNull(spreadSheetValue.get()[3], "Input Split for Excel file contains row 3 with cell 4 == null");
 		assertEquals("null", ((SpreadSheetCellDAO) spreadSheetValue.get()[4]).getFormattedValue(),
 				"Input Split for Excel file contains row 3 with cell 5 == \"null\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4 (first sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 4 with 1 column");
 		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
 				"Input Split for Excel file contains row 4 with cell 1 == \"1\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 5 (first sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 5 with 3 columns");
@@ -4747,7 +6445,7 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 5 with cell 2== \"6\"");
 		assertEquals("10", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
 				"Input Split for Excel file contains row 5 with cell 3== \"10\"");
-		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 6 (first sheet)");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 6 with 3 columns");
@@ -4757,10 +6455,32 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 6 with cell 2== \"4\"");
 		assertEquals("15", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
 				"Input Split for Excel file contains row 6 with cell 3== \"15\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 7 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("8", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 7 with cell 1 == \"8\"");
+		assertEquals("99", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 7 with cell 2 == \"99\"");
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 7 with 2 columns");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 8 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contains row 8 with 1 column");
+		assertEquals("test", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 8 with cell 1 == \"test\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 9 (second sheet)");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 9 with 3 columns");
+		assertNull(spreadSheetValue.get()[0], "Input Split for Excel file contains row 9 with cell 1 == null");
+		assertNull(spreadSheetValue.get()[1], "Input Split for Excel file contains row 9 with cell 2 == null");
+		assertEquals("seven", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 9 with cell 3 == \"seven\"");
 	}
 
 	@Test
-	public void readExcelInputFormatExcel2013MultiSheetAllLowFootPrint() throws IOException, InterruptedException {
+	public void readExcelInputFormatExcel2013MultiSheetAllLowFootPrintParallelSheets() throws IOException, InterruptedException {
 		Configuration conf = new Configuration(defaultConf);
 		ClassLoader classLoader = getClass().getClassLoader();
 		String fileName = "excel2013testmultisheet.xlsx";
@@ -4772,6 +6492,8 @@ public class OfficeFormatHadoopExcelTest {
 
 		// low footprint
 		conf.set("hadoopoffice.read.lowFootprint", "true");
+		// decode sheets in parallel
+		conf.set("hadoopoffice.read.lowFootprint.parser.threads", "2");
 		Job job = Job.getInstance(conf);
 		FileInputFormat.setInputPaths(job, file);
 		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
@@ -5011,6 +6733,98 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
 	}
 
+	@Test
+	public void readExcelInputFormatExcel2013SingleSheetEncryptedPositiveLowFootprintSpillTempFile()
+			throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2013encrypt.xlsx";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// low footprint
+		conf.set("hadoopoffice.read.lowFootprint", "true");
+		// keep decrypted document in a temporary file
+		conf.set("hadoopoffice.read.lowFootprint.decrypt.spill", "tempfile");
+		// for decryption simply set the password
+		conf.set("hadoopoffice.read.security.crypt.password", "test");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[excel2013encrypt.xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013encrypt.xlsx]Sheet1!A1\"");
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
+		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
+				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+	}
+
+	@Test
+	public void readExcelInputFormatExcel2013SingleSheetEncryptedPositiveLowFootprintSpillEncryptedTempFile()
+			throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2013encrypt.xlsx";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		// low footprint
+		conf.set("hadoopoffice.read.lowFootprint", "true");
+		// keep decrypted document in an encrypted temporary file
+		conf.set("hadoopoffice.read.lowFootprint.decrypt.spill", "encryptedtempfile");
+		// for decryption simply set the password
+		conf.set("hadoopoffice.read.security.crypt.password", "test");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelFileInputFormat format = new ExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[excel2013encrypt.xlsx]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[excel2013encrypt.xlsx]Sheet1!A1\"");
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("Sheet1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getSheetName(),
+				"Input Split for Excel file contains row 1 with cell 1 sheetname == \"Sheet1\"");
+		assertEquals("A1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getAddress(),
+				"Input Split for Excel file contains row 1 with cell 1 address == \"A1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+	}
+
 	@Test
 	public void readExcelInputFormatExcel2003EmptyRowsLowFootprint() throws IOException, InterruptedException {
 		Configuration conf = new Configuration(defaultConf);
@@ -5474,7 +7288,116 @@ public class OfficeFormatHadoopExcelTest {
 	}
 
 	@Test
-	public void writeExcelOutputFormatExcel2003SingleSheetEncryptedPositiveLowFootprint()
+	public void writeExcelOutputFormatExcel2003SingleSheetEncryptedPositiveLowFootprint()
+			throws IOException, InterruptedException {
+		// one row string and three columns ("test1","test2","test3")
+		// (String formattedValue, String comment, String formula, String address,String
+		// sheetName)
+		SpreadSheetCellDAO a1 = new SpreadSheetCellDAO("test1", "", "", "A1", "Sheet1");
+		SpreadSheetCellDAO b1 = new SpreadSheetCellDAO("test2", "", "", "B1", "Sheet1");
+		SpreadSheetCellDAO c1 = new SpreadSheetCellDAO("test3", "", "", "C1", "Sheet1");
+		// empty row => nothing todo
+		// one row numbers (1,2,3)
+		SpreadSheetCellDAO a3 = new SpreadSheetCellDAO("", "", "1", "A3", "Sheet1");
+		SpreadSheetCellDAO b3 = new SpreadSheetCellDAO("", "", "2", "B3", "Sheet1");
+		SpreadSheetCellDAO c3 = new SpreadSheetCellDAO("", "", "3", "C3", "Sheet1");
+		// one row formulas (=A3+B3)
+		SpreadSheetCellDAO a4 = new SpreadSheetCellDAO("", "", "A3+B3", "A4", "Sheet1");
+		// write
+		Job job = Job.getInstance();
+		Configuration conf = job.getConfiguration();
+		String fileName = "excel2003singlesheettestoutencryptedpositivelowfootprint";
+		String tmpDir = tmpPath.toString();
+		Path outputPath = new Path(tmpDir);
+		conf.set("mapreduce.output.basename", fileName);
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+
+		// low footprint
+		conf.set("hadoopoffice.write.lowFootprint", "true");
+		conf.set("hadoopoffice.write.mimeType", "application/vnd.ms-excel"); // old excel format
+		// security
+		// for the old Excel format you simply need to define only a password
+		conf.set("hadoopoffice.write.security.crypt.password", "test");
+		conf.set(MRJobConfig.TASK_ATTEMPT_ID, attempt);
+		conf.setInt(MRJobConfig.APPLICATION_ATTEMPT_ID, 0);
+		conf.setInt(FileOutputCommitter.FILEOUTPUTCOMMITTER_ALGORITHM_VERSION, 1);
+		FileOutputFormat.setOutputPath(job, outputPath);
+		JobContext jContext = new JobContextImpl(conf, taskID.getJobID());
+
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, taskID);
+		FileOutputCommitter committer = new FileOutputCommitter(outputPath, context);
+		// setup
+		committer.setupJob(jContext);
+		committer.setupTask(context);
+		ExcelFileOutputFormat outputFormat = new ExcelFileOutputFormat();
+		RecordWriter<NullWritable, SpreadSheetCellDAO> writer = outputFormat.getRecordWriter(context);
+		assertNotNull(writer, "Format returned  null RecordWriter");
+		writer.write(null, a1);
+		writer.write(null, b1);
+		writer.write(null, c1);
+		writer.write(null, a3);
+		writer.write(null, b3);
+		writer.write(null, c3);
+		writer.write(null, a4);
+		writer.close(context);
+		committer.commitTask(context);
+		// try to read it again
+		conf = new Configuration(defaultConf);
+		job = Job.getInstance(conf);
+		fileName = fileName + this.outputbaseAppendix;
+		Path inputFile = new Path(tmpDir + File.separator + "_temporary" + File.separator + "0" + File.separator
+				+ taskAttempt + File.separator + fileName + ".xls");
+		FileInputFormat.setInputPaths(job, inputFile);
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		conf.set("hadoopoffice.read.security.crypt.password", "test");
+		ExcelFileInputFormat inputFormat = new ExcelFileInputFormat();
+		FileInputFormat.setInputPaths(job, inputFile);
+		context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		List<InputSplit> splits = inputFormat.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = inputFormat.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		Text spreadSheetKey = new Text();
+		ArrayWritable spreadSheetValue = new ArrayWritable(SpreadSheetCellDAO.class);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals("[" + fileName + ".xls]Sheet1!A1", spreadSheetKey.toString(),
+				"Input Split for Excel file has keyname == \"[" + fileName + ".xls]Sheet1!A1\"");
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 3 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 3 == \"test3\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(0, spreadSheetValue.get().length, "Input Split for Excel file contain row 2 and is empty");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contain row 3 with 3 columns");
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"1\"");
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 2 == \"2\"");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 3 == \"3\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
+		spreadSheetKey = reader.getCurrentKey();
+		spreadSheetValue = reader.getCurrentValue();
+		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contain row 4 with 1 column");
+		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"3\"");
+	}
+
+	@Test
+	public void writeExcelOutputFormatExcel2003SingleSheetReadLowFootprint()
 			throws IOException, InterruptedException {
 		// one row string and three columns ("test1","test2","test3")
 		// (String formattedValue, String comment, String formula, String address,String
@@ -5492,19 +7415,14 @@ public class OfficeFormatHadoopExcelTest {
 		// write
 		Job job = Job.getInstance();
 		Configuration conf = job.getConfiguration();
-		String fileName = "excel2003singlesheettestoutencryptedpositivelowfootprint";
+		String fileName = "excel2003singlesheettestoutreadlowfootprint";
 		String tmpDir = tmpPath.toString();
 		Path outputPath = new Path(tmpDir);
 		conf.set("mapreduce.output.basename", fileName);
 		// set locale to the one of the test data
 		conf.set("hadoopoffice.read.locale.bcp47", "de");
 
-		// low footprint
-		conf.set("hadoopoffice.write.lowFootprint", "true");
 		conf.set("hadoopoffice.write.mimeType", "application/vnd.ms-excel"); // old excel format
-		// security
-		// for the old Excel format you simply need to define only a password
-		conf.set("hadoopoffice.write.security.crypt.password", "test");
 		conf.set(MRJobConfig.TASK_ATTEMPT_ID, attempt);
 		conf.setInt(MRJobConfig.APPLICATION_ATTEMPT_ID, 0);
 		conf.setInt(FileOutputCommitter.FILEOUTPUTCOMMITTER_ALGORITHM_VERSION, 1);
@@ -5537,7 +7455,8 @@ public class OfficeFormatHadoopExcelTest {
 		FileInputFormat.setInputPaths(job, inputFile);
 		// set locale to the one of the test data
 		conf.set("hadoopoffice.read.locale.bcp47", "de");
-		conf.set("hadoopoffice.read.security.crypt.password", "test");
+		// low footprint reading of numbers and formulas with builtin formats
+		conf.set("hadoopoffice.read.lowFootprint", "true");
 		ExcelFileInputFormat inputFormat = new ExcelFileInputFormat();
 		FileInputFormat.setInputPaths(job, inputFile);
 		context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
@@ -5568,18 +7487,89 @@ public class OfficeFormatHadoopExcelTest {
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(3, spreadSheetValue.get().length, "Input Split for Excel file contain row 3 with 3 columns");
-		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 3 with cell 1 == \"1\"");
-		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
-				"Input Split for Excel file contains row 3 with cell 2 == \"2\"");
-		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[2]).getFormattedValue(),
-				"Input Split for Excel file contains row 3 with cell 3 == \"3\"");
+		// the writer does not store the results of formulas, which are read by the low footprint parser
+		assertEquals("1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(),
+				"Input Split for Excel file contains row 3 with cell 1 with formula \"1\"");
+		assertEquals("2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormula(),
+				"Input Split for Excel file contains row 3 with cell 2 with formula \"2\"");
 		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 4");
 		spreadSheetKey = reader.getCurrentKey();
 		spreadSheetValue = reader.getCurrentValue();
 		assertEquals(1, spreadSheetValue.get().length, "Input Split for Excel file contain row 4 with 1 column");
-		assertEquals("3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
-				"Input Split for Excel file contains row 3 with cell 1 == \"3\"");
+		assertEquals("A3+B3", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormula(),
+				"Input Split for Excel file contains row 4 with cell 1 with formula \"A3+B3\"");
+	}
+
+	@Test
+	public void writeExcelOutputFormatExcel2013SingleSheetMetrics() throws IOException, InterruptedException {
+		// (String formattedValue, String comment, String formula, String address,String
+		// sheetName)
+		SpreadSheetCellDAO a1 = new SpreadSheetCellDAO("test1", "", "", "A1", "Sheet1");
+		SpreadSheetCellDAO b1 = new SpreadSheetCellDAO("test2", "", "", "B1", "Sheet1");
+		SpreadSheetCellDAO c1 = new SpreadSheetCellDAO("test1", "", "", "C1", "Sheet1");
+		// empty row
+		SpreadSheetCellDAO a3 = new SpreadSheetCellDAO("", "", "1", "A3", "Sheet1");
+		SpreadSheetCellDAO b3 = new SpreadSheetCellDAO("", "", "A3+1", "B3", "Sheet1");
+		// write
+		Job job = Job.getInstance();
+		Configuration conf = job.getConfiguration();
+		String fileName = "excel2013singlesheettestoutmetrics";
+		String tmpDir = tmpPath.toString();
+		Path outputPath = new Path(tmpDir);
+		conf.set("mapreduce.output.basename", fileName);
+		conf.set("hadoopoffice.write.mimeType", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"); // new excel format
+		conf.set(MRJobConfig.TASK_ATTEMPT_ID, attempt);
+		conf.setInt(MRJobConfig.APPLICATION_ATTEMPT_ID, 0);
+		conf.setInt(FileOutputCommitter.FILEOUTPUTCOMMITTER_ALGORITHM_VERSION, 1);
+		FileOutputFormat.setOutputPath(job, outputPath);
+		JobContext jContext = new JobContextImpl(conf, taskID.getJobID());
+		CountersStatusReporter writeReporter = new CountersStatusReporter();
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, taskID, writeReporter);
+		FileOutputCommitter committer = new FileOutputCommitter(outputPath, context);
+		// setup
+		committer.setupJob(jContext);
+		committer.setupTask(context);
+		ExcelFileOutputFormat outputFormat = new ExcelFileOutputFormat();
+		RecordWriter<NullWritable, SpreadSheetCellDAO> writer = outputFormat.getRecordWriter(context);
+		assertNotNull(writer, "Format returned  null RecordWriter");
+		writer.write(null, a1);
+		writer.write(null, b1);
+		writer.write(null, c1);
+		writer.write(null, a3);
+		writer.write(null, b3);
+		writer.close(context);
+		committer.commitTask(context);
+		fileName = fileName + this.outputbaseAppendix;
+		Path inputFile = new Path(tmpDir + File.separator + "_temporary" + File.separator + "0" + File.separator
+				+ taskAttempt + File.separator + fileName + ".xlsx");
+		long fileLength = localFs.getFileStatus(inputFile).getLen();
+		assertEquals(5, writeReporter.getCounter(OfficeMetrics.GROUP, OfficeMetrics.CELLS_WRITTEN).getValue(), "5 cells written");
+		assertEquals(fileLength, writeReporter.getCounter(OfficeMetrics.GROUP, OfficeMetrics.BYTES_WRITTEN).getValue(), "Bytes written == length of file");
+		// try to read it again
+		conf = new Configuration(defaultConf);
+		job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, inputFile);
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		ExcelFileInputFormat inputFormat = new ExcelFileInputFormat();
+		CountersStatusReporter readReporter = new CountersStatusReporter();
+		context = new TaskAttemptContextImpl(conf, new TaskAttemptID(), readReporter);
+		List<InputSplit> splits = inputFormat.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = inputFormat.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		int rows = 0;
+		while (reader.nextKeyValue()) {
+			rows++;
+		}
+		assertEquals(3, rows, "Input Split for Excel file contains 3 rows");
+		reader.close();
+		assertEquals(3, readReporter.getCounter(OfficeMetrics.GROUP, OfficeMetrics.ROWS).getValue(), "3 rows read");
+		assertEquals(1, readReporter.getCounter(OfficeMetrics.GROUP, OfficeMetrics.EMPTY_ROWS).getValue(), "1 empty row read");
+		assertEquals(5, readReporter.getCounter(OfficeMetrics.GROUP, OfficeMetrics.CELLS).getValue(), "5 cells read");
+		assertEquals(2, readReporter.getCounter(OfficeMetrics.GROUP, OfficeMetrics.SHARED_STRINGS).getValue(), "2 unique strings");
+		assertEquals(2, readReporter.getCounter(OfficeMetrics.GROUP, OfficeMetrics.FORMULA_EVALUATIONS).getValue(), "2 formulas evaluated");
+		assertEquals(fileLength, readReporter.getCounter(OfficeMetrics.GROUP, OfficeMetrics.BYTES_READ).getValue(), "Bytes read == length of file");
 	}
 
 	@Test
@@ -6477,6 +8467,101 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 3 with cell 1 == \"3\"");
 	}
 
+	@Test
+	public void writeExcelOutputFormatExcel2013SingleSheetEncryptedPositiveLowFootprintSignedPositiveSpillEncryptedTempFile()
+			throws IOException, InterruptedException {
+		SpreadSheetCellDAO a1 = new SpreadSheetCellDAO("test1", "", "", "A1", "Sheet1");
+		SpreadSheetCellDAO b1 = new SpreadSheetCellDAO("test2", "", "", "B1", "Sheet1");
+		SpreadSheetCellDAO a2 = new SpreadSheetCellDAO("1", "", "", "A2", "Sheet1");
+		SpreadSheetCellDAO a3 = new SpreadSheetCellDAO("2", "", "", "A3", "Sheet1");
+		SpreadSheetCellDAO a1s2 = new SpreadSheetCellDAO("test3", "", "", "A1", "Sheet2");
+		// write
+		Job job = Job.getInstance();
+		Configuration conf = job.getConfiguration();
+
+		String fileName = "excel2013singlesheettestoutencryptedpositivelowfootprintsignedpositivespillencryptedtempfile";
+		String tmpDir = tmpPath.toString();
+		Path outputPath = new Path(tmpDir);
+		conf.set("mapreduce.output.basename", fileName);
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		conf.set("hadoopoffice.write.lowFootprint", "true");
+		conf.set("hadoopoffice.write.mimeType", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+		conf.set("hadoopoffice.write.security.crypt.encrypt.mode", "agile");
+		conf.set("hadoopoffice.write.security.crypt.encrypt.algorithm", "aes256");
+		conf.set("hadoopoffice.write.security.crypt.chain.mode", "cbc");
+		conf.set("hadoopoffice.write.security.crypt.hash.algorithm", "sha512");
+		conf.set("hadoopoffice.write.security.crypt.password", "test");
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileNameKeyStore = classLoader.getResource("testsigning.pfx").getFile();
+		conf.set("hadoopoffice.write.security.sign.keystore.file", fileNameKeyStore);
+		conf.set("hadoopoffice.write.security.sign.keystore.type", "PKCS12");
+		conf.set("hadoopoffice.write.security.sign.keystore.password", "changeit");
+		conf.set("hadoopoffice.write.security.sign.keystore.alias", "testalias");
+		conf.set("hadoopoffice.write.security.sign.hash.algorithm", "sha512");
+		conf.set(MRJobConfig.TASK_ATTEMPT_ID, attempt);
+		conf.setInt(MRJobConfig.APPLICATION_ATTEMPT_ID, 0);
+		conf.setInt(FileOutputCommitter.FILEOUTPUTCOMMITTER_ALGORITHM_VERSION, 1);
+		FileOutputFormat.setOutputPath(job, outputPath);
+		JobContext jContext = new JobContextImpl(conf, taskID.getJobID());
+
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, taskID);
+		FileOutputCommitter committer = new FileOutputCommitter(outputPath, context);
+		// setup
+		committer.setupJob(jContext);
+		committer.setupTask(context);
+		ExcelFileOutputFormat outputFormat = new ExcelFileOutputFormat();
+		RecordWriter<NullWritable, SpreadSheetCellDAO> writer = outputFormat.getRecordWriter(context);
+		assertNotNull(writer, "Format returned  null RecordWriter");
+		writer.write(null, a1);
+		writer.write(null, b1);
+		writer.write(null, a2);
+		writer.write(null, a3);
+		writer.write(null, a1s2);
+		writer.close(context);
+		committer.commitTask(context);
+		// read it again in low footprint mode with the decrypted document spilled to an encrypted temporary file
+		conf = new Configuration(defaultConf);
+		job = Job.getInstance(conf);
+		fileName = fileName + this.outputbaseAppendix;
+		Path inputFile = new Path(tmpDir + File.separator + "_temporary" + File.separator + "0" + File.separator
+				+ taskAttempt + File.separator + fileName + ".xlsx");
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		conf.set("hadoopoffice.read.lowFootprint", "true");
+		conf.set("hadoopoffice.read.lowFootprint.decrypt.spill", "encryptedtempfile");
+		conf.set("hadoopoffice.read.security.crypt.password", "test");
+		conf.set("hadoopoffice.read.security.sign.verifysignature", "true");
+		// the signature must not be validated concurrently to parsing the encrypted temporary file
+		conf.set("hadoopoffice.read.security.sign.verifysignature.threads", "4");
+		ExcelFileInputFormat inputFormat = new ExcelFileInputFormat();
+		FileInputFormat.setInputPaths(job, inputFile);
+		context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		List<InputSplit> splits = inputFormat.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, ArrayWritable> reader = inputFormat.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1");
+		ArrayWritable spreadSheetValue = reader.getCurrentValue();
+		assertEquals(2, spreadSheetValue.get().length, "Input Split for Excel file contains row 1 with 2 columns");
+		assertEquals("test1", ((SpreadSheetCellDAO) spreadSheetValue.get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 1 == \"test1\"");
+		assertEquals("test2", ((SpreadSheetCellDAO) spreadSheetValue.get()[1]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 with cell 2 == \"test2\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 2");
+		assertEquals("1", ((SpreadSheetCellDAO) reader.getCurrentValue().get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 2 with cell 1 == \"1\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 3");
+		assertEquals("2", ((SpreadSheetCellDAO) reader.getCurrentValue().get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 3 with cell 1 == \"2\"");
+		assertTrue(reader.nextKeyValue(), "Input Split for Excel file contains row 1 of Sheet2");
+		assertEquals("[" + fileName + ".xlsx]Sheet2!A1", reader.getCurrentKey().toString(),
+				"Input Split for Excel file has keyname == \"[" + fileName + ".xlsx]Sheet2!A1\"");
+		assertEquals("test3", ((SpreadSheetCellDAO) reader.getCurrentValue().get()[0]).getFormattedValue(),
+				"Input Split for Excel file contains row 1 of Sheet2 with cell 1 == \"test3\"");
+		assertFalse(reader.nextKeyValue(), "Input Split for Excel file contains no further rows");
+		reader.close();
+	}
+
 	@Test
 	public void writeExcelOutputFormatExcel2013SingleSheetEncryptedPositiveLowFootprintSignedNegative()
 			throws IOException, InterruptedException {
@@ -7060,4 +9145,242 @@ public class OfficeFormatHadoopExcelTest {
 				"Input Split for Excel file contains row 1 with cell 3 == \"test5\"");
 	}
 
+	@Test
+	public void readExcelMetadataInputFormatExcel2013MultiSheet() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2013testmultisheet.xlsx";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelMetadataFileInputFormat format = new ExcelMetadataFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, MapWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		assertTrue(reader.nextKeyValue(), "Metadata of Excel file is returned");
+		assertTrue(reader.getCurrentKey().toString().endsWith(fileName), "Key is the path of the Excel file");
+		MapWritable metadata = reader.getCurrentValue();
+		assertEquals(new Text("user1 "), metadata.get(new Text("creator")), "Creator is \"user1 \"");
+		assertEquals(new Text("Sheet1:testsheet"), metadata.get(new Text("sheets")), "Sheets are \"Sheet1:testsheet\"");
+		assertEquals(new Text("A1:E6"), metadata.get(new Text("sheet.Sheet1")), "Sheet1 has dimension A1:E6");
+		assertEquals(new Text("A1:C3"), metadata.get(new Text("sheet.testsheet")), "testsheet has dimension A1:C3");
+		assertFalse(reader.nextKeyValue(), "Only one record per Excel file");
+		reader.close();
+	}
+
+	@Test
+	public void readExcelMetadataInputFormatExcel2003MultiSheet() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2003testmultisheet.xls";
+		String fileNameSpreadSheet = classLoader.getResource(fileName).getFile();
+		Path file = new Path(fileNameSpreadSheet);
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelMetadataFileInputFormat format = new ExcelMetadataFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for Excel file");
+		RecordReader<Text, MapWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		assertTrue(reader.nextKeyValue(), "Metadata of Excel file is returned");
+		MapWritable metadata = reader.getCurrentValue();
+		assertEquals(new Text("user1 "), metadata.get(new Text("author")), "Author is \"user1 \"");
+		assertEquals(new Text("Sheet1:testsheet"), metadata.get(new Text("sheets")), "Sheets are \"Sheet1:testsheet\"");
+		assertEquals(new Text("A1:E6"), metadata.get(new Text("sheet.Sheet1")), "Sheet1 has dimension A1:E6");
+		assertEquals(new Text("A1:C3"), metadata.get(new Text("sheet.testsheet")), "testsheet has dimension A1:C3");
+		assertFalse(reader.nextKeyValue(), "Only one record per Excel file");
+		reader.close();
+	}
+
+	@Test
+	public void readCombineExcelInputFormatExcel2003And2013() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		Path file2003 = new Path(classLoader.getResource("excel2003test.xls").getFile());
+		Path file2013 = new Path(classLoader.getResource("excel2013test.xlsx").getFile());
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file2003, file2013);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		CombineExcelFileInputFormat format = new CombineExcelFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split generated for both Excel files");
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(splits.get(0), context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(splits.get(0), context);
+		int rows2003 = 0;
+		int rows2013 = 0;
+		while (reader.nextKeyValue()) {
+			String key = reader.getCurrentKey().toString();
+			if (key.startsWith("[excel2003test.xls]")) {
+				rows2003++;
+			} else if (key.startsWith("[excel2013test.xlsx]")) {
+				rows2013++;
+			}
+			if (key.endsWith("Sheet1!A1")) {
+				assertEquals("test1", ((SpreadSheetCellDAO) reader.getCurrentValue().get()[0]).getFormattedValue(),
+						"Row 1 of " + key + " contains cell 1 == \"test1\"");
+			}
+		}
+		assertEquals(6, rows2003, "Excel 2003 file contains 6 rows");
+		assertEquals(6, rows2013, "Excel 2013 file contains 6 rows");
+		assertEquals(1.0f, reader.getProgress(), "Complete split has been read");
+		reader.close();
+	}
+
+	@Test
+	public void readExcelSheetInputFormatExcel2003MultiSheet() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		String fileName = "excel2003testmultisheet.xls";
+		Path file = new Path(classLoader.getResource(fileName).getFile());
+		// set locale to the one of the test data
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		ExcelSheetFileInputFormat format = new ExcelSheetFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(2, splits.size(), "One split for each sheet");
+		String[] sheetNames = { "Sheet1", "testsheet" };
+		int[] expectedRows = { 6, 3 };
+		for (int i = 0; i < splits.size(); i++) {
+			ExcelSheetFileSplit split = (ExcelSheetFileSplit) splits.get(i);
+			assertEquals(sheetNames[i], split.getSheetName(), "Split " + i + " reads sheet " + sheetNames[i]);
+			RecordReader<Text, ArrayWritable> reader = format.createRecordReader(split, context);
+			assertNotNull(reader, "Format returned  null RecordReader");
+			reader.initialize(split, context);
+			int rows = 0;
+			while (reader.nextKeyValue()) {
+				assertTrue(reader.getCurrentKey().toString().startsWith("[" + fileName + "]" + sheetNames[i] + "!"),
+						"Row of split " + i + " belongs to sheet " + sheetNames[i]);
+				rows++;
+			}
+			assertEquals(expectedRows[i], rows, "Sheet " + sheetNames[i] + " contains " + expectedRows[i] + " rows");
+			reader.close();
+		}
+	}
+
+	@Test
+	public void readExcelSheetInputFormatHeaderSameRowsAsExcelFileInputFormat() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		conf.set("hadoopoffice.read.locale.bcp47", "us");
+		conf.set("hadoopoffice.read.header.read", "true");
+		this.assertSheetSplitsSameRows("multisheetheader.xlsx", conf);
+		conf.set("hadoopoffice.read.header.skipheaderinallsheets", "true");
+		this.assertSheetSplitsSameRows("multisheetheader.xlsx", conf);
+	}
+
+	@Test
+	public void readExcelSheetInputFormatSkipLinesSameRowsAsExcelFileInputFormat() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		conf.set("hadoopoffice.read.locale.bcp47", "us");
+		conf.set("hadoopoffice.read.sheet.skiplines.num", "2");
+		this.assertSheetSplitsSameRows("skipsheet.xlsx", conf);
+		conf.set("hadoopoffice.read.sheet.skiplines.allsheets", "true");
+		this.assertSheetSplitsSameRows("skipsheet.xlsx", conf);
+	}
+
+	/**
+	 * Reads a multi-sheet file with ExcelSheetFileInputFormat and ExcelFileInputFormat and checks that all splits together return the same rows
+	 */
+	private void assertSheetSplitsSameRows(String fileName, Configuration conf) throws IOException, InterruptedException {
+		ClassLoader classLoader = getClass().getClassLoader();
+		Path file = new Path(classLoader.getResource(fileName).getFile());
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		List<String> expectedKeys = new ArrayList<>();
+		ExcelFileInputFormat fileFormat = new ExcelFileInputFormat();
+		for (InputSplit split : fileFormat.getSplits(job)) {
+			this.readKeys(fileFormat, split, context, expectedKeys);
+		}
+		List<String> keys = new ArrayList<>();
+		ExcelSheetFileInputFormat sheetFormat = new ExcelSheetFileInputFormat();
+		List<InputSplit> splits = sheetFormat.getSplits(job);
+		assertTrue(splits.size() > 1, "One split for each sheet");
+		for (InputSplit split : splits) {
+			this.readKeys(sheetFormat, split, context, keys);
+		}
+		assertEquals(expectedKeys.size(), keys.size(), "Sheet splits contain the same number of rows as the file");
+		assertEquals(expectedKeys, keys, "Sheet splits contain the same rows as the file");
+	}
+
+	private void readKeys(ExcelFileInputFormat format, InputSplit split, TaskAttemptContext context, List<String> keys) throws IOException, InterruptedException {
+		RecordReader<Text, ArrayWritable> reader = format.createRecordReader(split, context);
+		assertNotNull(reader, "Format returned  null RecordReader");
+		reader.initialize(split, context);
+		while (reader.nextKeyValue()) {
+			keys.add(reader.getCurrentKey().toString());
+		}
+		reader.close();
+	}
+
+	@Test
+	public void readExcelSheetInputFormatProbeKeepsConfiguration() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		Path file = new Path(classLoader.getResource("excel2003testmultisheet.xls").getFile());
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		conf.unset("hadoopoffice.read.mimeType");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		ExcelSheetFileInputFormat format = new ExcelSheetFileInputFormat();
+		assertEquals(2, format.getSplits(job).size(), "One split for each sheet");
+		assertNull(job.getConfiguration().get("hadoopoffice.read.mimeType"), "Mime type is not set in the configuration of the job");
+	}
+
+	@Test
+	public void readExcelSheetInputFormatExcel2003SelectedSheet() throws IOException, InterruptedException {
+		Configuration conf = new Configuration(defaultConf);
+		ClassLoader classLoader = getClass().getClassLoader();
+		Path file = new Path(classLoader.getResource("excel2003testmultisheet.xls").getFile());
+		conf.set("hadoopoffice.read.locale.bcp47", "de");
+		conf.set("hadoopoffice.read.sheets", "testsheet");
+		Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, file);
+		ExcelSheetFileInputFormat format = new ExcelSheetFileInputFormat();
+		List<InputSplit> splits = format.getSplits(job);
+		assertEquals(1, splits.size(), "Only one split for the only selected sheet");
+		assertFalse(splits.get(0) instanceof ExcelSheetFileSplit, "File with one selected sheet is read as a whole");
+	}
+
+	/**
+	 * Collects the counters of a task
+	 *
+	 */
+	private static class CountersStatusReporter extends StatusReporter {
+		private final Counters counters = new Counters();
+
+		@Override
+		public Counter getCounter(Enum<?> name) {
+			return this.counters.findCounter(name);
+		}
+
+		@Override
+		public Counter getCounter(String group, String name) {
+			return this.counters.findCounter(group, name);
+		}
+
+		@Override
+		public void progress() {
+		}
+
+		@Override
+		public float getProgress() {
+			return 0;
+		}
+
+		@Override
+		public void setStatus(String status) {
+		}
+	}
+
 }
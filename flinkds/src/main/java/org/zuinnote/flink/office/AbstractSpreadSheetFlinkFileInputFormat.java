@@ -22,7 +22,10 @@ import java.security.NoSuchAlgorithmException;
 import java.security.UnrecoverableEntryException;
 import java.security.cert.CertificateException;
 import java.security.spec.InvalidKeySpecException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -33,6 +36,7 @@ import org.apache.flink.core.fs.FileInputSplit;
 import org.apache.flink.core.fs.Path;
 import org.zuinnote.flink.office.common.FlinkFileReader;
 import org.zuinnote.flink.office.common.FlinkKeyStoreManager;
+import org.zuinnote.flink.office.common.FlinkOfficeMetrics;
 import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
 import org.zuinnote.hadoop.office.format.common.OfficeReader;
 import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDataType;
@@ -54,6 +58,7 @@ public abstract class AbstractSpreadSheetFlinkFileInputFormat<E> extends FileInp
 	private HadoopOfficeReadConfiguration hocr;
 	private OfficeReader officeReader = null;
 	private FlinkFileReader currentFFR;
+	private transient FlinkOfficeMetrics officeMetrics;
 
 	private String[] header;
 	private boolean reachedEnd;
@@ -84,12 +89,12 @@ public abstract class AbstractSpreadSheetFlinkFileInputFormat<E> extends FileInp
 		this.reachedEnd=false;
 		this.hocr.setFileName(split.getPath().getName());
 		try {
-			this.readKeyStore();
+			readKeyStore(this.hocr);
 		} catch (FormatNotUnderstoodException e) {
 			LOG.error("Could not read keystore. Exception: ",e);
 		}
 		 try {
-			this.readTrustStore();
+			readTrustStore(this.hocr);
 		} catch (FormatNotUnderstoodException e) {
 			LOG.error("Could not read truststore. Exception: ",e);
 		}
@@ -109,16 +114,25 @@ public abstract class AbstractSpreadSheetFlinkFileInputFormat<E> extends FileInp
 		List<String> linkedWorkbookList=this.officeReader.getCurrentParser().getLinkedWorkbooks();
 		LOG.debug(linkedWorkbookList.size());
 		this.currentFFR = new FlinkFileReader();
+		Map<String,InputStream> linkedWorkbooks = new LinkedHashMap<>();
+		Map<String,String> linkedWorkbookPasswords = new HashMap<>();
 		for (String listItem: linkedWorkbookList) {
 			LOG.info("Adding linked workbook \""+listItem+"\"");
 			String sanitizedListItem = new Path(listItem).getName();
 			// read file from hadoop file
 			Path currentFile=new Path(parentPath,sanitizedListItem);
-			InputStream currentIn=this.currentFFR.openFile(currentFile);
+			if (this.hocr.getLinkedWorkbookCacheMaxCount()>0) { // a cached parsed linked workbook can be reused if the file has not changed
+				this.hocr.getLinkedWorkbookVersions().put(listItem,this.currentFFR.getFileVersion(currentFile));
+			}
+			linkedWorkbooks.put(listItem,this.currentFFR.openFile(currentFile));
+			linkedWorkbookPasswords.put(listItem,this.hocr.getLinkedWBCredentialMap().get(sanitizedListItem));
+		}
+		// parsed concurrently, linked workbooks that could be read are added even if others fail
+		if (!linkedWorkbooks.isEmpty()) {
 			try {
-				this.officeReader.getCurrentParser().addLinkedWorkbook(listItem,currentIn,this.hocr.getLinkedWBCredentialMap().get(sanitizedListItem));
+				this.officeReader.getCurrentParser().addLinkedWorkbooks(linkedWorkbooks,linkedWorkbookPasswords);
 			} catch (FormatNotUnderstoodException e) {
-				LOG.error("Could not read linked workbook: "+listItem);
+				LOG.error("Could not read linked workbooks of file "+this.hocr.getFileName());
 				LOG.error("Exception: ",e);
 			}
 		}
@@ -148,6 +162,36 @@ public abstract class AbstractSpreadSheetFlinkFileInputFormat<E> extends FileInp
 	public boolean reachedEnd() throws IOException {
 		return this.reachedEnd;
 	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			if (this.officeReader!=null) { // gives back linked workbooks to the cache of parsed linked workbooks
+				this.reportMetrics(this.officeReader.getMetrics());
+				this.officeReader.close();
+				this.officeReader=null;
+			}
+		} finally {
+			super.close();
+		}
+	}
+
+	/**
+	 * Reports metrics of a document as Flink metrics. They are not reported if the format is not used by an operator, e.g. in tests
+	 *
+	 * @param metrics metrics of the document
+	 */
+	private void reportMetrics(Map<String,Long> metrics) {
+		if (this.officeMetrics==null) {
+			try {
+				this.officeMetrics=new FlinkOfficeMetrics(getRuntimeContext().getMetricGroup());
+			} catch (IllegalStateException e) {
+				LOG.debug("No runtime context available. Metrics are not reported");
+				return;
+			}
+		}
+		this.officeMetrics.report(metrics);
+	}
 	
 	/**
 	 * Get office reader
@@ -159,6 +203,10 @@ public abstract class AbstractSpreadSheetFlinkFileInputFormat<E> extends FileInp
 		}
 	
 	public Object[] readNextRow() {
+		if (!(this.officeReader.getFiltered())) { // document does not match metadata filter
+			this.reachedEnd=true;
+			return null;
+		}
 		Object[] nextRow = this.officeReader.getNext();
 		if (nextRow==null) {
 			this.reachedEnd=true;
@@ -170,26 +218,27 @@ public abstract class AbstractSpreadSheetFlinkFileInputFormat<E> extends FileInp
 
 	
 	/**
-	 * Reads the keystore to obtain credentials
+	 * Reads the keystore to obtain credentials. It is shared by all Flink input formats for office documents
 	 * 
+	 * @param hocr read configuration, the password of the document is set in it
 	 * @throws IOException
 	 * @throws FormatNotUnderstoodException
 	 * 
 	 */
-	private void readKeyStore() throws IOException, FormatNotUnderstoodException {
-		if ((this.hocr.getCryptKeystoreFile() != null) && (!"".equals(this.hocr.getCryptKeystoreFile()))) {
+	public static void readKeyStore(HadoopOfficeReadConfiguration hocr) throws IOException, FormatNotUnderstoodException {
+		if ((hocr.getCryptKeystoreFile() != null) && (!"".equals(hocr.getCryptKeystoreFile()))) {
 			LOG.info("Using keystore to obtain credentials instead of passwords");
 			FlinkKeyStoreManager fksm = new FlinkKeyStoreManager();
 			try {
-				fksm.openKeyStore(new Path(this.hocr.getCryptKeystoreFile()), this.hocr.getCryptKeystoreType(),
-						this.hocr.getCryptKeystorePassword());
+				fksm.openKeyStore(new Path(hocr.getCryptKeystoreFile()), hocr.getCryptKeystoreType(),
+						hocr.getCryptKeystorePassword());
 				String pw = "";
-				if ((this.hocr.getCryptKeystoreAlias() != null) && (!"".equals(this.hocr.getCryptKeystoreAlias()))) {
-					pw = fksm.getPassword(this.hocr.getCryptKeystoreAlias(), this.hocr.getCryptKeystorePassword());
+				if ((hocr.getCryptKeystoreAlias() != null) && (!"".equals(hocr.getCryptKeystoreAlias()))) {
+					pw = fksm.getPassword(hocr.getCryptKeystoreAlias(), hocr.getCryptKeystorePassword());
 				} else {
-					pw = fksm.getPassword(this.hocr.getFileName(), this.hocr.getCryptKeystorePassword());
+					pw = fksm.getPassword(hocr.getFileName(), hocr.getCryptKeystorePassword());
 				}
-				this.hocr.setPassword(pw);
+				hocr.setPassword(pw);
 			} catch (NoSuchAlgorithmException | CertificateException | KeyStoreException | IllegalArgumentException
 					| UnrecoverableEntryException | InvalidKeySpecException e) {
 				LOG.error("Exception: ",e);
@@ -203,18 +252,19 @@ public abstract class AbstractSpreadSheetFlinkFileInputFormat<E> extends FileInp
 	/***
 	 * Read truststore for establishing certificate chain for signature validation
 	 * 
-	 * @param conf
+	 * @param hocr read configuration, the certificate chain is set in it
 	 * @throws IOException
 	 * @throws FormatNotUnderstoodException
 	 */
-	private void readTrustStore() throws IOException, FormatNotUnderstoodException {
-		if (((this.hocr.getSigTruststoreFile() != null) && (!"".equals(this.hocr.getSigTruststoreFile())))) {
+	public static void readTrustStore(HadoopOfficeReadConfiguration hocr) throws IOException, FormatNotUnderstoodException {
+		if (((hocr.getSigTruststoreFile() != null) && (!"".equals(hocr.getSigTruststoreFile())))) {
 			LOG.info("Reading truststore to validate certificate chain for signatures");
 			FlinkKeyStoreManager fksm = new FlinkKeyStoreManager();
 			try {
-				fksm.openKeyStore(new Path(this.hocr.getSigTruststoreFile()), this.hocr.getSigTruststoreType(),
-						this.hocr.getSigTruststorePassword());
-				this.hocr.setX509CertificateChain(fksm.getAllX509Certificates());
+				fksm.openKeyStore(new Path(hocr.getSigTruststoreFile()), hocr.getSigTruststoreType(),
+						hocr.getSigTruststorePassword());
+				hocr.setX509CertificateChain(fksm.getAllX509Certificates());
+				hocr.setX509CertificateChainFingerprint(fksm.getAllX509CertificatesFingerprint());
 			} catch (NoSuchAlgorithmException | CertificateException | KeyStoreException | IllegalArgumentException e) {
 				LOG.error("Exception: ",e);
 				throw new FormatNotUnderstoodException(
@@ -33,6 +33,7 @@ import org.apache.flink.api.common.io.FileOutputFormat;
 import org.apache.flink.core.fs.Path;
 import org.zuinnote.flink.office.common.FlinkFileReader;
 import org.zuinnote.flink.office.common.FlinkKeyStoreManager;
+import org.zuinnote.flink.office.common.FlinkOfficeMetrics;
 import org.zuinnote.hadoop.office.format.common.HadoopOfficeWriteConfiguration;
 import org.zuinnote.hadoop.office.format.common.OfficeWriter;
 import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
@@ -54,6 +55,7 @@ public abstract class AbstractSpreadSheetFlinkFileOutputFormat<E> extends FileOu
 	private HadoopOfficeWriteConfiguration howc;
 	private OfficeWriter officeWriter;
 	private FlinkFileReader currentReader;
+	private transient FlinkOfficeMetrics officeMetrics;
 	private Map<String,InputStream> linkedWorkbooksMap;
 	private String[] header;
 	private String defaultSheetName;
@@ -79,6 +81,9 @@ public abstract class AbstractSpreadSheetFlinkFileOutputFormat<E> extends FileOu
 			LOG.error("Could not read signing key and certificate for signature. Exception: ",e);
 		}
 		   this.currentReader= new FlinkFileReader();
+		      if (this.howc.getLinkedWorkbookCacheMaxCount()>0) { // a cached parsed linked workbook can be reused if the file has not changed
+		      	this.howc.setLinkedWorkbookVersions(this.currentReader.getLinkedWorkbookVersions(this.howc.getLinkedWorkbooksName()));
+		      }
 		      this.linkedWorkbooksMap=this.currentReader.loadLinkedWorkbooks(this.howc.getLinkedWorkbooksName());
 		     // create OfficeWriter 
 		       try {
@@ -88,7 +93,7 @@ public abstract class AbstractSpreadSheetFlinkFileOutputFormat<E> extends FileOu
 			}
 		       InputStream templateInputStream=null;
 		       if ((this.howc.getTemplate()!=null) && (!"".equals(this.howc.getTemplate()))) {
-		    	   templateInputStream=this.currentReader.loadTemplate(this.howc.getTemplate());
+		    	   templateInputStream=this.currentReader.loadTemplate(this.howc.getTemplate(),this.howc.getTemplateCacheMaxSize());
 		       }
 		      try {
 				this.officeWriter.create(stream,this.linkedWorkbooksMap,this.howc.getLinkedWBCredentialMap(), templateInputStream);
@@ -125,6 +130,7 @@ public abstract class AbstractSpreadSheetFlinkFileOutputFormat<E> extends FileOu
 		try {
 			if (this.officeWriter!=null) {
 				this.officeWriter.close();
+				this.reportMetrics(this.officeWriter.getMetrics());
 			}
 		}  finally {
 			if (this.stream!=null) {
@@ -133,6 +139,23 @@ public abstract class AbstractSpreadSheetFlinkFileOutputFormat<E> extends FileOu
 			
 		}
 	}
+
+	/**
+	 * Reports metrics of a document as Flink metrics. They are not reported if the format is not used by an operator, e.g. in tests
+	 *
+	 * @param metrics metrics of the document
+	 */
+	private void reportMetrics(Map<String,Long> metrics) {
+		if (this.officeMetrics==null) {
+			try {
+				this.officeMetrics=new FlinkOfficeMetrics(getRuntimeContext().getMetricGroup());
+			} catch (IllegalStateException e) {
+				LOG.debug("No runtime context available. Metrics are not reported");
+				return;
+			}
+		}
+		this.officeMetrics.report(metrics);
+	}
 	
 	/**
 	 * 
@@ -20,8 +20,11 @@ import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.flink.core.fs.FileStatus;
 import org.apache.flink.core.fs.FileSystem;
 import org.apache.flink.core.fs.Path;
+import org.zuinnote.hadoop.office.format.common.util.FileVersion;
+import org.zuinnote.hadoop.office.format.common.util.TemplateCache;
 /**
  * @author jornfranke
  *
@@ -60,6 +63,45 @@ public Map<String,InputStream> loadLinkedWorkbooks(String[] fileNames) throws IO
 	return result;
 }
 
+/*
+* Determines the versions of linked workbooks, so that parsed linked workbooks can be reused from the cache of parsed linked workbooks
+* 
+* @param fileNames List of filenames (full URI/path) of linked workbooks
+*
+* @return a Map of filenames (without path!) with associated versions
+*
+* @throws java.io.IOException in case of issues accessing a file
+*
+*/
+
+public Map<String,FileVersion> getLinkedWorkbookVersions(String[] fileNames) throws IOException {
+	HashMap<String,FileVersion> result = new HashMap<>();
+	if (fileNames==null) {
+		return result;
+	}
+	for (String currentFile: fileNames) {
+		Path currentPath=new Path(currentFile);
+		result.put(currentPath.getName(), getFileVersion(currentPath));
+	}
+	return result;
+}
+
+/*
+* Determines the version of a file
+* 
+* @param path path to the file
+*
+* @return location, length and modification time of the file
+*
+* @throws java.io.IOException in case of issues accessing the file
+*
+*/
+public FileVersion getFileVersion(Path path) throws IOException {
+	FileSystem fs = FileSystem.get(path.toUri());
+	FileStatus status = fs.getFileStatus(path);
+	return new FileVersion(status.getPath().toString(),status.getLen(),status.getModificationTime());
+}
+
 /*
 * Loads template as InputStreams
 * 
@@ -75,6 +117,30 @@ public InputStream loadTemplate(String fileName) throws IOException {
 	return openFile(currentPath);
 }
 
+/*
+* Loads template as InputStreams. The content of the template is cached by the JVM, so that other writers do not need to read it again
+* 
+* @param fileName filename of template (full URI/path) to load
+* @param cacheMaxSize maximum total size in bytes of cached templates, 0 to disable caching
+*
+* @return InputStream of the template
+*
+* @throws java.io.IOException in case of issues loading a file
+*
+*/
+public InputStream loadTemplate(String fileName, long cacheMaxSize) throws IOException {
+	final Path currentPath=new Path(fileName);
+	if (cacheMaxSize<=0) {
+		return openFile(currentPath);
+	}
+	return TemplateCache.get(getFileVersion(currentPath), new TemplateCache.TemplateOpener() {
+		@Override
+		public InputStream open() throws IOException {
+			return openFile(currentPath);
+		}
+	}, cacheMaxSize);
+}
+
 	
 	
 
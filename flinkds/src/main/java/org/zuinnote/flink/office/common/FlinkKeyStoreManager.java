@@ -25,6 +25,7 @@ import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.UnrecoverableEntryException;
 import java.security.UnrecoverableKeyException;
+import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.security.spec.InvalidKeySpecException;
@@ -38,8 +39,11 @@ import javax.crypto.spec.PBEKeySpec;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.flink.core.fs.FileStatus;
 import org.apache.flink.core.fs.FileSystem;
 import org.apache.flink.core.fs.Path;
+import org.zuinnote.hadoop.office.format.common.util.CertificateChainVerificationUtil;
+import org.zuinnote.hadoop.office.format.common.util.KeyStoreCache;
 
 /**
  * @author jornfranke
@@ -48,11 +52,29 @@ import org.apache.flink.core.fs.Path;
 public class FlinkKeyStoreManager {
 	private static final Log LOG = LogFactory.getLog(FlinkKeyStoreManager.class.getName());
 	private KeyStore keystore;
+	private KeyStoreCache.Entry cacheEntry;
 	private FlinkFileReader ffr;
+	private long cacheTTL;
+	private Path keyStorePath;
+	private String keyStoreType;
+	private String keyStorePassword;
 	
 	
+	/**
+	 * Creates a new FlinkKeyStoreManager. Keystores loaded from files are cached JVM-wide for the default time to live (see {@link org.zuinnote.hadoop.office.format.common.util.KeyStoreCache})
+	 */
 	public FlinkKeyStoreManager() {
+		this(KeyStoreCache.DEFAULT_TTL);
+	}
+	
+	/**
+	 * Creates a new FlinkKeyStoreManager
+	 * 
+	 * @param cacheTTL time to live of keystores cached JVM-wide in milliseconds, 0 disables caching
+	 */
+	public FlinkKeyStoreManager(long cacheTTL) {
 		this.ffr= new FlinkFileReader();
+		this.cacheTTL=cacheTTL;
 	}
 
 	/****
@@ -67,15 +89,48 @@ public class FlinkKeyStoreManager {
 	 * @throws KeyStoreException
 	 */
 	public void openKeyStore(Path path, String keyStoreType, String keyStorePassword) throws IOException, NoSuchAlgorithmException, CertificateException, KeyStoreException {
-		this.keystore = KeyStore.getInstance(keyStoreType);
-		if (path!=null) {
-			InputStream keyStoreInputStream = ffr.openFile(path);
-			this.keystore.load(keyStoreInputStream, keyStorePassword.toCharArray());
-		} else {
+		this.keyStorePath = path;
+		this.keyStoreType = keyStoreType;
+		this.keyStorePassword = keyStorePassword;
+		if (path==null) {
+			this.cacheEntry = null;
+			this.keystore = KeyStore.getInstance(keyStoreType);
 			this.keystore.load(null, keyStorePassword.toCharArray());
+		} else if (this.cacheTTL<=0) {
+			this.cacheEntry = null;
+			this.keystore = this.loadKeyStore(path, keyStoreType, keyStorePassword);
+		} else {
+			FileStatus status = FileSystem.get(path.toUri()).getFileStatus(path);
+			String location = status.getPath().toString();
+			this.cacheEntry = KeyStoreCache.get(location, keyStoreType, status.getLen(), status.getModificationTime(), keyStorePassword);
+			if (this.cacheEntry==null) {
+				LOG.debug("Loading keystore \""+location+"\"");
+				this.cacheEntry = KeyStoreCache.put(location, keyStoreType, status.getLen(), status.getModificationTime(), keyStorePassword, this.loadKeyStore(path, keyStoreType, keyStorePassword), this.cacheTTL);
+			}
+			this.keystore = this.cacheEntry.getKeyStore();
 		}
 	}
 	
+	/**
+	 * Loads a keystore from a file
+	 * 
+	 * @param path
+	 * @param keyStoreType
+	 * @param keyStorePassword
+	 * @return loaded keystore
+	 * @throws IOException
+	 * @throws NoSuchAlgorithmException
+	 * @throws CertificateException
+	 * @throws KeyStoreException
+	 */
+	private KeyStore loadKeyStore(Path path, String keyStoreType, String keyStorePassword) throws IOException, NoSuchAlgorithmException, CertificateException, KeyStoreException {
+		KeyStore result = KeyStore.getInstance(keyStoreType);
+		try (InputStream keyStoreInputStream = ffr.openFile(path)) {
+			result.load(keyStoreInputStream, keyStorePassword.toCharArray());
+		}
+		return result;
+	}
+	
 	/**
 	 * Reads a private key from  keystore
 	 * 
@@ -115,6 +170,9 @@ public class FlinkKeyStoreManager {
 	 * @throws InvalidKeySpecException
 	 */
 	public String getPassword(String alias, String passwordPassword) throws NoSuchAlgorithmException, UnrecoverableEntryException, KeyStoreException, InvalidKeySpecException {
+		if (this.cacheEntry!=null) {
+			return this.cacheEntry.getPassword(alias, passwordPassword);
+		}
 		SecretKey sk =  (SecretKey) this.keystore.getKey(alias,passwordPassword.toCharArray());
 		return new String(sk.getEncoded());
 	}
@@ -131,6 +189,7 @@ public class FlinkKeyStoreManager {
 	 */
 	
 	public void setPassword(String alias, String password, String passwordPassword) throws NoSuchAlgorithmException, InvalidKeySpecException, KeyStoreException {
+		this.detachFromCache();
 		SecretKeyFactory skf = SecretKeyFactory.getInstance("PBE");
         SecretKey pSecret = skf.generateSecret(new PBEKeySpec(password.toCharArray()));
         KeyStore.PasswordProtection kspp = new KeyStore.PasswordProtection(passwordPassword.toCharArray());
@@ -149,11 +208,30 @@ public class FlinkKeyStoreManager {
 	 * @throws IOException
 	 */
 	public void store(Path path, String keyStorePassword) throws KeyStoreException, NoSuchAlgorithmException, CertificateException, IOException {
-		OutputStream os = FileSystem.get(path.toUri()).create(path, true);
+		FileSystem fs = FileSystem.get(path.toUri());
+		OutputStream os = fs.create(path, true);
 		this.keystore.store(os,keyStorePassword.toCharArray());
 		if (os!=null) {
 			os.close();
 		}
+		KeyStoreCache.invalidate(fs.getFileStatus(path).getPath().toString());
+	}
+	
+	/**
+	 * A cached keystore is shared and must not be modified. Hence, before modifying it a private copy is loaded
+	 * 
+	 * @throws KeyStoreException
+	 */
+	private void detachFromCache() throws KeyStoreException {
+		if (this.cacheEntry!=null) {
+			try {
+				this.keystore = this.loadKeyStore(this.keyStorePath, this.keyStoreType, this.keyStorePassword);
+			} catch (IOException | NoSuchAlgorithmException | CertificateException e) {
+				LOG.error("Cannot reload keystore for modification. Exception: ",e);
+				throw new KeyStoreException(e);
+			}
+			this.cacheEntry = null;
+		}
 	}
 	
 	/**
@@ -165,6 +243,9 @@ public class FlinkKeyStoreManager {
 	 */
 	
 	public Set<X509Certificate> getAllX509Certificates() throws KeyStoreException {
+		if (this.cacheEntry!=null) {
+			return new HashSet<>(this.cacheEntry.getAllX509Certificates());
+		}
 		HashSet<X509Certificate> result = new HashSet<>();
 		Enumeration<String> enumAlias = this.keystore.aliases();
 		while (enumAlias.hasMoreElements()) {
@@ -176,5 +257,21 @@ public class FlinkKeyStoreManager {
 		}
 		return result;
 	}
+	
+	/**
+	 * 
+	 * Calculates the fingerprint of all X509Certificates in the keystore, e.g. to verify several certificates with the same truststore (see {@link CertificateChainVerificationUtil#verifyCertificateChain(X509Certificate, Set, String)})
+	 * 
+	 * @return fingerprint of the X509 Certificates in the keystore
+	 * @throws KeyStoreException
+	 * @throws CertificateEncodingException
+	 * @throws NoSuchAlgorithmException
+	 */
+	public String getAllX509CertificatesFingerprint() throws KeyStoreException, CertificateEncodingException, NoSuchAlgorithmException {
+		if (this.cacheEntry!=null) {
+			return this.cacheEntry.getAllX509CertificatesFingerprint();
+		}
+		return CertificateChainVerificationUtil.getFingerprint(this.getAllX509Certificates());
+	}
 
 }
@@ -0,0 +1,81 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.flink.office.common;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
+import org.zuinnote.hadoop.office.format.common.OfficeMetrics;
+
+/**
+ * Reports the metrics of the OfficeReader or OfficeWriter (see {@link org.zuinnote.hadoop.office.format.common.OfficeMetrics}) as Flink metrics of the group "HadoopOffice". An input or output format processes several documents, so the metrics of all documents are accumulated: counters are incremented and peak values are reported as gauges of the maximum value
+ *
+ */
+public class FlinkOfficeMetrics {
+	private final MetricGroup metricGroup;
+	private final Map<String, Counter> counters;
+	private final Map<String, Long> peakValues;
+
+	/**
+	 *
+	 * @param parentGroup metric group of the operator, e.g. getRuntimeContext().getMetricGroup()
+	 */
+	public FlinkOfficeMetrics(MetricGroup parentGroup) {
+		this.metricGroup = parentGroup.addGroup(OfficeMetrics.GROUP);
+		this.counters = new HashMap<>();
+		this.peakValues = new HashMap<>();
+	}
+
+	/**
+	 * Adds the metrics of a document. Metrics are registered when they are reported for the first time
+	 *
+	 * @param metrics metrics of one document
+	 */
+	public void report(Map<String, Long> metrics) {
+		for (Map.Entry<String, Long> currentMetric : metrics.entrySet()) {
+			final String name = currentMetric.getKey();
+			if (OfficeMetrics.isPeak(name)) {
+				synchronized (this.peakValues) {
+					Long currentValue = this.peakValues.get(name);
+					if (currentValue == null) {
+						this.metricGroup.gauge(name, new Gauge<Long>() {
+							@Override
+							public Long getValue() {
+								synchronized (FlinkOfficeMetrics.this.peakValues) {
+									return FlinkOfficeMetrics.this.peakValues.get(name);
+								}
+							}
+						});
+						this.peakValues.put(name, currentMetric.getValue());
+					} else {
+						this.peakValues.put(name, Math.max(currentValue, currentMetric.getValue()));
+					}
+				}
+			} else {
+				Counter currentCounter = this.counters.get(name);
+				if (currentCounter == null) {
+					currentCounter = this.metricGroup.counter(name);
+					this.counters.put(name, currentCounter);
+				}
+				currentCounter.inc(currentMetric.getValue());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,80 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.flink.office.excel;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.flink.api.common.io.FileInputFormat;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.zuinnote.flink.office.AbstractSpreadSheetFlinkFileInputFormat;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.OfficeReader;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+
+/**
+ * Returns one record per Excel file containing only its metadata, i.e. the
+ * document properties, the sheet names and the used range of each sheet. The
+ * sheet data itself is never parsed. The first field of the record is the path
+ * of the file, the second field the metadata, see
+ * {@link org.zuinnote.hadoop.office.format.common.OfficeReader#readMetadata()}
+ *
+ */
+public class ExcelMetadataFlinkFileInputFormat extends FileInputFormat<Tuple2<String, Map<String, String>>> {
+	private static final long serialVersionUID = -4413720145573209441L;
+	private static final Log LOG = LogFactory.getLog(ExcelMetadataFlinkFileInputFormat.class.getName());
+	private HadoopOfficeReadConfiguration hocr;
+	private transient Tuple2<String, Map<String, String>> currentRecord;
+	private boolean reachedEnd;
+
+	public ExcelMetadataFlinkFileInputFormat(HadoopOfficeReadConfiguration hocr) {
+		this.hocr = hocr;
+		hocr.setMimeType(AbstractSpreadSheetFlinkFileInputFormat.MIMETYPE_EXCEL);
+		this.unsplittable = true;
+	}
+
+	@Override
+	public void open(FileInputSplit split) throws IOException {
+		super.open(split);
+		this.reachedEnd = false;
+		this.hocr.setFileName(split.getPath().getName());
+		try {
+			AbstractSpreadSheetFlinkFileInputFormat.readKeyStore(this.hocr);
+			this.currentRecord = new Tuple2<>(split.getPath().toString(), new OfficeReader(this.stream, this.hocr).readMetadata());
+		} catch (FormatNotUnderstoodException e) {
+			LOG.error("Could not read metadata of file " + this.hocr.getFileName(), e);
+			throw new IOException("Could not read metadata of file " + split.getPath(), e);
+		}
+	}
+
+	@Override
+	public boolean reachedEnd() throws IOException {
+		return this.reachedEnd;
+	}
+
+	@Override
+	public Tuple2<String, Map<String, String>> nextRecord(Tuple2<String, Map<String, String>> reuse) throws IOException {
+		if (this.reachedEnd) {
+			return null;
+		}
+		this.reachedEnd = true;
+		return this.currentRecord;
+	}
+
+}
@@ -24,6 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.File;
 import java.io.IOException;
 import java.util.Locale;
+import java.util.Map;
 
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.core.fs.FileInputSplit;
@@ -421,4 +422,24 @@ public class FlinkExcelFileInputFormatTest {
 			    nextRow = inputFormat.nextRecord(reuse);
 			    assertTrue(inputFormat.reachedEnd(),"End reached");
 	    }
+
+	    @Test
+	    public void readExcelMetadataExcel2013() throws IOException {
+			   ClassLoader classLoader = getClass().getClassLoader();
+			    String fileName="excel2013test.xlsx";
+			    String fileNameSpreadSheet=classLoader.getResource(fileName).getFile();	
+			    Path file = new Path(fileNameSpreadSheet); 
+			    FileInputSplit spreadSheetInputSplit = new FileInputSplit(0,file,0, -1, null);
+			    HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration();
+			    ExcelMetadataFlinkFileInputFormat inputFormat = new ExcelMetadataFlinkFileInputFormat(hocr);
+			    inputFormat.open(spreadSheetInputSplit);
+			    assertFalse(inputFormat.reachedEnd(),"End not reached");
+			    Tuple2<String,Map<String,String>> metadata = inputFormat.nextRecord(null);
+			    assertNotNull(metadata,"Metadata returned");
+			    assertTrue(metadata.f0.endsWith(fileName),"First field is the path of the file");
+			    assertEquals("user1 ",metadata.f1.get("creator"),"Creator is \"user1 \"");
+			    assertEquals("Sheet1",metadata.f1.get("sheets"),"Only one sheet \"Sheet1\"");
+			    assertNotNull(metadata.f1.get("sheet.Sheet1"),"Dimension of Sheet1 is available");
+			    assertTrue(inputFormat.reachedEnd(),"End reached");
+	    }
 }
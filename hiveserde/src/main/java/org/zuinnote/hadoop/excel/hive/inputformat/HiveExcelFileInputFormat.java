@@ -0,0 +1,42 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.excel.hive.inputformat;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.ArrayWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.mapred.ExcelFileInputFormat;
+
+/**
+ * Excel input format for Hive. It behaves like the ExcelFileInputFormat, but the record reader provides statistics (number of rows, raw data size) based on the dimensions of the sheets without parsing the document. This is used by Hive for ANALYZE TABLE ... COMPUTE STATISTICS NOSCAN
+ *
+ */
+public class HiveExcelFileInputFormat extends ExcelFileInputFormat {
+
+	@Override
+	public RecordReader<Text, ArrayWritable> getRecordReader(InputSplit split, JobConf job, Reporter reporter) throws IOException {
+		job.set(HadoopOfficeReadConfiguration.CONF_MIMETYPE, "ms-excel");
+		return new HiveExcelRecordReader((FileSplit) split, job, reporter);
+	}
+
+}
@@ -0,0 +1,159 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.hadoop.excel.hive.inputformat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.GeneralSecurityException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.hive.ql.io.StatsProvidingRecordReader;
+import org.apache.hadoop.hive.serde2.SerDeStats;
+import org.apache.hadoop.io.ArrayWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+import org.zuinnote.hadoop.office.format.common.HadoopFileReader;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.OfficeReader;
+import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.common.parser.FormatNotUnderstoodException;
+import org.zuinnote.hadoop.office.format.common.util.MSExcelDimensionUtil;
+import org.zuinnote.hadoop.office.format.mapred.ExcelRecordReader;
+
+/**
+ * Record reader for Hive that opens the document only when the first row is read. Statistics are determined from the dimensions of the sheets, so Hive can obtain them without parsing the full document.
+ *
+ */
+public class HiveExcelRecordReader implements RecordReader<Text, ArrayWritable>, StatsProvidingRecordReader {
+	private static final Log LOG = LogFactory.getLog(HiveExcelRecordReader.class.getName());
+	private FileSplit split;
+	private JobConf job;
+	private Reporter reporter;
+	private ExcelRecordReader reader;
+	private SerDeStats stats;
+
+	public HiveExcelRecordReader(FileSplit split, JobConf job, Reporter reporter) {
+		this.split = split;
+		this.job = job;
+		this.reporter = reporter;
+	}
+
+	/**
+	 * Returns the estimated number of rows of the document (based on the dimensions of the sheets) and the size of the file as raw data size
+	 *
+	 * @return statistics of the document
+	 * @throws UncheckedIOException in case the document cannot be read
+	 */
+	@Override
+	public SerDeStats getStats() {
+		if (this.stats == null) {
+			try {
+				this.stats = this.readStats();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return this.stats;
+	}
+
+	/**
+	 * Determines the statistics from the dimensions of the sheets
+	 *
+	 * @return statistics of the document
+	 * @throws IOException in case the document cannot be read
+	 */
+	private SerDeStats readStats() throws IOException {
+		HadoopOfficeReadConfiguration hocr = new HadoopOfficeReadConfiguration(this.job);
+		hocr.setFileName(this.split.getPath().getName());
+		HadoopFileReader hfr = new HadoopFileReader(this.job);
+		SerDeStats currentStats = new SerDeStats();
+		try (InputStream in = hfr.openFile(this.split.getPath())) {
+			OfficeReader officeReader = new OfficeReader(in, hocr);
+			currentStats.setRowCount(MSExcelDimensionUtil.getRowCount(officeReader.probe(), hocr));
+		} catch (FormatNotUnderstoodException e) {
+			LOG.error(e);
+			throw new IOException("Cannot determine statistics for file \"" + this.split.getPath() + "\"", e);
+		} finally {
+			hfr.close();
+		}
+		currentStats.setRawDataSize(this.split.getPath().getFileSystem(this.job).getFileStatus(this.split.getPath()).getLen());
+		return currentStats;
+	}
+
+	@Override
+	public boolean next(Text key, ArrayWritable value) throws IOException {
+		return this.getReader().next(key, value);
+	}
+
+	@Override
+	public Text createKey() {
+		return new Text("");
+	}
+
+	@Override
+	public ArrayWritable createValue() {
+		ArrayWritable newArrayWritable = new ArrayWritable(SpreadSheetCellDAO.class);
+		newArrayWritable.set(new SpreadSheetCellDAO[0]);
+		return newArrayWritable;
+	}
+
+	@Override
+	public long getPos() throws IOException {
+		if (this.reader == null) {
+			return this.split.getStart();
+		}
+		return this.reader.getPos();
+	}
+
+	@Override
+	public float getProgress() throws IOException {
+		if (this.reader == null) {
+			return 0.0f;
+		}
+		return this.reader.getProgress();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.reader != null) {
+			this.reader.close();
+		}
+	}
+
+	/**
+	 * Opens the document on first access
+	 *
+	 * @return ExcelRecordReader for the document
+	 * @throws IOException in case the document cannot be opened
+	 */
+	private ExcelRecordReader getReader() throws IOException {
+		if (this.reader == null) {
+			try {
+				this.reader = new ExcelRecordReader(this.split, this.job, this.reporter);
+			} catch (FormatNotUnderstoodException | GeneralSecurityException e) {
+				LOG.error(e);
+				throw new IOException("Cannot read file \"" + this.split.getPath() + "\"", e);
+			}
+		}
+		return this.reader;
+	}
+
+}
@@ -105,6 +105,11 @@ public class ExcelSerde extends AbstractSerDe {
 	private Object[] outputRow;
 	private int currentWriteRow;
 	private ExcelConverterSimpleSpreadSheetCellDAO converter;
+	private boolean lastOperationSerialize;
+	private long deserializedRows;
+	private long deserializedSize;
+	private long serializedRows;
+	private long serializedSize;
 
 	/**
 	 * Initializes the Serde
@@ -228,6 +233,12 @@ public class ExcelSerde extends AbstractSerDe {
 		this.currentWriteRow = 0;
 		// set outputrow
 		this.outputRow = new Object[this.columnNames.size()];
+		// reset statistics
+		this.lastOperationSerialize = false;
+		this.deserializedRows = 0;
+		this.deserializedSize = 0;
+		this.serializedRows = 0;
+		this.serializedSize = 0;
 		LOG.debug("Finished Initialization");
 	}
 
@@ -242,14 +253,21 @@ public class ExcelSerde extends AbstractSerDe {
 	}
 	
 	/**
-	 * Returns null because SerdeStata are not supported
+	 * Returns statistics of the last operation (serialize or deserialize). Following the convention of Hive, the raw data size is the size of the last row processed, i.e. the sum of the lengths of the formatted values of its cells. The row count is the number of rows processed by this SerDe so far in the same direction.
 	 * 
-	 * @return null
+	 * @return SerDeStats
 	 */
 	@Override
 	public SerDeStats getSerDeStats() {
-		// no statistics supported
-		return null;
+		SerDeStats stats = new SerDeStats();
+		if (this.lastOperationSerialize) {
+			stats.setRawDataSize(this.serializedSize);
+			stats.setRowCount(this.serializedRows);
+		} else {
+			stats.setRawDataSize(this.deserializedSize);
+			stats.setRowCount(this.deserializedRows);
+		}
+		return stats;
 	}
 	
 	/**
@@ -273,11 +291,15 @@ public class ExcelSerde extends AbstractSerDe {
 	 */
 	@Override
 	public Object deserialize(Writable arg0) throws SerDeException {
+		this.lastOperationSerialize = false;
+		this.deserializedRows++;
 		if ((arg0 == null) || (arg0 instanceof NullWritable)) {
+			this.deserializedSize = 0;
 			return this.nullRow;
 		}
-		Object[] primitiveRow = this.converter
-				.getDataAccordingToSchema((SpreadSheetCellDAO[]) ((ArrayWritable) arg0).get());
+		SpreadSheetCellDAO[] inputRow = (SpreadSheetCellDAO[]) ((ArrayWritable) arg0).get();
+		this.deserializedSize = ExcelSerde.getRawDataSize(inputRow);
+		Object[] primitiveRow = this.converter.getDataAccordingToSchema(inputRow);
 		// check if supported type and convert to hive type, if necessary
 		for (int i = 0; i < primitiveRow.length; i++) {
 			PrimitiveTypeInfo ti = (PrimitiveTypeInfo) this.columnTypes.get(i);
@@ -351,6 +373,7 @@ public class ExcelSerde extends AbstractSerDe {
  */
 	@Override
 	public Writable serialize(Object arg0, ObjectInspector arg1) throws SerDeException {
+		this.lastOperationSerialize = true;
 		SpreadSheetCellDAO[] resultHeader = new SpreadSheetCellDAO[0];
 		if (this.writeHeader) {
 			this.writeHeader = false;
@@ -366,9 +389,13 @@ public class ExcelSerde extends AbstractSerDe {
 				// write header
 				SpreadSheetCellDAOArrayWritable resultWritable = new SpreadSheetCellDAOArrayWritable();
 				resultWritable.set(resultHeader);
+				this.serializedRows++;
+				this.serializedSize = ExcelSerde.getRawDataSize(resultHeader);
 				return resultWritable;
 			} else { // write empty row
 				this.currentWriteRow++;
+				this.serializedRows++;
+				this.serializedSize = 0;
 				return null;
 			}
 		}
@@ -451,9 +478,27 @@ public class ExcelSerde extends AbstractSerDe {
 			result[resultHeader.length + i] = convertedRow[i];
 		}
 		this.currentWriteRow++;
+		this.serializedRows++;
+		this.serializedSize = ExcelSerde.getRawDataSize(result);
 		SpreadSheetCellDAOArrayWritable resultWritable = new SpreadSheetCellDAOArrayWritable();
 		resultWritable.set(result);
 		return resultWritable;
 	}
 
+	/**
+	 * Determines the raw data size of a row as the sum of the lengths of the formatted values of its cells
+	 * 
+	 * @param row row of cells
+	 * @return raw data size
+	 */
+	private static long getRawDataSize(SpreadSheetCellDAO[] row) {
+		long result = 0;
+		for (SpreadSheetCellDAO currentCell : row) {
+			if ((currentCell != null) && (currentCell.getFormattedValue() != null)) {
+				result += currentCell.getFormattedValue().length();
+			}
+		}
+		return result;
+	}
+
 }
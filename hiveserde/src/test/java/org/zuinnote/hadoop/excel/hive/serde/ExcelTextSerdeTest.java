@@ -1448,4 +1448,25 @@ public class ExcelTextSerdeTest {
 		assertEquals(colStr + (row), row6SSCD[column].getAddress(),
 				colStr + (row) + " address =\"" + colStr + (row) + "\" ");
 	}
+	@Test
+	public void serdeStatsDeserializeSerialize() throws SerDeException {
+		ExcelSerde testSerde = new ExcelSerde();
+		Configuration hadoopConf = new Configuration();
+		Properties tblProperties = new Properties();
+		tblProperties.setProperty(ExcelSerde.CONF_DEFAULTSHEETNAME, "Sheet1");
+		tblProperties.setProperty(serdeConstants.LIST_COLUMNS, "column1,column2");
+		tblProperties.setProperty(serdeConstants.LIST_COLUMN_TYPES, "string,string");
+		testSerde.initialize(hadoopConf, tblProperties);
+		assertEquals(0, testSerde.getSerDeStats().getRowCount(), "No rows processed");
+		SpreadSheetCellDAOArrayWritable usableObject = new SpreadSheetCellDAOArrayWritable();
+		usableObject.set(new SpreadSheetCellDAO[] { new SpreadSheetCellDAO("test", "", "", "A1", "Sheet1"),
+				new SpreadSheetCellDAO("test2", "", "", "B1", "Sheet1") });
+		testSerde.deserialize(usableObject);
+		testSerde.deserialize(usableObject);
+		assertEquals(2, testSerde.getSerDeStats().getRowCount(), "Two rows deserialized");
+		assertEquals(9, testSerde.getSerDeStats().getRawDataSize(), "Raw data size of last row deserialized");
+		testSerde.serialize(new Object[] { "a", "bc" }, testSerde.getObjectInspector());
+		assertEquals(1, testSerde.getSerDeStats().getRowCount(), "One row serialized");
+		assertEquals(3, testSerde.getSerDeStats().getRawDataSize(), "Raw data size of last row serialized");
+	}
 }
@@ -0,0 +1,254 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.spark.office.excel;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.ArrayWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.spark.sql.sources.Filter;
+import org.apache.spark.sql.sources.v2.reader.DataReader;
+import org.apache.spark.sql.types.DecimalType;
+import org.apache.spark.sql.types.StructField;
+import org.zuinnote.hadoop.office.format.common.OfficeReader;
+import org.zuinnote.hadoop.office.format.common.converter.ExcelConverterSimpleSpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.mapreduce.ExcelRecordReader;
+import org.zuinnote.hadoop.office.format.mapreduce.ExcelSheetFileInputFormat;
+
+/**
+ * Reads the rows of a partition (see {@link ExcelInputPartition}) with an OfficeReader and converts them according to the schema.
+ *
+ * Only the cells of the required columns and of the columns referenced by filters are converted. Furthermore, the cells referenced by the filters are converted first, so that the other cells of rows not matching the filters are not converted at all. Rows containing a number that does not fit into the type of its column are skipped.
+ *
+ * @param <T> type of the data returned to Spark (rows or columnar batches)
+ */
+public abstract class AbstractExcelDataReader<T> implements DataReader<T> {
+	private static final Log LOG = LogFactory.getLog(AbstractExcelDataReader.class.getName());
+
+	private final ExcelInputPartition partition;
+	private final ExcelRecordReader recordReader;
+	private final OfficeReader officeReader;
+	private final ExcelConverterSimpleSpreadSheetCellDAO converter;
+	private final int[] requiredColumns;
+	private final Filter[] filters;
+	private final Map<String, Integer> columns;
+	private final boolean[] filterColumns;
+	private final boolean[] otherColumns;
+	private final int[] readColumns;
+	private final Object[] values;
+	private long rows;
+	private long filteredRows;
+	private long invalidRows;
+	private boolean warnedDecimalPrecision = false;
+	private boolean finished = false;
+
+	/**
+	 * Opens the file of a partition
+	 *
+	 * @param partition partition to read
+	 * @throws IOException in case the file cannot be read
+	 */
+	protected AbstractExcelDataReader(ExcelInputPartition partition) throws IOException {
+		this.partition = partition;
+		Configuration conf = partition.getConfiguration();
+		FileSplit split = partition.getSplit();
+		TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+		RecordReader<Text, ArrayWritable> reader = new ExcelSheetFileInputFormat().createRecordReader(split, context);
+		if (reader == null) {
+			throw new IOException("Cannot create reader for " + partition);
+		}
+		this.recordReader = (ExcelRecordReader) reader;
+		try {
+			this.recordReader.initialize(split, context);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while opening " + partition, e);
+		}
+		this.officeReader = this.recordReader.getOfficeReader();
+		this.converter = ExcelDataSourceV2.createConverter(conf);
+		this.converter.setSchemaRow(SparkSchemaConverter.getSchemaRow(partition.getSchema()));
+		StructField[] fields = partition.getSchema().fields();
+		this.requiredColumns = partition.getRequiredColumns();
+		this.filters = partition.getFilters();
+		this.columns = new HashMap<>();
+		for (int i = 0; i < fields.length; i++) {
+			this.columns.put(fields[i].name(), i);
+		}
+		this.filterColumns = new boolean[fields.length];
+		for (Filter currentFilter : this.filters) {
+			for (String currentColumn : currentFilter.references()) {
+				this.filterColumns[this.columns.get(currentColumn)] = true;
+			}
+		}
+		this.otherColumns = new boolean[fields.length];
+		for (int currentColumn : this.requiredColumns) {
+			this.otherColumns[currentColumn] = !this.filterColumns[currentColumn];
+		}
+		int readColumnCount = 0;
+		for (int i = 0; i < fields.length; i++) {
+			if (this.filterColumns[i] || this.otherColumns[i]) {
+				readColumnCount++;
+			}
+		}
+		this.readColumns = new int[readColumnCount];
+		readColumnCount = 0;
+		for (int i = 0; i < fields.length; i++) {
+			if (this.filterColumns[i] || this.otherColumns[i]) {
+				this.readColumns[readColumnCount++] = i;
+			}
+		}
+		this.values = new Object[fields.length];
+	}
+
+	/**
+	 * Reads the next row matching the filters. Its values can be accessed by {@link #getValue(int)}
+	 *
+	 * @return true, if a row has been read, false if there are no more rows
+	 */
+	protected boolean nextRow() {
+		// Spark may ask for further rows after the last one has been read, but the parser must not be called again then
+		if (this.finished) {
+			return false;
+		}
+		if (!this.officeReader.getFiltered()) { // document does not match the metadata filter
+			this.finished = true;
+			return false;
+		}
+		SpreadSheetCellDAO[] currentRow = (SpreadSheetCellDAO[]) this.officeReader.getNext();
+		while (currentRow != null) {
+			if (this.convertRow(currentRow)) {
+				this.rows++;
+				return true;
+			}
+			currentRow = (SpreadSheetCellDAO[]) this.officeReader.getNext();
+		}
+		this.finished = true;
+		return false;
+	}
+
+	/**
+	 * Returns a value of the current row
+	 *
+	 * @param requiredColumn position of the column in the required schema
+	 * @return converted value (see ExcelConverterSimpleSpreadSheetCellDAO.getDataAccordingToSchema) or null
+	 */
+	protected Object getValue(int requiredColumn) {
+		return this.values[this.requiredColumns[requiredColumn]];
+	}
+
+	/**
+	 * Adapts a decimal to the scale of its column
+	 *
+	 * @param decimal value of a cell
+	 * @param type    type of the column
+	 * @return decimal with the scale of the type or null if it does not fit into the precision of the type
+	 */
+	protected BigDecimal toDecimal(BigDecimal decimal, DecimalType type) {
+		BigDecimal result = decimal.setScale(type.scale(), RoundingMode.HALF_UP);
+		if (result.precision() > type.precision()) {
+			if (!this.warnedDecimalPrecision) {
+				LOG.warn("Decimal " + decimal + " does not fit into " + type.simpleString() + ". Such decimals are returned as null.");
+				this.warnedDecimalPrecision = true;
+			}
+			return null;
+		}
+		return result;
+	}
+
+	protected ExcelInputPartition getPartition() {
+		return this.partition;
+	}
+
+	@Override
+	public void close() throws IOException {
+		LOG.info("Read " + this.partition + ": " + this.rows + " rows returned, " + this.filteredRows + " rows filtered, " + this.invalidRows + " invalid rows skipped");
+		this.recordReader.close();
+	}
+
+	/**
+	 * Converts the cells of the columns needed by the query and evaluates the filters
+	 *
+	 * @param row cells of the row
+	 * @return true, if the row matches all filters
+	 */
+	private boolean convertRow(SpreadSheetCellDAO[] row) {
+		for (int currentColumn : this.readColumns) {
+			this.values[currentColumn] = null;
+		}
+		try {
+			if (this.filters.length > 0) {
+				this.convertCells(row, this.filterColumns);
+				for (Filter currentFilter : this.filters) {
+					if (!Boolean.TRUE.equals(ExcelFilters.evaluate(currentFilter, this.values, this.columns))) {
+						this.filteredRows++;
+						return false;
+					}
+				}
+			}
+			this.convertCells(row, this.otherColumns);
+		} catch (ArithmeticException e) { // e.g. a number that does not fit into the type of the schema
+			LOG.warn("Skipping row of " + this.partition + ", because it does not match the schema: " + e.getMessage());
+			this.invalidRows++;
+			return false;
+		}
+		return true;
+	}
+
+	private void convertCells(SpreadSheetCellDAO[] row, boolean[] selectedColumns) {
+		for (SpreadSheetCellDAO currentCell : row) {
+			if (currentCell == null) {
+				continue;
+			}
+			int column = getColumn(currentCell.getAddress());
+			if ((column >= 0) && (column < selectedColumns.length) && (selectedColumns[column])) {
+				this.values[column] = this.converter.getValueAccordingToSchema(currentCell, column);
+			}
+		}
+	}
+
+	/**
+	 * Determines the column of a cell address (e.g. 2 for C7) without creating objects
+	 *
+	 * @param address address in A1 format
+	 * @return column starting with 0 or -1 if the address does not contain a column
+	 */
+	private static int getColumn(String address) {
+		int column = 0;
+		for (int i = 0; i < address.length(); i++) {
+			char currentChar = address.charAt(i);
+			if ((currentChar >= 'A') && (currentChar <= 'Z')) {
+				column = column * 26 + (currentChar - 'A' + 1);
+			} else if (currentChar != '$') {
+				break;
+			}
+		}
+		return column - 1;
+	}
+
+}
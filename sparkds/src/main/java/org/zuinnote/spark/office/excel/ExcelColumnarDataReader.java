@@ -0,0 +1,191 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.spark.office.excel;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.apache.spark.sql.execution.vectorized.OnHeapColumnVector;
+import org.apache.spark.sql.execution.vectorized.WritableColumnVector;
+import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.Decimal;
+import org.apache.spark.sql.types.DecimalType;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
+
+/**
+ * Returns the rows of a partition as columnar batches of the required columns. The same batch (and column vectors) is reused for all batches of a partition.
+ *
+ */
+public class ExcelColumnarDataReader extends AbstractExcelDataReader<ColumnarBatch> {
+	private static final long MILLIS_PER_DAY = 24L * 60L * 60L * 1000L;
+	private static final byte TYPE_STRING = 0;
+	private static final byte TYPE_BOOLEAN = 1;
+	private static final byte TYPE_BYTE = 2;
+	private static final byte TYPE_SHORT = 3;
+	private static final byte TYPE_INTEGER = 4;
+	private static final byte TYPE_LONG = 5;
+	private static final byte TYPE_FLOAT = 6;
+	private static final byte TYPE_DOUBLE = 7;
+	private static final byte TYPE_DECIMAL = 8;
+	private static final byte TYPE_DATE = 9;
+	private static final byte TYPE_TIMESTAMP = 10;
+
+	private final int batchSize;
+	private final WritableColumnVector[] vectors;
+	private final ColumnarBatch batch;
+	private final byte[] types;
+	private final DecimalType[] decimalTypes;
+	private final TimeZone timeZone;
+
+	/**
+	 *
+	 * @param partition partition to read
+	 * @param batchSize maximum number of rows of a batch
+	 * @throws IOException in case the file cannot be read
+	 */
+	public ExcelColumnarDataReader(ExcelInputPartition partition, int batchSize) throws IOException {
+		super(partition);
+		this.batchSize = batchSize;
+		StructType requiredSchema = partition.getRequiredSchema();
+		this.vectors = OnHeapColumnVector.allocateColumns(batchSize, requiredSchema);
+		this.batch = new ColumnarBatch(this.vectors);
+		StructField[] fields = requiredSchema.fields();
+		this.types = new byte[fields.length];
+		this.decimalTypes = new DecimalType[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			this.types[i] = getType(fields[i].dataType());
+			if (fields[i].dataType() instanceof DecimalType) {
+				this.decimalTypes[i] = (DecimalType) fields[i].dataType();
+			}
+		}
+		this.timeZone = TimeZone.getDefault();
+	}
+
+	/**
+	 * Reads the next batch of rows into the column vectors
+	 *
+	 * @return true, if the batch contains rows, false if the partition has been read completely
+	 */
+	@Override
+	public boolean next() throws IOException {
+		for (WritableColumnVector currentVector : this.vectors) {
+			currentVector.reset();
+		}
+		int rowCount = 0;
+		while ((rowCount < this.batchSize) && (this.nextRow())) {
+			for (int i = 0; i < this.vectors.length; i++) {
+				this.setValue(rowCount, i, this.getValue(i));
+			}
+			rowCount++;
+		}
+		this.batch.setNumRows(rowCount);
+		return rowCount > 0;
+	}
+
+	@Override
+	public ColumnarBatch get() {
+		return this.batch;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.batch.close();
+		super.close();
+	}
+
+	private void setValue(int rowId, int column, Object value) {
+		WritableColumnVector vector = this.vectors[column];
+		if (value == null) {
+			vector.putNull(rowId);
+			return;
+		}
+		switch (this.types[column]) {
+		case TYPE_BOOLEAN:
+			vector.putBoolean(rowId, (Boolean) value);
+			break;
+		case TYPE_BYTE:
+			vector.putByte(rowId, (Byte) value);
+			break;
+		case TYPE_SHORT:
+			vector.putShort(rowId, (Short) value);
+			break;
+		case TYPE_INTEGER:
+			vector.putInt(rowId, (Integer) value);
+			break;
+		case TYPE_LONG:
+			vector.putLong(rowId, (Long) value);
+			break;
+		case TYPE_FLOAT:
+			vector.putFloat(rowId, (Float) value);
+			break;
+		case TYPE_DOUBLE:
+			vector.putDouble(rowId, (Double) value);
+			break;
+		case TYPE_DECIMAL:
+			BigDecimal decimal = this.toDecimal((BigDecimal) value, this.decimalTypes[column]);
+			if (decimal == null) {
+				vector.putNull(rowId);
+			} else {
+				vector.putDecimal(rowId, Decimal.apply(decimal), this.decimalTypes[column].precision());
+			}
+			break;
+		case TYPE_DATE:
+			// dates are local dates (e.g. as parsed by the date format), the vector contains days since the epoch
+			long time = ((Date) value).getTime();
+			vector.putInt(rowId, (int) Math.floorDiv(time + this.timeZone.getOffset(time), MILLIS_PER_DAY));
+			break;
+		case TYPE_TIMESTAMP:
+			// microseconds since the epoch
+			vector.putLong(rowId, ((Date) value).getTime() * 1000L);
+			break;
+		default:
+			vector.putByteArray(rowId, value.toString().getBytes(StandardCharsets.UTF_8));
+			break;
+		}
+	}
+
+	private static byte getType(DataType dataType) {
+		if (DataTypes.BooleanType.equals(dataType)) {
+			return TYPE_BOOLEAN;
+		} else if (DataTypes.ByteType.equals(dataType)) {
+			return TYPE_BYTE;
+		} else if (DataTypes.ShortType.equals(dataType)) {
+			return TYPE_SHORT;
+		} else if (DataTypes.IntegerType.equals(dataType)) {
+			return TYPE_INTEGER;
+		} else if (DataTypes.LongType.equals(dataType)) {
+			return TYPE_LONG;
+		} else if (DataTypes.FloatType.equals(dataType)) {
+			return TYPE_FLOAT;
+		} else if (DataTypes.DoubleType.equals(dataType)) {
+			return TYPE_DOUBLE;
+		} else if (dataType instanceof DecimalType) {
+			return TYPE_DECIMAL;
+		} else if (DataTypes.DateType.equals(dataType)) {
+			return TYPE_DATE;
+		} else if (DataTypes.TimestampType.equals(dataType)) {
+			return TYPE_TIMESTAMP;
+		}
+		return TYPE_STRING;
+	}
+
+}
@@ -0,0 +1,53 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.spark.office.excel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.apache.spark.sql.sources.v2.reader.DataReader;
+import org.apache.spark.sql.sources.v2.reader.DataReaderFactory;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
+
+/**
+ * Creates the reader of a partition returning columnar batches (see {@link ExcelColumnarDataReader}) on an executor
+ *
+ */
+public class ExcelColumnarDataReaderFactory implements DataReaderFactory<ColumnarBatch> {
+	private static final long serialVersionUID = -6416113290497342911L;
+	private final ExcelInputPartition partition;
+	private final int batchSize;
+
+	public ExcelColumnarDataReaderFactory(ExcelInputPartition partition, int batchSize) {
+		this.partition = partition;
+		this.batchSize = batchSize;
+	}
+
+	@Override
+	public String[] preferredLocations() {
+		return this.partition.getHosts();
+	}
+
+	@Override
+	public DataReader<ColumnarBatch> createDataReader() {
+		try {
+			return new ExcelColumnarDataReader(this.partition, this.batchSize);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot read " + this.partition, e);
+		}
+	}
+
+}
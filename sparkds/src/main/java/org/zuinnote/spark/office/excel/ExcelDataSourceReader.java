@@ -0,0 +1,251 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.spark.office.excel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.ArrayWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.sources.Filter;
+import org.apache.spark.sql.sources.v2.reader.DataReaderFactory;
+import org.apache.spark.sql.sources.v2.reader.SupportsPushDownFilters;
+import org.apache.spark.sql.sources.v2.reader.SupportsPushDownRequiredColumns;
+import org.apache.spark.sql.sources.v2.reader.SupportsScanColumnarBatch;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
+import org.zuinnote.hadoop.office.format.common.converter.ExcelConverterSimpleSpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.common.dao.SpreadSheetCellDAO;
+import org.zuinnote.hadoop.office.format.mapreduce.ExcelFileInputFormat;
+import org.zuinnote.hadoop.office.format.mapreduce.ExcelRecordReader;
+import org.zuinnote.hadoop.office.format.mapreduce.ExcelSheetFileInputFormat;
+
+/**
+ * Plans the reading of Excel files for Spark (see {@link ExcelDataSourceV2}): determines the schema, the required columns, the filters evaluated while reading and the partitions (one per file or sheet)
+ *
+ */
+public class ExcelDataSourceReader implements SupportsScanColumnarBatch, SupportsPushDownRequiredColumns, SupportsPushDownFilters {
+	private static final Log LOG = LogFactory.getLog(ExcelDataSourceReader.class.getName());
+
+	private final String path;
+	private final Configuration conf;
+	private StructType schema;
+	private int[] requiredColumns;
+	private Filter[] pushedFilters = new Filter[0];
+
+	/**
+	 *
+	 * @param path   comma-separated paths of the Excel files (may contain wildcards)
+	 * @param conf   configuration of the reader
+	 * @param schema schema defined by the user or null, if it should be inferred
+	 */
+	public ExcelDataSourceReader(String path, Configuration conf, StructType schema) {
+		this.path = path;
+		this.conf = conf;
+		this.schema = schema;
+	}
+
+	/**
+	 *
+	 * @return schema of the required columns
+	 */
+	@Override
+	public StructType readSchema() {
+		StructType fullSchema = this.getSchema();
+		if (this.requiredColumns == null) {
+			return fullSchema;
+		}
+		StructField[] fields = new StructField[this.requiredColumns.length];
+		for (int i = 0; i < this.requiredColumns.length; i++) {
+			fields[i] = fullSchema.fields()[this.requiredColumns[i]];
+		}
+		return new StructType(fields);
+	}
+
+	@Override
+	public void pruneColumns(StructType requiredSchema) {
+		StructType fullSchema = this.getSchema();
+		String[] requiredNames = requiredSchema.fieldNames();
+		this.requiredColumns = new int[requiredNames.length];
+		for (int i = 0; i < requiredNames.length; i++) {
+			this.requiredColumns[i] = fullSchema.fieldIndex(requiredNames[i]);
+		}
+	}
+
+	/**
+	 * Pushes the filters, which can be evaluated while reading (see {@link ExcelFilters#isSupported(Filter, StructType)}). Evaluating them while reading only reduces the rows returned to Spark. Spark still evaluates all filters, so that differences in the evaluation (e.g. conversion of types) cannot lead to wrong results
+	 *
+	 * @param filters filters of the query
+	 * @return all filters, because they need to be evaluated by Spark as well
+	 */
+	@Override
+	public Filter[] pushFilters(Filter[] filters) {
+		StructType fullSchema = this.getSchema();
+		List<Filter> supported = new ArrayList<>();
+		for (Filter currentFilter : filters) {
+			if (ExcelFilters.isSupported(currentFilter, fullSchema)) {
+				supported.add(currentFilter);
+			}
+		}
+		this.pushedFilters = supported.toArray(new Filter[supported.size()]);
+		return filters;
+	}
+
+	@Override
+	public Filter[] pushedFilters() {
+		return this.pushedFilters;
+	}
+
+	@Override
+	public boolean enableBatchRead() {
+		return this.conf.getBoolean(ExcelDataSourceV2.CONF_COLUMNAR, ExcelDataSourceV2.DEFAULT_COLUMNAR);
+	}
+
+	@Override
+	public List<DataReaderFactory<ColumnarBatch>> createBatchDataReaderFactories() {
+		int batchSize = this.conf.getInt(ExcelDataSourceV2.CONF_BATCHSIZE, ExcelDataSourceV2.DEFAULT_BATCHSIZE);
+		List<DataReaderFactory<ColumnarBatch>> result = new ArrayList<>();
+		for (ExcelInputPartition currentPartition : this.planPartitions()) {
+			result.add(new ExcelColumnarDataReaderFactory(currentPartition, batchSize));
+		}
+		return result;
+	}
+
+	@Override
+	public List<DataReaderFactory<Row>> createDataReaderFactories() {
+		List<DataReaderFactory<Row>> result = new ArrayList<>();
+		for (ExcelInputPartition currentPartition : this.planPartitions()) {
+			result.add(new ExcelRowDataReaderFactory(currentPartition));
+		}
+		return result;
+	}
+
+	/**
+	 *
+	 * @return schema of all columns of the files
+	 */
+	private StructType getSchema() {
+		if (this.schema == null) {
+			try {
+				this.schema = this.inferSchema();
+			} catch (IOException e) {
+				throw new UncheckedIOException("Cannot infer schema of " + this.path, e);
+			}
+			LOG.info("Inferred schema of " + this.path + ": " + this.schema.simpleString());
+		}
+		return this.schema;
+	}
+
+	/**
+	 * Creates one partition per file or, if enabled (hadoopoffice.spark.sheetpartitions), per sheet of files with several sheets
+	 *
+	 * @return partitions
+	 */
+	private List<ExcelInputPartition> planPartitions() {
+		StructType fullSchema = this.getSchema();
+		int[] columns = this.requiredColumns;
+		if (columns == null) {
+			columns = new int[fullSchema.fields().length];
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = i;
+			}
+		}
+		ExcelFileInputFormat inputFormat;
+		if (this.conf.getBoolean(ExcelDataSourceV2.CONF_SHEETPARTITIONS, ExcelDataSourceV2.DEFAULT_SHEETPARTITIONS)) {
+			inputFormat = new ExcelSheetFileInputFormat();
+		} else {
+			inputFormat = new ExcelFileInputFormat();
+		}
+		SerializableConfiguration serializableConf = new SerializableConfiguration(this.conf);
+		List<ExcelInputPartition> result = new ArrayList<>();
+		try {
+			for (InputSplit currentSplit : inputFormat.getSplits(this.createJob())) {
+				result.add(new ExcelInputPartition(serializableConf, (FileSplit) currentSplit, currentSplit.getLocations(), fullSchema, columns, this.pushedFilters));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot determine the files of " + this.path, e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while determining the files of " + this.path, e);
+		}
+		LOG.info("Reading " + this.path + " with " + result.size() + " partitions");
+		return result;
+	}
+
+	/**
+	 * Infers the schema from the first rows of the first file
+	 *
+	 * @return inferred schema
+	 * @throws IOException in case the file cannot be read or does not contain rows
+	 */
+	private StructType inferSchema() throws IOException {
+		long maxRows = this.conf.getLong(ExcelDataSourceV2.CONF_INFERROWS, ExcelDataSourceV2.DEFAULT_INFERROWS);
+		Job job = this.createJob();
+		ExcelFileInputFormat inputFormat = new ExcelFileInputFormat(); // complete file including the header
+		List<InputSplit> splits = inputFormat.getSplits(job);
+		if (splits.isEmpty()) {
+			throw new IOException("No Excel files found in " + this.path);
+		}
+		ExcelConverterSimpleSpreadSheetCellDAO converter = ExcelDataSourceV2.createConverter(this.conf);
+		TaskAttemptContext context = new TaskAttemptContextImpl(job.getConfiguration(), new TaskAttemptID());
+		RecordReader<Text, ArrayWritable> reader = inputFormat.createRecordReader(splits.get(0), context);
+		if (reader == null) {
+			throw new IOException("Cannot read " + splits.get(0) + " to infer the schema");
+		}
+		String[] header;
+		try {
+			reader.initialize(splits.get(0), context);
+			ExcelRecordReader excelReader = (ExcelRecordReader) reader;
+			header = excelReader.getOfficeReader().getCurrentParser().getHeader();
+			long rows = 0;
+			while (((maxRows <= 0) || (rows < maxRows)) && (excelReader.nextKeyValue())) {
+				converter.updateSpreadSheetCellRowToInferSchemaInformation((SpreadSheetCellDAO[]) excelReader.getCurrentValue().get());
+				rows++;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while inferring the schema", e);
+		} finally {
+			reader.close();
+		}
+		if (converter.getSchemaRow().length == 0) {
+			throw new IOException("Cannot infer schema, because " + splits.get(0) + " does not contain any rows. Please define the schema");
+		}
+		return SparkSchemaConverter.getSchema(converter.getSchemaRow(), header);
+	}
+
+	private Job createJob() throws IOException {
+		Job job = Job.getInstance(this.conf);
+		FileInputFormat.setInputPaths(job, this.path);
+		return job;
+	}
+
+}
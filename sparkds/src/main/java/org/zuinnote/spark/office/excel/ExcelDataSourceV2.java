@@ -0,0 +1,149 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.spark.office.excel;
+
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.sources.DataSourceRegister;
+import org.apache.spark.sql.sources.v2.DataSourceOptions;
+import org.apache.spark.sql.sources.v2.DataSourceV2;
+import org.apache.spark.sql.sources.v2.ReadSupport;
+import org.apache.spark.sql.sources.v2.ReadSupportWithSchema;
+import org.apache.spark.sql.sources.v2.reader.DataSourceReader;
+import org.apache.spark.sql.types.StructType;
+import org.zuinnote.hadoop.office.format.common.HadoopOfficeReadConfiguration;
+import org.zuinnote.hadoop.office.format.common.converter.ExcelConverterSimpleSpreadSheetCellDAO;
+
+/**
+ * Spark data source (DataSource V2) reading Excel files as typed rows, e.g. spark.read().format("hadoopoffice-excel").option("read.locale.bcp47", "us").option("read.header.read", "true").load("/data/*.xlsx")
+ *
+ * The cells are converted by ExcelConverterSimpleSpreadSheetCellDAO according to a schema, which is either defined by the user (DataFrameReader.schema) or inferred from the first rows of the first file. The column names of an inferred schema are taken from the header, if it is read (hadoopoffice.read.header.read). Each file is read by one task or, if it has several (selected) sheets, each sheet is read by its own task. Only the columns selected by the query are converted and filters on the columns are evaluated while reading to reduce the rows returned to Spark (see {@link ExcelFilters}), Spark evaluates them again. By default, the rows are returned to Spark as columnar batches.
+ *
+ * All options are passed as Hadoop configuration to the reader, ie all options of HadoopOfficeReadConfiguration are supported. The prefix "hadoopoffice." of the options may be omitted. Additionally, the following options can be configured:
+ * <ul>
+ * <li>hadoopoffice.spark.dateformat: format of dates in BCP47 notation. Default: US</li>
+ * <li>hadoopoffice.spark.decimalformat: format of decimals in BCP47 notation. Default: empty, ie the locale of the system</li>
+ * <li>hadoopoffice.spark.infer.rows: number of rows of the first file to infer the schema. If it is not greater than 0 then all rows are used. Default: 1000</li>
+ * <li>hadoopoffice.spark.sheetpartitions: true, if each sheet of a file is read by its own task, false if each file is read by one task. Default: true</li>
+ * <li>hadoopoffice.spark.columnar: true, if the rows are returned as columnar batches, false if they are returned row by row. Default: true</li>
+ * <li>hadoopoffice.spark.batchsize: maximum number of rows of a columnar batch. Default: 4096</li>
+ * </ul>
+ * Note: Spark converts the names of options to lower case. Options of HadoopOffice are case-sensitive, but the options with capital letters (e.g. hadoopoffice.read.lowFootprint) are recognized nevertheless. Passwords of linked workbooks (hadoopoffice.read.security.crypt.linkedworkbooks.*) need to be defined in the Hadoop configuration, if their file names contain capital letters.
+ *
+ */
+public class ExcelDataSourceV2 implements DataSourceV2, ReadSupport, ReadSupportWithSchema, DataSourceRegister {
+	public static final String SHORT_NAME = "hadoopoffice-excel";
+	public static final String OPTION_PATH = "path";
+	public static final String OPTION_PREFIX = "hadoopoffice.";
+	public static final String CONF_DATEFORMAT = "hadoopoffice.spark.dateformat";
+	public static final String CONF_DECIMALFORMAT = "hadoopoffice.spark.decimalformat";
+	public static final String CONF_INFERROWS = "hadoopoffice.spark.infer.rows";
+	public static final String CONF_SHEETPARTITIONS = "hadoopoffice.spark.sheetpartitions";
+	public static final String CONF_COLUMNAR = "hadoopoffice.spark.columnar";
+	public static final String CONF_BATCHSIZE = "hadoopoffice.spark.batchsize";
+	public static final String DEFAULT_DATEFORMAT = "US";
+	public static final String DEFAULT_DECIMALFORMAT = "";
+	public static final long DEFAULT_INFERROWS = 1000L;
+	public static final boolean DEFAULT_SHEETPARTITIONS = true;
+	public static final boolean DEFAULT_COLUMNAR = true;
+	public static final int DEFAULT_BATCHSIZE = 4096;
+
+	private static final Map<String, String> CASESENSITIVE_OPTIONS = new HashMap<>();
+
+	static {
+		String[] options = new String[] { HadoopOfficeReadConfiguration.CONF_MIMETYPE, HadoopOfficeReadConfiguration.CONF_LOWFOOTPRINT,
+				HadoopOfficeReadConfiguration.CONF_LOWFOOTPRINT_DECRYPTSPILL, HadoopOfficeReadConfiguration.CONF_LOWFOOTPRINT_PARSERTHREADS };
+		for (String currentOption : options) {
+			CASESENSITIVE_OPTIONS.put(currentOption.toLowerCase(Locale.ROOT), currentOption);
+		}
+	}
+
+	@Override
+	public DataSourceReader createReader(DataSourceOptions options) {
+		return new ExcelDataSourceReader(getPath(options), createConfiguration(options), null);
+	}
+
+	@Override
+	public DataSourceReader createReader(StructType schema, DataSourceOptions options) {
+		return new ExcelDataSourceReader(getPath(options), createConfiguration(options), schema);
+	}
+
+	@Override
+	public String shortName() {
+		return SHORT_NAME;
+	}
+
+	/**
+	 * Creates a converter with the date and decimal formats of the configuration
+	 *
+	 * @param conf configuration
+	 * @return converter without schema
+	 */
+	public static ExcelConverterSimpleSpreadSheetCellDAO createConverter(Configuration conf) {
+		String dateFormatString = conf.get(ExcelDataSourceV2.CONF_DATEFORMAT, ExcelDataSourceV2.DEFAULT_DATEFORMAT);
+		Locale dateLocale = Locale.getDefault();
+		if (!"".equals(dateFormatString)) {
+			dateLocale = new Locale.Builder().setLanguageTag(dateFormatString).build();
+		}
+		String decimalFormatString = conf.get(ExcelDataSourceV2.CONF_DECIMALFORMAT, ExcelDataSourceV2.DEFAULT_DECIMALFORMAT);
+		Locale decimalLocale = Locale.getDefault();
+		if (!"".equals(decimalFormatString)) {
+			decimalLocale = new Locale.Builder().setLanguageTag(decimalFormatString).build();
+		}
+		return new ExcelConverterSimpleSpreadSheetCellDAO((SimpleDateFormat) DateFormat.getDateInstance(DateFormat.SHORT, dateLocale),
+				(DecimalFormat) NumberFormat.getInstance(decimalLocale));
+	}
+
+	/**
+	 * Creates the configuration of the reader from the Hadoop configuration of Spark and the options of the data source
+	 *
+	 * @param options options of the data source
+	 * @return configuration
+	 */
+	private static Configuration createConfiguration(DataSourceOptions options) {
+		Configuration conf = new Configuration(SparkSession.builder().getOrCreate().sparkContext().hadoopConfiguration());
+		for (Map.Entry<String, String> currentOption : options.asMap().entrySet()) {
+			String key = currentOption.getKey();
+			if (OPTION_PATH.equals(key)) {
+				continue;
+			}
+			if (!key.startsWith(OPTION_PREFIX)) {
+				key = OPTION_PREFIX + key;
+			}
+			if (CASESENSITIVE_OPTIONS.containsKey(key)) {
+				key = CASESENSITIVE_OPTIONS.get(key);
+			}
+			conf.set(key, currentOption.getValue());
+		}
+		return conf;
+	}
+
+	private static String getPath(DataSourceOptions options) {
+		if (!options.get(OPTION_PATH).isPresent()) {
+			throw new IllegalArgumentException("No path to Excel files defined");
+		}
+		return options.get(OPTION_PATH).get();
+	}
+
+}
@@ -0,0 +1,322 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.spark.office.excel;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Map;
+
+import org.apache.spark.sql.sources.And;
+import org.apache.spark.sql.sources.EqualNullSafe;
+import org.apache.spark.sql.sources.EqualTo;
+import org.apache.spark.sql.sources.Filter;
+import org.apache.spark.sql.sources.GreaterThan;
+import org.apache.spark.sql.sources.GreaterThanOrEqual;
+import org.apache.spark.sql.sources.In;
+import org.apache.spark.sql.sources.IsNotNull;
+import org.apache.spark.sql.sources.IsNull;
+import org.apache.spark.sql.sources.LessThan;
+import org.apache.spark.sql.sources.LessThanOrEqual;
+import org.apache.spark.sql.sources.Not;
+import org.apache.spark.sql.sources.Or;
+import org.apache.spark.sql.sources.StringContains;
+import org.apache.spark.sql.sources.StringEndsWith;
+import org.apache.spark.sql.sources.StringStartsWith;
+import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.DecimalType;
+import org.apache.spark.sql.types.NumericType;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+
+/**
+ * Evaluates filters pushed down by Spark on the values of a row converted by ExcelConverterSimpleSpreadSheetCellDAO (String, Boolean, Byte, Short, Integer, Long, Float, Double, BigDecimal, Date, Timestamp).
+ *
+ * Filters are evaluated with the three-valued logic of SQL, ie a comparison with an empty cell is unknown (null) and a row is only returned if all filters are true. Strings are compared by code points as Spark does (UTF-8 byte order). Numbers are only compared if the value of the filter has the same kind of type as the column (integral, decimal or floating point), so that no conversion between decimal and floating point numbers is needed.
+ * The evaluation only reduces the rows returned to Spark. Spark evaluates the filters again (see ExcelDataSourceReader#pushFilters).
+ *
+ */
+public class ExcelFilters {
+
+	private ExcelFilters() {
+	}
+
+	/**
+	 * Checks if a filter can be evaluated by {@link #evaluate(Filter, Object[], Map)}
+	 *
+	 * @param filter filter
+	 * @param schema schema of the rows
+	 * @return true, if the filter refers only to columns of the schema and compares them with values of a matching type
+	 */
+	public static boolean isSupported(Filter filter, StructType schema) {
+		if (filter instanceof And) {
+			return isSupported(((And) filter).left(), schema) && isSupported(((And) filter).right(), schema);
+		} else if (filter instanceof Or) {
+			return isSupported(((Or) filter).left(), schema) && isSupported(((Or) filter).right(), schema);
+		} else if (filter instanceof Not) {
+			return isSupported(((Not) filter).child(), schema);
+		} else if (filter instanceof IsNull) {
+			return getField(((IsNull) filter).attribute(), schema) != null;
+		} else if (filter instanceof IsNotNull) {
+			return getField(((IsNotNull) filter).attribute(), schema) != null;
+		} else if (filter instanceof EqualTo) {
+			return isComparable(((EqualTo) filter).attribute(), ((EqualTo) filter).value(), schema);
+		} else if (filter instanceof EqualNullSafe) {
+			return (((EqualNullSafe) filter).value() == null) || isComparable(((EqualNullSafe) filter).attribute(), ((EqualNullSafe) filter).value(), schema);
+		} else if (filter instanceof GreaterThan) {
+			return isComparable(((GreaterThan) filter).attribute(), ((GreaterThan) filter).value(), schema);
+		} else if (filter instanceof GreaterThanOrEqual) {
+			return isComparable(((GreaterThanOrEqual) filter).attribute(), ((GreaterThanOrEqual) filter).value(), schema);
+		} else if (filter instanceof LessThan) {
+			return isComparable(((LessThan) filter).attribute(), ((LessThan) filter).value(), schema);
+		} else if (filter instanceof LessThanOrEqual) {
+			return isComparable(((LessThanOrEqual) filter).attribute(), ((LessThanOrEqual) filter).value(), schema);
+		} else if (filter instanceof In) {
+			for (Object currentValue : ((In) filter).values()) {
+				if ((currentValue != null) && (!isComparable(((In) filter).attribute(), currentValue, schema))) {
+					return false;
+				}
+			}
+			return getField(((In) filter).attribute(), schema) != null;
+		} else if (filter instanceof StringStartsWith) {
+			return isStringColumn(((StringStartsWith) filter).attribute(), schema);
+		} else if (filter instanceof StringEndsWith) {
+			return isStringColumn(((StringEndsWith) filter).attribute(), schema);
+		} else if (filter instanceof StringContains) {
+			return isStringColumn(((StringContains) filter).attribute(), schema);
+		}
+		return false;
+	}
+
+	/**
+	 * Evaluates a supported filter (see {@link #isSupported(Filter, StructType)}) on a row
+	 *
+	 * @param filter  filter
+	 * @param row     converted values of the row. Only the values of the columns referenced by the filter need to be set
+	 * @param columns position of the columns in the row by name
+	 * @return true, if the row matches the filter, false, if it does not match and null, if it is unknown (e.g. because a compared cell is empty)
+	 */
+	public static Boolean evaluate(Filter filter, Object[] row, Map<String, Integer> columns) {
+		if (filter instanceof And) {
+			Boolean left = evaluate(((And) filter).left(), row, columns);
+			if (Boolean.FALSE.equals(left)) {
+				return Boolean.FALSE;
+			}
+			Boolean right = evaluate(((And) filter).right(), row, columns);
+			if (Boolean.FALSE.equals(right)) {
+				return Boolean.FALSE;
+			}
+			return ((left == null) || (right == null)) ? null : Boolean.TRUE;
+		} else if (filter instanceof Or) {
+			Boolean left = evaluate(((Or) filter).left(), row, columns);
+			if (Boolean.TRUE.equals(left)) {
+				return Boolean.TRUE;
+			}
+			Boolean right = evaluate(((Or) filter).right(), row, columns);
+			if (Boolean.TRUE.equals(right)) {
+				return Boolean.TRUE;
+			}
+			return ((left == null) || (right == null)) ? null : Boolean.FALSE;
+		} else if (filter instanceof Not) {
+			Boolean child = evaluate(((Not) filter).child(), row, columns);
+			return child == null ? null : !child;
+		} else if (filter instanceof IsNull) {
+			return getValue(((IsNull) filter).attribute(), row, columns) == null;
+		} else if (filter instanceof IsNotNull) {
+			return getValue(((IsNotNull) filter).attribute(), row, columns) != null;
+		} else if (filter instanceof EqualNullSafe) {
+			Object value = getValue(((EqualNullSafe) filter).attribute(), row, columns);
+			Object filterValue = ((EqualNullSafe) filter).value();
+			if ((value == null) || (filterValue == null)) {
+				return (value == null) && (filterValue == null);
+			}
+			return compare(value, filterValue) == 0;
+		} else if (filter instanceof In) {
+			Object value = getValue(((In) filter).attribute(), row, columns);
+			if (value == null) {
+				return null;
+			}
+			boolean unknown = false;
+			for (Object currentValue : ((In) filter).values()) {
+				if (currentValue == null) {
+					unknown = true;
+				} else if (compare(value, currentValue) == 0) {
+					return Boolean.TRUE;
+				}
+			}
+			return unknown ? null : Boolean.FALSE;
+		} else if (filter instanceof StringStartsWith) {
+			Object value = getValue(((StringStartsWith) filter).attribute(), row, columns);
+			return value == null ? null : ((String) value).startsWith(((StringStartsWith) filter).value());
+		} else if (filter instanceof StringEndsWith) {
+			Object value = getValue(((StringEndsWith) filter).attribute(), row, columns);
+			return value == null ? null : ((String) value).endsWith(((StringEndsWith) filter).value());
+		} else if (filter instanceof StringContains) {
+			Object value = getValue(((StringContains) filter).attribute(), row, columns);
+			return value == null ? null : ((String) value).contains(((StringContains) filter).value());
+		}
+		return evaluateComparison(filter, row, columns);
+	}
+
+	private static Boolean evaluateComparison(Filter filter, Object[] row, Map<String, Integer> columns) {
+		String attribute;
+		Object filterValue;
+		if (filter instanceof EqualTo) {
+			attribute = ((EqualTo) filter).attribute();
+			filterValue = ((EqualTo) filter).value();
+		} else if (filter instanceof GreaterThan) {
+			attribute = ((GreaterThan) filter).attribute();
+			filterValue = ((GreaterThan) filter).value();
+		} else if (filter instanceof GreaterThanOrEqual) {
+			attribute = ((GreaterThanOrEqual) filter).attribute();
+			filterValue = ((GreaterThanOrEqual) filter).value();
+		} else if (filter instanceof LessThan) {
+			attribute = ((LessThan) filter).attribute();
+			filterValue = ((LessThan) filter).value();
+		} else if (filter instanceof LessThanOrEqual) {
+			attribute = ((LessThanOrEqual) filter).attribute();
+			filterValue = ((LessThanOrEqual) filter).value();
+		} else {
+			throw new IllegalArgumentException("Filter is not supported: " + filter);
+		}
+		Object value = getValue(attribute, row, columns);
+		if ((value == null) || (filterValue == null)) {
+			return null;
+		}
+		int comparison = compare(value, filterValue);
+		if (filter instanceof EqualTo) {
+			return comparison == 0;
+		} else if (filter instanceof GreaterThan) {
+			return comparison > 0;
+		} else if (filter instanceof GreaterThanOrEqual) {
+			return comparison >= 0;
+		} else if (filter instanceof LessThan) {
+			return comparison < 0;
+		}
+		return comparison <= 0;
+	}
+
+	/**
+	 * Compares a converted value with the value of a filter
+	 *
+	 * @param value       value of a cell
+	 * @param filterValue value of the filter of a matching type
+	 * @return negative, zero or positive, if the value is less than, equal to or greater than the value of the filter
+	 */
+	private static int compare(Object value, Object filterValue) {
+		if ((value instanceof String) && (filterValue instanceof String)) {
+			return compareStrings((String) value, (String) filterValue);
+		} else if ((value instanceof Boolean) && (filterValue instanceof Boolean)) {
+			return Boolean.compare((Boolean) value, (Boolean) filterValue);
+		} else if ((value instanceof Date) && (filterValue instanceof Date)) {
+			// dates are local dates for both, the converter and Spark
+			return Long.compare(((Date) value).getTime(), ((Date) filterValue).getTime());
+		} else if ((value instanceof Number) && (filterValue instanceof Number)) {
+			return compareNumbers((Number) value, (Number) filterValue);
+		}
+		throw new IllegalArgumentException("Cannot compare " + value.getClass().getName() + " with " + filterValue.getClass().getName());
+	}
+
+	private static int compareNumbers(Number value, Number filterValue) {
+		if (isIntegral(value) && isIntegral(filterValue)) {
+			return Long.compare(value.longValue(), filterValue.longValue());
+		} else if (((value instanceof BigDecimal) || isIntegral(value)) && ((filterValue instanceof BigDecimal) || isIntegral(filterValue))) {
+			return toBigDecimal(value).compareTo(toBigDecimal(filterValue));
+		}
+		double doubleValue = value.doubleValue();
+		double doubleFilterValue = filterValue.doubleValue();
+		// 0.0 and -0.0 are equal in SQL, NaN is equal to NaN and greater than any other value
+		return doubleValue == doubleFilterValue ? 0 : Double.compare(doubleValue, doubleFilterValue);
+	}
+
+	/**
+	 * Compares strings by their code points, which is the same order as the one of their UTF-8 bytes used by Spark. String.compareTo differs for characters outside the basic multilingual plane
+	 *
+	 * @param value       value of a cell
+	 * @param filterValue value of the filter
+	 * @return negative, zero or positive, if the value is less than, equal to or greater than the value of the filter
+	 */
+	private static int compareStrings(String value, String filterValue) {
+		int i = 0;
+		int j = 0;
+		while ((i < value.length()) && (j < filterValue.length())) {
+			int codePoint = value.codePointAt(i);
+			int filterCodePoint = filterValue.codePointAt(j);
+			if (codePoint != filterCodePoint) {
+				return Integer.compare(codePoint, filterCodePoint);
+			}
+			i += Character.charCount(codePoint);
+			j += Character.charCount(filterCodePoint);
+		}
+		return Integer.compare(value.length() - i, filterValue.length() - j);
+	}
+
+	private static boolean isIntegral(Number number) {
+		return (number instanceof Byte) || (number instanceof Short) || (number instanceof Integer) || (number instanceof Long);
+	}
+
+	private static BigDecimal toBigDecimal(Number number) {
+		if (number instanceof BigDecimal) {
+			return (BigDecimal) number;
+		}
+		return BigDecimal.valueOf(number.longValue());
+	}
+
+	private static Object getValue(String attribute, Object[] row, Map<String, Integer> columns) {
+		Integer column = columns.get(attribute);
+		if ((column == null) || (column >= row.length)) {
+			return null;
+		}
+		return row[column];
+	}
+
+	private static StructField getField(String attribute, StructType schema) {
+		for (StructField currentField : schema.fields()) {
+			if (currentField.name().equals(attribute)) {
+				return currentField;
+			}
+		}
+		return null;
+	}
+
+	private static boolean isStringColumn(String attribute, StructType schema) {
+		StructField field = getField(attribute, schema);
+		return (field != null) && (DataTypes.StringType.equals(field.dataType()));
+	}
+
+	private static boolean isComparable(String attribute, Object value, StructType schema) {
+		StructField field = getField(attribute, schema);
+		if ((field == null) || (value == null)) {
+			return false;
+		}
+		DataType dataType = field.dataType();
+		if (DataTypes.StringType.equals(dataType)) {
+			return value instanceof String;
+		} else if (DataTypes.BooleanType.equals(dataType)) {
+			return value instanceof Boolean;
+		} else if (dataType instanceof DecimalType) {
+			return (value instanceof BigDecimal) || ((value instanceof Number) && isIntegral((Number) value));
+		} else if (DataTypes.FloatType.equals(dataType) || DataTypes.DoubleType.equals(dataType)) {
+			return (value instanceof Float) || (value instanceof Double);
+		} else if (dataType instanceof NumericType) {
+			return (value instanceof Number) && isIntegral((Number) value);
+		} else if (DataTypes.DateType.equals(dataType) || DataTypes.TimestampType.equals(dataType)) {
+			return value instanceof Date;
+		}
+		return false;
+	}
+
+}
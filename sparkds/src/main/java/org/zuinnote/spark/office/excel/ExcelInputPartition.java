@@ -0,0 +1,115 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.spark.office.excel;
+
+import java.io.Serializable;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.spark.sql.sources.Filter;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.zuinnote.hadoop.office.format.mapreduce.ExcelSheetFileSplit;
+
+/**
+ * Part of the input read by one Spark task: a complete Excel file or one of its sheets (see ExcelSheetFileInputFormat) together with everything needed to read it on an executor
+ *
+ */
+public class ExcelInputPartition implements Serializable {
+	private static final long serialVersionUID = -3106938432095213398L;
+	private final SerializableConfiguration conf;
+	private final String path;
+	private final long start;
+	private final long length;
+	private final String[] hosts;
+	private final String sheetName;
+	private final boolean firstSheet;
+	private final StructType schema;
+	private final int[] requiredColumns;
+	private final Filter[] filters;
+
+	/**
+	 *
+	 * @param conf            configuration of the reader including the options of the data source
+	 * @param split           split of the file (ExcelSheetFileSplit, if only one sheet is read)
+	 * @param hosts           hosts containing the file
+	 * @param schema          schema of all columns of the file
+	 * @param requiredColumns positions of the columns returned to Spark in the schema
+	 * @param filters         filters, which are evaluated by the reader (see {@link ExcelFilters})
+	 */
+	public ExcelInputPartition(SerializableConfiguration conf, FileSplit split, String[] hosts, StructType schema, int[] requiredColumns, Filter[] filters) {
+		this.conf = conf;
+		this.path = split.getPath().toString();
+		this.start = split.getStart();
+		this.length = split.getLength();
+		this.hosts = hosts;
+		this.sheetName = split instanceof ExcelSheetFileSplit ? ((ExcelSheetFileSplit) split).getSheetName() : null;
+		this.firstSheet = !(split instanceof ExcelSheetFileSplit) || ((ExcelSheetFileSplit) split).isFirstSheet();
+		this.schema = schema;
+		this.requiredColumns = requiredColumns;
+		this.filters = filters;
+	}
+
+	public Configuration getConfiguration() {
+		return this.conf.get();
+	}
+
+	/**
+	 *
+	 * @return split of the file, which can be read by ExcelSheetFileInputFormat
+	 */
+	public FileSplit getSplit() {
+		if (this.sheetName == null) {
+			return new FileSplit(new Path(this.path), this.start, this.length, this.hosts);
+		}
+		return new ExcelSheetFileSplit(new Path(this.path), this.start, this.length, this.hosts, this.sheetName, this.firstSheet);
+	}
+
+	public String[] getHosts() {
+		return this.hosts;
+	}
+
+	public StructType getSchema() {
+		return this.schema;
+	}
+
+	public int[] getRequiredColumns() {
+		return this.requiredColumns;
+	}
+
+	/**
+	 *
+	 * @return schema of the columns returned to Spark
+	 */
+	public StructType getRequiredSchema() {
+		StructField[] fields = new StructField[this.requiredColumns.length];
+		for (int i = 0; i < this.requiredColumns.length; i++) {
+			fields[i] = this.schema.fields()[this.requiredColumns[i]];
+		}
+		return new StructType(fields);
+	}
+
+	public Filter[] getFilters() {
+		return this.filters;
+	}
+
+	@Override
+	public String toString() {
+		return this.sheetName == null ? this.path : this.path + "!" + this.sheetName;
+	}
+
+}
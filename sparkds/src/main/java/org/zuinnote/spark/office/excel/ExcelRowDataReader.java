@@ -0,0 +1,64 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.spark.office.excel;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.DecimalType;
+import org.apache.spark.sql.types.StructField;
+
+/**
+ * Returns the rows of a partition as Spark rows of the required columns
+ *
+ */
+public class ExcelRowDataReader extends AbstractExcelDataReader<Row> {
+	private final DataType[] types;
+
+	public ExcelRowDataReader(ExcelInputPartition partition) throws IOException {
+		super(partition);
+		StructField[] fields = partition.getRequiredSchema().fields();
+		this.types = new DataType[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			this.types[i] = fields[i].dataType();
+		}
+	}
+
+	@Override
+	public boolean next() throws IOException {
+		return this.nextRow();
+	}
+
+	@Override
+	public Row get() {
+		Object[] row = new Object[this.types.length];
+		for (int i = 0; i < row.length; i++) {
+			Object value = this.getValue(i);
+			if (value instanceof BigDecimal) {
+				value = this.toDecimal((BigDecimal) value, (DecimalType) this.types[i]);
+			} else if ((value instanceof Date) && (!(value instanceof java.sql.Timestamp))) {
+				value = new java.sql.Date(((Date) value).getTime());
+			}
+			row[i] = value;
+		}
+		return RowFactory.create(row);
+	}
+
+}
@@ -0,0 +1,51 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.spark.office.excel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.sources.v2.reader.DataReader;
+import org.apache.spark.sql.sources.v2.reader.DataReaderFactory;
+
+/**
+ * Creates the reader of a partition returning rows (see {@link ExcelRowDataReader}) on an executor
+ *
+ */
+public class ExcelRowDataReaderFactory implements DataReaderFactory<Row> {
+	private static final long serialVersionUID = 4705377911932460231L;
+	private final ExcelInputPartition partition;
+
+	public ExcelRowDataReaderFactory(ExcelInputPartition partition) {
+		this.partition = partition;
+	}
+
+	@Override
+	public String[] preferredLocations() {
+		return this.partition.getHosts();
+	}
+
+	@Override
+	public DataReader<Row> createDataReader() {
+		try {
+			return new ExcelRowDataReader(this.partition);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot read " + this.partition, e);
+		}
+	}
+
+}
@@ -0,0 +1,156 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.spark.office.excel;
+
+import org.apache.poi.ss.util.CellReference;
+import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.DecimalType;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericBigDecimalDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericBooleanDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericByteDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDateDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericDoubleDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericFloatDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericIntegerDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericLongDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericShortDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericStringDataType;
+import org.zuinnote.hadoop.office.format.common.converter.datatypes.GenericTimestampDataType;
+
+/**
+ * Maps the simple datatypes of a spreadsheet (see {@link org.zuinnote.hadoop.office.format.common.converter.ExcelConverterSimpleSpreadSheetCellDAO}) to a Spark schema and vice versa. All fields are nullable, because any cell can be empty.
+ *
+ * <ul>
+ * <li>GenericStringDataType or no datatype: StringType</li>
+ * <li>GenericBooleanDataType: BooleanType</li>
+ * <li>GenericByteDataType, GenericShortDataType, GenericIntegerDataType, GenericLongDataType: ByteType, ShortType, IntegerType, LongType</li>
+ * <li>GenericFloatDataType, GenericDoubleDataType: FloatType, DoubleType</li>
+ * <li>GenericBigDecimalDataType: DecimalType with the precision (at most 38) and scale of the datatype</li>
+ * <li>GenericDateDataType: DateType</li>
+ * <li>GenericTimestampDataType: TimestampType</li>
+ * </ul>
+ *
+ */
+public class SparkSchemaConverter {
+
+	private SparkSchemaConverter() {
+	}
+
+	/**
+	 * Creates the Spark schema of a spreadsheet
+	 *
+	 * @param schemaRow datatypes of the columns, e.g. inferred by ExcelConverterSimpleSpreadSheetCellDAO
+	 * @param header    names of the columns (e.g. the header read by the parser) or null. Columns without a name are named after their column in Excel (A, B, ...)
+	 * @return schema with one nullable field per column
+	 */
+	public static StructType getSchema(GenericDataType[] schemaRow, String[] header) {
+		StructType schema = new StructType();
+		for (int i = 0; i < schemaRow.length; i++) {
+			String name = null;
+			if ((header != null) && (i < header.length)) {
+				name = header[i];
+			}
+			if ((name == null) || ("".equals(name))) {
+				name = CellReference.convertNumToColString(i);
+			}
+			schema = schema.add(name, getSparkType(schemaRow[i]), true);
+		}
+		return schema;
+	}
+
+	/**
+	 * Returns the Spark type of a simple datatype
+	 *
+	 * @param dataType datatype of a column. Null is treated as a string
+	 * @return Spark type
+	 */
+	public static DataType getSparkType(GenericDataType dataType) {
+		if (dataType instanceof GenericBooleanDataType) {
+			return DataTypes.BooleanType;
+		} else if (dataType instanceof GenericByteDataType) {
+			return DataTypes.ByteType;
+		} else if (dataType instanceof GenericShortDataType) {
+			return DataTypes.ShortType;
+		} else if (dataType instanceof GenericIntegerDataType) {
+			return DataTypes.IntegerType;
+		} else if (dataType instanceof GenericLongDataType) {
+			return DataTypes.LongType;
+		} else if (dataType instanceof GenericFloatDataType) {
+			return DataTypes.FloatType;
+		} else if (dataType instanceof GenericDoubleDataType) {
+			return DataTypes.DoubleType;
+		} else if (dataType instanceof GenericBigDecimalDataType) {
+			GenericBigDecimalDataType decimalType = (GenericBigDecimalDataType) dataType;
+			// the precision includes the digits of the scale, which is not always the case for inferred schemas
+			int precision = Math.min(Math.max(decimalType.getPrecision(), decimalType.getScale()), DecimalType.MAX_PRECISION());
+			return DataTypes.createDecimalType(precision, Math.min(decimalType.getScale(), precision));
+		} else if (dataType instanceof GenericDateDataType) {
+			return DataTypes.DateType;
+		} else if (dataType instanceof GenericTimestampDataType) {
+			return DataTypes.TimestampType;
+		}
+		return DataTypes.StringType;
+	}
+
+	/**
+	 * Returns the simple datatypes of a Spark schema, e.g. to convert the cells according to a schema defined by the user
+	 *
+	 * @param schema Spark schema with one field per column of the spreadsheet
+	 * @return datatypes of the columns
+	 * @throws IllegalArgumentException in case the schema contains a type that cannot be read from a spreadsheet (e.g. arrays)
+	 */
+	public static GenericDataType[] getSchemaRow(StructType schema) {
+		StructField[] fields = schema.fields();
+		GenericDataType[] schemaRow = new GenericDataType[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			schemaRow[i] = getGenericDataType(fields[i]);
+		}
+		return schemaRow;
+	}
+
+	private static GenericDataType getGenericDataType(StructField field) {
+		DataType dataType = field.dataType();
+		if (DataTypes.StringType.equals(dataType)) {
+			return new GenericStringDataType();
+		} else if (DataTypes.BooleanType.equals(dataType)) {
+			return new GenericBooleanDataType();
+		} else if (DataTypes.ByteType.equals(dataType)) {
+			return new GenericByteDataType();
+		} else if (DataTypes.ShortType.equals(dataType)) {
+			return new GenericShortDataType();
+		} else if (DataTypes.IntegerType.equals(dataType)) {
+			return new GenericIntegerDataType();
+		} else if (DataTypes.LongType.equals(dataType)) {
+			return new GenericLongDataType();
+		} else if (DataTypes.FloatType.equals(dataType)) {
+			return new GenericFloatDataType();
+		} else if (DataTypes.DoubleType.equals(dataType)) {
+			return new GenericDoubleDataType();
+		} else if (dataType instanceof DecimalType) {
+			return new GenericBigDecimalDataType(((DecimalType) dataType).precision(), ((DecimalType) dataType).scale());
+		} else if (DataTypes.DateType.equals(dataType)) {
+			return new GenericDateDataType();
+		} else if (DataTypes.TimestampType.equals(dataType)) {
+			return new GenericTimestampDataType();
+		}
+		throw new IllegalArgumentException("Type " + dataType.simpleString() + " of column \"" + field.name() + "\" is not supported for spreadsheets");
+	}
+
+}
@@ -0,0 +1,152 @@
+/**
+* Copyright 2018 ZuInnoTe (Jörn Franke) <zuinnote@gmail.com>
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+**/
+package org.zuinnote.spark.office.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.sources.Filter;
+import org.apache.spark.sql.sources.GreaterThan;
+import org.apache.spark.sql.sources.StringStartsWith;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class ExcelDataSourceV2Test {
+	private static SparkSession spark;
+
+	@BeforeAll
+	public static void oneTimeSetUp() {
+		spark = SparkSession.builder().master("local[2]").appName("hadoopoffice-sparkds-test").getOrCreate();
+	}
+
+	@AfterAll
+	public static void oneTimeTearDown() {
+		spark.stop();
+	}
+
+	@Test
+	public void readSimpleExcel2013InferSchema() {
+		Dataset<Row> df = readSimpleExcel2013(true);
+		StructType schema = df.schema();
+		assertEquals("decimalsc1", schema.fields()[0].name(), "First column is named after the header");
+		assertEquals(DataTypes.createDecimalType(2, 1), schema.fields()[0].dataType(), "First column is a decimal");
+		assertEquals(DataTypes.BooleanType, schema.fields()[1].dataType(), "Second column is a boolean");
+		assertEquals(DataTypes.DateType, schema.fields()[2].dataType(), "Third column is a date");
+		assertEquals(DataTypes.StringType, schema.fields()[3].dataType(), "Fourth column is a string");
+		assertEquals(DataTypes.createDecimalType(8, 3), schema.fields()[4].dataType(), "Fifth column is a decimal");
+		assertEquals(DataTypes.ByteType, schema.fields()[5].dataType(), "Sixth column is a byte");
+		assertEquals(DataTypes.ShortType, schema.fields()[6].dataType(), "Seventh column is a short");
+		assertEquals(DataTypes.IntegerType, schema.fields()[7].dataType(), "Eighth column is an integer");
+		assertEquals(DataTypes.LongType, schema.fields()[8].dataType(), "Ninth column is a long");
+		List<Row> rows = df.collectAsList();
+		assertEquals(6, rows.size(), "Six rows without header");
+		assertEquals(0, new BigDecimal("1.0").compareTo(rows.get(0).getDecimal(0)), "A2 = 1.0");
+		assertTrue(rows.get(0).getBoolean(1), "B2 = TRUE");
+		assertEquals(java.sql.Date.valueOf("2017-01-01"), rows.get(0).getDate(2), "C2 = 2017-01-01");
+		assertEquals("This is a text", rows.get(0).getString(3), "D2 = This is a text");
+		assertEquals(0, new BigDecimal("10.000").compareTo(rows.get(0).getDecimal(4)), "E2 = 10.000");
+		assertEquals((byte) 3, rows.get(0).getByte(5), "F2 = 3");
+		assertEquals((short) 3, rows.get(0).getShort(6), "G2 = 3");
+		assertEquals(100, rows.get(0).getInt(7), "H2 = 100");
+		assertEquals(65335L, rows.get(0).getLong(8), "I2 = 65335");
+		assertTrue(rows.get(4).isNullAt(0), "A6 = null");
+		assertEquals(3147483647L, rows.get(4).getLong(8), "I6 = 3147483647");
+	}
+
+	@Test
+	public void readSimpleExcel2013PrunedAndFiltered() {
+		for (boolean columnar : new boolean[] { true, false }) {
+			List<Row> rows = readSimpleExcel2013(columnar).filter("intcolumn > 200 AND stringcolumn LIKE 'test%'").select("stringcolumn", "longcolumn").collectAsList();
+			assertEquals(2, rows.size(), "Two rows match the filter (columnar: " + columnar + ")");
+			assertEquals(2, rows.get(0).size(), "Only the selected columns are returned");
+			assertEquals("test3", rows.get(0).getString(0), "D5 = test3");
+			assertEquals(10L, rows.get(0).getLong(1), "I5 = 10");
+			assertEquals("test5", rows.get(1).getString(0), "D7 = test5");
+			assertEquals(10L, rows.get(1).getLong(1), "I7 = 10");
+		}
+	}
+
+	@Test
+	public void readSimpleExcel2013FilterEmptyCells() {
+		List<Row> rows = readSimpleExcel2013(true).filter("NOT booleancolumn").select("stringcolumn").collectAsList();
+		assertEquals(3, rows.size(), "Rows with empty cells do not match the negated filter");
+		for (Row currentRow : rows) {
+			assertFalse("test4".equals(currentRow.getString(0)), "Row with empty boolean cell is filtered");
+		}
+	}
+
+	@Test
+	public void readExcel2003MultiSheetPartitionPerSheet() {
+		String fileName = getClass().getClassLoader().getResource("excel2003testmultisheet.xls").getFile();
+		Dataset<Row> df = spark.read().format(ExcelDataSourceV2.SHORT_NAME).option("read.locale.bcp47", "us").load(fileName);
+		assertEquals(2, df.rdd().getNumPartitions(), "One partition per sheet");
+		assertEquals(9L, df.count(), "Rows of both sheets are read");
+		Dataset<Row> oneFile = spark.read().format(ExcelDataSourceV2.SHORT_NAME).option("read.locale.bcp47", "us").option("spark.sheetpartitions", "false").load(fileName);
+		assertEquals(1, oneFile.rdd().getNumPartitions(), "One partition per file");
+		assertEquals(9L, oneFile.count(), "Rows of both sheets are read");
+	}
+
+	@Test
+	public void readExcel2003MultiSheetPartitionPerSheetHeader() {
+		String fileName = getClass().getClassLoader().getResource("excel2003testmultisheet.xls").getFile();
+		Dataset<Row> df = spark.read().format(ExcelDataSourceV2.SHORT_NAME).option("read.locale.bcp47", "us").option("read.header.read", "true").load(fileName);
+		Dataset<Row> oneFile = spark.read().format(ExcelDataSourceV2.SHORT_NAME).option("read.locale.bcp47", "us").option("read.header.read", "true").option("spark.sheetpartitions", "false").load(fileName);
+		assertEquals(8L, oneFile.count(), "Only the header of the first sheet is skipped");
+		assertEquals(oneFile.count(), df.count(), "Only the header of the first sheet is skipped, if each sheet is read by its own task");
+	}
+
+	@Test
+	public void pushFiltersAreEvaluatedBySpark() {
+		String fileName = getClass().getClassLoader().getResource("testsimple.xlsx").getFile();
+		StructType schema = new StructType().add("intcolumn", DataTypes.IntegerType).add("stringcolumn", DataTypes.StringType);
+		ExcelDataSourceReader reader = new ExcelDataSourceReader(fileName, new Configuration(), schema);
+		Filter[] filters = new Filter[] { new GreaterThan("intcolumn", 200), new StringStartsWith("stringcolumn", "test") };
+		assertEquals(filters.length, reader.pushFilters(filters).length, "Pushed filters are evaluated by Spark as well");
+		assertEquals(filters.length, reader.pushedFilters().length, "Filters are evaluated while reading");
+	}
+
+	@Test
+	public void readSimpleExcel2013UserSchema() {
+		String fileName = getClass().getClassLoader().getResource("testsimple.xlsx").getFile();
+		StructType schema = new StructType().add("amount", DataTypes.createDecimalType(10, 2)).add("flag", DataTypes.BooleanType);
+		List<Row> rows = spark.read().format(ExcelDataSourceV2.SHORT_NAME).schema(schema).option("read.locale.bcp47", "de").option("read.header.read", "true")
+				.option("spark.decimalformat", "de").load(fileName).collectAsList();
+		assertEquals(6, rows.size(), "Six rows without header");
+		assertEquals(2, rows.get(0).size(), "Only the columns of the schema are returned");
+		assertEquals(new BigDecimal("1.50"), rows.get(1).getDecimal(0), "A3 = 1.50");
+		assertFalse(rows.get(1).getBoolean(1), "B3 = FALSE");
+		assertNull(rows.get(4).get(1), "B6 = null");
+	}
+
+	private Dataset<Row> readSimpleExcel2013(boolean columnar) {
+		String fileName = getClass().getClassLoader().getResource("testsimple.xlsx").getFile();
+		return spark.read().format(ExcelDataSourceV2.SHORT_NAME).option("read.locale.bcp47", "de").option("read.header.read", "true").option("spark.decimalformat", "de")
+				.option("spark.columnar", String.valueOf(columnar)).load(fileName);
+	}
+
+}